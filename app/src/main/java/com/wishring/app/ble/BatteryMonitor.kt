@@ -0,0 +1,111 @@
+package com.wishring.app.ble
+
+import android.os.SystemClock
+import android.util.Log
+import com.wishring.app.ble.model.GattPriority
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withTimeoutOrNull
+
+/**
+ * 배터리 모니터
+ *
+ * 고정 주기 폴링 대신 링이 보내는 배터리 알림을 우선 사용하고,
+ * [BatteryPollSchedule]이 방전 속도에 맞춰 정한 시각에만 배터리를 요청한다.
+ * 알림을 받으면 다음 폴링 시각을 다시 계산하므로 새 값 직후에는 요청하지 않는다.
+ *
+ * 현재 값은 [level] 하나로 노출한다 (연결 전/세션 종료 후 null).
+ *
+ * @param request 배터리 요청 명령 전송 (GATT 큐 우선순위 지정)
+ */
+class BatteryMonitor(
+    private val scope: CoroutineScope,
+    private val request: suspend (GattPriority) -> Unit,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() }
+) {
+
+    private val lock = Any()
+
+    // lock으로 보호
+    private val schedule = BatteryPollSchedule()
+    private var pollJob: Job? = null
+
+    // 새 값 수신 시 폴링 루프를 깨워 다음 시각을 다시 계산
+    private val wakeUp = Channel<Unit>(Channel.CONFLATED)
+
+    private val _level = MutableStateFlow<Int?>(null)
+    val level: StateFlow<Int?> = _level.asStateFlow()
+
+    /**
+     * 세션 준비 완료 - 폴링 시작 (아직 값이 없으면 바로 한 번 요청)
+     */
+    fun start() {
+        synchronized(lock) {
+            if (pollJob?.isActive == true) return
+            pollJob = scope.launch {
+                while (isActive) pollOnce()
+            }
+        }
+        Log.i(WR_EVENT, "[BatteryMonitor] 배터리 모니터링 시작")
+    }
+
+    /**
+     * 세션 종료 - 폴링 중지, 기록과 현재 값 초기화
+     */
+    fun stop() {
+        synchronized(lock) {
+            pollJob?.cancel()
+            pollJob = null
+            schedule.reset()
+        }
+        _level.value = null
+    }
+
+    /**
+     * 배터리 프레임 수신 (요청 응답 또는 링이 먼저 보낸 알림)
+     */
+    fun onLevel(level: Int) {
+        synchronized(lock) { schedule.onLevel(clock(), level) }
+        _level.value = level
+        wakeUp.trySend(Unit)
+    }
+
+    /**
+     * 사용자 새로고침 - 방금 받은 값이 있으면 요청하지 않음
+     */
+    fun refresh() {
+        synchronized(lock) {
+            val now = clock()
+            if (schedule.isFresh(now)) {
+                Log.i(WR_EVENT, "[BatteryMonitor] 최근 값 사용 - 새로고침 생략")
+                return
+            }
+            schedule.onPoll(now)
+        }
+        scope.launch { request(GattPriority.HIGH) }
+    }
+
+    private suspend fun pollOnce() {
+        val delayMs = synchronized(lock) {
+            val now = clock()
+            schedule.nextPollAt(now) - now
+        }
+
+        // 기다리는 동안 새 값이 오면 다음 시각을 다시 계산
+        if (delayMs > 0 && withTimeoutOrNull(delayMs) { wakeUp.receive() } != null) return
+
+        synchronized(lock) { schedule.onPoll(clock()) }
+        // 첫 값은 초기화 직후 화면에 필요하므로 일반 우선순위
+        request(if (_level.value == null) GattPriority.NORMAL else GattPriority.LOW)
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+    }
+}
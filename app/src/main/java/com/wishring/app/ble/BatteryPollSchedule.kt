@@ -0,0 +1,118 @@
+package com.wishring.app.ble
+
+/**
+ * 배터리 폴링 일정 계산
+ *
+ * - 관측된 방전 속도(%/h)로 1%가 떨어질 것으로 예상되는 시간마다 폴링 ([minIntervalMs]~[maxIntervalMs])
+ * - 마지막 값(링이 보낸 알림 포함) 이후부터 간격을 재므로 새 값을 받은 직후에는 폴링하지 않음
+ * - 최근 1시간 동안 [maxPollsPerHour]회를 넘지 않음
+ *
+ * 시각은 단조 증가 시계(ms) 기준이며, 스레드 안전하지 않다 (호출자가 잠금).
+ */
+class BatteryPollSchedule(
+    private val minIntervalMs: Long = MIN_INTERVAL_MS,
+    private val maxIntervalMs: Long = MAX_INTERVAL_MS,
+    private val defaultIntervalMs: Long = DEFAULT_INTERVAL_MS,
+    private val maxPollsPerHour: Int = MAX_POLLS_PER_HOUR,
+    private val slopeWindowMs: Long = SLOPE_WINDOW_MS
+) {
+
+    private class Sample(val at: Long, val level: Int)
+
+    // 레벨이 바뀐 시점만 기록 (오래된 것부터)
+    private val samples = ArrayDeque<Sample>()
+    private var lastValueAt: Long? = null
+
+    // 최근 폴링 시각 (원형 버퍼, pollIndex 위치가 가장 오래된 값)
+    private val pollTimes = LongArray(maxPollsPerHour) { NEVER }
+    private var pollIndex = 0
+
+    fun reset() {
+        samples.clear()
+        lastValueAt = null
+        pollTimes.fill(NEVER)
+        pollIndex = 0
+    }
+
+    /**
+     * 배터리 값 수신 (폴링 응답 또는 링이 먼저 보낸 알림)
+     */
+    fun onLevel(now: Long, level: Int) {
+        lastValueAt = now
+        val last = samples.lastOrNull()
+        if (last != null && level > last.level) {
+            // 충전됨 - 이전 방전 기록은 의미 없음
+            samples.clear()
+        }
+        if (last == null || level != last.level || samples.isEmpty()) {
+            samples.addLast(Sample(now, level))
+        }
+        // 기울기 계산 기준점 하나는 남기고 오래된 기록 제거
+        while (samples.size > 1 && now - samples[1].at > slopeWindowMs) samples.removeFirst()
+        while (samples.size > MAX_SAMPLES) samples.removeFirst()
+    }
+
+    fun onPoll(now: Long) {
+        pollTimes[pollIndex] = now
+        pollIndex = (pollIndex + 1) % maxPollsPerHour
+    }
+
+    /**
+     * 관측된 방전 속도 (%/h)
+     * @return 기록이 부족하면 null, 변화가 없거나 충전 중이면 0 이하
+     */
+    fun dischargePerHour(): Double? {
+        val first = samples.firstOrNull() ?: return null
+        val latestAt = lastValueAt ?: return null
+        val elapsed = latestAt - first.at
+        if (elapsed < MIN_SLOPE_SPAN_MS) return null
+        return (first.level - samples.last().level) * HOUR_MS.toDouble() / elapsed
+    }
+
+    /**
+     * 다음 폴링 간격 (방전 속도 기준)
+     */
+    fun interval(): Long {
+        val slope = dischargePerHour() ?: return defaultIntervalMs
+        if (slope <= 0.0) return maxIntervalMs
+        return (HOUR_MS / slope).toLong().coerceIn(minIntervalMs, maxIntervalMs)
+    }
+
+    /**
+     * 다음 폴링 시각
+     * 마지막 값/폴링 이후 [interval]만큼 지난 뒤, 시간당 상한을 넘지 않는 가장 이른 시각
+     */
+    fun nextPollAt(now: Long): Long {
+        val lastPollAt = pollTimes[(pollIndex + maxPollsPerHour - 1) % maxPollsPerHour]
+        val lastActivity = maxOf(lastValueAt ?: NEVER, lastPollAt)
+        val dueAt = if (lastActivity == NEVER) now else lastActivity + interval()
+
+        val oldestPoll = pollTimes[pollIndex]
+        val capAt = if (oldestPoll == NEVER) NEVER else oldestPoll + HOUR_MS
+
+        return maxOf(dueAt, capAt)
+    }
+
+    /**
+     * 사용자 새로고침 - 방금 받은 값이 있으면 다시 요청하지 않음
+     */
+    fun isFresh(now: Long): Boolean {
+        val at = lastValueAt ?: return false
+        return now - at < FRESH_MS
+    }
+
+    companion object {
+        const val HOUR_MS = 3_600_000L
+        const val MIN_INTERVAL_MS = 5 * 60_000L
+        const val MAX_INTERVAL_MS = 60 * 60_000L
+        const val DEFAULT_INTERVAL_MS = 15 * 60_000L
+        const val MAX_POLLS_PER_HOUR = 4
+        const val SLOPE_WINDOW_MS = 6 * HOUR_MS
+        const val FRESH_MS = 30_000L
+
+        // 몇 분 사이의 1% 변화로 방전 속도를 과대 추정하지 않도록
+        private const val MIN_SLOPE_SPAN_MS = 10 * 60_000L
+        private const val MAX_SAMPLES = 32
+        private const val NEVER = Long.MIN_VALUE / 2
+    }
+}
@@ -0,0 +1,184 @@
+package com.wishring.app.ble
+
+import android.app.Notification
+import android.app.NotificationChannel
+import android.app.NotificationManager
+import android.app.PendingIntent
+import android.app.Service
+import android.content.Context
+import android.content.Intent
+import android.content.pm.ServiceInfo
+import android.os.Build
+import android.os.IBinder
+import android.util.Log
+import androidx.core.app.NotificationCompat
+import androidx.core.content.ContextCompat
+import com.wishring.app.MainActivity
+import com.wishring.app.R
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.repository.PreferencesRepository
+import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * WISH RING 연결 유지용 포그라운드 서비스
+ *
+ * GATT 세션 자체는 [BleSessionManager] 싱글톤이 소유하고, 이 서비스는 연결 중 프로세스가
+ * 종료되지 않도록 포그라운드 알림으로 고정하는 역할만 한다.
+ * Activity가 회전/종료되어도 알림 수신과 배터리 폴링이 계속된다.
+ *
+ * START_STICKY로 시스템이 프로세스를 재시작하면 intent 없이 호출되므로,
+ * 이때는 마지막으로 연결했던 기기 주소로 다시 연결하고 저장된 기기가 없으면 서비스를 종료한다.
+ */
+@AndroidEntryPoint
+class BleAutoConnectService : Service() {
+
+    @Inject
+    lateinit var sessionManager: BleSessionManager
+
+    @Inject
+    lateinit var preferencesRepository: PreferencesRepository
+
+    private val serviceScope = CoroutineScope(SupervisorJob() + Dispatchers.Main.immediate)
+
+    override fun onCreate() {
+        super.onCreate()
+        createNotificationChannel()
+        Log.i(WR_EVENT, "[BleAutoConnectService] 서비스 생성")
+    }
+
+    override fun onStartCommand(intent: Intent?, flags: Int, startId: Int): Int {
+        startInForeground()
+
+        if (intent == null) {
+            restoreLastConnection()
+            return START_STICKY
+        }
+
+        when (intent.action) {
+            ACTION_CONNECT -> {
+                val address = intent.getStringExtra(EXTRA_DEVICE_ADDRESS)
+                if (address != null) {
+                    Log.i(WR_EVENT, "[BleAutoConnectService] 연결 요청: $address")
+                    sessionManager.connect(address)
+                } else {
+                    Log.e(WR_EVENT, "[BleAutoConnectService] 기기 주소 없음 - 서비스 종료")
+                    stopSelf()
+                }
+            }
+
+            ACTION_DISCONNECT -> {
+                Log.i(WR_EVENT, "[BleAutoConnectService] 연결 해제 요청 - 서비스 종료")
+                sessionManager.disconnect()
+                stopForeground(STOP_FOREGROUND_REMOVE)
+                stopSelf()
+            }
+        }
+
+        return START_STICKY
+    }
+
+    override fun onBind(intent: Intent?): IBinder? = null
+
+    override fun onDestroy() {
+        Log.i(WR_EVENT, "[BleAutoConnectService] 서비스 종료")
+        serviceScope.cancel()
+        super.onDestroy()
+    }
+
+    /**
+     * 프로세스 재시작 후 마지막 연결 기기로 세션 복구
+     * 새 프로세스의 [BleSessionManager]는 기기 정보가 없으므로 저장된 주소로 다시 연결해야 한다
+     */
+    private fun restoreLastConnection() {
+        serviceScope.launch {
+            val lastDevice = preferencesRepository.getLastConnectedDevice()
+            if (lastDevice != null && preferencesRepository.isAutoConnectEnabled()) {
+                Log.i(WR_EVENT, "[BleAutoConnectService] 시스템 재시작 - 마지막 기기로 재연결: ${lastDevice.address}")
+                sessionManager.connect(lastDevice.address)
+            } else {
+                Log.i(WR_EVENT, "[BleAutoConnectService] 시스템 재시작 - 저장된 기기 없음, 서비스 종료")
+                stopForeground(STOP_FOREGROUND_REMOVE)
+                stopSelf()
+            }
+        }
+    }
+
+    private fun startInForeground() {
+        val notification = buildNotification()
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            startForeground(
+                BleConstants.FOREGROUND_SERVICE_ID,
+                notification,
+                ServiceInfo.FOREGROUND_SERVICE_TYPE_CONNECTED_DEVICE
+            )
+        } else {
+            startForeground(BleConstants.FOREGROUND_SERVICE_ID, notification)
+        }
+    }
+
+    private fun createNotificationChannel() {
+        val channel = NotificationChannel(
+            BleConstants.NOTIFICATION_CHANNEL_ID,
+            BleConstants.NOTIFICATION_CHANNEL_NAME,
+            NotificationManager.IMPORTANCE_LOW
+        ).apply {
+            setShowBadge(false)
+        }
+        getSystemService(NotificationManager::class.java).createNotificationChannel(channel)
+    }
+
+    private fun buildNotification(): Notification {
+        val contentIntent = PendingIntent.getActivity(
+            this,
+            0,
+            Intent(this, MainActivity::class.java).apply {
+                flags = Intent.FLAG_ACTIVITY_SINGLE_TOP
+            },
+            PendingIntent.FLAG_IMMUTABLE or PendingIntent.FLAG_UPDATE_CURRENT
+        )
+
+        return NotificationCompat.Builder(this, BleConstants.NOTIFICATION_CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_bluetooth)
+            .setContentTitle("WISH RING")
+            .setContentText("WISH RING과 연결 중입니다")
+            .setContentIntent(contentIntent)
+            .setOngoing(true)
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .build()
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        const val ACTION_CONNECT = "com.wishring.app.ble.action.CONNECT"
+        const val ACTION_DISCONNECT = "com.wishring.app.ble.action.DISCONNECT"
+        const val EXTRA_DEVICE_ADDRESS = "device_address"
+
+        /**
+         * 포그라운드 서비스를 시작하고 기기 연결 요청
+         */
+        fun connect(context: Context, address: String) {
+            val intent = Intent(context, BleAutoConnectService::class.java).apply {
+                action = ACTION_CONNECT
+                putExtra(EXTRA_DEVICE_ADDRESS, address)
+            }
+            ContextCompat.startForegroundService(context, intent)
+        }
+
+        /**
+         * 연결 해제 후 서비스 종료
+         */
+        fun disconnect(context: Context) {
+            val intent = Intent(context, BleAutoConnectService::class.java).apply {
+                action = ACTION_DISCONNECT
+            }
+            ContextCompat.startForegroundService(context, intent)
+        }
+    }
+}
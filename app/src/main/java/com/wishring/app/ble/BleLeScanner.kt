@@ -0,0 +1,205 @@
+package com.wishring.app.ble
+
+import android.annotation.SuppressLint
+import android.bluetooth.BluetoothAdapter
+import android.bluetooth.BluetoothManager
+import android.bluetooth.le.ScanCallback
+import android.bluetooth.le.ScanFilter
+import android.bluetooth.le.ScanResult
+import android.bluetooth.le.ScanSettings
+import android.content.Context
+import android.os.ParcelUuid
+import android.util.Log
+import android.util.LongSparseArray
+import com.wishring.app.data.ble.model.BleConstants
+import dagger.hilt.android.qualifiers.ApplicationContext
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * WISH RING LE 스캐너
+ *
+ * Classic discovery(inquiry) 대신 BluetoothLeScanner에 SERVICE_UUID ScanFilter를 걸어
+ * 컨트롤러(하드웨어 필터 지원 시)에서 WISH RING 광고만 걸러 받는다.
+ *
+ * - [Mode.FOREGROUND]: 기기 선택 화면용 저지연 스캔
+ * - [Mode.BACKGROUND]: 저전력 스캔, 컨트롤러가 지원하면 결과를 모아서(batch) 전달
+ *
+ * 반복 광고도 RSSI 평활화를 위해 모두 전달하고(집계는 [com.wishring.app.presentation.main.ScanResultAggregator]),
+ * 주소를 Long 키로 바꾼 [LongSparseArray]는 기기별 첫 발견 로그에만 사용한다.
+ * 콜백은 메인 스레드에서 호출된다.
+ */
+@Singleton
+@SuppressLint("MissingPermission")
+class BleLeScanner @Inject constructor(
+    @ApplicationContext context: Context
+) {
+
+    enum class Mode { FOREGROUND, BACKGROUND }
+
+    /**
+     * 스캔으로 발견한 기기
+     */
+    data class ScanHit(
+        val name: String,
+        val address: String,
+        val rssi: Int
+    )
+
+    private val bluetoothAdapter: BluetoothAdapter? =
+        (context.getSystemService(Context.BLUETOOTH_SERVICE) as BluetoothManager).adapter
+
+    // 이번 스캔에서 발견한 주소 키 → 첫 RSSI (메인 스레드에서만 접근)
+    private val seen = LongSparseArray<Int>()
+
+    private var listener: ((ScanHit) -> Unit)? = null
+    private var currentMode: Mode? = null
+
+    /**
+     * 스캔 중 여부
+     */
+    val isScanning: Boolean
+        get() = currentMode != null
+
+    private val scanCallback = object : ScanCallback() {
+        override fun onScanResult(callbackType: Int, result: ScanResult) {
+            handle(result)
+        }
+
+        override fun onBatchScanResults(results: MutableList<ScanResult>) {
+            results.forEach { handle(it) }
+        }
+
+        override fun onScanFailed(errorCode: Int) {
+            Log.e(WR_EVENT, "[BleLeScanner] ❌ 스캔 실패 (errorCode: $errorCode)")
+            currentMode = null
+        }
+    }
+
+    /**
+     * 스캔 시작 - 이전 발견 목록은 초기화
+     * @param mode 스캔 모드
+     * @param onDeviceFound 필터에 맞는 광고를 받을 때마다 호출
+     * @return 시작 성공 여부
+     */
+    fun start(mode: Mode, onDeviceFound: (ScanHit) -> Unit): Boolean {
+        stop()
+        seen.clear()
+        listener = onDeviceFound
+        return startScan(mode)
+    }
+
+    /**
+     * 발견 목록은 유지한 채 스캔 모드만 변경 (화면 전환 시)
+     */
+    fun setMode(mode: Mode) {
+        val current = currentMode ?: return
+        if (current == mode) return
+        stopScan()
+        startScan(mode)
+    }
+
+    /**
+     * 스캔 중지
+     */
+    fun stop() {
+        stopScan()
+        listener = null
+    }
+
+    private fun startScan(mode: Mode): Boolean {
+        val adapter = bluetoothAdapter
+        val scanner = adapter?.takeIf { it.isEnabled }?.bluetoothLeScanner
+        if (scanner == null) {
+            Log.e(WR_EVENT, "[BleLeScanner] 블루투스가 비활성화됨 - 스캔 불가")
+            return false
+        }
+
+        return try {
+            scanner.startScan(listOf(SERVICE_FILTER), settingsFor(mode, adapter), scanCallback)
+            currentMode = mode
+            Log.i(WR_EVENT, "[BleLeScanner] LE 스캔 시작 ($mode)")
+            true
+        } catch (e: SecurityException) {
+            Log.e(WR_EVENT, "[BleLeScanner] 스캔 권한 없음", e)
+            false
+        }
+    }
+
+    private fun stopScan() {
+        if (currentMode == null) return
+        currentMode = null
+        try {
+            bluetoothAdapter?.takeIf { it.isEnabled }?.bluetoothLeScanner?.stopScan(scanCallback)
+            Log.i(WR_EVENT, "[BleLeScanner] LE 스캔 중지 (발견 ${seen.size()}대)")
+        } catch (e: SecurityException) {
+            Log.e(WR_EVENT, "[BleLeScanner] 스캔 중지 권한 오류", e)
+        }
+    }
+
+    private fun settingsFor(mode: Mode, adapter: BluetoothAdapter): ScanSettings =
+        when (mode) {
+            Mode.FOREGROUND -> ScanSettings.Builder()
+                .setScanMode(ScanSettings.SCAN_MODE_LOW_LATENCY)
+                .setCallbackType(ScanSettings.CALLBACK_TYPE_ALL_MATCHES)
+                .setReportDelay(0)
+                .build()
+
+            Mode.BACKGROUND -> ScanSettings.Builder()
+                .setScanMode(ScanSettings.SCAN_MODE_LOW_POWER)
+                .setCallbackType(ScanSettings.CALLBACK_TYPE_ALL_MATCHES)
+                .setMatchMode(ScanSettings.MATCH_MODE_STICKY)
+                .setNumOfMatches(ScanSettings.MATCH_NUM_FEW_ADVERTISEMENT)
+                // 컨트롤러가 결과를 모아 주면 그동안 AP가 깨어나지 않는다
+                .setReportDelay(if (adapter.isOffloadedScanBatchingSupported) BACKGROUND_REPORT_DELAY_MS else 0)
+                .build()
+        }
+
+    private fun handle(result: ScanResult) {
+        val address = result.device.address
+        val name = result.scanRecord?.deviceName ?: result.device.name ?: "Unknown"
+
+        val key = addressKey(address)
+        if (seen.indexOfKey(key) < 0) {
+            seen.put(key, result.rssi)
+            Log.i(WR_EVENT, "[BleLeScanner] ✅ WISH RING 발견: $name ($address, ${result.rssi}dBm)")
+        }
+        listener?.invoke(ScanHit(name, address, result.rssi))
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        private const val BACKGROUND_REPORT_DELAY_MS = 5_000L
+
+        private val SERVICE_FILTER: ScanFilter by lazy {
+            ScanFilter.Builder()
+                .setServiceUuid(ParcelUuid(BleConstants.SERVICE_UUID))
+                .build()
+        }
+
+        /**
+         * MAC 주소(XX:XX:XX:XX:XX:XX)를 48비트 Long 키로 변환 - 문자열 해시/박싱 없이 비교
+         * 형식이 다르면 문자열 해시를 음수 영역에 매핑 (48비트 키와 겹치지 않음)
+         */
+        fun addressKey(address: String): Long {
+            if (address.length != MAC_LENGTH) return fallbackKey(address)
+            var key = 0L
+            for (i in 0 until MAC_LENGTH) {
+                val c = address[i]
+                if (i % 3 == 2) {
+                    if (c != ':') return fallbackKey(address)
+                    continue
+                }
+                val nibble = Character.digit(c, 16)
+                if (nibble < 0) return fallbackKey(address)
+                key = (key shl 4) or nibble.toLong()
+            }
+            return key
+        }
+
+        private fun fallbackKey(address: String): Long = address.hashCode().toLong() or Long.MIN_VALUE
+
+        private const val MAC_LENGTH = 17
+    }
+}
@@ -0,0 +1,891 @@
+package com.wishring.app.ble
+
+import android.annotation.SuppressLint
+import android.bluetooth.BluetoothAdapter
+import android.bluetooth.BluetoothDevice
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCallback
+import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothGattDescriptor
+import android.bluetooth.BluetoothManager
+import android.bluetooth.BluetoothProfile
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.util.Log
+import com.manridy.sdk_mrd2019.Manridy
+import com.manridy.sdk_mrd2019.bean.send.SystemEnum
+import com.wishring.app.ble.model.BleSessionEvent
+import com.wishring.app.ble.model.DecodePipelineMetrics
+import com.wishring.app.ble.model.EcgCaptureMetrics
+import com.wishring.app.ble.model.BleSessionState
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattPriority
+import com.wishring.app.ble.model.GattQueueMetrics
+import com.wishring.app.ble.model.HistorySyncMetrics
+import com.wishring.app.ble.model.LinkParameterMetrics
+import com.wishring.app.ble.model.ReconnectMetrics
+import com.wishring.app.ble.model.VitalAlert
+import com.wishring.app.ble.model.VitalSignsSnapshot
+import com.wishring.app.ble.model.VitalThresholds
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.ble.H13FrameDecoder
+import com.wishring.app.data.ble.MrdProtocolAdapter
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.ble.model.H13Frame
+import com.wishring.app.data.ingest.PressIngestionBuffer
+import com.wishring.app.data.ingest.ResetLogWriter
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.model.CounterAck
+import com.wishring.app.data.repository.BleConnectionState
+import com.wishring.app.data.repository.EcgRepository
+import com.wishring.app.data.repository.HealthHistoryRepository
+import com.wishring.app.data.repository.HealthTimeSeriesRepository
+import com.wishring.app.data.repository.PreferencesRepository
+import com.wishring.app.data.repository.WishRepository
+import com.wishring.app.di.DefaultDispatcher
+import com.wishring.app.di.IoDispatcher
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.text.SimpleDateFormat
+import java.util.Calendar
+import java.time.LocalTime
+import java.util.Locale
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * WISH RING GATT 세션 관리자
+ *
+ * 연결, 알림 수신, 배터리 모니터링, 시간 동기화 등 GATT 세션 전체를 소유한다.
+ * Activity가 아닌 앱 수명의 코루틴 스코프에서 동작하므로 화면 회전/백그라운드 전환 시에도
+ * 연결이 유지되며, [BleAutoConnectService]가 포그라운드 서비스로 프로세스를 유지한다.
+ *
+ * UI는 [state], [batteryLevel], [events] Flow로만 세션을 관찰한다.
+ *
+ * 연결할 때마다 링의 누적 카운터를 읽어 기기별로 마지막 확인한 값과 비교하고,
+ * 끊겨 있던 동안 눌린 횟수를 한 번만 반영한다 ([reconcileCounter]).
+ *
+ * 사용자가 해제하지 않은 끊김은 [ReconnectOrchestrator]가 백오프로 다시 연결하고,
+ * 블루투스가 꺼졌다 켜지면(ACTION_STATE_CHANGED) 즉시 재연결한다.
+ *
+ * 세션이 준비되면 [HistorySyncEngine]이 오프라인 동안 링에 쌓인 건강 기록을 이어받는다.
+ * ECG 측정은 [EcgCaptureSession]이 링 버퍼에 받으며 10초 단위로 저장한다.
+ * 연속 측정은 [VitalSignsMonitor]가 심박/혈중 산소/걸음수의 윈도우 통계와 임계값 알림을 맡는다.
+ */
+@Singleton
+@SuppressLint("MissingPermission")
+class BleSessionManager @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val preferencesRepository: PreferencesRepository,
+    private val pressBuffer: PressIngestionBuffer,
+    private val wishRepository: WishRepository,
+    private val resetLogWriter: ResetLogWriter,
+    private val protocolAdapter: MrdProtocolAdapter,
+    private val healthHistoryRepository: HealthHistoryRepository,
+    private val ecgRepository: EcgRepository,
+    private val healthTimeSeriesRepository: HealthTimeSeriesRepository,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    @DefaultDispatcher private val defaultDispatcher: CoroutineDispatcher
+) {
+
+    private val scope = CoroutineScope(SupervisorJob() + ioDispatcher)
+
+    private val bluetoothAdapter: BluetoothAdapter? =
+        (context.getSystemService(Context.BLUETOOTH_SERVICE) as BluetoothManager).adapter
+
+    // GATT 콜백(바인더 스레드), IO 코루틴, connect()/disconnect()에서 모두 읽고 쓴다
+    @Volatile
+    private var bluetoothGatt: BluetoothGatt? = null
+    @Volatile
+    private var h13Device: BluetoothDevice? = null
+    private var lastCounterValue: Int? = null // 누적 카운터 기준값 (연결마다 초기화, 보정 후 설정)
+    private var counterEpoch: Int? = null // 카운터 리셋 구간 (보정에 실패하면 null - 확인값 기록 안 함)
+
+    // 이번 연결에서 링 시계를 현재 시각으로 맞췄는지 - 맞추기 전 받은 기록은 시각을 믿을 수 없음
+    @Volatile
+    private var deviceTimeSynced = false
+    private val counterMutex = Mutex() // 카운터 보정과 카운터 프레임 처리 직렬화
+
+    private val gattLayout = GattLayoutCache()
+
+    private val gattQueue = GattOperationQueue(scope, gattLayout) { bluetoothGatt }
+
+    private val reconnect = ReconnectOrchestrator(scope) { autoConnect -> openGatt(autoConnect) }
+
+    private val linkParameters = LinkParameterManager(
+        scope = scope,
+        gattQueue = gattQueue,
+        gattProvider = { bluetoothGatt },
+        isLe2MPhySupported = { bluetoothAdapter?.isLe2MPhySupported == true }
+    )
+
+    private val decodePipeline = NotificationDecodePipeline(scope, defaultDispatcher)
+
+    private val batteryMonitor = BatteryMonitor(scope) { priority -> requestBatteryLevel(priority) }
+
+    private val historySync = HistorySyncEngine(
+        scope = scope,
+        gattQueue = gattQueue,
+        linkParameters = linkParameters,
+        decodePipeline = decodePipeline,
+        repository = healthHistoryRepository
+    )
+
+    private val ecgCapture = EcgCaptureSession(
+        scope = scope,
+        gattQueue = gattQueue,
+        linkParameters = linkParameters,
+        repository = ecgRepository
+    )
+
+    private val vitalSignsMonitor = VitalSignsMonitor(
+        scope = scope,
+        gattQueue = gattQueue,
+        repository = healthTimeSeriesRepository
+    )
+
+    private val _state = MutableStateFlow(BleSessionState())
+    val state: StateFlow<BleSessionState> = _state.asStateFlow()
+
+    private val _events = MutableSharedFlow<BleSessionEvent>(extraBufferCapacity = 64)
+    val events: SharedFlow<BleSessionEvent> = _events.asSharedFlow()
+
+    /**
+     * 링 배터리 레벨 (%) - 연결 전/세션 종료 후 null
+     */
+    val batteryLevel: StateFlow<Int?> = batteryMonitor.level
+
+    /**
+     * GATT 큐 지표 (작업별 지연 시간 등)
+     */
+    val gattMetrics: StateFlow<GattQueueMetrics> = gattQueue.metrics
+
+    /**
+     * 알림 디코딩 지표 (레인별 대기 수, 프레임당 디코딩 시간)
+     */
+    val decodeMetrics: StateFlow<DecodePipelineMetrics> = decodePipeline.metrics
+
+    /**
+     * 재연결 지표 (회차별 Ready까지 걸린 시간 등)
+     */
+    val reconnectMetrics: StateFlow<ReconnectMetrics> = reconnect.metrics
+
+    /**
+     * 링크 파라미터 지표 (협상된 MTU/PHY, 연결 우선순위 전환 시각)
+     */
+    val linkMetrics: StateFlow<LinkParameterMetrics> = linkParameters.metrics
+
+    /**
+     * 기록 동기화 지표 (받은/저장한 기록 수, records/s)
+     */
+    val historySyncMetrics: StateFlow<HistorySyncMetrics> = historySync.metrics
+
+    /**
+     * 실시간 ECG 샘플 (화면은 복사 없이 [EcgSampleRing.sampleAt]으로 읽음)
+     */
+    val ecgSamples: EcgSampleRing = ecgCapture.ring
+
+    /**
+     * ECG 캡처 지표 (받은 샘플/빠진 프레임/저장된 청크 수)
+     */
+    val ecgMetrics: StateFlow<EcgCaptureMetrics> = ecgCapture.metrics
+
+    /**
+     * 연속 측정 상태 (지표별 최근 5분 최소/최대/평균/백분위)
+     */
+    val vitalSigns: StateFlow<VitalSignsSnapshot> = vitalSignsMonitor.snapshot
+
+    /**
+     * 연속 측정 임계값 알림
+     */
+    val vitalAlerts: SharedFlow<VitalAlert> = vitalSignsMonitor.alerts
+
+    private val adapterStateReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context, intent: Intent) {
+            when (intent.getIntExtra(BluetoothAdapter.EXTRA_STATE, BluetoothAdapter.ERROR)) {
+                BluetoothAdapter.STATE_TURNING_OFF, BluetoothAdapter.STATE_OFF -> onAdapterOff()
+                BluetoothAdapter.STATE_ON -> {
+                    Log.i(WR_EVENT, "[BleSessionManager] 블루투스 켜짐")
+                    reconnect.onAdapterOn()
+                }
+            }
+        }
+    }
+
+    init {
+        decodePipeline.frames
+            .onEach { handleFrame(it) }
+            .launchIn(scope)
+
+        // 시스템 브로드캐스트만 받으므로 export 플래그 불필요
+        context.registerReceiver(adapterStateReceiver, IntentFilter(BluetoothAdapter.ACTION_STATE_CHANGED))
+    }
+
+    // ===== 연결 관리 =====
+
+    /**
+     * 주소로 기기 연결
+     * 같은 기기에 이미 연결 중이거나 연결되어 있으면 아무것도 하지 않는다
+     * (화면 재생성 등으로 중복 호출돼도 진행 중인 GATT를 닫고 다시 열지 않도록)
+     * @param address 블루투스 MAC 주소
+     */
+    fun connect(address: String) {
+        val current = _state.value
+        if (bluetoothGatt != null &&
+            current.deviceAddress.equals(address, ignoreCase = true) &&
+            (current.connectionState == BleConnectionState.CONNECTING ||
+                current.connectionState == BleConnectionState.CONNECTED)
+        ) {
+            Log.i(WR_EVENT, "[BleSessionManager] 이미 ${current.connectionState} 상태 - 연결 요청 무시: $address")
+            return
+        }
+        try {
+            val device = bluetoothAdapter?.getRemoteDevice(address)
+            if (device != null) {
+                Log.i(WR_EVENT, "[BleSessionManager] 기기 찾음: ${device.name ?: "Unknown"} ($address)")
+                h13Device = device
+                reconnect.begin(bonded = device.bondState == BluetoothDevice.BOND_BONDED)
+            } else {
+                Log.e(WR_EVENT, "[BleSessionManager] 기기를 찾을 수 없음: $address")
+            }
+        } catch (e: IllegalArgumentException) {
+            Log.e(WR_EVENT, "[BleSessionManager] 잘못된 블루투스 주소: $address", e)
+        }
+    }
+
+    /**
+     * 연결 해제 - 사용자가 명시적으로 요청한 경우에만 호출
+     */
+    fun disconnect() {
+        Log.i(WR_EVENT, "[BleSessionManager] 디바이스 연결 해제")
+        h13Device = null
+        reconnect.stop()
+        releaseSession()
+        bluetoothGatt?.disconnect()
+        bluetoothGatt?.close()
+        bluetoothGatt = null
+        _state.value = BleSessionState()
+    }
+
+    /**
+     * 링 기록 다시 받기 (연결 직후에도 자동 실행, 진행 중이면 무시)
+     */
+    fun syncHistory() {
+        val address = bluetoothGatt?.device?.address
+        if (address == null || !_state.value.isH13Device) {
+            Log.w(WR_EVENT, "[BleSessionManager] BLE 연결되지 않음 - 기록 동기화 불가")
+            return
+        }
+        if (!deviceTimeSynced) {
+            Log.w(WR_EVENT, "[BleSessionManager] 링 시간 미동기화 - 기록 동기화 보류")
+            return
+        }
+        historySync.start(address)
+    }
+
+    /**
+     * ECG 측정 시작 (이미 측정 중이면 false)
+     */
+    fun startEcgCapture(): Boolean {
+        val address = bluetoothGatt?.device?.address
+        if (address == null || !_state.value.isH13Device) {
+            Log.w(WR_EVENT, "[BleSessionManager] BLE 연결되지 않음 - ECG 측정 불가")
+            return false
+        }
+        return ecgCapture.start(address)
+    }
+
+    /**
+     * ECG 측정 종료 - 받은 샘플까지 저장
+     */
+    fun stopEcgCapture() {
+        ecgCapture.stop()
+    }
+
+    /**
+     * 연속 생체 신호 측정 시작 (이미 측정 중이면 false)
+     */
+    fun startVitalMonitoring(thresholds: VitalThresholds = VitalThresholds()): Boolean {
+        if (bluetoothGatt == null || !_state.value.isH13Device) {
+            Log.w(WR_EVENT, "[BleSessionManager] BLE 연결되지 않음 - 연속 측정 불가")
+            return false
+        }
+        return vitalSignsMonitor.start(thresholds)
+    }
+
+    /**
+     * 연속 생체 신호 측정 종료 - 모아둔 평균 저장
+     */
+    fun stopVitalMonitoring() {
+        vitalSignsMonitor.stop()
+    }
+
+    /**
+     * 사용자 요청 배터리 새로고침 (폴링보다 높은 우선순위, 방금 받은 값이 있으면 생략)
+     */
+    fun refreshBatteryLevel() {
+        if (bluetoothGatt != null) {
+            Log.i(WR_EVENT, "[BleSessionManager] 배터리 레벨 새로고침 요청")
+            batteryMonitor.refresh()
+        } else {
+            Log.w(WR_EVENT, "[BleSessionManager] BLE 연결되지 않음 - 배터리 요청 불가")
+        }
+    }
+
+    /**
+     * 세션 정리 - 대기 중인 GATT 작업/미처리 프레임 정리, 배치 기록 및 배터리 모니터링 중지
+     */
+    private fun releaseSession() {
+        gattQueue.clear()
+        gattLayout.release()
+        linkParameters.release()
+        historySync.stop()
+        ecgCapture.release()
+        vitalSignsMonitor.release()
+        decodePipeline.stop()
+        pressBuffer.flush(PressIngestionBuffer.FlushReason.DISCONNECT)
+        resetLogWriter.flush()
+        lastCounterValue = null
+        counterEpoch = null
+        deviceTimeSynced = false
+        batteryMonitor.stop()
+    }
+
+    /**
+     * 블루투스 꺼짐 - 스택이 연결 콜백 없이 GATT를 정리할 수 있으므로 직접 세션을 닫는다
+     */
+    private fun onAdapterOff() {
+        reconnect.onAdapterOff()
+        val gatt = bluetoothGatt ?: return
+        Log.i(WR_EVENT, "[BleSessionManager] 블루투스 꺼짐 - 세션 정리, 켜지면 재연결")
+        releaseSession()
+        gatt.close()
+        bluetoothGatt = null
+        _state.update {
+            it.copy(connectionState = BleConnectionState.DISCONNECTED, isH13Device = false)
+        }
+    }
+
+    /**
+     * connectGatt 호출 ([ReconnectOrchestrator]가 시점과 autoConnect 여부를 결정)
+     * @param autoConnect true면 스택이 링 광고를 기다렸다가 연결 (본딩된 링)
+     */
+    private fun openGatt(autoConnect: Boolean) {
+        val device = h13Device ?: return
+        Log.i(WR_EVENT, "[BleSessionManager] 기기 연결 시작: ${device.address} - ${device.name ?: "Unknown"}")
+
+        // 이전 연결 정리 - close()는 STATE_DISCONNECTED 콜백을 보내지 않으므로 세션 정리도 직접 한다
+        // (이전 기기의 카운터 기준값이 남으면 새 연결의 카운터 보정이 건너뛰어짐)
+        bluetoothGatt?.let {
+            Log.i(WR_EVENT, "[BleSessionManager] 이전 GATT 연결 정리")
+            releaseSession()
+            it.close()
+            bluetoothGatt = null
+        }
+        gattQueue.clear()
+
+        _state.update {
+            it.copy(
+                connectionState = BleConnectionState.CONNECTING,
+                isH13Device = false,
+                deviceAddress = device.address,
+                deviceName = device.name
+            )
+        }
+
+        try {
+            Log.i(WR_EVENT, "[BleSessionManager] connectGatt 호출 - autoConnect: $autoConnect")
+            bluetoothGatt = device.connectGatt(context, autoConnect, gattCallback, BluetoothDevice.TRANSPORT_LE)
+        } catch (e: SecurityException) {
+            Log.e(WR_EVENT, "[BleSessionManager] 블루투스 연결 권한 없음", e)
+            _state.value = BleSessionState(connectionState = BleConnectionState.ERROR)
+        }
+    }
+
+    private val gattCallback = object : BluetoothGattCallback() {
+        override fun onConnectionStateChange(gatt: BluetoothGatt?, status: Int, newState: Int) {
+            // status 코드 디버깅
+            Log.i(WR_EVENT, "[BleSessionManager] onConnectionStateChange - status: $status, newState: $newState")
+            when (status) {
+                BluetoothGatt.GATT_SUCCESS -> Log.i(WR_EVENT, "[BleSessionManager] GATT 작업 성공")
+                133 -> Log.e(WR_EVENT, "[BleSessionManager] ❌ GATT ERROR 133: 연결 실패 - 기기 재시작 또는 페어링 필요")
+                8 -> Log.e(WR_EVENT, "[BleSessionManager] ❌ GATT ERROR 8: 연결 시간 초과")
+                19 -> Log.e(WR_EVENT, "[BleSessionManager] ❌ GATT ERROR 19: 기기에서 연결 거부")
+                22 -> Log.e(WR_EVENT, "[BleSessionManager] ❌ GATT ERROR 22: 기기가 연결 종료")
+                else -> Log.e(WR_EVENT, "[BleSessionManager] ❌ GATT ERROR $status")
+            }
+
+            when (newState) {
+                BluetoothProfile.STATE_CONNECTED -> {
+                    Log.i(WR_EVENT, "[BleSessionManager] GATT 연결됨")
+                    decodePipeline.start()
+                    linkParameters.onConnected()
+
+                    gatt?.device?.let { device ->
+                        _state.update {
+                            it.copy(
+                                connectionState = BleConnectionState.CONNECTED,
+                                deviceAddress = device.address,
+                                deviceName = device.name ?: "Unknown"
+                            )
+                        }
+                        _events.tryEmit(
+                            BleSessionEvent.DeviceConnected(
+                                address = device.address,
+                                name = device.name ?: "Unknown"
+                            )
+                        )
+                    }
+                    gatt?.discoverServices()
+                }
+
+                BluetoothProfile.STATE_DISCONNECTED -> {
+                    Log.i(WR_EVENT, "[BleSessionManager] GATT 연결 끊김 (status: $status)")
+
+                    releaseSession()
+
+                    _state.update {
+                        it.copy(connectionState = BleConnectionState.DISCONNECTED, isH13Device = false)
+                    }
+                    _events.tryEmit(BleSessionEvent.DeviceDisconnected(status))
+
+                    gatt?.close()
+                    bluetoothGatt = null
+
+                    // 사용자가 해제하지 않았으면 (status 133 포함) 백오프 후 재연결
+                    if (h13Device != null) reconnect.onLinkLost(status)
+                }
+            }
+        }
+
+        override fun onMtuChanged(gatt: BluetoothGatt, mtu: Int, status: Int) {
+            gattQueue.onMtuChanged(status)
+            linkParameters.onMtuChanged(mtu, status)
+        }
+
+        override fun onPhyUpdate(gatt: BluetoothGatt, txPhy: Int, rxPhy: Int, status: Int) {
+            linkParameters.onPhyUpdate(txPhy, rxPhy, status)
+        }
+
+        override fun onServiceChanged(gatt: BluetoothGatt) {
+            Log.i(WR_EVENT, "[BleSessionManager] Service Changed - GATT 레이아웃 다시 발견")
+            gattLayout.invalidate(gatt.device.address)
+            gatt.discoverServices()
+        }
+
+        override fun onCharacteristicChanged(
+            gatt: BluetoothGatt,
+            characteristic: BluetoothGattCharacteristic
+        ) {
+            // 콜백 스레드에서는 큐에 넣기만 하고 디코딩은 파이프라인에서 처리
+            @Suppress("DEPRECATION")
+            decodePipeline.submit(characteristic.value)
+        }
+
+        override fun onCharacteristicWrite(
+            gatt: BluetoothGatt,
+            characteristic: BluetoothGattCharacteristic,
+            status: Int
+        ) {
+            super.onCharacteristicWrite(gatt, characteristic, status)
+            gattQueue.onCharacteristicWrite(characteristic.uuid, status)
+        }
+
+        @Deprecated("Deprecated in Java")
+        @Suppress("DEPRECATION")
+        override fun onCharacteristicRead(
+            gatt: BluetoothGatt,
+            characteristic: BluetoothGattCharacteristic,
+            status: Int
+        ) {
+            gattQueue.onCharacteristicRead(characteristic.uuid, status, characteristic.value)
+        }
+
+        override fun onCharacteristicRead(
+            gatt: BluetoothGatt,
+            characteristic: BluetoothGattCharacteristic,
+            value: ByteArray,
+            status: Int
+        ) {
+            gattQueue.onCharacteristicRead(characteristic.uuid, status, value)
+        }
+
+        override fun onDescriptorWrite(
+            gatt: BluetoothGatt,
+            descriptor: BluetoothGattDescriptor,
+            status: Int
+        ) {
+            super.onDescriptorWrite(gatt, descriptor, status)
+            gattQueue.onDescriptorWrite(descriptor.characteristic.uuid, descriptor.uuid, status)
+        }
+
+        override fun onServicesDiscovered(gatt: BluetoothGatt?, status: Int) {
+            if (status == BluetoothGatt.GATT_SUCCESS && gatt != null) {
+                Log.i(WR_EVENT, "[BleSessionManager] 서비스 발견 완료")
+
+                // H13 기기인지 확인 (Service UUID 존재 여부) 및 characteristic 캐시
+                val layout = gattLayout.bind(gatt, BleConstants.SERVICE_UUID)
+                if (layout != GattLayoutCache.BindResult.MISSING) {
+                    Log.i(WR_EVENT, "[BleSessionManager] GATT 레이아웃: $layout")
+                    Log.i(WR_EVENT, "[BleSessionManager] ✅ H13 기기 확인됨 - 배터리 관련 기능 시작")
+                    _state.update { it.copy(isH13Device = true) }
+
+                    // 각 단계는 GATT 큐에서 이전 작업의 콜백을 받은 뒤 바로 이어서 실행됨
+                    scope.launch {
+                        Log.i(WR_EVENT, "[BATTERY_DEBUG] ===== H13 서비스 발견 =====")
+                        // 초기화 동안은 짧은 연결 간격(HIGH)으로 왕복 시간을 줄인다
+                        linkParameters.beginBulkTransfer()
+                        try {
+                            if (!setupNotifications()) return@launch
+
+                            // 설정 읽기 단계: 끊겨 있던 동안의 카운터 보정
+                            // 읽기를 지원하지 않으면 첫 카운터 알림에서 같은 보정이 실행된다
+                            readDeviceCounter()?.let { counter ->
+                                counterMutex.withLock {
+                                    if (lastCounterValue == null) reconcileCounter(gatt.device.address, counter)
+                                }
+                            }
+
+                            // 알림 수신과 카운터 보정이 끝나면 입력을 놓치지 않는 상태 (Ready)
+                            reconnect.onReady()
+
+                            // MRD SDK 명령(시간 설정 등)은 MTU에 맞춰 분할되므로 전송 전에 협상
+                            linkParameters.negotiate()
+
+                            // 첫 배터리 요청은 모니터가 바로 보내고, 이후는 방전 속도에 맞춰 요청
+                            batteryMonitor.start()
+
+                            deviceTimeSynced = syncDeviceTime()
+                        } finally {
+                            linkParameters.endBulkTransfer()
+                        }
+
+                        // 오프라인 동안 링에 쌓인 기록 다운로드 (별도 작업, 입력 처리와 병행)
+                        // 링 시계가 틀리면 기록 시각도 틀리므로 시간 설정에 성공한 경우에만
+                        if (deviceTimeSynced) {
+                            historySync.start(gatt.device.address)
+                        } else {
+                            Log.w(WR_EVENT, "[TIME_SYNC] 시간 동기화 실패 - 기록 동기화 보류")
+                        }
+                        Log.i(WR_EVENT, "[BATTERY_DEBUG] ===== 초기화 완료 =====")
+                    }
+                } else {
+                    Log.i(WR_EVENT, "[BleSessionManager] ❌ H13 기기가 아님 - 배터리 기능 비활성화")
+                    _state.update { it.copy(isH13Device = false) }
+                }
+            }
+        }
+    }
+
+    // ===== 알림 수신 =====
+
+    /**
+     * 디코딩된 프레임 처리 (디코딩 파이프라인 소비 코루틴에서 호출)
+     */
+    private suspend fun handleFrame(frame: H13Frame) {
+        when (frame) {
+            is H13Frame.Battery -> {
+                Log.i(WR_EVENT, "[BATTERY_DEBUG] 파싱된 배터리 레벨: ${frame.level}%")
+                batteryMonitor.onLevel(frame.level)
+            }
+
+            is H13Frame.Key -> {
+                // 누른 횟수는 카운터 프레임 증가분으로만 집계 (버튼 프레임까지 세면 한 번이 두 번으로 기록됨)
+                // 버튼 프레임은 연결 우선순위를 올리는 힌트로만 사용 (한 번 누르면 카운터 프레임도 오므로 여기서만 호출)
+                if (frame.isWishPress) linkParameters.onPress()
+            }
+
+            is H13Frame.Counter -> counterMutex.withLock {
+                val address = bluetoothGatt?.device?.address
+                val last = lastCounterValue
+                if (last == null) {
+                    // 연결 후 읽기 전에 온 첫 값은 보정에 사용
+                    if (address != null) reconcileCounter(address, frame.count) else lastCounterValue = frame.count
+                    return@withLock
+                }
+                if (frame.count < last) {
+                    Log.w(WR_EVENT, "[BleSessionManager] 카운터 감소 ($last → ${frame.count}) - 리셋으로 처리")
+                    logReset(address, last, ResetLogEntity.SOURCE_INFERRED)
+                    startCounterEpoch(address)
+                }
+                val delta = protocolAdapter.processCounterIncrement(frame.count, lastCounterValue ?: 0)
+                lastCounterValue = frame.count
+                // 연결 우선순위 힌트는 버튼 프레임에서만 (같은 누름이 두 번 세어지지 않도록)
+                pressBuffer.record(delta, ackFor(address, frame.count))
+            }
+
+            H13Frame.Reset -> counterMutex.withLock {
+                Log.i(WR_EVENT, "[BleSessionManager] 🔄 리셋 이벤트 감지")
+                val address = bluetoothGatt?.device?.address
+                // 연결 직후 기준값을 잡기 전의 리셋은 직전 값을 알 수 없어 0으로 기록
+                logReset(address, lastCounterValue ?: 0, ResetLogEntity.SOURCE_DEVICE)
+                startCounterEpoch(address)
+            }
+
+            is H13Frame.Heart -> {
+                // 기록/기록 수 응답은 기록 동기화 몫
+                if (frame.kind == H13Frame.Heart.KIND_LATEST || frame.isRealTime) vitalSignsMonitor.onHeartRate(frame.bpm)
+            }
+
+            is H13Frame.Step -> vitalSignsMonitor.onSteps(frame.steps)
+
+            is H13Frame.EcgWave -> ecgCapture.onWave(frame)
+
+            is H13Frame.Sdk -> {
+                if (historySync.onSdkFrame(frame.type, frame.json)) return
+                if (ecgCapture.onSdkFrame(frame.type, frame.json)) return
+                if (vitalSignsMonitor.onSdkFrame(frame.type, frame.json)) return
+                Log.d(WR_EVENT, "[BleSessionManager] ❓ 기타 이벤트: ${frame.type} - ${frame.json}")
+            }
+
+            H13Frame.Unknown -> Unit
+        }
+    }
+
+    // ===== 카운터 보정 =====
+
+    /**
+     * 연결 직후 링 카운터와 기기별 확인값 비교 후 끊겨 있던 동안의 누른 횟수를 한 번만 반영
+     *
+     * 저장 중인 배치를 모두 반영한 뒤 보정 증가분과 새 확인값을 한 트랜잭션으로 기록하므로,
+     * status 133 재연결로 같은 값을 다시 읽어도 중복 반영되지 않는다.
+     * 따라잡은 횟수는 실제 누른 시각을 알 수 없어 현재 시간대에 기록된다.
+     *
+     * counterMutex를 잡은 상태에서 호출
+     */
+    private suspend fun reconcileCounter(address: String, counter: Int) {
+        val result = try {
+            pressBuffer.withDrained {
+                wishRepository.reconcileDeviceCounter(
+                    deviceAddress = address,
+                    deviceCounter = counter,
+                    date = DateUtils.getTodayString(),
+                    hour = LocalTime.now().hour
+                )
+            }
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[BleSessionManager] 카운터 보정 실패", e)
+            null
+        }
+
+        lastCounterValue = counter
+        counterEpoch = result?.epoch
+        if (result?.isNewEpoch == true) {
+            logReset(address, result.previousCounter ?: 0, ResetLogEntity.SOURCE_INFERRED)
+        }
+        when {
+            result == null -> Log.w(WR_EVENT, "[BleSessionManager] 카운터 보정 생략 - 현재 값($counter)을 기준값으로만 사용")
+            result.isNewEpoch -> Log.i(WR_EVENT, "[BleSessionManager] 오프라인 리셋 감지 - 새 구간 ${result.epoch}, ${result.catchUp}회 반영")
+            result.catchUp > 0 -> Log.i(WR_EVENT, "[BleSessionManager] 카운터 보정 - 끊겨 있던 동안 ${result.catchUp}회 반영 (카운터 $counter)")
+            else -> Log.i(WR_EVENT, "[BleSessionManager] 카운터 보정 - 반영할 입력 없음 (카운터 $counter)")
+        }
+    }
+
+    /**
+     * 리셋 알림 또는 카운터 감소 - 0부터 새 구간 시작
+     * counterMutex를 잡은 상태에서 호출
+     */
+    private suspend fun startCounterEpoch(address: String?) {
+        lastCounterValue = 0
+        val epoch = counterEpoch?.plus(1) ?: return
+        counterEpoch = epoch
+        if (address == null) return
+        try {
+            wishRepository.startDeviceCounterEpoch(address, epoch)
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[BleSessionManager] 카운터 구간 기록 실패", e)
+        }
+    }
+
+    /**
+     * 리셋 로그 추가 (배치로 기록됨)
+     * @param countBeforeReset 리셋 직전 카운터 값
+     */
+    private fun logReset(address: String?, countBeforeReset: Int, source: Int) {
+        if (address == null) return
+        resetLogWriter.record(ResetLogEntity.create(address, countBeforeReset, source))
+    }
+
+    private fun ackFor(address: String?, counter: Int): CounterAck? {
+        val epoch = counterEpoch ?: return null
+        return address?.let { CounterAck(it, epoch, counter) }
+    }
+
+    // ===== GATT 명령 =====
+
+    /**
+     * Counter characteristic 읽기
+     * @return 누적 카운터 값, 읽기를 지원하지 않거나 실패하면 null
+     */
+    private suspend fun readDeviceCounter(): Int? {
+        val result = gattQueue.enqueue(
+            GattOperation.ReadCharacteristic(
+                serviceUuid = BleConstants.SERVICE_UUID,
+                characteristicUuid = BleConstants.COUNTER_CHAR_UUID,
+                label = "Counter 읽기"
+            )
+        )
+        val value = result.value
+        if (!result.success || value == null) {
+            Log.w(WR_EVENT, "[BleSessionManager] 카운터 읽기 실패 (status: ${result.status}) - 첫 알림으로 보정")
+            return null
+        }
+        return (H13FrameDecoder.decode(value) as? H13Frame.Counter)?.count
+    }
+
+    /**
+     * Counter characteristic notification 활성화
+     * CCCD 쓰기 완료(onDescriptorWrite)까지 GATT 큐에서 대기
+     * @return 성공 여부
+     */
+    private suspend fun setupNotifications(): Boolean {
+        val result = gattQueue.enqueue(
+            GattOperation.EnableNotification(
+                serviceUuid = BleConstants.SERVICE_UUID,
+                characteristicUuid = BleConstants.COUNTER_CHAR_UUID,
+                label = "Counter Notification 설정"
+            )
+        )
+
+        if (result.success) {
+            Log.i(WR_EVENT, "[BATTERY_DEBUG] ✅ Notification 설정 성공 (${result.latencyMs}ms)")
+        } else {
+            Log.e(WR_EVENT, "[BATTERY_DEBUG] ❌ Notification 설정 실패: status=${result.status}")
+        }
+        return result.success
+    }
+
+    // 배터리 요청
+    private suspend fun requestBatteryLevel(priority: GattPriority) {
+        if (bluetoothGatt == null) {
+            Log.e(WR_EVENT, "[BATTERY_DEBUG] bluetoothGatt이 null임")
+            return
+        }
+
+        try {
+            // MRD SDK를 통한 배터리 요청 (매개변수 없음!)
+            val command = Manridy.getMrdSend().getSystem(SystemEnum.battery)?.datas
+            if (command == null) {
+                Log.e(WR_EVENT, "[BATTERY_DEBUG] MRD SDK 명령 생성 실패")
+                return
+            }
+
+            val result = gattQueue.enqueue(
+                GattOperation.WriteCharacteristic(
+                    serviceUuid = BleConstants.SERVICE_UUID,
+                    characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+                    value = command,
+                    label = "배터리 요청",
+                    priority = priority,
+                    maxAttempts = BleConstants.GATT_OPERATION_MAX_ATTEMPTS
+                )
+            )
+
+            if (result.success) {
+                Log.i(WR_EVENT, "[BATTERY_DEBUG] ✅ 배터리 명령 전송 성공 (${result.latencyMs}ms)")
+            } else {
+                Log.e(WR_EVENT, "[BATTERY_DEBUG] ❌ 배터리 명령 전송 실패: status=${result.status}")
+            }
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[BATTERY_DEBUG] 배터리 요청 예외 발생", e)
+        }
+    }
+
+    /**
+     * 링 시계를 휴대폰의 현재 시각으로 설정 (연결마다)
+     * 링은 배터리가 방전되면 시계가 초기화되고, 기록 시각은 링 시계를 그대로 쓰므로 하루 한 번으로는 부족하다
+     * @return 시간과 24시간 형식 설정이 모두 전송되었는지
+     */
+    private suspend fun syncDeviceTime(): Boolean {
+        return try {
+            Log.i(WR_EVENT, "[TIME_SYNC] ===== 시간 동기화 시작 =====")
+
+            val now = Calendar.getInstance()
+            val timeString = SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(now.time)
+
+            // 1. 디바이스에 시간 설정
+            val timeSuccess = sendCommand(Manridy.getMrdSend().setTime(now)?.datas, "시간 설정")
+
+            // 2. 24시간 형식 설정
+            val formatSuccess = sendCommand(Manridy.getMrdSend().setHourSelect(0)?.datas, "24시간 형식 설정")
+
+            // 3. 설정 검증
+            if (timeSuccess && formatSuccess) {
+                // getHourSelect() 응답 처리는 MRD SDK 콜백에서 확인
+                Manridy.getMrdSend().hourSelect
+                preferencesRepository.setLastTimeSyncDate(
+                    SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(now.time)
+                )
+                Log.i(WR_EVENT, "[TIME_SYNC] ✅ 시간 동기화 완료! 전송한 시간: $timeString")
+                true
+            } else {
+                Log.e(
+                    WR_EVENT,
+                    "[TIME_SYNC] ❌ 시간 동기화 실패 (시간: $timeSuccess, 형식: $formatSuccess)"
+                )
+                false
+            }
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[TIME_SYNC] 시간 동기화 오류", e)
+            false
+        }
+    }
+
+    /**
+     * MRD SDK 명령 전송 헬퍼
+     * 쓰기 완료 콜백까지 대기 - 다음 명령은 고정 딜레이 없이 바로 이어서 전송됨
+     * 시간/형식 같은 절대값 설정만 보내므로 타임아웃 시 재시도해도 안전
+     */
+    private suspend fun sendCommand(
+        command: ByteArray?,
+        operation: String,
+        priority: GattPriority = GattPriority.NORMAL
+    ): Boolean {
+        if (command == null || command.isEmpty()) {
+            Log.e(WR_EVENT, "[TIME_SYNC] ❌ $operation - 데이터가 비어있습니다")
+            return false
+        }
+        if (bluetoothGatt == null) {
+            Log.e(WR_EVENT, "[TIME_SYNC] ❌ BluetoothGatt가 null입니다")
+            return false
+        }
+
+        val result = gattQueue.enqueue(
+            GattOperation.WriteCharacteristic(
+                serviceUuid = BleConstants.SERVICE_UUID,
+                characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+                value = command,
+                label = operation,
+                priority = priority,
+                maxAttempts = BleConstants.GATT_OPERATION_MAX_ATTEMPTS
+            )
+        )
+
+        if (result.success) {
+            Log.i(WR_EVENT, "[TIME_SYNC] ✅ $operation 전송 성공 (${result.latencyMs}ms)")
+        } else {
+            Log.w(WR_EVENT, "[TIME_SYNC] ❌ $operation 전송 실패 (status: ${result.status})")
+        }
+        return result.success
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+    }
+}
@@ -0,0 +1,88 @@
+package com.wishring.app.ble
+
+import com.wishring.app.ble.model.LinkPriority
+
+/**
+ * 연결 우선순위 결정 정책
+ *
+ * - HIGH: 대량 전송 중이거나, [rapidPressWindowMs] 안에 [rapidPressCount]회 이상 눌린 뒤 [highHoldMs] 동안
+ * - BALANCED: 마지막 활동 후 [balancedHoldMs] 동안
+ * - LOW_POWER: 그 이후 유휴 상태
+ *
+ * 시각은 호출자가 넘기는 단조 증가 시계(ms) 기준이며, 스레드 안전하지 않다 (호출자가 잠금).
+ */
+class ConnectionPriorityPolicy(
+    private val rapidPressCount: Int = RAPID_PRESS_COUNT,
+    private val rapidPressWindowMs: Long = RAPID_PRESS_WINDOW_MS,
+    private val highHoldMs: Long = HIGH_HOLD_MS,
+    private val balancedHoldMs: Long = BALANCED_HOLD_MS
+) {
+
+    // 최근 누른 시각 (원형 버퍼, 다음에 덮어쓸 pressIndex 위치가 가장 오래된 값)
+    private val pressTimes = LongArray(rapidPressCount) { NEVER }
+    private var pressIndex = 0
+
+    private var bulkTransfers = 0
+    private var highUntil = NEVER
+    private var lastActivityAt = NEVER
+
+    /**
+     * 새 연결 - 활동 기록 초기화 (연결 직후는 BALANCED)
+     */
+    fun reset(now: Long) {
+        pressTimes.fill(NEVER)
+        pressIndex = 0
+        bulkTransfers = 0
+        highUntil = NEVER
+        lastActivityAt = now
+    }
+
+    fun onPress(now: Long) {
+        pressTimes[pressIndex] = now
+        pressIndex = (pressIndex + 1) % rapidPressCount
+        lastActivityAt = now
+
+        // 방금 누른 것을 포함한 최근 rapidPressCount회 중 가장 오래된 입력
+        val oldest = pressTimes[pressIndex]
+        if (oldest != NEVER && now - oldest <= rapidPressWindowMs) {
+            highUntil = now + highHoldMs
+        }
+    }
+
+    fun onBulkTransferStarted(now: Long) {
+        bulkTransfers++
+        lastActivityAt = now
+    }
+
+    fun onBulkTransferFinished(now: Long) {
+        bulkTransfers = (bulkTransfers - 1).coerceAtLeast(0)
+        lastActivityAt = now
+        highUntil = maxOf(highUntil, now + highHoldMs)
+    }
+
+    fun priorityAt(now: Long): LinkPriority = when {
+        bulkTransfers > 0 || now < highUntil -> LinkPriority.HIGH
+        now < lastActivityAt + balancedHoldMs -> LinkPriority.BALANCED
+        else -> LinkPriority.LOW_POWER
+    }
+
+    /**
+     * 활동이 더 없을 때 우선순위가 다음으로 바뀌는 시각
+     * @return 대량 전송 중이거나 이미 LOW_POWER면 null
+     */
+    fun nextChangeAt(now: Long): Long? = when {
+        bulkTransfers > 0 -> null
+        now < highUntil -> highUntil
+        now < lastActivityAt + balancedHoldMs -> lastActivityAt + balancedHoldMs
+        else -> null
+    }
+
+    companion object {
+        const val RAPID_PRESS_COUNT = 3
+        const val RAPID_PRESS_WINDOW_MS = 2_000L
+        const val HIGH_HOLD_MS = 5_000L
+        const val BALANCED_HOLD_MS = 30_000L
+
+        private const val NEVER = Long.MIN_VALUE / 2
+    }
+}
@@ -0,0 +1,83 @@
+package com.wishring.app.ble
+
+/**
+ * 저장 전 다운샘플링 (고정 구간 평균)
+ *
+ * 같은 [bucketMs] 구간의 값은 합/개수만 누적하고, 구간이 바뀌면 평균 하나를 구간 시작 시각으로 남긴다.
+ * 남긴 값은 primitive 배열에 모았다가 [drain]으로 한 번에 꺼낸다.
+ * 시각은 epoch millis 기준이며, 스레드 안전하지 않다 (호출자가 잠금).
+ */
+class DownsampleBuffer(
+    private val bucketMs: Long = BUCKET_MS,
+    initialCapacity: Int = 16
+) {
+
+    private var bucketStart = NONE
+    private var bucketSum = 0L
+    private var bucketCount = 0
+
+    private var times = LongArray(initialCapacity)
+    private var values = IntArray(initialCapacity)
+    private var size = 0
+
+    /**
+     * 완료된 구간 수 (아직 꺼내지 않은 것)
+     */
+    val pending: Int
+        get() = size
+
+    fun add(time: Long, value: Int) {
+        val start = time - Math.floorMod(time, bucketMs)
+        if (start != bucketStart) {
+            closeBucket()
+            bucketStart = start
+        }
+        bucketSum += value
+        bucketCount++
+    }
+
+    /**
+     * 진행 중인 구간도 닫음 (측정 종료 시)
+     */
+    fun flush() {
+        closeBucket()
+        bucketStart = NONE
+    }
+
+    /**
+     * 완료된 구간 평균을 꺼내고 비움
+     * @return (구간 시작 시각, 평균) 배열, 없으면 null
+     */
+    fun drain(): Pair<LongArray, IntArray>? {
+        if (size == 0) return null
+        val result = times.copyOf(size) to values.copyOf(size)
+        size = 0
+        return result
+    }
+
+    fun clear() {
+        bucketStart = NONE
+        bucketSum = 0L
+        bucketCount = 0
+        size = 0
+    }
+
+    private fun closeBucket() {
+        if (bucketCount > 0) {
+            if (size == times.size) {
+                times = times.copyOf(size * 2)
+                values = values.copyOf(size * 2)
+            }
+            times[size] = bucketStart
+            values[size] = Math.round(bucketSum.toDouble() / bucketCount).toInt()
+            size++
+        }
+        bucketSum = 0L
+        bucketCount = 0
+    }
+
+    companion object {
+        const val BUCKET_MS = 60_000L
+        private const val NONE = Long.MIN_VALUE
+    }
+}
@@ -0,0 +1,274 @@
+package com.wishring.app.ble
+
+import android.util.Log
+import com.manridy.sdk_mrd2019.Manridy
+import com.wishring.app.ble.model.EcgCaptureMetrics
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattPriority
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.ble.model.H13Frame
+import com.wishring.app.data.repository.EcgRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.json.intOrNull
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * ECG 실시간 캡처
+ *
+ * - 수신: 디코딩 파이프라인이 넘긴 [H13Frame.EcgWave]를 [ring]에 바로 쓴다 (프레임 소비 코루틴, 메인 스레드 밖).
+ *   파이프라인은 바인더 스레드를 막지 않으므로 WAVE 레인이 넘치면 프레임이 버려질 수 있다.
+ *   프레임 순번이 건너뛰면 빠진 프레임 수만큼 [EcgSampleRing.GAP] 샘플로 채워, 저장된 파형의 시간축이
+ *   줄어들지 않게 한다. 순번은 [H13Frame.EcgWave.SEQUENCE_COUNT]로 순환하므로 그 이상 연속으로 빠지면 알 수 없다
+ * - 그리기: 화면은 [ring]에서 복사 없이 최근 샘플을 읽는다
+ * - 저장: [CHUNK_SAMPLES]개가 모일 때마다 링 버퍼 구간을 그대로 인코딩해 무제한 채널로 넘기고,
+ *   저장 코루틴이 순서대로 ecg_chunks에 쓴다. 저장이 늦어도 인코딩된 청크가 쌓일 뿐 샘플은 버리지 않는다
+ *
+ * 캡처 중에는 [LinkParameterManager]로 연결 우선순위를 HIGH로 유지한다.
+ * 연결이 끊기면 받은 데이터까지 저장하고 측정을 종료한다 ([release]).
+ */
+class EcgCaptureSession(
+    private val scope: CoroutineScope,
+    private val gattQueue: GattOperationQueue,
+    private val linkParameters: LinkParameterManager,
+    private val repository: EcgRepository,
+    private val clock: () -> Long = { DateUtils.getCurrentTimestamp() }
+) {
+
+    private class PendingChunk(val index: Int, val firstSample: Long, val count: Int, val data: ByteArray)
+
+    private class Recording(val startTime: Long, val chunks: Channel<PendingChunk>)
+
+    val ring = EcgSampleRing()
+
+    private val lock = Any()
+    private val pendingChunks = AtomicInteger(0)
+
+    // lock으로 보호
+    private var recording: Recording? = null
+    private var chunkStart = 0L
+    private var chunkIndex = 0
+    private var lastSequence = -1
+    private var missedFrames = 0
+    private var heartRate = 0
+
+    private val _metrics = MutableStateFlow(EcgCaptureMetrics())
+    val metrics: StateFlow<EcgCaptureMetrics> = _metrics.asStateFlow()
+
+    val isCapturing: Boolean
+        get() = synchronized(lock) { recording != null }
+
+    /**
+     * 캡처 시작 - 측정 행을 만들고 링에 ECG 측정 명령 전송
+     * @return 이미 캡처 중이면 false
+     */
+    fun start(deviceAddress: String): Boolean {
+        val current = synchronized(lock) {
+            if (recording != null) return false
+            ring.clear()
+            chunkStart = 0L
+            chunkIndex = 0
+            lastSequence = -1
+            missedFrames = 0
+            heartRate = 0
+            Recording(clock(), Channel(Channel.UNLIMITED)).also { recording = it }
+        }
+        scope.launch { persist(deviceAddress, current) }
+        _metrics.value = EcgCaptureMetrics(isCapturing = true, startTime = current.startTime)
+
+        linkParameters.beginBulkTransfer()
+        scope.launch {
+            if (!send(ECG_TEST_START, "ECG 측정 시작")) finish(sendStop = false)
+        }
+        Log.i(WR_EVENT, "[EcgCaptureSession] ECG 캡처 시작 (${SAMPLE_RATE_HZ}Hz)")
+        return true
+    }
+
+    /**
+     * 사용자 종료 - 측정 중지 명령 전송, 남은 샘플 저장
+     */
+    fun stop() = finish(sendStop = true)
+
+    /**
+     * 연결 종료 - 받은 샘플까지 저장하고 측정 종료
+     */
+    fun release() = finish(sendStop = false)
+
+    /**
+     * ECG 파형 프레임 (프레임 소비 코루틴에서 호출)
+     */
+    fun onWave(frame: H13Frame.EcgWave) {
+        val chunks = synchronized(lock) {
+            val current = recording ?: return
+            if (lastSequence >= 0) {
+                val missed = (frame.sequence - lastSequence - 1 + H13Frame.EcgWave.SEQUENCE_COUNT) %
+                    H13Frame.EcgWave.SEQUENCE_COUNT
+                if (missed > 0) {
+                    // 빠진 프레임도 이 프레임과 같은 샘플 수였다고 보고 자리를 채움
+                    missedFrames += missed
+                    ring.writeGap(missed * frame.sampleCount)
+                }
+            }
+            lastSequence = frame.sequence
+            ring.write(frame)
+            var taken: MutableList<PendingChunk>? = null
+            while (ring.written - chunkStart >= CHUNK_SAMPLES) {
+                val chunk = takeChunkLocked(current, CHUNK_SAMPLES)
+                taken = (taken ?: ArrayList(1)).apply { add(chunk) }
+            }
+            taken
+        }
+        chunks?.forEach { onChunk(it) }
+    }
+
+    /**
+     * MRD SDK 파싱 결과 - 캡처 중 ECG 심박 응답이면 기록
+     * @return 처리했으면 true
+     */
+    fun onSdkFrame(readType: String?, json: String?): Boolean {
+        if (readType != ECG_HEART_RATE_TYPE || json == null) return false
+        val bpm = try {
+            ((Json.parseToJsonElement(json) as? JsonObject)?.get("heartRate") as? JsonPrimitive)?.intOrNull
+        } catch (e: Exception) {
+            null
+        } ?: return false
+        synchronized(lock) {
+            if (recording == null) return false
+            heartRate = bpm
+        }
+        _metrics.update { it.copy(heartRate = bpm) }
+        return true
+    }
+
+    private fun finish(sendStop: Boolean) {
+        val missed: Int
+        val tail = synchronized(lock) {
+            val current = recording ?: return
+            recording = null
+            missed = missedFrames
+            val remaining = (ring.written - chunkStart).toInt()
+            val tail = if (remaining > 0) takeChunkLocked(current, remaining) else null
+            // 저장 코루틴은 남은 청크까지 저장한 뒤 종료 기록
+            current.chunks.close()
+            tail
+        }
+        tail?.let { onChunk(it) }
+
+        linkParameters.endBulkTransfer()
+        if (sendStop) scope.launch { send(TEST_STOP, "ECG 측정 종료") }
+        val samples = ring.written
+        _metrics.update { it.copy(isCapturing = false, samplesReceived = samples, missedFrames = missed) }
+        Log.i(WR_EVENT, "[EcgCaptureSession] ECG 캡처 종료 - 샘플 ${samples}개, 빠진 프레임 ${missed}개")
+    }
+
+    private fun takeChunkLocked(current: Recording, count: Int): PendingChunk {
+        val chunk = PendingChunk(chunkIndex++, chunkStart, count, ring.encode(chunkStart, count))
+        chunkStart += count
+        pendingChunks.incrementAndGet()
+        current.chunks.trySend(chunk)
+        return chunk
+    }
+
+    private fun onChunk(chunk: PendingChunk) {
+        val pending = pendingChunks.get()
+        val missed = synchronized(lock) { missedFrames }
+        _metrics.update {
+            it.copy(
+                samplesReceived = maxOf(it.samplesReceived, chunk.firstSample + chunk.count),
+                missedFrames = missed,
+                pendingChunks = pending
+            )
+        }
+    }
+
+    /**
+     * 저장 코루틴 - 측정 행 생성 후 청크를 받은 순서대로 저장, 채널이 닫히면 측정 종료 기록
+     */
+    private suspend fun persist(deviceAddress: String, current: Recording) {
+        try {
+            repository.startRecording(deviceAddress, current.startTime, SAMPLE_RATE_HZ)
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[EcgCaptureSession] 측정 행 생성 실패", e)
+        }
+
+        for (chunk in current.chunks) {
+            val stored = try {
+                repository.appendChunk(current.startTime, chunk.index, chunk.firstSample, chunk.data)
+                true
+            } catch (e: Exception) {
+                Log.e(WR_EVENT, "[EcgCaptureSession] 청크 ${chunk.index} 저장 실패", e)
+                false
+            }
+            val pending = pendingChunks.decrementAndGet()
+            _metrics.update {
+                it.copy(
+                    chunksStored = it.chunksStored + if (stored) 1 else 0,
+                    chunksFailed = it.chunksFailed + if (stored) 0 else 1,
+                    bytesStored = it.bytesStored + if (stored) chunk.data.size else 0,
+                    pendingChunks = pending
+                )
+            }
+        }
+
+        val summary = synchronized(lock) { heartRate to missedFrames }
+        withContext(NonCancellable) {
+            try {
+                repository.finishRecording(current.startTime, summary.first, summary.second, clock())
+            } catch (e: Exception) {
+                Log.e(WR_EVENT, "[EcgCaptureSession] 측정 종료 기록 실패", e)
+            }
+        }
+    }
+
+    private suspend fun send(testType: Int, label: String): Boolean {
+        val command = Manridy.getMrdSend().setHrTest(testType)?.datas
+        if (command == null) {
+            Log.e(WR_EVENT, "[EcgCaptureSession] $label - MRD SDK 명령 생성 실패")
+            return false
+        }
+        val result = gattQueue.enqueue(
+            GattOperation.WriteCharacteristic(
+                serviceUuid = BleConstants.SERVICE_UUID,
+                characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+                value = command,
+                label = label,
+                priority = GattPriority.HIGH
+            )
+        )
+        if (!result.success) {
+            Log.w(WR_EVENT, "[EcgCaptureSession] $label 실패 (status: ${result.status})")
+        }
+        return result.success
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        /**
+         * 링 ECG 샘플링 주파수 (MRD 링 기준)
+         */
+        const val SAMPLE_RATE_HZ = 250
+
+        /**
+         * 청크 하나 = 10초
+         */
+        const val CHUNK_SAMPLES = SAMPLE_RATE_HZ * 10
+
+        // MRD setHrTest 측정 종류
+        private const val TEST_STOP = 0
+        private const val ECG_TEST_START = 4
+
+        private const val ECG_HEART_RATE_TYPE = "EcgHrTest"
+    }
+}
@@ -0,0 +1,89 @@
+package com.wishring.app.ble
+
+import com.wishring.app.data.ble.model.H13Frame
+import com.wishring.app.data.local.database.entity.EcgWaveformCodec
+
+/**
+ * ECG 샘플 링 버퍼
+ *
+ * 미리 할당한 ShortArray 하나에 16비트 샘플을 이어 쓴다. 캡처 중에는 배열을 새로 만들지 않는다.
+ * - 쓰기: 한 스레드(프레임 소비 코루틴)만 [write]를 호출하며, 프레임의 샘플을 모두 쓴 뒤 [written]을 갱신한다
+ * - 읽기: 그리기 쪽은 [written]을 읽은 뒤 [sampleAt]으로 배열을 복사하지 않고 최근 구간을 읽는다.
+ *   [capacity]보다 오래된 샘플은 덮어써지므로 [oldest] 이후만 유효하다
+ *
+ * 인덱스는 캡처 시작부터 센 절대 샘플 번호다.
+ */
+class EcgSampleRing(val capacity: Int = DEFAULT_CAPACITY) {
+
+    init {
+        require(capacity > 0 && capacity and (capacity - 1) == 0) { "capacity must be a power of two: $capacity" }
+    }
+
+    private val samples = ShortArray(capacity)
+    private val mask = (capacity - 1).toLong()
+
+    /**
+     * 지금까지 쓴 전체 샘플 수 (다음에 쓸 절대 인덱스)
+     */
+    @Volatile
+    var written: Long = 0L
+        private set
+
+    /**
+     * 아직 덮어써지지 않은 가장 오래된 샘플 인덱스
+     */
+    val oldest: Long
+        get() = maxOf(0L, written - capacity)
+
+    fun write(frame: H13Frame.EcgWave) {
+        var index = written
+        for (i in 0 until frame.sampleCount) {
+            samples[(index and mask).toInt()] = frame.sampleAt(i).toShort()
+            index++
+        }
+        // 샘플을 모두 쓴 뒤 공개
+        written = index
+    }
+
+    /**
+     * 받지 못한 프레임 자리를 [EcgWaveformCodec.GAP_SAMPLE]로 채움 (시간축 유지)
+     */
+    fun writeGap(count: Int) {
+        var index = written
+        for (i in 0 until count) {
+            samples[(index and mask).toInt()] = GAP.toShort()
+            index++
+        }
+        written = index
+    }
+
+    /**
+     * 절대 인덱스의 샘플 (0~65535)
+     */
+    fun sampleAt(index: Long): Int = samples[(index and mask).toInt()].toInt() and 0xFFFF
+
+    /**
+     * [from]부터 [count]개를 청크로 인코딩 (버퍼에서 바로 읽음, 쓰기 스레드에서 호출)
+     */
+    fun encode(from: Long, count: Int): ByteArray {
+        require(from >= oldest && from + count <= written) { "range already overwritten or not written: $from+$count" }
+        return EcgWaveformCodec.encode(samples, from, count)
+    }
+
+    /**
+     * 새 캡처 - 인덱스를 0부터 다시 센다
+     */
+    fun clear() {
+        written = 0L
+    }
+
+    companion object {
+        // 250 Hz 기준 약 65초
+        const val DEFAULT_CAPACITY = 1 shl 14
+
+        /**
+         * 받지 못한 샘플 ([sampleAt]이 이 값을 반환하면 그리지 않음)
+         */
+        const val GAP = EcgWaveformCodec.GAP_SAMPLE
+    }
+}
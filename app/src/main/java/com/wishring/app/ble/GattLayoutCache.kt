@@ -0,0 +1,106 @@
+package com.wishring.app.ble
+
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
+import java.util.UUID
+
+/**
+ * 기기별 GATT 레이아웃 캐시
+ *
+ * 서비스 발견 직후 WISH RING 서비스의 characteristic을 한 번만 찾아 두고,
+ * GATT 큐가 작업마다 getService/getCharacteristic을 다시 탐색하지 않도록 한다.
+ *
+ * 기기별로 characteristic UUID/인스턴스 ID(핸들) 구성을 기억해 재연결 시 레이아웃이 바뀌었는지 판단한다.
+ * Android는 서비스 발견 없이 핸들로 접근하는 공개 API가 없으므로 discoverServices()는 매번 호출하지만,
+ * 본딩된 링은 스택의 GATT 캐시에서 응답하므로 재연결 시 거의 즉시 끝난다.
+ */
+class GattLayoutCache {
+
+    enum class BindResult {
+        NEW,        // 처음 보는 기기
+        UNCHANGED,  // 이전 연결과 같은 레이아웃
+        CHANGED,    // 펌웨어 업데이트 등으로 레이아웃 변경
+        MISSING     // 서비스 없음 (WISH RING 아님)
+    }
+
+    private val lock = Any()
+
+    // lock으로 보호
+    private var boundGatt: BluetoothGatt? = null
+    private val characteristics = HashMap<UUID, BluetoothGattCharacteristic>()
+    private val signatures = HashMap<String, String>()
+
+    /**
+     * 서비스 발견 후 호출 - 현재 GATT의 characteristic을 캐시
+     */
+    fun bind(gatt: BluetoothGatt, serviceUuid: UUID): BindResult {
+        val service = gatt.getService(serviceUuid)
+        val address = gatt.device.address
+        synchronized(lock) {
+            boundGatt = gatt
+            characteristics.clear()
+            if (service == null) {
+                signatures.remove(address)
+                return BindResult.MISSING
+            }
+            service.characteristics.forEach { characteristics[it.uuid] = it }
+
+            val signature = signatureOf(service.characteristics.map { it.uuid to it.instanceId })
+            val previous = signatures.put(address, signature)
+            return when (previous) {
+                null -> BindResult.NEW
+                signature -> BindResult.UNCHANGED
+                else -> BindResult.CHANGED
+            }
+        }
+    }
+
+    /**
+     * 캐시된 characteristic 조회 - 다른 GATT 인스턴스이거나 캐시에 없으면 직접 탐색
+     */
+    fun characteristic(
+        gatt: BluetoothGatt,
+        serviceUuid: UUID,
+        characteristicUuid: UUID
+    ): BluetoothGattCharacteristic? {
+        synchronized(lock) {
+            if (boundGatt === gatt) {
+                characteristics[characteristicUuid]
+                    ?.takeIf { it.service?.uuid == serviceUuid }
+                    ?.let { return it }
+            }
+        }
+        return gatt.getService(serviceUuid)?.getCharacteristic(characteristicUuid)
+    }
+
+    /**
+     * 연결 종료 시 현재 GATT 바인딩 해제 (기기별 레이아웃 기록은 유지)
+     */
+    fun release() {
+        synchronized(lock) {
+            boundGatt = null
+            characteristics.clear()
+        }
+    }
+
+    /**
+     * 기기가 Service Changed를 알린 경우 - 기록을 지우고 다시 발견
+     */
+    fun invalidate(address: String) {
+        synchronized(lock) {
+            signatures.remove(address)
+            boundGatt = null
+            characteristics.clear()
+        }
+    }
+
+    companion object {
+        /**
+         * (UUID, 인스턴스 ID) 목록을 순서와 무관한 비교용 문자열로 변환
+         */
+        fun signatureOf(layout: List<Pair<UUID, Int>>): String =
+            layout.map { (uuid, instanceId) -> "$uuid@$instanceId" }
+                .sorted()
+                .joinToString(",")
+    }
+}
@@ -0,0 +1,384 @@
+package com.wishring.app.ble
+
+import android.annotation.SuppressLint
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothGattDescriptor
+import android.os.Build
+import android.os.SystemClock
+import android.util.Log
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattOperationResult
+import com.wishring.app.ble.model.GattQueueMetrics
+import com.wishring.app.data.ble.model.BleConstants
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withTimeoutOrNull
+import java.util.PriorityQueue
+import java.util.UUID
+
+/**
+ * 직렬화된 GATT 작업 큐
+ *
+ * Android BLE 스택은 동시에 하나의 GATT 작업만 처리하며, 진행 중에 들어온 작업은 조용히 버려진다.
+ * 고정 delay 대신 각 작업을 onCharacteristicWrite / onCharacteristicRead / onDescriptorWrite / onMtuChanged 콜백으로 완료 처리하여
+ * 연속 명령(시간 설정 + 24시간 형식 등)이 링크 속도 그대로 이어서 실행되도록 한다.
+ *
+ * - 우선순위: [com.wishring.app.ble.model.GattPriority] 순, 같은 우선순위는 FIFO
+ * - 타임아웃/재시도: 작업별 timeoutMs, maxAttempts (시도마다 순번을 붙여 타임아웃된 시도의 늦은 콜백은 버림)
+ * - 타임아웃된 시도는 유예 시간([BleConstants.GATT_CALLBACK_GRACE_MS]) 뒤 만료되어, 콜백이 유실돼도 이후 작업과 어긋나지 않음
+ * - 지표: [metrics]로 작업별 지연 시간 노출
+ *
+ * @param scope 워커 코루틴이 실행될 스코프 (연결 세션과 수명을 같이 함)
+ * @param layout 서비스 발견 후 캐시된 characteristic 조회
+ * @param gattProvider 현재 연결된 BluetoothGatt 제공자
+ * @param clock 시도 만료 판단에 쓰는 단조 시계 (테스트에서 교체)
+ */
+@SuppressLint("MissingPermission")
+class GattOperationQueue(
+    private val scope: CoroutineScope,
+    private val layout: GattLayoutCache,
+    private val gattProvider: () -> BluetoothGatt?,
+    private val clock: () -> Long = SystemClock::elapsedRealtime
+) {
+
+    private class PendingOperation(
+        val operation: GattOperation,
+        val sequence: Long,
+        val result: CompletableDeferred<GattOperationResult>
+    )
+
+    private val lock = Any()
+    private val pending = PriorityQueue<PendingOperation>(
+        compareBy<PendingOperation>({ it.operation.priority.ordinal }, { it.sequence })
+    )
+    private var nextSequence = 0L
+
+    private val wakeUp = Channel<Unit>(Channel.CONFLATED)
+
+    /**
+     * 스택에 전달된 한 번의 시도와 그 콜백 대기 (GATT 콜백 스레드에서 완료됨)
+     * @param attempt 시도 순번 - 재시도도 새 순번을 받는다
+     */
+    private class InFlight(
+        val attempt: Long,
+        val operation: GattOperation,
+        val callback: CompletableDeferred<Int>
+    ) {
+        // 타임아웃 전에는 만료되지 않음, 타임아웃되면 유예 시간 뒤 만료 ([lock]으로 보호)
+        var expiresAt = Long.MAX_VALUE
+    }
+
+    // 현재 결과를 기다리는 시도
+    @Volatile
+    private var inFlight: InFlight? = null
+
+    /**
+     * 스택이 받아들였지만 아직 콜백이 오지 않은 시도들 (전달 순, [lock]으로 보호)
+     * 스택은 작업을 하나씩 순서대로 끝내므로 콜백은 가장 오래된 시도의 것이다.
+     * 콜백에는 작업 식별자가 없어서, 타임아웃된 시도를 여기 남겨 두어야
+     * 그 늦은 콜백이 같은 UUID의 재시도를 완료시키지 않는다.
+     * 콜백이 아예 유실될 수도 있으므로 타임아웃된 시도는 유예 시간 뒤 만료되어 제거된다
+     */
+    private val outstanding = ArrayDeque<InFlight>()
+    private var nextAttempt = 0L
+
+    // 현재 읽기 작업이 받은 값 (inFlight 완료 전에 기록됨)
+    @Volatile
+    private var readValue: ByteArray? = null
+
+    private val _metrics = MutableStateFlow(GattQueueMetrics())
+    val metrics: StateFlow<GattQueueMetrics> = _metrics.asStateFlow()
+
+    private var worker: Job? = null
+
+    /**
+     * 작업을 큐에 넣고 완료(콜백 수신)까지 대기
+     * @return 실행 결과 (연결 해제 시 cancelled)
+     */
+    suspend fun enqueue(operation: GattOperation): GattOperationResult {
+        val queued = synchronized(lock) {
+            PendingOperation(operation, nextSequence++, CompletableDeferred()).also {
+                pending.add(it)
+                _metrics.update { metrics -> metrics.copy(queueDepth = pending.size) }
+            }
+        }
+        ensureWorker()
+        wakeUp.trySend(Unit)
+        return queued.result.await()
+    }
+
+    /**
+     * onCharacteristicWrite 콜백 전달
+     * @param characteristicUuid 콜백이 가리키는 characteristic
+     */
+    fun onCharacteristicWrite(characteristicUuid: UUID, status: Int) {
+        completeIfMatches(status, "onCharacteristicWrite($characteristicUuid)") {
+            it is GattOperation.WriteCharacteristic && it.characteristicUuid == characteristicUuid
+        }
+    }
+
+    /**
+     * onCharacteristicRead 콜백 전달
+     * @param characteristicUuid 콜백이 가리키는 characteristic
+     */
+    fun onCharacteristicRead(characteristicUuid: UUID, status: Int, value: ByteArray?) {
+        completeIfMatches(status, "onCharacteristicRead($characteristicUuid)", value) {
+            it is GattOperation.ReadCharacteristic && it.characteristicUuid == characteristicUuid
+        }
+    }
+
+    /**
+     * onMtuChanged 콜백 전달
+     */
+    fun onMtuChanged(status: Int) {
+        completeIfMatches(status, "onMtuChanged") { it is GattOperation.RequestMtu }
+    }
+
+    /**
+     * onDescriptorWrite 콜백 전달
+     * @param characteristicUuid 디스크립터가 속한 characteristic
+     * @param descriptorUuid 쓰여진 디스크립터 (CCCD만 큐 작업으로 취급)
+     */
+    fun onDescriptorWrite(characteristicUuid: UUID, descriptorUuid: UUID, status: Int) {
+        completeIfMatches(status, "onDescriptorWrite($characteristicUuid)") {
+            it is GattOperation.EnableNotification &&
+                it.characteristicUuid == characteristicUuid &&
+                descriptorUuid == BleConstants.CLIENT_CONFIG_DESCRIPTOR_UUID
+        }
+    }
+
+    /**
+     * 콜백을 그것을 만든 시도에 짝지어, 그 시도가 현재 시도일 때만 완료
+     * 타임아웃 뒤 늦게 도착한 콜백이 재시도나 다음 작업을 잘못 완료시키지 않도록 한다
+     */
+    private inline fun completeIfMatches(
+        status: Int,
+        source: String,
+        value: ByteArray? = null,
+        matches: (GattOperation) -> Boolean
+    ) {
+        val current = inFlight
+        val owner = synchronized(lock) {
+            dropExpiredLocked()
+            val index = outstanding.indexOfFirst { matches(it.operation) }
+            if (index < 0) return@synchronized null
+            // 앞선 시도들은 콜백 없이 끝난 것 (타임아웃 후 유실)
+            repeat(index) { outstanding.removeFirst() }
+            outstanding.removeFirst()
+        }
+        if (owner == null || owner !== current) {
+            // 유예 시간을 기다리는 워커가 바로 다음 시도로 넘어가도록 알림
+            owner?.callback?.complete(status)
+            _metrics.update { it.copy(staleCallbackCount = it.staleCallbackCount + 1) }
+            Log.w(WR_EVENT, "[GattOperationQueue] 늦게 도착한 콜백 무시 - $source (진행 중: ${current?.operation?.label})")
+            return
+        }
+        if (value != null) readValue = value
+        current.callback.complete(status)
+    }
+
+    /**
+     * 유예 시간이 지난 시도 제거 - 그 콜백은 유실된 것으로 본다 ([lock] 안에서 호출)
+     */
+    private fun dropExpiredLocked() {
+        val now = clock()
+        val expired = outstanding.count { it.expiresAt <= now }
+        if (expired == 0) return
+        outstanding.removeAll { it.expiresAt <= now }
+        Log.w(WR_EVENT, "[GattOperationQueue] 콜백이 유실된 시도 ${expired}개 만료")
+    }
+
+    /**
+     * 연결 해제 시 대기 중인 모든 작업을 취소
+     */
+    fun clear() {
+        val (dropped, waiting) = synchronized(lock) {
+            val all = pending.toList()
+            val attempts = outstanding.toList()
+            pending.clear()
+            outstanding.clear()
+            all to attempts
+        }
+        inFlight?.callback?.complete(GattOperationResult.STATUS_CANCELLED)
+        waiting.forEach { it.callback.complete(GattOperationResult.STATUS_CANCELLED) }
+        dropped.forEach { it.result.complete(GattOperationResult.cancelled()) }
+        _metrics.update { it.copy(queueDepth = 0) }
+        if (dropped.isNotEmpty()) {
+            Log.i(WR_EVENT, "[GattOperationQueue] 연결 해제 - 대기 작업 ${dropped.size}개 취소")
+        }
+    }
+
+    private fun ensureWorker() {
+        if (worker?.isActive == true) return
+        synchronized(lock) {
+            if (worker?.isActive == true) return
+            worker = scope.launch {
+                for (signal in wakeUp) {
+                    while (true) {
+                        val next = synchronized(lock) {
+                            pending.poll().also {
+                                _metrics.update { metrics -> metrics.copy(queueDepth = pending.size) }
+                            }
+                        } ?: break
+                        next.result.complete(execute(next.operation))
+                    }
+                }
+            }
+        }
+    }
+
+    private suspend fun execute(operation: GattOperation): GattOperationResult {
+        val startedAt = clock()
+        var lastStatus = GattOperationResult.STATUS_NOT_STARTED
+
+        for (attempt in 1..operation.maxAttempts) {
+            val gatt = gattProvider() ?: return GattOperationResult.cancelled()
+
+            if (attempt > 1) {
+                _metrics.update { it.copy(retryCount = it.retryCount + 1) }
+                Log.w(WR_EVENT, "[GattOperationQueue] ${operation.label} 재시도 ($attempt/${operation.maxAttempts})")
+            }
+
+            val callback = CompletableDeferred<Int>()
+            val current = synchronized(lock) {
+                dropExpiredLocked()
+                InFlight(nextAttempt++, operation, callback).also { outstanding.addLast(it) }
+            }
+            readValue = null
+            inFlight = current
+            val attemptStartedAt = clock()
+
+            if (!dispatch(gatt, operation)) {
+                inFlight = null
+                synchronized(lock) { outstanding.remove(current) }
+                lastStatus = GattOperationResult.STATUS_NOT_STARTED
+                continue
+            }
+
+            val status = withTimeoutOrNull(operation.timeoutMs) { callback.await() }
+            inFlight = null
+
+            when (status) {
+                null -> {
+                    lastStatus = GattOperationResult.STATUS_TIMEOUT
+                    _metrics.update { it.copy(timeoutCount = it.timeoutCount + 1) }
+                    Log.w(WR_EVENT, "[GattOperationQueue] ${operation.label} 타임아웃 (시도 #${current.attempt}, ${operation.timeoutMs}ms)")
+                    if (awaitLateCallback(current)) return GattOperationResult.cancelled()
+                }
+
+                GattOperationResult.STATUS_CANCELLED -> return GattOperationResult.cancelled()
+
+                BluetoothGatt.GATT_SUCCESS -> {
+                    val latency = clock() - attemptStartedAt
+                    recordSuccess(operation.label, latency)
+                    return GattOperationResult(
+                        success = true,
+                        status = status,
+                        attempts = attempt,
+                        latencyMs = clock() - startedAt,
+                        value = if (operation is GattOperation.ReadCharacteristic) readValue else null
+                    )
+                }
+
+                else -> lastStatus = status
+            }
+        }
+
+        _metrics.update { it.copy(failedCount = it.failedCount + 1, lastOperation = operation.label) }
+        Log.e(WR_EVENT, "[GattOperationQueue] ❌ ${operation.label} 실패 (status: $lastStatus)")
+        return GattOperationResult(
+            success = false,
+            status = lastStatus,
+            attempts = operation.maxAttempts,
+            latencyMs = clock() - startedAt
+        )
+    }
+
+    /**
+     * 타임아웃된 시도의 늦은 콜백을 유예 시간만큼 기다린 뒤 만료시킴
+     * 다음 시도를 바로 보내면 늦은 콜백과 그 시도의 콜백이 뒤섞여, 콜백 하나가 유실될 때마다
+     * 이후 같은 UUID의 작업이 모두 한 칸씩 밀린다. 만료 전에 다음 작업을 보내지 않으므로
+     * 새 시도는 항상 outstanding이 비어 있는 상태에서 시작한다
+     * @return 기다리는 동안 큐가 비워졌으면(연결 해제) true
+     */
+    private suspend fun awaitLateCallback(attempt: InFlight): Boolean {
+        synchronized(lock) { attempt.expiresAt = clock() + BleConstants.GATT_CALLBACK_GRACE_MS }
+        val late = withTimeoutOrNull(BleConstants.GATT_CALLBACK_GRACE_MS) { attempt.callback.await() }
+        synchronized(lock) { outstanding.remove(attempt) }
+        return late == GattOperationResult.STATUS_CANCELLED
+    }
+
+    private fun recordSuccess(label: String, latencyMs: Long) {
+        _metrics.update {
+            it.copy(
+                completedCount = it.completedCount + 1,
+                lastOperation = label,
+                lastLatencyMs = latencyMs,
+                maxLatencyMs = maxOf(it.maxLatencyMs, latencyMs),
+                totalLatencyMs = it.totalLatencyMs + latencyMs
+            )
+        }
+    }
+
+    /**
+     * 실제 GATT 호출 - 호출이 스택에 받아들여졌는지만 반환하고 완료는 콜백으로 판단
+     */
+    @Suppress("DEPRECATION")
+    private fun dispatch(gatt: BluetoothGatt, operation: GattOperation): Boolean {
+        return try {
+            when (operation) {
+                is GattOperation.WriteCharacteristic -> {
+                    val characteristic = layout.characteristic(gatt, operation.serviceUuid, operation.characteristicUuid)
+                        ?: return false
+                    val writeType = BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+                        gatt.writeCharacteristic(characteristic, operation.value, writeType) ==
+                            BluetoothGatt.GATT_SUCCESS
+                    } else {
+                        characteristic.writeType = writeType
+                        characteristic.value = operation.value
+                        gatt.writeCharacteristic(characteristic)
+                    }
+                }
+
+                is GattOperation.ReadCharacteristic -> {
+                    val characteristic = layout.characteristic(gatt, operation.serviceUuid, operation.characteristicUuid)
+                        ?: return false
+                    gatt.readCharacteristic(characteristic)
+                }
+
+                is GattOperation.RequestMtu -> gatt.requestMtu(operation.mtu)
+
+                is GattOperation.EnableNotification -> {
+                    val characteristic = layout.characteristic(gatt, operation.serviceUuid, operation.characteristicUuid)
+                        ?: return false
+                    if (!gatt.setCharacteristicNotification(characteristic, true)) return false
+                    val descriptor = characteristic.getDescriptor(BleConstants.CLIENT_CONFIG_DESCRIPTOR_UUID)
+                        ?: return false
+                    val value = BluetoothGattDescriptor.ENABLE_NOTIFICATION_VALUE
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+                        gatt.writeDescriptor(descriptor, value) == BluetoothGatt.GATT_SUCCESS
+                    } else {
+                        descriptor.value = value
+                        gatt.writeDescriptor(descriptor)
+                    }
+                }
+            }
+        } catch (e: SecurityException) {
+            Log.e(WR_EVENT, "[GattOperationQueue] ${operation.label} 권한 오류", e)
+            false
+        }
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+    }
+}
@@ -0,0 +1,388 @@
+package com.wishring.app.ble
+
+import android.os.SystemClock
+import android.util.Log
+import com.manridy.sdk_mrd2019.Manridy
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattOperationResult
+import com.wishring.app.ble.model.GattPriority
+import com.wishring.app.ble.model.HistorySyncMetrics
+import com.wishring.app.data.ble.MrdHistoryParser
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.local.database.entity.HealthRecordEntity
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.data.repository.HealthHistoryRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.withTimeoutOrNull
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import java.util.EnumMap
+
+/**
+ * 링 기록(오프라인 동안 측정된 건강 데이터) 일괄 다운로드
+ *
+ * - 요청: 모든 종류의 기록 요청을 GATT 큐에 연달아 넣는다. 다음 요청은 이전 요청의 쓰기 완료
+ *   콜백(onCharacteristicWrite)만 기다리고 응답은 기다리지 않으므로, 링이 응답을 보내는 동안
+ *   나머지 요청이 이어서 전송된다 (고정 지연 없음)
+ * - 응답: 디코딩 파이프라인이 넘긴 MRD SDK 결과를 [MrdHistoryParser]로 기록으로 바꿔 모았다가
+ *   [BATCH_SIZE]건마다 저장한다 (심박/산소/체온/HRV/운동은 일 단위 시계열 청크, 걸음/수면 구간만 health_records)
+ * - 이어받기: 기기/종류별로 마지막 저장 기록 시각(history_sync_cursors)을 기록 저장 뒤에
+ *   남기고, 다음 동기화는 그 날짜부터 요청하며 그 이전 기록은 버린다. 링은 기록을 오래된 것부터
+ *   보내므로 중간에 끊겨도 저장된 곳 다음부터 이어진다
+ * - 저장 실패: 커서는 배치 최대 시각까지 전진하므로, 실패한 배치 뒤의 배치가 저장되면 실패 구간을
+ *   다시 받을 수 없다. 그래서 첫 저장 실패에서 동기화를 중단하고 이후 배치는 저장하지 않는다.
+ *   커서가 실패 구간 앞에 머물러 다음 동기화가 그 구간부터 다시 받는다
+ *
+ * 동기화 중에는 [LinkParameterManager]로 연결 우선순위를 HIGH로 유지하고, 디코딩 파이프라인이
+ * 기록 응답을 버리지 않도록 한다. 처리량(records/s)은 [metrics]로 노출한다.
+ */
+class HistorySyncEngine(
+    private val scope: CoroutineScope,
+    private val gattQueue: GattOperationQueue,
+    private val linkParameters: LinkParameterManager,
+    private val decodePipeline: NotificationDecodePipeline,
+    private val repository: HealthHistoryRepository,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() },
+    private val zone: () -> ZoneId = { ZoneId.systemDefault() }
+) {
+
+    private class Request(val label: String, val command: ByteArray?, val dayListType: HealthRecordType? = null, val day: LocalDate? = null)
+
+    private class Stream {
+        var received = 0
+        var total: Int? = null
+    }
+
+    private val lock = Any()
+    private val writeMutex = Mutex()
+
+    // lock으로 보호
+    private var syncJob: Job? = null
+    private var address: String? = null
+    private var cursors: Map<HealthRecordType, Long> = emptyMap()
+    private val dayQueues = EnumMap<HealthRecordType, ArrayDeque<LocalDate>>(HealthRecordType::class.java)
+    private val streams = EnumMap<HealthRecordType, Stream>(HealthRecordType::class.java)
+    private var pending = ArrayList<HealthRecordEntity>(BATCH_SIZE)
+    private var writeFailed = false
+
+    // 응답 수신 시 대기 루프를 깨움
+    private val activity = Channel<Unit>(Channel.CONFLATED)
+
+    private val _metrics = MutableStateFlow(HistorySyncMetrics())
+    val metrics: StateFlow<HistorySyncMetrics> = _metrics.asStateFlow()
+
+    val isRunning: Boolean
+        get() = synchronized(lock) { syncJob?.isActive == true }
+
+    /**
+     * 동기화 시작 (이미 진행 중이면 무시)
+     * @param deviceAddress 연결된 링 MAC 주소
+     */
+    fun start(deviceAddress: String) {
+        synchronized(lock) {
+            if (syncJob?.isActive == true) return
+            syncJob = scope.launch { run(deviceAddress) }
+        }
+    }
+
+    /**
+     * 연결 종료 - 요청 중지, 이미 받은 기록은 저장 (커서도 함께 저장되므로 다음 연결에서 이어받음)
+     */
+    fun stop() {
+        val job = synchronized(lock) { syncJob.also { syncJob = null } } ?: return
+        job.cancel()
+    }
+
+    /**
+     * MRD SDK 파싱 결과 전달 (디코딩 파이프라인 소비 코루틴에서 호출)
+     * @return 동기화 중인 기록 응답이면 true
+     */
+    fun onSdkFrame(readType: String?, json: String?): Boolean {
+        val batch = synchronized(lock) {
+            val deviceAddress = address ?: return false
+            val day = MrdHistoryParser.dayListType(readType)?.let { dayQueues[it]?.removeFirstOrNull() }
+            val frame = MrdHistoryParser.parse(readType, json, day, zone()) ?: return false
+
+            val stream = streams.getOrPut(frame.type) { Stream() }
+            if (frame.total != null) stream.total = frame.total
+            if (!frame.isCountOnly) stream.received++
+
+            val cursor = cursors[frame.type] ?: Long.MIN_VALUE
+            var accepted = 0
+            for (sample in frame.samples) {
+                if (sample.time <= cursor) continue
+                pending.add(
+                    HealthRecordEntity(
+                        deviceAddress = deviceAddress,
+                        type = frame.type.code,
+                        recordTime = sample.time,
+                        value = sample.value,
+                        value2 = sample.value2,
+                        value3 = sample.value3
+                    )
+                )
+                accepted++
+            }
+
+            _metrics.update {
+                it.copy(
+                    framesReceived = it.framesReceived + 1,
+                    recordsReceived = it.recordsReceived + accepted,
+                    recordsPerSecond = throughput(it.startedAt, it.recordsReceived + accepted),
+                    receivedByType = it.receivedByType + (frame.type to (it.receivedByType[frame.type] ?: 0) + accepted)
+                )
+            }
+            if (pending.size >= BATCH_SIZE) takeBatchLocked() else null
+        }
+        batch?.let { scope.launch { persist(it) } }
+        activity.trySend(Unit)
+        return true
+    }
+
+    private suspend fun run(deviceAddress: String) {
+        val loaded = try {
+            repository.getSyncCursors(deviceAddress)
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[HistorySyncEngine] 동기화 위치 조회 실패 - 동기화 생략", e)
+            return
+        }
+
+        val today = LocalDate.now(zone())
+        val requests = plan(loaded, today)
+        synchronized(lock) {
+            address = deviceAddress
+            cursors = loaded
+            writeFailed = false
+            dayQueues.clear()
+            streams.clear()
+            requests.forEach { request ->
+                val type = request.dayListType ?: return@forEach
+                dayQueues.getOrPut(type) { ArrayDeque() }.addLast(request.day ?: return@forEach)
+            }
+        }
+        _metrics.value = HistorySyncMetrics(isRunning = true, startedAt = clock())
+        Log.i(WR_EVENT, "[HistorySyncEngine] 기록 동기화 시작 - 요청 ${requests.size}건, 이어받기 ${loaded.size}종")
+
+        linkParameters.beginBulkTransfer()
+        decodePipeline.holdHealthFrames = true
+        try {
+            for (request in requests) {
+                if (!send(request)) return
+            }
+            awaitResponses()
+        } finally {
+            decodePipeline.holdHealthFrames = false
+            linkParameters.endBulkTransfer()
+            withContext(NonCancellable) { finish(deviceAddress) }
+        }
+    }
+
+    /**
+     * 요청 목록 - 날짜 단위 요청은 마지막 저장 기록이 있는 날부터 오늘까지 (최대 [MAX_HISTORY_DAYS]일)
+     */
+    private fun plan(cursors: Map<HealthRecordType, Long>, today: LocalDate): List<Request> {
+        val send = Manridy.getMrdSend()
+        val requests = ArrayList<Request>()
+
+        for ((type, kind) in DAY_LIST_KINDS) {
+            for (day in daysToSync(cursors[type], today)) {
+                requests.add(
+                    Request(
+                        label = "기록 요청 ${type.name} $day",
+                        command = send.getHistoryData(kind, true, day.year % 100, day.monthValue, day.dayOfMonth)?.datas,
+                        dayListType = type,
+                        day = day
+                    )
+                )
+            }
+        }
+
+        val stepFrom = daysToSync(cursors[HealthRecordType.STEPS], today).first()
+        requests.add(Request("걸음 기록 수 요청", send.getStepHistoryNum()?.datas))
+        requests.add(
+            Request(
+                "걸음 기록 요청 $stepFrom",
+                send.getStepHistoryData(stepFrom.year % 100, stepFrom.monthValue, stepFrom.dayOfMonth)?.datas
+            )
+        )
+        requests.add(Request("운동 기록 요청", send.getSportHistoryData()?.datas))
+        requests.add(Request("HRV 기록 요청", send.getHRVHistory(HRV_MODE_HISTORY)?.datas))
+        requests.add(Request("수면 기록 요청", send.getSleep(SLEEP_MODE_HISTORY)?.datas))
+        return requests
+    }
+
+    private fun daysToSync(cursor: Long?, today: LocalDate): List<LocalDate> {
+        val oldest = today.minusDays(MAX_HISTORY_DAYS - 1L)
+        val from = cursor?.let { Instant.ofEpochMilli(it).atZone(zone()).toLocalDate() }
+            ?.coerceIn(oldest, today) ?: oldest
+        return generateSequence(from) { it.plusDays(1) }.takeWhile { !it.isAfter(today) }.toList()
+    }
+
+    /**
+     * 요청 전송 - 쓰기 완료 콜백까지만 대기
+     * @return 계속 진행할 수 있으면 true (연결 해제로 취소되면 false)
+     */
+    private suspend fun send(request: Request): Boolean {
+        val command = request.command
+        val result = if (command == null) {
+            null
+        } else {
+            gattQueue.enqueue(
+                GattOperation.WriteCharacteristic(
+                    serviceUuid = BleConstants.SERVICE_UUID,
+                    characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+                    value = command,
+                    label = request.label,
+                    priority = GattPriority.LOW
+                )
+            )
+        }
+
+        if (result?.success == true) {
+            _metrics.update { it.copy(requestsSent = it.requestsSent + 1) }
+            return true
+        }
+
+        // 보내지 못한 날짜 요청은 응답도 오지 않으므로 날짜 대기열에서 뺀다
+        synchronized(lock) {
+            val type = request.dayListType
+            if (type != null) dayQueues[type]?.remove(request.day)
+        }
+        _metrics.update { it.copy(requestsFailed = it.requestsFailed + 1) }
+        Log.w(WR_EVENT, "[HistorySyncEngine] ${request.label} 실패 (status: ${result?.status ?: "명령 생성 실패"})")
+        return result?.status != GattOperationResult.STATUS_CANCELLED
+    }
+
+    /**
+     * 모든 응답을 받거나 [IDLE_TIMEOUT_MS] 동안 응답이 없을 때까지 대기
+     */
+    private suspend fun awaitResponses() {
+        while (!isComplete()) {
+            withTimeoutOrNull(IDLE_TIMEOUT_MS) { activity.receive() } ?: return
+        }
+    }
+
+    private fun isComplete(): Boolean = synchronized(lock) {
+        if (dayQueues.values.any { it.isNotEmpty() }) return false
+        STREAM_TYPES.all { type ->
+            val stream = streams[type] ?: return false
+            val total = stream.total ?: return false
+            stream.received >= total
+        }
+    }
+
+    private suspend fun finish(deviceAddress: String) {
+        val batch = synchronized(lock) {
+            // 그사이 새 연결에서 다시 시작한 동기화의 상태는 건드리지 않음
+            if (address == deviceAddress) {
+                address = null
+                dayQueues.clear()
+            }
+            takeBatchLocked()
+        }
+        batch?.let { persist(it) }
+        // 진행 중인 배치 저장이 끝난 뒤 완료로 표시
+        writeMutex.withLock { }
+
+        val now = clock()
+        _metrics.update {
+            it.copy(isRunning = false, finishedAt = now, recordsPerSecond = throughput(it.startedAt, it.recordsReceived, now))
+        }
+        val result = _metrics.value
+        Log.i(
+            WR_EVENT,
+            "[HistorySyncEngine] 기록 동기화 종료 - 받음 ${result.recordsReceived}건, 저장 ${result.recordsStored}건, " +
+                "${"%.1f".format(result.recordsPerSecond)} records/s"
+        )
+    }
+
+    private fun takeBatchLocked(): List<HealthRecordEntity>? {
+        if (pending.isEmpty()) return null
+        return pending.also { pending = ArrayList(BATCH_SIZE) }
+    }
+
+    private suspend fun persist(batch: List<HealthRecordEntity>) {
+        writeMutex.withLock { write(batch) }
+    }
+
+    private suspend fun write(batch: List<HealthRecordEntity>) {
+        val deviceAddress = batch.first().deviceAddress
+        if (synchronized(lock) { writeFailed }) {
+            // 앞 배치가 실패한 뒤의 배치 - 저장하면 커서가 실패 구간을 건너뛴다
+            _metrics.update { it.copy(batchesDropped = it.batchesDropped + 1) }
+            return
+        }
+        val startedAt = clock()
+        try {
+            val stored = repository.appendHistory(deviceAddress, batch)
+            _metrics.update {
+                it.copy(
+                    recordsStored = it.recordsStored + stored,
+                    batchesWritten = it.batchesWritten + 1,
+                    lastBatchWriteMs = clock() - startedAt
+                )
+            }
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[HistorySyncEngine] 기록 저장 실패 (${batch.size}건) - 동기화 중단", e)
+            abortAfterWriteFailure(deviceAddress)
+        }
+    }
+
+    /**
+     * 저장 실패 후 처리 - 이 배치의 커서는 저장되지 않았지만, 이후 배치가 하나라도 저장되면
+     * 커서가 그 최대 시각으로 전진해 실패 구간은 다음 동기화에서 버려진다.
+     * 그러므로 이후 배치는 모두 버리고 남은 요청을 취소해 커서를 실패 구간 앞에 묶어 둔다
+     */
+    private fun abortAfterWriteFailure(deviceAddress: String) {
+        val job = synchronized(lock) {
+            writeFailed = true
+            pending = ArrayList(BATCH_SIZE)
+            if (address == deviceAddress) {
+                address = null
+                dayQueues.clear()
+            }
+            syncJob
+        }
+        _metrics.update { it.copy(batchesDropped = it.batchesDropped + 1) }
+        job?.cancel()
+    }
+
+    private fun throughput(startedAt: Long?, records: Int, now: Long = clock()): Double {
+        val elapsed = now - (startedAt ?: return 0.0)
+        return if (elapsed <= 0L) 0.0 else records * 1000.0 / elapsed
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        const val BATCH_SIZE = 256
+        const val MAX_HISTORY_DAYS = 7
+        const val IDLE_TIMEOUT_MS = 3_000L
+
+        // getHistoryData 기록 종류 번호 (MrdReadEnum *_History_Data 순서: 심박 1, 혈압 2, 혈중 산소 3, ... 체온 6)
+        private val DAY_LIST_KINDS = listOf(
+            HealthRecordType.HEART_RATE to 1,
+            HealthRecordType.BLOOD_OXYGEN to 3,
+            HealthRecordType.TEMPERATURE to 6
+        )
+
+        // 기록 번호/전체 수를 함께 보내는 스트림 응답
+        private val STREAM_TYPES = listOf(HealthRecordType.STEPS, HealthRecordType.HRV, HealthRecordType.SLEEP)
+
+        // getSleep/getHrData와 같은 규칙: 0 = 최근 값, 1 = 기록, 2 = 기록 수 (HRV 2는 최근 한 건)
+        private const val SLEEP_MODE_HISTORY = 1
+        private const val HRV_MODE_HISTORY = 1
+    }
+}
@@ -0,0 +1,186 @@
+package com.wishring.app.ble
+
+import android.annotation.SuppressLint
+import android.bluetooth.BluetoothDevice
+import android.bluetooth.BluetoothGatt
+import android.os.SystemClock
+import android.util.Log
+import com.manridy.sdk_mrd2019.install.MrdPushCore
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.LinkParameterMetrics
+import com.wishring.app.ble.model.LinkPriority
+import com.wishring.app.data.ble.model.BleConstants
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+
+/**
+ * 링크 파라미터 관리자 (MTU, PHY, 연결 우선순위)
+ *
+ * - MTU: 서비스 발견 후 최대값을 요청하고, 결과를 MRD SDK(MrdPushCore.onMtuChanged)에도 전달
+ * - PHY: 컨트롤러가 지원하면 LE 2M 선호
+ * - 연결 우선순위: [ConnectionPriorityPolicy]에 따라 대량 전송/빠른 연속 입력 중에는 HIGH,
+ *   이후 BALANCED → LOW_POWER로 내려 유휴 시 링/폰 배터리 소모를 줄인다
+ *
+ * 협상 결과와 우선순위 전환 시각은 [metrics]로 노출한다.
+ *
+ * @param gattProvider 현재 연결된 BluetoothGatt 제공자
+ * @param isLe2MPhySupported 이 폰의 컨트롤러가 LE 2M PHY를 지원하는지
+ */
+@SuppressLint("MissingPermission")
+class LinkParameterManager(
+    private val scope: CoroutineScope,
+    private val gattQueue: GattOperationQueue,
+    private val gattProvider: () -> BluetoothGatt?,
+    private val isLe2MPhySupported: () -> Boolean,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() }
+) {
+
+    private val lock = Any()
+
+    // lock으로 보호
+    private val policy = ConnectionPriorityPolicy()
+    private var appliedPriority: LinkPriority? = null
+    private var timerJob: Job? = null
+
+    private val _metrics = MutableStateFlow(LinkParameterMetrics())
+    val metrics: StateFlow<LinkParameterMetrics> = _metrics.asStateFlow()
+
+    /**
+     * GATT 연결됨 - 이전 연결의 협상 값 초기화 (스택 기본값은 MTU 23, BALANCED)
+     */
+    fun onConnected() {
+        synchronized(lock) {
+            policy.reset(clock())
+            appliedPriority = LinkPriority.BALANCED
+            timerJob?.cancel()
+            timerJob = null
+        }
+        _metrics.value = LinkParameterMetrics()
+    }
+
+    /**
+     * 연결 종료 - 우선순위 타이머 중지
+     */
+    fun release() {
+        synchronized(lock) {
+            timerJob?.cancel()
+            timerJob = null
+            appliedPriority = null
+        }
+    }
+
+    /**
+     * 서비스 발견 후 호출 - MTU 협상, PHY 요청
+     * MTU 요청은 GATT 큐를 거쳐 onMtuChanged까지 대기
+     */
+    suspend fun negotiate() {
+        val result = gattQueue.enqueue(GattOperation.RequestMtu(BleConstants.MAX_MTU))
+        if (!result.success) {
+            Log.w(WR_EVENT, "[LinkParameterManager] MTU 협상 실패 (status: ${result.status}) - 기본값 ${BleConstants.DEFAULT_MTU} 사용")
+        }
+
+        if (isLe2MPhySupported()) {
+            gattProvider()?.let { gatt ->
+                // 결과는 onPhyUpdate로 전달됨 (링이 지원하지 않으면 1M 유지)
+                gatt.setPreferredPhy(
+                    BluetoothDevice.PHY_LE_2M_MASK,
+                    BluetoothDevice.PHY_LE_2M_MASK,
+                    BluetoothDevice.PHY_OPTION_NO_PREFERRED
+                )
+                Log.i(WR_EVENT, "[LinkParameterManager] LE 2M PHY 요청")
+            }
+        }
+    }
+
+    /**
+     * onMtuChanged 콜백 - MRD SDK는 분할 전송 크기를 이 값으로 정한다
+     */
+    fun onMtuChanged(mtu: Int, status: Int) {
+        MrdPushCore.getInstance().onMtuChanged(mtu, status)
+        if (status != BluetoothGatt.GATT_SUCCESS) return
+        Log.i(WR_EVENT, "[LinkParameterManager] MTU 협상 완료: $mtu")
+        _metrics.update { it.copy(mtu = mtu, mtuNegotiatedAt = clock()) }
+    }
+
+    /**
+     * onPhyUpdate / onPhyRead 콜백
+     */
+    fun onPhyUpdate(txPhy: Int, rxPhy: Int, status: Int) {
+        if (status != BluetoothGatt.GATT_SUCCESS) return
+        Log.i(WR_EVENT, "[LinkParameterManager] PHY 변경: tx=$txPhy, rx=$rxPhy")
+        _metrics.update { it.copy(txPhy = txPhy, rxPhy = rxPhy, phyUpdatedAt = clock()) }
+    }
+
+    /**
+     * 링 입력 수신 (빠른 연속 입력이면 HIGH)
+     */
+    fun onPress() = adjust { policy.onPress(it) }
+
+    /**
+     * 대량 전송 시작 - [endBulkTransfer]까지 HIGH 유지 (중첩 가능)
+     */
+    fun beginBulkTransfer() = adjust { policy.onBulkTransferStarted(it) }
+
+    fun endBulkTransfer() = adjust { policy.onBulkTransferFinished(it) }
+
+    private inline fun adjust(event: (now: Long) -> Unit) {
+        synchronized(lock) {
+            if (appliedPriority == null) return
+            event(clock())
+            applyLocked()
+        }
+    }
+
+    /**
+     * 정책이 정한 우선순위가 바뀌었으면 요청하고, 다음 전환 시각에 다시 평가
+     */
+    private fun applyLocked() {
+        val now = clock()
+        val target = policy.priorityAt(now)
+        var pending = false
+        if (target != appliedPriority) {
+            val requested = gattProvider()?.requestConnectionPriority(target.toGattPriority()) == true
+            if (requested) {
+                appliedPriority = target
+                _metrics.update {
+                    it.copy(
+                        priority = target,
+                        prioritySwitchedAt = now,
+                        prioritySwitchCount = it.prioritySwitchCount + 1
+                    )
+                }
+                Log.i(WR_EVENT, "[LinkParameterManager] 연결 우선순위 → $target")
+            } else {
+                // 다른 GATT 작업 진행 중이면 거부될 수 있음 - 잠시 후 다시 시도
+                pending = true
+            }
+        }
+
+        timerJob?.cancel()
+        val nextAt = if (pending) now + PRIORITY_RETRY_MS else policy.nextChangeAt(now) ?: return
+        timerJob = scope.launch {
+            delay(nextAt - now)
+            synchronized(lock) {
+                if (appliedPriority != null) applyLocked()
+            }
+        }
+    }
+
+    private fun LinkPriority.toGattPriority(): Int = when (this) {
+        LinkPriority.HIGH -> BluetoothGatt.CONNECTION_PRIORITY_HIGH
+        LinkPriority.BALANCED -> BluetoothGatt.CONNECTION_PRIORITY_BALANCED
+        LinkPriority.LOW_POWER -> BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        private const val PRIORITY_RETRY_MS = 500L
+    }
+}
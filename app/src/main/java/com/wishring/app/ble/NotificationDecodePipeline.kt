@@ -0,0 +1,295 @@
+package com.wishring.app.ble
+
+import android.util.Log
+import com.manridy.sdk_mrd2019.Manridy
+import com.manridy.sdk_mrd2019.install.MrdPushCore
+import com.wishring.app.ble.model.DecodePipelineMetrics
+import com.wishring.app.ble.model.FrameLane
+import com.wishring.app.data.ble.H13FrameDecoder
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.ble.model.H13Frame
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.selects.select
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * GATT 알림 디코딩 파이프라인
+ *
+ * onCharacteristicChanged(바인더 스레드)는 [submit]으로 원본 바이트만 넘기고 즉시 반환한다.
+ * 디코딩은 단일 소비 코루틴이 메인 스레드 밖에서 순서대로 처리하며, 결과는 [frames]로 발행된다.
+ * 알려진 프레임은 [H13FrameDecoder]가 직접 디코딩하고, 모르는 프레임만 MRD SDK로 넘긴다.
+ *
+ * 레인별 정책 ([FrameLane]):
+ * - EVENT: 넉넉한 유한 버퍼, 콜백 스레드는 절대 막지 않는다 (막으면 쓰기 완료/연결 해제 콜백까지 멈춤).
+ *   가득 차면 버리지 않고 넘침 큐로 보낸다. 넘침 큐가 빌 때까지 이후 EVENT 프레임도 넘침 큐로 보내
+ *   도착 순서(카운터 ↔ 리셋)를 지키고, 연속된 카운터 프레임은 누적값이라 마지막 값 하나로 합친다
+ *   ([DecodePipelineMetrics.coalescedCounterCount]). 리셋/버튼 프레임은 유실되지 않는다
+ * - WAVE: ECG 파형 전용 유한 버퍼. 넘치면 버린 프레임 수를 [DecodePipelineMetrics.droppedWaveCount]로 세고,
+ *   빠진 순번은 [EcgCaptureSession]이 공백으로 채워 기록의 시간축을 유지한다
+ * - BATTERY: conflate - 아직 처리되지 않은 이전 값은 최신 값으로 대체
+ * - HEALTH: 유한 버퍼, 넘치면 가장 오래된 프레임부터 버림
+ *
+ * 소비자는 EVENT → 넘침 큐 → WAVE → BATTERY → HEALTH 순으로 우선 처리한다.
+ * 기록 동기화 중에는 [holdHealthFrames]로 HEALTH 프레임도 EVENT 레인으로 보내 버리지 않는다.
+ *
+ * @param scope 세션 스코프
+ * @param decodeDispatcher 디코딩이 실행될 디스패처 (메인 스레드가 아니어야 함)
+ */
+class NotificationDecodePipeline(
+    private val scope: CoroutineScope,
+    private val decodeDispatcher: CoroutineDispatcher
+) {
+
+    private class RawFrame(val data: ByteArray, val lane: FrameLane) {
+        val isCounter: Boolean
+            get() = data.size == BleConstants.COUNTER_DATA_SIZE
+    }
+
+    private val eventDepth = AtomicInteger(0)
+    private val healthDepth = AtomicInteger(0)
+    private val conflatedBattery = AtomicLong(0)
+    private val droppedHealth = AtomicLong(0)
+    private val droppedWaves = AtomicLong(0)
+    private val overflowedEvents = AtomicLong(0)
+    private val coalescedCounters = AtomicLong(0)
+
+    private val eventChannel = Channel<RawFrame>(EVENT_CAPACITY)
+
+    /**
+     * EVENT 버퍼가 넘쳤을 때의 무손실 넘침 큐 (도착 순, [overflowLock]으로 보호)
+     * 바인더 스레드를 막지 않도록 크기 제한이 없으며, 연속된 카운터만 합쳐 크기를 줄인다
+     */
+    private val overflowLock = Any()
+    private val overflow = ArrayDeque<RawFrame>()
+    private val overflowSignal = Channel<Unit>(Channel.CONFLATED)
+
+    private val waveChannel = Channel<RawFrame>(WAVE_CAPACITY)
+    private val batteryChannel = Channel<RawFrame>(Channel.CONFLATED) {
+        conflatedBattery.incrementAndGet()
+    }
+    private val healthChannel = Channel<RawFrame>(
+        capacity = HEALTH_CAPACITY,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST
+    ) {
+        healthDepth.decrementAndGet()
+        droppedHealth.incrementAndGet()
+    }
+
+    private val sdkFallbacks = AtomicLong(0)
+
+    private val _frames = MutableSharedFlow<H13Frame>(extraBufferCapacity = FRAME_BUFFER)
+    val frames: SharedFlow<H13Frame> = _frames.asSharedFlow()
+
+    private val _metrics = MutableStateFlow(DecodePipelineMetrics())
+    val metrics: StateFlow<DecodePipelineMetrics> = _metrics.asStateFlow()
+
+    @Volatile
+    private var consumer: Job? = null
+
+    /**
+     * true면 HEALTH 프레임도 버리지 않음 (기록 응답은 한 건만 빠져도 다시 받아야 하므로)
+     */
+    @Volatile
+    var holdHealthFrames: Boolean = false
+
+    /**
+     * 디코딩 소비 코루틴 시작
+     */
+    fun start() {
+        if (consumer?.isActive == true) return
+        consumer = scope.launch(decodeDispatcher) {
+            while (isActive) {
+                // select는 먼저 선언된 절을 우선하므로 EVENT가 항상 먼저 처리됨
+                // 넘침 큐는 EVENT 버퍼보다 나중에 도착한 프레임만 담으므로 그 다음 순서
+                val frame = select<RawFrame?> {
+                    eventChannel.onReceive { eventDepth.decrementAndGet(); it }
+                    overflowSignal.onReceive { pollOverflow() }
+                    waveChannel.onReceive { it }
+                    batteryChannel.onReceive { it }
+                    healthChannel.onReceive { healthDepth.decrementAndGet(); it }
+                } ?: continue
+                process(frame)
+            }
+        }
+    }
+
+    /**
+     * 알림 원본 전달 - GATT 콜백 스레드에서 호출
+     */
+    fun submit(data: ByteArray) {
+        val lane = classify(data).let { if (it == FrameLane.HEALTH && holdHealthFrames) FrameLane.EVENT else it }
+        val frame = RawFrame(data, lane)
+        when (lane) {
+            FrameLane.BATTERY -> batteryChannel.trySend(frame)
+
+            FrameLane.HEALTH -> {
+                healthDepth.incrementAndGet()
+                healthChannel.trySend(frame)
+            }
+
+            FrameLane.WAVE -> {
+                if (waveChannel.trySend(frame).isSuccess) return
+                val dropped = droppedWaves.incrementAndGet()
+                _metrics.update { it.copy(droppedWaveCount = dropped) }
+                Log.w(WR_EVENT, "[NotificationDecodePipeline] ECG 버퍼 가득 참 - 파형 공백 (누적 $dropped)")
+            }
+
+            FrameLane.EVENT -> {
+                // 넘침 큐가 비어 있을 때만 EVENT 버퍼로 보내야 순서가 뒤집히지 않음
+                if (!hasOverflow()) {
+                    eventDepth.incrementAndGet()
+                    if (eventChannel.trySend(frame).isSuccess) return
+                    eventDepth.decrementAndGet()
+                }
+                pushOverflow(frame)
+            }
+        }
+    }
+
+    /**
+     * 연결 종료 시 처리되지 않은 프레임 정리
+     */
+    fun stop() {
+        consumer?.cancel()
+        consumer = null
+        while (eventChannel.tryReceive().isSuccess) Unit
+        synchronized(overflowLock) { overflow.clear() }
+        while (overflowSignal.tryReceive().isSuccess) Unit
+        while (waveChannel.tryReceive().isSuccess) Unit
+        while (batteryChannel.tryReceive().isSuccess) Unit
+        while (healthChannel.tryReceive().isSuccess) Unit
+        eventDepth.set(0)
+        healthDepth.set(0)
+        _metrics.update { it.copy(eventQueueDepth = 0, overflowQueueDepth = 0, healthQueueDepth = 0) }
+    }
+
+    private fun hasOverflow(): Boolean = synchronized(overflowLock) { overflow.isNotEmpty() }
+
+    /**
+     * 넘침 큐에 추가 - 바로 앞 프레임도 카운터면 누적값이므로 최신 값으로 대체
+     * (사이에 리셋이 있으면 합치지 않아 리셋 전후 구간이 섞이지 않음)
+     */
+    private fun pushOverflow(frame: RawFrame) {
+        val depth = synchronized(overflowLock) {
+            if (frame.isCounter && overflow.lastOrNull()?.isCounter == true) {
+                overflow[overflow.lastIndex] = frame
+                coalescedCounters.incrementAndGet()
+            } else {
+                overflow.addLast(frame)
+                overflowedEvents.incrementAndGet()
+            }
+            overflow.size
+        }
+        overflowSignal.trySend(Unit)
+        _metrics.update {
+            it.copy(
+                overflowQueueDepth = depth,
+                overflowedEventCount = overflowedEvents.get(),
+                coalescedCounterCount = coalescedCounters.get()
+            )
+        }
+    }
+
+    private fun pollOverflow(): RawFrame? = synchronized(overflowLock) {
+        overflow.removeFirstOrNull().also {
+            // 남은 프레임이 있으면 다음 select에서 다시 꺼내도록 신호를 남김
+            if (overflow.isNotEmpty()) overflowSignal.trySend(Unit)
+        }
+    }
+
+    private suspend fun process(frame: RawFrame) {
+        val startedAt = System.nanoTime()
+        val decoded = decode(frame)
+        val elapsed = System.nanoTime() - startedAt
+
+        _metrics.update {
+            it.copy(
+                eventQueueDepth = eventDepth.get(),
+                overflowQueueDepth = synchronized(overflowLock) { overflow.size },
+                healthQueueDepth = healthDepth.get(),
+                decodedCount = it.decodedCount + 1,
+                sdkFallbackCount = sdkFallbacks.get(),
+                conflatedBatteryCount = conflatedBattery.get(),
+                droppedHealthCount = droppedHealth.get(),
+                droppedWaveCount = droppedWaves.get(),
+                overflowedEventCount = overflowedEvents.get(),
+                coalescedCounterCount = coalescedCounters.get(),
+                lastDecodeNanos = elapsed,
+                maxDecodeNanos = maxOf(it.maxDecodeNanos, elapsed),
+                totalDecodeNanos = it.totalDecodeNanos + elapsed
+            )
+        }
+
+        decoded?.let { _frames.emit(it) }
+    }
+
+    private fun decode(frame: RawFrame): H13Frame? {
+        val decoded = H13FrameDecoder.decode(frame.data)
+        return if (decoded === H13Frame.Unknown) decodeWithSdk(frame.data) else decoded
+    }
+
+    /**
+     * 네이티브 디코더가 모르는 프레임만 MRD SDK로 처리
+     */
+    private fun decodeWithSdk(data: ByteArray): H13Frame? {
+        sdkFallbacks.incrementAndGet()
+        return try {
+            // MRD SDK에 데이터 전달
+            MrdPushCore.getInstance().readData(data)
+
+            val readRequest = Manridy.getMrdRead().read(data) ?: return null
+            H13Frame.Sdk(readRequest.mrdReadEnum?.toString(), readRequest.json)
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[NotificationDecodePipeline] MRD SDK 처리 실패", e)
+            null
+        }
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        // 콜백 스레드를 막지 않으므로 순간 폭주(기록 동기화 중 HEALTH 포함)를 받아낼 만큼 크게
+        private const val EVENT_CAPACITY = 1024
+        private const val WAVE_CAPACITY = 512
+        private const val HEALTH_CAPACITY = 128
+        private const val FRAME_BUFFER = 64
+
+        /**
+         * 헤더 바이트만 보고 레인 결정 (디코딩 전 단계라 가벼워야 함)
+         * 모르는 프레임은 카운터일 수 있으므로 EVENT로 보낸다
+         */
+        fun classify(data: ByteArray): FrameLane {
+            // 레거시 카운터/리셋 프레임은 헤더가 없으므로 길이로 먼저 거른다
+            if (data.size < 2 || data.size == BleConstants.COUNTER_DATA_SIZE) return FrameLane.EVENT
+            return when (data[0].toInt() and 0xFF) {
+                H13FrameDecoder.HEADER_SYSTEM ->
+                    if (data.size > 1 && data[1].toInt() == H13FrameDecoder.SYSTEM_BATTERY) FrameLane.BATTERY
+                    else FrameLane.EVENT
+
+                H13FrameDecoder.HEADER_STEP,
+                H13FrameDecoder.HEADER_HEART,
+                H13FrameDecoder.HEADER_SPORT,
+                H13FrameDecoder.HEADER_ECG_HEART -> FrameLane.HEALTH
+
+                // ECG 파형은 전용 레인 - 넘쳐도 EVENT 프레임을 밀어내지 않고 공백으로 기록됨
+                H13FrameDecoder.HEADER_ECG_WAVE -> FrameLane.WAVE
+
+                else -> FrameLane.EVENT
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.wishring.app.ble
+
+import android.os.SystemClock
+import android.util.Log
+import com.wishring.app.ble.model.ReconnectMetrics
+import com.wishring.app.data.ble.model.BleConstants
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlin.random.Random
+
+/**
+ * 재연결 대기 시간 계산 (지터 포함 지수 백오프)
+ *
+ * n번째 시도의 기준값은 initialDelayMs * 2^(n-1)이며 [maxDelayMs]를 넘지 않는다.
+ * 여러 앱/기기가 동시에 재시도하지 않도록 기준값에서 최대 [jitterRatio]만큼 무작위로 줄인다.
+ */
+class ReconnectBackoff(
+    private val initialDelayMs: Long = BleConstants.RECONNECT_INITIAL_DELAY_MS,
+    private val maxDelayMs: Long = BleConstants.RECONNECT_MAX_DELAY_MS,
+    private val jitterRatio: Double = BleConstants.RECONNECT_JITTER_RATIO
+) {
+    /**
+     * @param attempt 시도 번호 (1부터)
+     * @return 대기 시간 (ms), [base * (1 - jitterRatio), base] 범위
+     */
+    fun delayFor(attempt: Int, random: Random = Random.Default): Long {
+        val exponent = (attempt - 1).coerceIn(0, MAX_EXPONENT)
+        val base = (initialDelayMs shl exponent).coerceAtMost(maxDelayMs)
+        val jitter = (base * jitterRatio * random.nextDouble()).toLong()
+        return base - jitter
+    }
+
+    private companion object {
+        // 2^20배면 어떤 초기값이든 상한을 넘으므로 그 이상은 시프트하지 않음 (오버플로 방지)
+        const val MAX_EXPONENT = 20
+    }
+}
+
+/**
+ * 재연결 오케스트레이터
+ *
+ * 연결이 끊기면 [ReconnectBackoff] 간격으로 직접 연결(autoConnect=false)을 다시 시도한다.
+ * 잠깐 끊긴 경우 첫 재시도가 약 100ms 후라 링이 아직 광고 중이면 1초 안에 Ready까지 돌아온다.
+ * 본딩된 링은 [directAttempts]회 실패 후 autoConnect=true로 전환해 스택이 링을 기다리게 한다
+ * (타임아웃이 없어 앱이 계속 깨어날 필요가 없음).
+ *
+ * 블루투스가 꺼져 있는 동안은 재시도하지 않고, 다시 켜지면 즉시 연결한다.
+ * 회차마다 끊김(또는 연결 요청) 시점부터 Ready까지의 시간을 [metrics]에 기록한다.
+ *
+ * @param connect 실제 connectGatt 호출 (autoConnect 여부)
+ */
+class ReconnectOrchestrator(
+    private val scope: CoroutineScope,
+    private val backoff: ReconnectBackoff = ReconnectBackoff(),
+    private val directAttempts: Int = BleConstants.RECONNECT_DIRECT_ATTEMPTS,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() },
+    private val connect: (autoConnect: Boolean) -> Unit
+) {
+
+    private val lock = Any()
+
+    // lock으로 보호
+    private var enabled = false // 사용자가 연결을 요청했고 아직 해제하지 않음
+    private var adapterOn = true
+    private var bonded = false
+    private var attempt = 0
+    private var episodeStartedAt: Long? = null
+    private var retryJob: Job? = null
+
+    private val _metrics = MutableStateFlow(ReconnectMetrics())
+    val metrics: StateFlow<ReconnectMetrics> = _metrics.asStateFlow()
+
+    /**
+     * 사용자 연결 요청 - 즉시 직접 연결
+     * @param bonded 본딩된 링이면 직접 연결이 계속 실패할 때 autoConnect로 전환
+     */
+    fun begin(bonded: Boolean) {
+        synchronized(lock) {
+            retryJob?.cancel()
+            retryJob = null
+            enabled = true
+            this.bonded = bonded
+            attempt = 1
+            episodeStartedAt = clock()
+        }
+        dispatch(autoConnect = false, attempt = 1)
+    }
+
+    /**
+     * 세션 초기화 완료 (알림 설정, 카운터 보정 후)
+     */
+    fun onReady() {
+        val (startedAt, attempts) = synchronized(lock) {
+            val started = episodeStartedAt ?: return
+            episodeStartedAt = null
+            (started to attempt).also { attempt = 0 }
+        }
+        val elapsed = clock() - startedAt
+
+        _metrics.update {
+            it.copy(
+                pendingAttempt = 0,
+                readyCount = it.readyCount + 1,
+                lastAttemptsToReady = attempts,
+                lastTimeToReadyMs = elapsed,
+                bestTimeToReadyMs = if (it.readyCount == 0) elapsed else minOf(it.bestTimeToReadyMs, elapsed),
+                recentTimeToReadyMs = (it.recentTimeToReadyMs + elapsed).takeLast(RECENT_SAMPLES)
+            )
+        }
+        Log.i(WR_EVENT, "[ReconnectOrchestrator] Ready까지 ${elapsed}ms (시도 ${attempts}회)")
+    }
+
+    /**
+     * 사용자가 요청하지 않은 연결 끊김 또는 연결 실패 (status 133 등)
+     */
+    fun onLinkLost(status: Int) {
+        val next = synchronized(lock) {
+            if (!enabled || !adapterOn) return
+            if (episodeStartedAt == null) episodeStartedAt = clock()
+            retryJob?.cancel()
+            ++attempt
+        }
+        _metrics.update { it.copy(lastDisconnectStatus = status) }
+
+        if (bonded && next > directAttempts) {
+            // 스택이 링 광고를 기다렸다가 연결 - 다음 끊김까지 추가 재시도 불필요
+            Log.i(WR_EVENT, "[ReconnectOrchestrator] 직접 연결 ${directAttempts}회 실패 - autoConnect로 대기")
+            dispatch(autoConnect = true, attempt = next)
+            return
+        }
+
+        val delayMs = backoff.delayFor(next)
+        Log.i(WR_EVENT, "[ReconnectOrchestrator] ${delayMs}ms 후 재연결 (시도 $next, status: $status)")
+        val job = scope.launch {
+            delay(delayMs)
+            val stillWanted = synchronized(lock) { enabled && adapterOn && attempt == next }
+            if (stillWanted) dispatch(autoConnect = false, attempt = next)
+        }
+        synchronized(lock) { retryJob = job }
+    }
+
+    /**
+     * 블루투스 꺼짐 - 켜질 때까지 재시도 중지
+     */
+    fun onAdapterOff() {
+        synchronized(lock) {
+            adapterOn = false
+            retryJob?.cancel()
+            retryJob = null
+        }
+    }
+
+    /**
+     * 블루투스 켜짐 - 연결 대상이 있으면 백오프 없이 즉시 연결
+     */
+    fun onAdapterOn() {
+        val reconnect = synchronized(lock) {
+            adapterOn = true
+            if (!enabled) return
+            retryJob?.cancel()
+            retryJob = null
+            attempt = 1
+            episodeStartedAt = clock()
+            true
+        }
+        if (reconnect) {
+            Log.i(WR_EVENT, "[ReconnectOrchestrator] 블루투스 켜짐 - 즉시 재연결")
+            dispatch(autoConnect = false, attempt = 1)
+        }
+    }
+
+    /**
+     * 사용자가 연결 해제 - 재연결 중지
+     */
+    fun stop() {
+        synchronized(lock) {
+            enabled = false
+            retryJob?.cancel()
+            retryJob = null
+            attempt = 0
+            episodeStartedAt = null
+        }
+        _metrics.update { it.copy(pendingAttempt = 0) }
+    }
+
+    private fun dispatch(autoConnect: Boolean, attempt: Int) {
+        _metrics.update {
+            it.copy(
+                pendingAttempt = attempt,
+                totalAttempts = it.totalAttempts + 1,
+                autoConnectCount = it.autoConnectCount + if (autoConnect) 1 else 0
+            )
+        }
+        connect(autoConnect)
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        private const val RECENT_SAMPLES = 10
+    }
+}
@@ -0,0 +1,137 @@
+package com.wishring.app.ble
+
+import kotlin.math.ceil
+
+/**
+ * 시간 기반 슬라이딩 윈도우 통계 (최소/최대/평균/백분위)
+ *
+ * - 샘플은 primitive 원형 버퍼에 윈도우([windowMs]) 안의 것만 보관하고, 지나면 바로 뺀다
+ * - 최소/최대: 단조 덱 - 샘플당 분할 상환 O(1), 조회 O(1)
+ * - 평균: 누적 합 - O(1)
+ * - 백분위: [minValue]~[maxValue] 고정 구간 히스토그램 - 추가/제거 O(1), 조회는 구간 수에 비례 (상수)
+ *
+ * 윈도우 안 샘플이 [capacity]를 넘으면 가장 오래된 것부터 먼저 뺀다 (메모리 상한).
+ * 범위를 벗어난 값은 히스토그램에서만 양 끝 구간으로 묶인다.
+ * 시각은 호출자가 넘기는 단조 증가 시계(ms) 기준이며, 스레드 안전하지 않다 (호출자가 잠금).
+ */
+class SlidingWindowStats(
+    private val windowMs: Long,
+    private val capacity: Int,
+    private val minValue: Int,
+    private val maxValue: Int
+) {
+
+    init {
+        require(windowMs > 0 && capacity > 0 && maxValue >= minValue) { "invalid window" }
+    }
+
+    // 샘플 원형 버퍼 (head = 가장 오래된 샘플)
+    private val times = LongArray(capacity)
+    private val values = IntArray(capacity)
+    private var head = 0
+    private var size = 0
+
+    // 지금까지 넣은 샘플 번호 (단조 덱이 샘플을 가리키는 키)
+    private var added = 0L
+
+    // 단조 덱 (샘플 번호, 원형) - min은 값 오름차순, max는 내림차순
+    private val minDeque = LongArray(capacity)
+    private var minHead = 0
+    private var minSize = 0
+    private val maxDeque = LongArray(capacity)
+    private var maxHead = 0
+    private var maxSize = 0
+
+    private var sum = 0L
+    private val histogram = IntArray(maxValue - minValue + 1)
+
+    val count: Int
+        get() = size
+
+    fun add(now: Long, value: Int) {
+        evict(now)
+        if (size == capacity) removeOldest()
+
+        val tail = (head + size) % capacity
+        times[tail] = now
+        values[tail] = value
+        size++
+        val seq = added++
+
+        while (minSize > 0 && valueOf(minDeque[(minHead + minSize - 1) % capacity]) >= value) minSize--
+        minDeque[(minHead + minSize) % capacity] = seq
+        minSize++
+        while (maxSize > 0 && valueOf(maxDeque[(maxHead + maxSize - 1) % capacity]) <= value) maxSize--
+        maxDeque[(maxHead + maxSize) % capacity] = seq
+        maxSize++
+
+        sum += value
+        histogram[bin(value)]++
+    }
+
+    /**
+     * 윈도우를 지난 샘플 제거 (새 샘플 없이 시간만 흐를 때)
+     */
+    fun evict(now: Long) {
+        while (size > 0 && times[head] <= now - windowMs) removeOldest()
+    }
+
+    fun clear() {
+        head = 0
+        size = 0
+        minHead = 0
+        minSize = 0
+        maxHead = 0
+        maxSize = 0
+        sum = 0L
+        histogram.fill(0)
+    }
+
+    fun min(): Int? = if (size == 0) null else valueOf(minDeque[minHead])
+
+    fun max(): Int? = if (size == 0) null else valueOf(maxDeque[maxHead])
+
+    fun mean(): Double? = if (size == 0) null else sum.toDouble() / size
+
+    fun latest(): Int? = if (size == 0) null else values[(head + size - 1) % capacity]
+
+    /**
+     * 백분위 (nearest-rank)
+     * @param p 0.0~1.0
+     */
+    fun percentile(p: Double): Int? {
+        if (size == 0) return null
+        val rank = maxOf(1, ceil(p.coerceIn(0.0, 1.0) * size).toInt())
+        var seen = 0
+        for (i in histogram.indices) {
+            seen += histogram[i]
+            if (seen >= rank) return minValue + i
+        }
+        return maxValue
+    }
+
+    private fun removeOldest() {
+        val seq = added - size
+        val value = values[head]
+        head = (head + 1) % capacity
+        size--
+
+        if (minSize > 0 && minDeque[minHead] == seq) {
+            minHead = (minHead + 1) % capacity
+            minSize--
+        }
+        if (maxSize > 0 && maxDeque[maxHead] == seq) {
+            maxHead = (maxHead + 1) % capacity
+            maxSize--
+        }
+        sum -= value
+        histogram[bin(value)]--
+    }
+
+    /**
+     * 샘플 번호 → 값 (윈도우 안 샘플만)
+     */
+    private fun valueOf(seq: Long): Int = values[((head + (seq - (added - size))) % capacity).toInt()]
+
+    private fun bin(value: Int): Int = value.coerceIn(minValue, maxValue) - minValue
+}
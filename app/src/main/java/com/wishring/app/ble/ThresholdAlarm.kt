@@ -0,0 +1,66 @@
+package com.wishring.app.ble
+
+import com.wishring.app.ble.model.VitalAlertLevel
+
+/**
+ * 임계값 알림 판정 (지속 시간 + 히스테리시스)
+ *
+ * - 값이 [high] 이상 또는 [low] 이하인 상태가 [sustainMs] 동안 이어지면 한 번 알린다
+ * - 알린 뒤에는 [hysteresis]만큼 정상 범위 안쪽으로 돌아와야 해제(NORMAL)를 알리고 다시 판정한다
+ *
+ * 샘플을 보관하지 않고 벗어나기 시작한 시각만 기억한다.
+ * 시각은 단조 증가 시계(ms) 기준이며, 스레드 안전하지 않다 (호출자가 잠금).
+ */
+class ThresholdAlarm(
+    private val high: Int? = null,
+    private val low: Int? = null,
+    private val hysteresis: Int = DEFAULT_HYSTERESIS,
+    private val sustainMs: Long = 0L
+) {
+
+    var level: VitalAlertLevel = VitalAlertLevel.NORMAL
+        private set
+
+    private var breach: VitalAlertLevel = VitalAlertLevel.NORMAL
+    private var breachSince = 0L
+
+    fun reset() {
+        level = VitalAlertLevel.NORMAL
+        breach = VitalAlertLevel.NORMAL
+    }
+
+    /**
+     * 새 값 판정
+     * @return 알림 단계가 바뀌었으면 새 단계, 아니면 null
+     */
+    fun update(now: Long, value: Int): VitalAlertLevel? {
+        if (level != VitalAlertLevel.NORMAL) {
+            val recovered = when (level) {
+                VitalAlertLevel.HIGH -> high == null || value <= high - hysteresis
+                VitalAlertLevel.LOW -> low == null || value >= low + hysteresis
+                VitalAlertLevel.NORMAL -> true
+            }
+            if (!recovered) return null
+            reset()
+            return VitalAlertLevel.NORMAL
+        }
+
+        val current = when {
+            high != null && value >= high -> VitalAlertLevel.HIGH
+            low != null && value <= low -> VitalAlertLevel.LOW
+            else -> VitalAlertLevel.NORMAL
+        }
+        if (current != breach) {
+            breach = current
+            breachSince = now
+        }
+        if (current == VitalAlertLevel.NORMAL || now - breachSince < sustainMs) return null
+
+        level = current
+        return current
+    }
+
+    companion object {
+        const val DEFAULT_HYSTERESIS = 5
+    }
+}
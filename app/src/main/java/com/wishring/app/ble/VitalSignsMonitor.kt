@@ -0,0 +1,340 @@
+package com.wishring.app.ble
+
+import android.os.SystemClock
+import android.util.Log
+import com.manridy.sdk_mrd2019.Manridy
+import com.manridy.sdk_mrd2019.bean.send.MrdHeartBloodAlert
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattPriority
+import com.wishring.app.ble.model.VitalAlert
+import com.wishring.app.ble.model.VitalSignsSnapshot
+import com.wishring.app.ble.model.VitalStats
+import com.wishring.app.ble.model.VitalThresholds
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.data.repository.HealthTimeSeriesRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlin.math.roundToInt
+
+/**
+ * 연속 생체 신호 측정
+ *
+ * 링에 주기 심박 측정/생체 신호 전송을 켜고, 심박(0x0A)/혈중 산소(SDK "BoTest")/걸음수(0x03)를 스트림으로 받는다.
+ * - 통계: 지표별 [SlidingWindowStats] - 최근 [WINDOW_MS] 동안의 최소/최대/평균/백분위를 샘플당 O(1)로 갱신
+ * - 알림: 지표별 [ThresholdAlarm] - 기준을 벗어난 상태가 이어지면 [alerts]로 한 번 알림
+ * - 저장: 원본 샘플은 저장하지 않고 [DownsampleBuffer]로 1분 평균만 모아 health_chunks에 쓴다
+ *   (걸음수는 하루 누적값을 기록 동기화가 따로 저장하므로 화면 표시용으로만 씀)
+ *
+ * 통계/알림 판정은 단조 증가 시계([clock]), 저장 시각은 벽시계([wallClock]) 기준.
+ * 연결이 끊기면 모아둔 평균을 저장하고 측정을 종료한다 ([release]).
+ */
+class VitalSignsMonitor(
+    private val scope: CoroutineScope,
+    private val gattQueue: GattOperationQueue,
+    private val repository: HealthTimeSeriesRepository,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() },
+    private val wallClock: () -> Long = { DateUtils.getCurrentTimestamp() }
+) {
+
+    /**
+     * 한 지표의 통계/알림/다운샘플링 상태 (lock으로 보호)
+     */
+    private class MetricWindow(
+        val metric: HealthRecordType,
+        val stats: SlidingWindowStats,
+        var alarm: ThresholdAlarm?,
+        val downsample: DownsampleBuffer?
+    ) {
+        fun snapshot(): VitalStats? {
+            if (stats.count == 0) return null
+            return VitalStats(
+                count = stats.count,
+                latest = stats.latest()!!,
+                min = stats.min()!!,
+                max = stats.max()!!,
+                mean = stats.mean()!!,
+                median = stats.percentile(0.5)!!,
+                p90 = stats.percentile(0.9)!!
+            )
+        }
+
+        fun clear() {
+            stats.clear()
+            alarm?.reset()
+            downsample?.clear()
+        }
+    }
+
+    private val lock = Any()
+
+    // lock으로 보호
+    private var monitoring = false
+    private val heartRate = MetricWindow(
+        HealthRecordType.HEART_RATE,
+        SlidingWindowStats(WINDOW_MS, WINDOW_CAPACITY, 0, MAX_HEART_RATE),
+        heartRateAlarm(VitalThresholds()),
+        DownsampleBuffer()
+    )
+    private val bloodOxygen = MetricWindow(
+        HealthRecordType.BLOOD_OXYGEN,
+        SlidingWindowStats(WINDOW_MS, WINDOW_CAPACITY, 0, MAX_BLOOD_OXYGEN),
+        bloodOxygenAlarm(VitalThresholds()),
+        DownsampleBuffer()
+    )
+    private val cadence = MetricWindow(
+        HealthRecordType.STEPS,
+        SlidingWindowStats(WINDOW_MS, WINDOW_CAPACITY, 0, MAX_CADENCE),
+        alarm = null,
+        downsample = null
+    )
+    private var totalSteps: Int? = null
+    private var lastSteps = -1
+    private var lastStepsAt = 0L
+
+    private val _snapshot = MutableStateFlow(VitalSignsSnapshot())
+    val snapshot: StateFlow<VitalSignsSnapshot> = _snapshot.asStateFlow()
+
+    private val _alerts = MutableSharedFlow<VitalAlert>(
+        extraBufferCapacity = 16,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST
+    )
+    val alerts: SharedFlow<VitalAlert> = _alerts.asSharedFlow()
+
+    val isMonitoring: Boolean
+        get() = synchronized(lock) { monitoring }
+
+    /**
+     * 측정 시작 - 주기 심박 측정, 링 심박 알림, 생체 신호 전송 켜기
+     * @return 이미 측정 중이면 false
+     */
+    fun start(limits: VitalThresholds = VitalThresholds()): Boolean {
+        synchronized(lock) {
+            if (monitoring) return false
+            monitoring = true
+            heartRate.clear()
+            heartRate.alarm = heartRateAlarm(limits)
+            bloodOxygen.clear()
+            bloodOxygen.alarm = bloodOxygenAlarm(limits)
+            cadence.clear()
+            totalSteps = null
+            lastSteps = -1
+        }
+        _snapshot.value = VitalSignsSnapshot(isMonitoring = true)
+
+        scope.launch {
+            val mrdSend = Manridy.getMrdSend()
+            send(mrdSend.setTimingHrTest(true, TIMING_HR_INTERVAL_MIN)?.datas, "주기 심박 측정 켜기")
+            send(
+                mrdSend.setHeartBloodAlert(MrdHeartBloodAlert(true, false, limits.heartRateHigh, 0))?.datas,
+                "링 심박 알림 설정"
+            )
+            send(mrdSend.broadcastVitalSignsData()?.datas, "생체 신호 전송 요청")
+        }
+        Log.i(WR_EVENT, "[VitalSignsMonitor] 연속 측정 시작 (윈도우 ${WINDOW_MS / 1000}초)")
+        return true
+    }
+
+    /**
+     * 사용자 종료 - 주기 심박 측정 끄기, 모아둔 평균 저장
+     */
+    fun stop() = finish(sendStop = true)
+
+    /**
+     * 연결 종료 - 모아둔 평균만 저장
+     */
+    fun release() = finish(sendStop = false)
+
+    /**
+     * 심박 (0x0A 최근값/실시간 프레임)
+     */
+    fun onHeartRate(bpm: Int) {
+        if (bpm <= 0) return
+        onSample(heartRate, bpm)
+    }
+
+    /**
+     * 걸음수 (0x03, 하루 누적) - 직전 값과의 차이로 분당 걸음수 계산
+     */
+    fun onSteps(steps: Int) {
+        val now = clock()
+        synchronized(lock) {
+            if (!monitoring) return
+            totalSteps = steps
+            if (lastSteps < 0 || steps < lastSteps) {
+                // 첫 값 또는 자정 초기화
+                lastSteps = steps
+                lastStepsAt = now
+            } else if (now - lastStepsAt >= MIN_CADENCE_SPAN_MS) {
+                val perMinute = ((steps - lastSteps) * 60_000L / (now - lastStepsAt)).toInt()
+                lastSteps = steps
+                lastStepsAt = now
+                cadence.stats.add(now, perMinute)
+            }
+            publishLocked(now)
+        }
+    }
+
+    /**
+     * MRD SDK 파싱 결과 - 측정 중 혈중 산소 응답이면 기록
+     * @return 처리했으면 true
+     */
+    fun onSdkFrame(readType: String?, json: String?): Boolean {
+        if (readType != BLOOD_OXYGEN_TYPE || json == null) return false
+        if (!isMonitoring) return false
+        // SDK BoModel.boRate는 문자열 ("98" 또는 "98.0")
+        val spo2 = try {
+            ((Json.parseToJsonElement(json) as? JsonObject)?.get("boRate") as? JsonPrimitive)
+                ?.content?.toDoubleOrNull()?.roundToInt()
+        } catch (e: Exception) {
+            null
+        } ?: return false
+        if (spo2 > 0) onSample(bloodOxygen, spo2)
+        return true
+    }
+
+    private fun onSample(window: MetricWindow, value: Int) {
+        val now = clock()
+        val time = wallClock()
+        var alert: VitalAlert? = null
+        var drained: Pair<LongArray, IntArray>? = null
+        synchronized(lock) {
+            if (!monitoring) return
+            window.stats.add(now, value)
+            window.alarm?.update(now, value)?.let { level ->
+                alert = VitalAlert(window.metric, level, value, time)
+            }
+            window.downsample?.let { buffer ->
+                buffer.add(time, value)
+                if (buffer.pending >= FLUSH_BUCKETS) drained = buffer.drain()
+            }
+            publishLocked(now)
+        }
+        alert?.let {
+            Log.i(WR_EVENT, "[VitalSignsMonitor] ${it.metric} 알림 ${it.level} (${it.value})")
+            _alerts.tryEmit(it)
+        }
+        drained?.let { persist(window.metric, it) }
+    }
+
+    private fun finish(sendStop: Boolean) {
+        val pending = synchronized(lock) {
+            if (!monitoring) return
+            monitoring = false
+            listOf(heartRate, bloodOxygen).mapNotNull { window ->
+                window.downsample?.flush()
+                window.downsample?.drain()?.let { window.metric to it }
+            }
+        }
+        pending.forEach { (metric, samples) -> persist(metric, samples) }
+
+        if (sendStop) {
+            scope.launch {
+                send(Manridy.getMrdSend().setTimingHrTest(false, TIMING_HR_INTERVAL_MIN)?.datas, "주기 심박 측정 끄기")
+            }
+        }
+        _snapshot.value = _snapshot.value.copy(isMonitoring = false)
+        Log.i(WR_EVENT, "[VitalSignsMonitor] 연속 측정 종료")
+    }
+
+    /**
+     * 스냅샷 발행 - 새 샘플이 없는 지표도 윈도우를 지난 값은 빼고 계산
+     */
+    private fun publishLocked(now: Long) {
+        heartRate.stats.evict(now)
+        bloodOxygen.stats.evict(now)
+        cadence.stats.evict(now)
+        _snapshot.value = VitalSignsSnapshot(
+            isMonitoring = true,
+            heartRate = heartRate.snapshot(),
+            bloodOxygen = bloodOxygen.snapshot(),
+            stepCadence = cadence.snapshot(),
+            totalSteps = totalSteps
+        )
+    }
+
+    private fun persist(metric: HealthRecordType, samples: Pair<LongArray, IntArray>) {
+        scope.launch {
+            try {
+                repository.append(metric, samples.first, samples.second)
+            } catch (e: Exception) {
+                Log.e(WR_EVENT, "[VitalSignsMonitor] $metric 평균 ${samples.first.size}개 저장 실패", e)
+            }
+        }
+    }
+
+    private suspend fun send(command: ByteArray?, label: String): Boolean {
+        if (command == null) {
+            Log.e(WR_EVENT, "[VitalSignsMonitor] $label - MRD SDK 명령 생성 실패")
+            return false
+        }
+        val result = gattQueue.enqueue(
+            GattOperation.WriteCharacteristic(
+                serviceUuid = BleConstants.SERVICE_UUID,
+                characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+                value = command,
+                label = label,
+                priority = GattPriority.NORMAL
+            )
+        )
+        if (!result.success) {
+            Log.w(WR_EVENT, "[VitalSignsMonitor] $label 실패 (status: ${result.status})")
+        }
+        return result.success
+    }
+
+    private fun heartRateAlarm(limits: VitalThresholds) =
+        ThresholdAlarm(high = limits.heartRateHigh, low = limits.heartRateLow, sustainMs = limits.sustainMs)
+
+    private fun bloodOxygenAlarm(limits: VitalThresholds) =
+        ThresholdAlarm(low = limits.bloodOxygenLow, hysteresis = BLOOD_OXYGEN_HYSTERESIS, sustainMs = limits.sustainMs)
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        /**
+         * 통계 윈도우 = 최근 5분
+         */
+        const val WINDOW_MS = 5 * 60_000L
+
+        /**
+         * 윈도우 안 샘플 상한 (1초 간격 기준 5분 + 여유)
+         */
+        private const val WINDOW_CAPACITY = 512
+
+        private const val MAX_HEART_RATE = 250
+        private const val MAX_BLOOD_OXYGEN = 100
+        private const val MAX_CADENCE = 250
+
+        // 혈중 산소는 값 범위가 좁아 해제 기준도 좁게 (%)
+        private const val BLOOD_OXYGEN_HYSTERESIS = 2
+
+        /**
+         * 분당 걸음수는 이 간격 이상 지나야 계산 (짧으면 오차가 큼)
+         */
+        private const val MIN_CADENCE_SPAN_MS = 10_000L
+
+        /**
+         * 1분 평균이 이만큼 모이면 저장
+         */
+        private const val FLUSH_BUCKETS = 10
+
+        /**
+         * MRD setTimingHrTest 측정 간격 (분)
+         */
+        private const val TIMING_HR_INTERVAL_MIN = 1
+
+        private const val BLOOD_OXYGEN_TYPE = "BoTest"
+    }
+}
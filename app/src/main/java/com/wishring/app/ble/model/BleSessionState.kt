@@ -0,0 +1,33 @@
+package com.wishring.app.ble.model
+
+import com.wishring.app.data.repository.BleConnectionState
+
+/**
+ * BleSessionManager가 소유한 GATT 세션 상태
+ * Activity 재생성과 무관하게 유지되며 MainViewModel이 Flow로 관찰한다
+ */
+data class BleSessionState(
+    val connectionState: BleConnectionState = BleConnectionState.DISCONNECTED,
+    val deviceAddress: String? = null,
+    val deviceName: String? = null,
+    val isH13Device: Boolean = false
+) {
+    val isConnected: Boolean
+        get() = connectionState == BleConnectionState.CONNECTED
+}
+
+/**
+ * GATT 세션에서 발생하는 일회성 이벤트
+ */
+sealed class BleSessionEvent {
+    /**
+     * GATT 연결 성공 (기기 정보 저장용)
+     */
+    data class DeviceConnected(val address: String, val name: String) : BleSessionEvent()
+
+    /**
+     * 연결 끊김
+     * @property status GATT status 코드 (133 등)
+     */
+    data class DeviceDisconnected(val status: Int) : BleSessionEvent()
+}
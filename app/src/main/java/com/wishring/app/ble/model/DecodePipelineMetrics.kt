@@ -0,0 +1,37 @@
+package com.wishring.app.ble.model
+
+/**
+ * 디코딩 파이프라인 입력 레인
+ * 프레임 종류마다 유실 허용 정책이 다르므로 채널을 분리한다
+ */
+enum class FrameLane {
+    EVENT,      // 카운터/버튼/리셋 등 - 넉넉한 버퍼, 넘치면 무손실 넘침 큐 (연속 카운터만 합침)
+    WAVE,       // ECG 파형 - 전용 유한 버퍼, 넘치면 버린 수를 세고 공백으로 기록
+    BATTERY,    // 배터리 - 최신 값만 의미 있음 (conflate)
+    HEALTH      // 심박/걸음수 등 스트림 - 제한된 버퍼, 넘치면 가장 오래된 것부터 버림
+}
+
+/**
+ * 디코딩 파이프라인 지표
+ */
+data class DecodePipelineMetrics(
+    val eventQueueDepth: Int = 0,
+    val overflowQueueDepth: Int = 0,
+    val healthQueueDepth: Int = 0,
+    val decodedCount: Long = 0L,
+    val sdkFallbackCount: Long = 0L,
+    val conflatedBatteryCount: Long = 0L,
+    val droppedHealthCount: Long = 0L,
+    val droppedWaveCount: Long = 0L,
+    val overflowedEventCount: Long = 0L,
+    val coalescedCounterCount: Long = 0L,
+    val lastDecodeNanos: Long = 0L,
+    val maxDecodeNanos: Long = 0L,
+    val totalDecodeNanos: Long = 0L
+) {
+    /**
+     * 프레임당 평균 디코딩 시간 (마이크로초)
+     */
+    val averageDecodeMicros: Long
+        get() = if (decodedCount > 0) totalDecodeNanos / decodedCount / 1_000 else 0L
+}
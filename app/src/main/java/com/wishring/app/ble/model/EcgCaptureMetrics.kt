@@ -0,0 +1,21 @@
+package com.wishring.app.ble.model
+
+/**
+ * ECG 캡처 지표 (청크 저장 시점과 시작/종료 시 갱신)
+ *
+ * @property startTime 캡처 시작 시각 (epoch millis, 저장된 측정의 키)
+ * @property samplesReceived 기록된 샘플 수 (빠진 프레임을 채운 공백 샘플 포함)
+ * @property missedFrames 프레임 순번이 건너뛴 수 (받지 못해 공백으로 채운 프레임)
+ * @property pendingChunks 인코딩됐지만 아직 저장되지 않은 청크 수
+ */
+data class EcgCaptureMetrics(
+    val isCapturing: Boolean = false,
+    val startTime: Long? = null,
+    val samplesReceived: Long = 0L,
+    val missedFrames: Int = 0,
+    val chunksStored: Int = 0,
+    val chunksFailed: Int = 0,
+    val bytesStored: Long = 0L,
+    val pendingChunks: Int = 0,
+    val heartRate: Int = 0
+)
@@ -0,0 +1,124 @@
+package com.wishring.app.ble.model
+
+import com.wishring.app.data.ble.model.BleConstants
+import java.util.UUID
+
+/**
+ * GATT 작업 우선순위
+ * 숫자가 작을수록 먼저 실행됨 (사용자 요청 > 세션 초기화 > 주기적 폴링)
+ */
+enum class GattPriority {
+    HIGH,       // 사용자가 직접 요청한 작업 (새로고침 등)
+    NORMAL,     // 연결 초기화, 시간 동기화
+    LOW         // 배터리 폴링 등 백그라운드 작업
+}
+
+/**
+ * GattOperationQueue에서 직렬로 실행되는 단일 GATT 작업
+ * Android는 한 번에 하나의 GATT 작업만 허용하므로 모든 읽기/쓰기는 이 모델로 큐에 넣는다
+ */
+sealed class GattOperation {
+    abstract val label: String
+    abstract val priority: GattPriority
+    abstract val timeoutMs: Long
+    abstract val maxAttempts: Int
+
+    /**
+     * Characteristic 쓰기 - onCharacteristicWrite 콜백에서 완료됨
+     * 타임아웃이어도 링이 이미 명령을 실행했을 수 있으므로 기본은 재시도하지 않는다.
+     * 다시 보내도 결과가 같은 명령(조회, 절대값 설정)만 maxAttempts를 올려 넘길 것
+     */
+    class WriteCharacteristic(
+        val serviceUuid: UUID,
+        val characteristicUuid: UUID,
+        val value: ByteArray,
+        override val label: String,
+        override val priority: GattPriority = GattPriority.NORMAL,
+        override val timeoutMs: Long = BleConstants.GATT_OPERATION_TIMEOUT_MS,
+        override val maxAttempts: Int = 1
+    ) : GattOperation()
+
+    /**
+     * Characteristic 읽기 - onCharacteristicRead 콜백에서 완료되며 값은 [GattOperationResult.value]로 전달
+     */
+    class ReadCharacteristic(
+        val serviceUuid: UUID,
+        val characteristicUuid: UUID,
+        override val label: String,
+        override val priority: GattPriority = GattPriority.NORMAL,
+        override val timeoutMs: Long = BleConstants.GATT_OPERATION_TIMEOUT_MS,
+        override val maxAttempts: Int = BleConstants.GATT_OPERATION_MAX_ATTEMPTS
+    ) : GattOperation()
+
+    /**
+     * ATT MTU 요청 - onMtuChanged 콜백에서 완료됨
+     */
+    class RequestMtu(
+        val mtu: Int,
+        override val label: String = "MTU 요청",
+        override val priority: GattPriority = GattPriority.HIGH,
+        override val timeoutMs: Long = BleConstants.GATT_OPERATION_TIMEOUT_MS,
+        override val maxAttempts: Int = 1
+    ) : GattOperation()
+
+    /**
+     * Notification 활성화 (setCharacteristicNotification + CCCD 쓰기)
+     * onDescriptorWrite 콜백에서 완료됨
+     */
+    class EnableNotification(
+        val serviceUuid: UUID,
+        val characteristicUuid: UUID,
+        override val label: String,
+        override val priority: GattPriority = GattPriority.NORMAL,
+        override val timeoutMs: Long = BleConstants.GATT_OPERATION_TIMEOUT_MS,
+        override val maxAttempts: Int = BleConstants.GATT_OPERATION_MAX_ATTEMPTS
+    ) : GattOperation()
+}
+
+/**
+ * GATT 작업 실행 결과
+ * @property value 읽기 작업이 성공했을 때 읽은 값
+ */
+data class GattOperationResult(
+    val success: Boolean,
+    val status: Int,
+    val attempts: Int,
+    val latencyMs: Long,
+    val value: ByteArray? = null
+) {
+    companion object {
+        /** 연결 해제 등으로 실행되지 못하고 취소된 작업 */
+        const val STATUS_CANCELLED = -1
+
+        /** 콜백이 타임아웃 안에 도착하지 않은 작업 */
+        const val STATUS_TIMEOUT = -2
+
+        /** GATT 호출 자체가 false를 반환해 시작되지 못한 작업 */
+        const val STATUS_NOT_STARTED = -3
+
+        fun cancelled() = GattOperationResult(false, STATUS_CANCELLED, 0, 0L)
+    }
+}
+
+/**
+ * GATT 큐 지표
+ * 작업 단위 지연 시간(요청 → 콜백)을 누적해 연결 품질을 관찰하는 데 사용
+ */
+data class GattQueueMetrics(
+    val queueDepth: Int = 0,
+    val completedCount: Int = 0,
+    val failedCount: Int = 0,
+    val timeoutCount: Int = 0,
+    val retryCount: Int = 0,
+    val staleCallbackCount: Int = 0,
+    val lastOperation: String? = null,
+    val lastLatencyMs: Long = 0L,
+    val maxLatencyMs: Long = 0L,
+    val totalLatencyMs: Long = 0L
+) {
+    /**
+     * 성공한 작업의 평균 지연 시간
+     */
+    val averageLatencyMs: Long
+        get() = if (completedCount > 0) totalLatencyMs / completedCount else 0L
+}
@@ -0,0 +1,28 @@
+package com.wishring.app.ble.model
+
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * 기록 동기화 지표 (시각은 SystemClock.elapsedRealtime 기준)
+ *
+ * @property recordsReceived 링에서 받은 기록 수 (이미 저장된 구간은 제외)
+ * @property recordsStored 실제로 새로 저장된 기록 수 (중복 제외)
+ * @property batchesDropped 저장 실패로 버린 배치 수 (실패한 배치 포함, 다음 동기화에서 다시 받음)
+ * @property recordsPerSecond 동기화 시작부터 지금(완료 시 완료 시각)까지 받은 기록 처리량
+ * @property receivedByType 종류별 받은 기록 수
+ */
+data class HistorySyncMetrics(
+    val isRunning: Boolean = false,
+    val startedAt: Long? = null,
+    val finishedAt: Long? = null,
+    val requestsSent: Int = 0,
+    val requestsFailed: Int = 0,
+    val framesReceived: Int = 0,
+    val recordsReceived: Int = 0,
+    val recordsStored: Int = 0,
+    val batchesWritten: Int = 0,
+    val batchesDropped: Int = 0,
+    val lastBatchWriteMs: Long = 0L,
+    val recordsPerSecond: Double = 0.0,
+    val receivedByType: Map<HealthRecordType, Int> = emptyMap()
+)
@@ -0,0 +1,37 @@
+package com.wishring.app.ble.model
+
+import com.wishring.app.data.ble.model.BleConstants
+
+/**
+ * 연결 우선순위 (BluetoothGatt.CONNECTION_PRIORITY_*)
+ */
+enum class LinkPriority {
+    HIGH,       // 대량 전송/빠른 연속 입력 - 짧은 연결 간격
+    BALANCED,   // 최근 활동 있음
+    LOW_POWER   // 유휴
+}
+
+/**
+ * 링크 파라미터 지표
+ * 협상된 MTU/PHY와 연결 우선순위 전환 시각 (SystemClock.elapsedRealtime 기준)
+ */
+data class LinkParameterMetrics(
+    val mtu: Int = BleConstants.DEFAULT_MTU,
+    val mtuNegotiatedAt: Long? = null,
+    val txPhy: Int? = null,
+    val rxPhy: Int? = null,
+    val phyUpdatedAt: Long? = null,
+    val priority: LinkPriority = LinkPriority.BALANCED,
+    val prioritySwitchedAt: Long? = null,
+    val prioritySwitchCount: Int = 0
+) {
+    /**
+     * 한 번의 notification/write에 실을 수 있는 최대 데이터 크기 (ATT 헤더 3바이트 제외)
+     */
+    val maxPayload: Int
+        get() = mtu - ATT_HEADER_SIZE
+
+    companion object {
+        private const val ATT_HEADER_SIZE = 3
+    }
+}
@@ -0,0 +1,20 @@
+package com.wishring.app.ble.model
+
+/**
+ * 재연결 지표
+ * 연결이 끊긴(또는 연결을 요청한) 시점부터 세션 초기화 완료(Ready)까지의 시간을 회차별로 기록
+ *
+ * @property pendingAttempt 현재 재연결 회차의 시도 번호 (0이면 대기 중인 재연결 없음)
+ * @property recentTimeToReadyMs 최근 회차들의 Ready까지 걸린 시간 (오래된 것부터)
+ */
+data class ReconnectMetrics(
+    val pendingAttempt: Int = 0,
+    val totalAttempts: Int = 0,
+    val readyCount: Int = 0,
+    val autoConnectCount: Int = 0,
+    val lastDisconnectStatus: Int? = null,
+    val lastAttemptsToReady: Int = 0,
+    val lastTimeToReadyMs: Long = 0L,
+    val bestTimeToReadyMs: Long = 0L,
+    val recentTimeToReadyMs: List<Long> = emptyList()
+)
@@ -0,0 +1,62 @@
+package com.wishring.app.ble.model
+
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * 한 지표의 슬라이딩 윈도우 통계
+ */
+data class VitalStats(
+    val count: Int,
+    val latest: Int,
+    val min: Int,
+    val max: Int,
+    val mean: Double,
+    val median: Int,
+    val p90: Int
+)
+
+/**
+ * 연속 측정 상태 (지표별 최근 윈도우 통계, 값이 없으면 null)
+ *
+ * @property stepCadence 분당 걸음수 (누적 걸음수 변화로 계산)
+ * @property totalSteps 링이 보낸 오늘 누적 걸음수
+ */
+data class VitalSignsSnapshot(
+    val isMonitoring: Boolean = false,
+    val heartRate: VitalStats? = null,
+    val bloodOxygen: VitalStats? = null,
+    val stepCadence: VitalStats? = null,
+    val totalSteps: Int? = null
+)
+
+/**
+ * 임계값 판정 결과
+ */
+enum class VitalAlertLevel {
+    NORMAL,
+    HIGH,
+    LOW
+}
+
+/**
+ * 임계값 알림 (범위를 벗어남 또는 정상 범위로 돌아옴)
+ * @property metric HEART_RATE, BLOOD_OXYGEN
+ * @property time 판정 시각 (epoch millis)
+ */
+data class VitalAlert(
+    val metric: HealthRecordType,
+    val level: VitalAlertLevel,
+    val value: Int,
+    val time: Long
+)
+
+/**
+ * 연속 측정 알림 기준
+ * @property sustainMs 범위를 벗어난 상태가 이만큼 이어져야 알림 (순간 튀는 값 무시)
+ */
+data class VitalThresholds(
+    val heartRateHigh: Int = 120,
+    val heartRateLow: Int = 40,
+    val bloodOxygenLow: Int = 90,
+    val sustainMs: Long = 30_000L
+)
@@ -90,9 +90,19 @@ object Constants {
     const val MIN_WISH_TEXT_LENGTH = 1
     
     // Database
-    const val DATABASE_VERSION = 3
+    const val DATABASE_VERSION = 13
     const val TABLE_WISHES = "wishes"
+    const val TABLE_WISH_ITEMS = "wish_items"
+    const val TABLE_STATS_ROLLUP = "stats_rollup"
+    const val TABLE_STREAK_INDEX = "streak_index"
     const val TABLE_RESET_LOGS = "reset_logs"
+    const val TABLE_DEVICE_COUNTERS = "device_counters"
+    const val TABLE_HEALTH_RECORDS = "health_records"
+    const val TABLE_HISTORY_SYNC_CURSORS = "history_sync_cursors"
+    const val TABLE_HEALTH_CHUNKS = "health_chunks"
+    const val TABLE_HEALTH_CHUNK_INDEX = "health_chunk_index"
+    const val TABLE_ECG_RECORDINGS = "ecg_recordings"
+    const val TABLE_ECG_CHUNKS = "ecg_chunks"
     
     // Error Messages
     object ErrorMessages {
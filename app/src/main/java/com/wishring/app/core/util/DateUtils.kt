@@ -46,6 +46,32 @@ object DateUtils {
         return LocalDate.now().format(dbFormatter)
     }
     
+    /**
+     * Get today's epoch day (days since 1970-01-01, local time)
+     * Used as the wishes table primary key
+     */
+    fun getTodayEpochDay(): Long {
+        return LocalDate.now().toEpochDay()
+    }
+    
+    /**
+     * Convert DB date string to epoch day
+     * @param dateString Date in DB format
+     * @return Days since 1970-01-01
+     */
+    fun toEpochDay(dateString: String): Long {
+        return LocalDate.parse(dateString, dbFormatter).toEpochDay()
+    }
+    
+    /**
+     * Convert epoch day to DB date string
+     * @param epochDay Days since 1970-01-01
+     * @return Date as "yyyy-MM-dd"
+     */
+    fun fromEpochDay(epochDay: Long): String {
+        return LocalDate.ofEpochDay(epochDay).format(dbFormatter)
+    }
+    
     /**
      * Get today's date string in display format
      * @return Today's date as "yyyy.MM.dd"
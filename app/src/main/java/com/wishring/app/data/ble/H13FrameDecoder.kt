@@ -0,0 +1,116 @@
+package com.wishring.app.data.ble
+
+import com.wishring.app.data.ble.model.BleConstants
+import com.wishring.app.data.ble.model.H13Frame
+
+/**
+ * H13 알림 프레임 네이티브 디코더
+ *
+ * MRD SDK는 모든 프레임을 JSON 문자열로 만든 뒤 다시 파싱해야 하므로 프레임마다
+ * 문자열/객체가 여러 개 생성된다. 이 디코더는 헤더 바이트(byte[0], byte[1])로 바로 분기하여
+ * ByteArray에서 primitive 값을 읽으며, 결과 객체 외에는 할당하지 않는다.
+ *
+ * 프레임 레이아웃은 MRD 프로토콜 기준:
+ * - 배터리  0x0F 0x06 .. [8]=level
+ * - 버튼    0xFC 0x3C [2]=keyCode
+ * - 심박    0x0A [1]=kind .. [12]=bpm
+ * - 걸음수  0x03 [1]=kind [2..4]=steps [5..7]=distance [8..10]=calories (kind 0x80/0xC0은 기록)
+ * - ECG    0x46 [1]=순번<<4|user [2..]=16비트 Big Endian 샘플 (SDK는 샘플마다 객체를 만듦)
+ * - 카운터  4바이트 Int32 (Little Endian)
+ * - 리셋    1바이트 [BleConstants.RESET_SIGNAL]
+ *
+ * 그 외 프레임은 [H13Frame.Unknown]을 반환하며 호출자가 MRD SDK로 폴백한다.
+ */
+object H13FrameDecoder {
+
+    // byte[0] 헤더
+    const val HEADER_STEP = 0x03
+    const val HEADER_HEART = 0x0A
+    const val HEADER_SYSTEM = 0x0F
+    const val HEADER_SPORT = 0x1B
+    const val HEADER_ECG_HEART = 0x45
+    const val HEADER_ECG_WAVE = 0x46
+    const val HEADER_KEY = 0xFC
+
+    // byte[1] 하위 타입
+    const val SYSTEM_BATTERY = 0x06
+    const val KEY_BUTTON = 0x3C
+    private const val STEP_HISTORY_NUM = 0x80
+    private const val STEP_HISTORY = 0xC0
+
+    private const val BATTERY_LEVEL_INDEX = 8
+    private const val KEY_CODE_INDEX = 2
+    private const val HEART_BPM_INDEX = 12
+    private const val STEP_VALUE_INDEX = 2
+
+    /**
+     * 프레임 디코딩
+     * @param data 알림 원본
+     * @return 디코딩 결과, 처리할 수 없으면 [H13Frame.Unknown]
+     */
+    fun decode(data: ByteArray): H13Frame {
+        val size = data.size
+
+        // 레거시 카운터/리셋 프레임은 헤더 없이 길이로 구분
+        if (size == 1 && data[0] == BleConstants.RESET_SIGNAL) return H13Frame.Reset
+        if (size == BleConstants.COUNTER_DATA_SIZE) return H13Frame.Counter(int32Le(data, 0))
+        if (size < 2) return H13Frame.Unknown
+
+        val header = data[0].toInt() and 0xFF
+        val subType = data[1].toInt() and 0xFF
+
+        return when (header) {
+            HEADER_SYSTEM ->
+                if (subType == SYSTEM_BATTERY && size > BATTERY_LEVEL_INDEX) {
+                    H13Frame.Battery(u8(data, BATTERY_LEVEL_INDEX))
+                } else {
+                    H13Frame.Unknown
+                }
+
+            HEADER_KEY ->
+                if (subType == KEY_BUTTON && size > KEY_CODE_INDEX) {
+                    H13Frame.Key(u8(data, KEY_CODE_INDEX))
+                } else {
+                    H13Frame.Unknown
+                }
+
+            HEADER_HEART ->
+                if (size > HEART_BPM_INDEX) {
+                    H13Frame.Heart(kind = subType, bpm = u8(data, HEART_BPM_INDEX))
+                } else {
+                    H13Frame.Unknown
+                }
+
+            HEADER_STEP ->
+                if (subType != STEP_HISTORY_NUM && subType != STEP_HISTORY && size >= STEP_VALUE_INDEX + 9) {
+                    H13Frame.Step(
+                        steps = u24Be(data, STEP_VALUE_INDEX),
+                        distance = u24Be(data, STEP_VALUE_INDEX + 3),
+                        calories = u24Be(data, STEP_VALUE_INDEX + 6)
+                    )
+                } else {
+                    H13Frame.Unknown
+                }
+
+            HEADER_ECG_WAVE ->
+                if (size >= H13Frame.EcgWave.SAMPLE_OFFSET + 2) {
+                    H13Frame.EcgWave(sequence = subType ushr 4, data = data)
+                } else {
+                    H13Frame.Unknown
+                }
+
+            else -> H13Frame.Unknown
+        }
+    }
+
+    private fun u8(data: ByteArray, index: Int): Int = data[index].toInt() and 0xFF
+
+    private fun u24Be(data: ByteArray, offset: Int): Int =
+        (u8(data, offset) shl 16) or (u8(data, offset + 1) shl 8) or u8(data, offset + 2)
+
+    private fun int32Le(data: ByteArray, offset: Int): Int =
+        u8(data, offset) or
+            (u8(data, offset + 1) shl 8) or
+            (u8(data, offset + 2) shl 16) or
+            (u8(data, offset + 3) shl 24)
+}
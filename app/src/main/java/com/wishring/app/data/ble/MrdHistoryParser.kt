@@ -0,0 +1,202 @@
+package com.wishring.app.data.ble
+
+import com.wishring.app.data.ble.model.HistoryFrame
+import com.wishring.app.data.ble.model.HistorySample
+import com.wishring.app.data.model.HealthRecordType
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonArray
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.json.doubleOrNull
+import kotlinx.serialization.json.intOrNull
+import kotlinx.serialization.json.longOrNull
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import kotlin.math.roundToInt
+
+/**
+ * MRD SDK 기록(history) 응답 파서
+ *
+ * 기록 프레임은 네이티브 디코더가 다루지 않으므로 MRD SDK가 만든 (MrdReadEnum 이름, JSON)을 받아
+ * [HistoryFrame]으로 바꾼다. 필드 이름은 SDK 빈 클래스(SportBean, SleepModel, HrvHistoryBean,
+ * *HistoryBean) 기준이다.
+ *
+ * - 스트림 응답 (Step_history, Sport_history, SleepHistory, Hrv_History_Data): 프레임마다 기록 한 건과
+ *   기록 번호/전체 수
+ * - 일별 목록 응답 (Hr/Bo/Temp_History_Data): 하루를 같은 간격으로 나눈 값 목록, 날짜는 담겨 있지 않아
+ *   요청한 날짜를 넘겨야 한다 ([dayListType])
+ */
+object MrdHistoryParser {
+
+    private const val MINUTES_PER_DAY = 24 * 60
+
+    /**
+     * 일별 목록 응답이면 그 기록 종류
+     */
+    fun dayListType(readType: String?): HealthRecordType? = when (readType) {
+        "Hr_History_Data" -> HealthRecordType.HEART_RATE
+        "Bo_History_Data" -> HealthRecordType.BLOOD_OXYGEN
+        "Temp_History_Data" -> HealthRecordType.TEMPERATURE
+        else -> null
+    }
+
+    /**
+     * @param readType MrdReadEnum 이름
+     * @param json MrdReadRequest.json
+     * @param day 일별 목록 응답의 요청 날짜
+     * @return 기록 응답이 아니거나 형식이 맞지 않으면 null
+     */
+    fun parse(
+        readType: String?,
+        json: String?,
+        day: LocalDate? = null,
+        zone: ZoneId = ZoneId.systemDefault()
+    ): HistoryFrame? {
+        if (readType == null || json.isNullOrBlank()) return null
+        val obj = try {
+            Json.parseToJsonElement(json) as? JsonObject
+        } catch (e: Exception) {
+            null
+        } ?: return null
+
+        return when (readType) {
+            "Step_history" -> sportBean(obj, HealthRecordType.STEPS)
+            "Sport_history" -> sportBean(obj, HealthRecordType.SPORT)
+            "Step_history_num" -> countOf(HealthRecordType.STEPS, obj.int("hisLength"))
+            "Sport_history_num" -> countOf(HealthRecordType.SPORT, obj.int("hisLength"))
+            "Sport_History_Data" -> sportList(obj)
+            "Hrv_History_Data" -> hrv(obj, zone)
+            "SleepHistory" -> sleepModel(obj, zone)
+            "SleepNum" -> countOf(HealthRecordType.SLEEP, obj.int("sleepLength"))
+            "Sleep_History_Data" -> sleepList(obj, zone)
+            else -> {
+                val type = dayListType(readType) ?: return null
+                dayList(obj, type, day ?: return null, zone)
+            }
+        }
+    }
+
+    private fun countOf(type: HealthRecordType, total: Int?): HistoryFrame? =
+        total?.let { HistoryFrame(type, emptyList(), total = it, isCountOnly = true) }
+
+    // SportBean - hisLength = 전체 수, hisCount = 기록 번호
+    private fun sportBean(obj: JsonObject, type: HealthRecordType): HistoryFrame? {
+        val time = obj.long("stepDateLong")?.let(::toMillis) ?: return null
+        val sample = HistorySample(
+            time = time,
+            value = obj.int("stepNum") ?: 0,
+            value2 = obj.int("stepMileage") ?: 0,
+            value3 = obj.int("stepCalorie") ?: 0
+        )
+        return HistoryFrame(type, listOf(sample), index = obj.int("hisCount"), total = obj.int("hisLength"))
+    }
+
+    private fun sportList(obj: JsonObject): HistoryFrame {
+        val samples = obj.objects("sportList").mapNotNull { item ->
+            val time = item.long("sportDate")?.let(::toMillis) ?: return@mapNotNull null
+            HistorySample(
+                time = time,
+                value = item.int("stepCount") ?: 0,
+                value2 = item.int("mileage") ?: 0,
+                value3 = item.int("calories") ?: 0
+            )
+        }
+        return HistoryFrame(HealthRecordType.SPORT, samples)
+    }
+
+    private fun hrv(obj: JsonObject, zone: ZoneId): HistoryFrame? {
+        val time = dateTime(
+            obj.int("year"), obj.int("month"), obj.int("day"),
+            obj.int("hour"), obj.int("minute"), obj.int("second") ?: 0
+        )?.atZone(zone)?.toInstant()?.toEpochMilli() ?: return null
+        val sample = HistorySample(time = time, value = obj.int("hrv") ?: return null)
+        return HistoryFrame(HealthRecordType.HRV, listOf(sample), index = obj.int("index"), total = obj.int("dataNum"))
+    }
+
+    // SleepModel - 시각은 "yyyy-MM-dd HH:mm"
+    private fun sleepModel(obj: JsonObject, zone: ZoneId): HistoryFrame? {
+        val start = obj.string("sleepStartTime")?.let(::parseDateTime) ?: return null
+        val end = obj.string("sleepEndTime")?.let(::parseDateTime) ?: return null
+        val sample = HistorySample(
+            time = start.atZone(zone).toInstant().toEpochMilli(),
+            value = Duration.between(start, end).toMinutes().toInt().coerceAtLeast(0),
+            value2 = obj.int("sleepDataType") ?: 0
+        )
+        return HistoryFrame(HealthRecordType.SLEEP, listOf(sample), index = obj.int("sleepNum"), total = obj.int("sleepLength"))
+    }
+
+    private fun sleepList(obj: JsonObject, zone: ZoneId): HistoryFrame {
+        val samples = obj.objects("sleepList").mapNotNull { item ->
+            val start = dateTime(
+                item.int("startYear"), item.int("startMonth"), item.int("startDay"),
+                item.int("startHour"), item.int("startMinute")
+            ) ?: return@mapNotNull null
+            HistorySample(
+                time = start.atZone(zone).toInstant().toEpochMilli(),
+                value = item.int("duration") ?: 0,
+                value2 = item.int("type") ?: 0
+            )
+        }
+        return HistoryFrame(HealthRecordType.SLEEP, samples)
+    }
+
+    /**
+     * 하루를 목록 크기만큼 같은 간격으로 나눈 값 (0은 측정 없음)
+     */
+    private fun dayList(obj: JsonObject, type: HealthRecordType, day: LocalDate, zone: ZoneId): HistoryFrame? {
+        val key = when (type) {
+            HealthRecordType.HEART_RATE -> "hrList"
+            HealthRecordType.BLOOD_OXYGEN -> "boList"
+            else -> "tempList"
+        }
+        val values = obj[key] as? JsonArray ?: return null
+        if (values.isEmpty()) return HistoryFrame(type, emptyList())
+
+        val dayStart = day.atStartOfDay(zone).toInstant().toEpochMilli()
+        val slotMillis = MINUTES_PER_DAY * 60_000L / values.size
+        val samples = ArrayList<HistorySample>(values.size)
+        values.forEachIndexed { i, element ->
+            val raw = (element as? JsonPrimitive)?.doubleOrNull ?: return@forEachIndexed
+            if (raw <= 0.0) return@forEachIndexed
+            // 체온은 0.01 ℃ 단위 정수로 저장
+            val value = if (type == HealthRecordType.TEMPERATURE) (raw * 100).roundToInt() else raw.roundToInt()
+            samples.add(HistorySample(time = dayStart + i * slotMillis, value = value))
+        }
+        return HistoryFrame(type, samples)
+    }
+
+    private fun parseDateTime(text: String): LocalDateTime? = try {
+        LocalDateTime.parse(text.trim().replace(' ', 'T'))
+    } catch (e: Exception) {
+        null
+    }
+
+    private fun dateTime(year: Int?, month: Int?, day: Int?, hour: Int?, minute: Int?, second: Int = 0): LocalDateTime? {
+        if (year == null || month == null || day == null || hour == null || minute == null) return null
+        return try {
+            // 링은 연도를 두 자리로 보낼 수 있음
+            LocalDateTime.of(if (year < 100) 2000 + year else year, month, day, hour, minute, second)
+        } catch (e: Exception) {
+            null
+        }
+    }
+
+    // 초 단위 타임스탬프도 허용
+    private fun toMillis(value: Long): Long? = when {
+        value <= 0L -> null
+        value < 100_000_000_000L -> value * 1000
+        else -> value
+    }
+
+    private fun JsonObject.int(name: String): Int? = (this[name] as? JsonPrimitive)?.intOrNull
+
+    private fun JsonObject.long(name: String): Long? = (this[name] as? JsonPrimitive)?.longOrNull
+
+    private fun JsonObject.string(name: String): String? =
+        (this[name] as? JsonPrimitive)?.takeIf { it.isString }?.content
+
+    private fun JsonObject.objects(name: String): List<JsonObject> =
+        (this[name] as? JsonArray)?.mapNotNull { it as? JsonObject } ?: emptyList()
+}
@@ -70,16 +70,11 @@ class MrdProtocolAdapter @Inject constructor() {
     
     /**
      * Validate counter increment value
-     * MRD SDK might send bulk counts, we need individual increments
+     * The device sends a cumulative counter; the delta is applied as one batch
+     * @return Number of new presses (0 if the counter did not advance)
      */
-    fun processCounterIncrement(rawCount: Int, lastCount: Int = 0): List<Int> {
-        val increment = rawCount - lastCount
-        return if (increment > 0) {
-            // Return list of individual +1 increments
-            List(increment) { 1 }
-        } else {
-            emptyList()
-        }
+    fun processCounterIncrement(rawCount: Int, lastCount: Int = 0): Int {
+        return (rawCount - lastCount).coerceAtLeast(0)
     }
     
     /**
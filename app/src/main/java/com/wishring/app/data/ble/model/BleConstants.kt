@@ -15,13 +15,29 @@ object BleConstants {
     val COUNTER_CHAR_UUID: UUID = UUID.fromString("f000efe3-0451-4000-0000-00000000b000")
     val BATTERY_CHAR_UUID: UUID = UUID.fromString("0000fff2-0000-1000-8000-00805f9b34fb")
     val RESET_CHAR_UUID: UUID = UUID.fromString("0000fff3-0000-1000-8000-00805f9b34fb")
-    
+    val CLIENT_CONFIG_DESCRIPTOR_UUID: UUID = UUID.fromString("00002902-0000-1000-8000-00805f9b34fb")
+
     // Device identification (removed fake WishRing constants)
     // Scan settings
     const val SCAN_TIMEOUT_MS = 10000L      // 10초
     const val CONNECTION_TIMEOUT_MS = 5000L  // 5초
     const val RETRY_ATTEMPTS = 3
-    
+
+    // GATT operation queue
+    const val GATT_OPERATION_TIMEOUT_MS = 3000L  // 콜백 대기 최대 3초
+    const val GATT_OPERATION_MAX_ATTEMPTS = 2
+    const val GATT_CALLBACK_GRACE_MS = 1000L     // 타임아웃된 시도의 늦은 콜백을 기다리는 유예
+
+    // Link parameters
+    const val DEFAULT_MTU = 23                    // BLE 기본 ATT MTU
+    const val MAX_MTU = 517                       // ATT 최대값 (실제 값은 링과 협상)
+
+    // Reconnect (지터 포함 지수 백오프)
+    const val RECONNECT_INITIAL_DELAY_MS = 100L   // 잠깐 끊긴 경우 바로 재연결
+    const val RECONNECT_MAX_DELAY_MS = 30_000L    // 백오프 상한
+    const val RECONNECT_JITTER_RATIO = 0.2
+    const val RECONNECT_DIRECT_ATTEMPTS = 6       // 이후 본딩된 링은 autoConnect로 대기
+
     // Data parsing
     const val COUNTER_DATA_SIZE = 4         // Int32 = 4 bytes
     const val BATTERY_DATA_SIZE = 1         // UInt8 = 1 byte
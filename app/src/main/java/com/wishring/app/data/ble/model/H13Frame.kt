@@ -0,0 +1,89 @@
+package com.wishring.app.data.ble.model
+
+/**
+ * H13 알림 프레임 디코딩 결과
+ *
+ * 모든 값은 원시 ByteArray에서 바로 읽은 primitive 필드이며,
+ * [H13FrameDecoder][com.wishring.app.data.ble.H13FrameDecoder]가 모르는 프레임은 [Unknown]으로 반환된다.
+ */
+sealed class H13Frame {
+
+    /**
+     * 배터리 (0x0F 0x06, byte[8])
+     */
+    data class Battery(val level: Int) : H13Frame()
+
+    /**
+     * 링 버튼 (0xFC 0x3C, byte[2] = 키 코드)
+     * @property keyCode 1 = 위시 버튼(Start_Or_Pause), 2~5 = 기타 키
+     */
+    data class Key(val keyCode: Int) : H13Frame() {
+        val isWishPress: Boolean
+            get() = keyCode == KEY_WISH_PRESS
+
+        companion object {
+            const val KEY_WISH_PRESS = 1
+        }
+    }
+
+    /**
+     * 누적 카운터 (4바이트 Int32, Little Endian)
+     */
+    data class Counter(val count: Int) : H13Frame()
+
+    /**
+     * 기기 카운터 리셋 신호
+     */
+    object Reset : H13Frame()
+
+    /**
+     * 심박 (0x0A, byte[1] = 종류, byte[12] = bpm)
+     * @property kind 0 = 최근값, 1 = 기록, 2 = 기록 수, 3 = 실시간 측정
+     */
+    data class Heart(val kind: Int, val bpm: Int) : H13Frame() {
+        val isRealTime: Boolean
+            get() = kind == KIND_REAL_TIME
+
+        companion object {
+            const val KIND_LATEST = 0
+            const val KIND_REAL_TIME = 3
+        }
+    }
+
+    /**
+     * 실시간 걸음수 (0x03, 3바이트 Big Endian 값 3개)
+     */
+    data class Step(val steps: Int, val distance: Int, val calories: Int) : H13Frame()
+
+    /**
+     * ECG 파형 (0x46, byte[1] 상위 4비트 = 순번, byte[2..] = 16비트 Big Endian 샘플)
+     *
+     * 샘플 배열을 따로 만들지 않고 알림 원본을 그대로 들고 있으며,
+     * 소비자가 [sampleAt]으로 읽어 링 버퍼에 바로 쓴다.
+     * @property sequence 프레임 순번 (0~15 반복, SDK EcgModel.num) - 빠진 프레임 감지용
+     */
+    class EcgWave(val sequence: Int, private val data: ByteArray) : H13Frame() {
+        val sampleCount: Int
+            get() = (data.size - SAMPLE_OFFSET) / 2
+
+        fun sampleAt(index: Int): Int {
+            val offset = SAMPLE_OFFSET + index * 2
+            return ((data[offset].toInt() and 0xFF) shl 8) or (data[offset + 1].toInt() and 0xFF)
+        }
+
+        companion object {
+            const val SAMPLE_OFFSET = 2
+            const val SEQUENCE_COUNT = 16
+        }
+    }
+
+    /**
+     * MRD SDK 파싱 결과 (네이티브 디코더가 모르는 프레임의 폴백)
+     */
+    data class Sdk(val type: String?, val json: String?) : H13Frame()
+
+    /**
+     * 네이티브 디코더가 처리하지 않는 프레임
+     */
+    object Unknown : H13Frame()
+}
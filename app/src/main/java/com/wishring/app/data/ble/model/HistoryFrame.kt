@@ -0,0 +1,30 @@
+package com.wishring.app.data.ble.model
+
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * 링 기록(history) 응답 한 프레임의 디코딩 결과
+ *
+ * @property samples 이 프레임에 담긴 기록 (시각 오름차순이 아닐 수 있음)
+ * @property index 기록 번호 (스트림 응답), 모르면 null
+ * @property total 링에 저장된 전체 기록 수, 모르면 null
+ * @property isCountOnly 기록 수 응답 (*_num) - [samples]는 비어 있음
+ */
+data class HistoryFrame(
+    val type: HealthRecordType,
+    val samples: List<HistorySample>,
+    val index: Int? = null,
+    val total: Int? = null,
+    val isCountOnly: Boolean = false
+)
+
+/**
+ * 기록 한 건 ([value] 의미는 [HealthRecordType] 참고)
+ * @property time 측정 시각 (epoch millis)
+ */
+data class HistorySample(
+    val time: Long,
+    val value: Int,
+    val value2: Int = 0,
+    val value3: Int = 0
+)
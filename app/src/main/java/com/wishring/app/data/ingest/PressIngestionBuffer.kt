@@ -0,0 +1,414 @@
+package com.wishring.app.data.ingest
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.content.res.Configuration
+import android.util.Log
+import com.wishring.app.core.util.Constants
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.local.database.entity.WishEntity
+import com.wishring.app.data.model.CounterAck
+import com.wishring.app.data.model.JournalPress
+import com.wishring.app.data.model.WishUiState
+import com.wishring.app.data.repository.WishRepository
+import com.wishring.app.di.IoDispatcher
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.util.Calendar
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * 버튼 입력 write-behind 버퍼
+ *
+ * 링 버튼이 눌릴 때마다 트랜잭션을 여는 대신 메모리에 누적했다가
+ * 한 번의 증가 트랜잭션으로 Room에 반영한다.
+ *
+ * 플러시 조건:
+ * - [FLUSH_INTERVAL_MS] 경과 또는 [FLUSH_BATCH_SIZE]회 누적
+ * - 연결 해제, 앱 백그라운드 전환, 오늘 목표 달성 시 즉시
+ * - 정각(자정 포함)이 지나면 이전 시간대 배치를 먼저 닫음 - 배치 하나는 항상 한 시간 칸에만 기록된다
+ *
+ * UI는 [todayWish]를 관찰하며, 저장된 값 + 아직 저장되지 않은 누적값이 바로 보인다.
+ *
+ * 모든 입력은 메모리에 올리기 전에 [PressJournal]에 먼저 기록되고, 배치가 저장되면 반영 표시된다.
+ * 프로세스가 강제 종료돼도 다음 실행 때 저널에서 재생하므로 배치를 길게 잡아도 누른 횟수를 잃지 않는다.
+ *
+ * 링 카운터에서 온 입력은 배치가 덮는 카운터 값([CounterAck])을 같은 트랜잭션으로 기록한다.
+ * 배치는 만들어진 순서대로 저장 대기열에 들어가고 앞 배치가 저장돼야 다음 배치를 저장한다.
+ * 저장에 실패한 배치는 대기열 맨 앞에 남아 [RETRY_INTERVAL_MS] 뒤 다시 시도되므로,
+ * 뒤 배치가 먼저 저장되어 확인값을 실패한 배치보다 앞으로 옮기는 일이 없다
+ * (재생 시 확인값 이하 레코드는 이미 반영된 것으로 보고 건너뛰기 때문).
+ * 재연결 시 카운터 보정은 [withDrained]로 저장 중인 배치가 모두 끝난 뒤에 실행된다.
+ */
+@Singleton
+class PressIngestionBuffer @Inject constructor(
+    @ApplicationContext context: Context,
+    private val wishRepository: WishRepository,
+    private val journal: PressJournal,
+    @IoDispatcher ioDispatcher: CoroutineDispatcher
+) {
+
+    enum class FlushReason { SIZE, TIMER, DISCONNECT, BACKGROUND, GOAL, HOUR_CHANGE, DAY_CHANGE, RECONCILE, RETRY, REPLAY }
+
+    /**
+     * @param replay 시작 시 저널에서 재생하는 레코드 (null이면 이번 실행에서 누른 입력 - [inFlight]에 포함됨)
+     */
+    private class Batch(
+        val date: String,
+        val hour: Int,
+        val count: Int,
+        val slots: List<IntRange>,
+        val ack: CounterAck?,
+        val replay: List<JournalPress>? = null
+    )
+
+    private val scope = CoroutineScope(SupervisorJob() + ioDispatcher)
+    private val writeMutex = Mutex()
+    private val lock = Any()
+
+    // lock으로 보호
+    private var pending = 0
+    private var pendingDate: String? = null
+    private var pendingHour = 0
+    private var pendingSlots = mutableListOf<IntRange>()
+    private var pendingAck: CounterAck? = null
+    private var batchHourEndMillis = 0L
+    private var inFlight = 0
+    private var timerJob: Job? = null
+    private var retryJob: Job? = null
+
+    // 꺼냈지만 아직 저장되지 않은 배치 (만든 순서, 실패한 배치는 저장될 때까지 맨 앞에 남음)
+    private val unsaved = ArrayDeque<Batch>()
+
+    // Room에서 마지막으로 받은 오늘 값 (저장 직후에는 증가 결과로 먼저 갱신, 날짜가 바뀌면 버림)
+    private var persisted: WishUiState? = null
+
+    private val _todayWish = MutableStateFlow<WishUiState?>(null)
+
+    /**
+     * 오늘 위시 상태 (저장된 값 + 메모리 누적값)
+     * 참고: WishUiState.targetCount가 누른 횟수, currentCount가 목표 횟수
+     */
+    val todayWish: StateFlow<WishUiState?> = _todayWish.asStateFlow()
+
+    init {
+        // 저널 재생이 끝나기 전에는 새 배치를 저장하지 않는다 (재생 코루틴이 해제)
+        writeMutex.tryLock()
+        scope.launch {
+            try {
+                replayJournal()
+            } finally {
+                writeMutex.unlock()
+            }
+        }
+
+        wishRepository.observeTodayWishCount()
+            .onEach { row ->
+                synchronized(lock) {
+                    // 자정에는 새 날짜의 행(없으면 null)으로 바뀐다
+                    persisted = row?.takeIf { it.date == DateUtils.getTodayString() }
+                    publishLocked()
+                }
+            }
+            .launchIn(scope)
+
+        context.registerComponentCallbacks(object : ComponentCallbacks2 {
+            override fun onTrimMemory(level: Int) {
+                if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+                    flush(FlushReason.BACKGROUND)
+                }
+            }
+
+            override fun onConfigurationChanged(newConfig: Configuration) = Unit
+
+            @Deprecated("Deprecated in Java")
+            override fun onLowMemory() = flush(FlushReason.BACKGROUND)
+        })
+    }
+
+    /**
+     * 버튼 입력 누적 - 디코딩 파이프라인 스레드에서 호출
+     * @param delta 새로 눌린 횟수
+     * @param ack 입력을 보낸 링 카운터 값 (키 이벤트처럼 없으면 null)
+     */
+    fun record(delta: Int = 1, ack: CounterAck? = null) {
+        if (delta <= 0) return
+        val now = System.currentTimeMillis()
+        var reason: FlushReason? = null
+
+        synchronized(lock) {
+            // 정각을 넘겼으면 이전 시간대 배치를 먼저 닫는다
+            if (pending > 0 && now >= batchHourEndMillis) {
+                val boundaryReason = if (pendingDate != DateUtils.getTodayString()) FlushReason.DAY_CHANGE else FlushReason.HOUR_CHANGE
+                takeBatchLocked()?.let { write(boundaryReason) }
+            }
+            if (pending == 0) {
+                val calendar = Calendar.getInstance().apply { timeInMillis = now }
+                pendingDate = DateUtils.getTodayString()
+                pendingHour = calendar.get(Calendar.HOUR_OF_DAY)
+                batchHourEndMillis = nextHour(calendar)
+                scheduleTimerLocked()
+            }
+            pending += delta
+            pendingAck = newerAck(pendingAck, ack)
+
+            val slot = journal.append(now, delta, ack)
+            if (slot >= 0) {
+                val last = pendingSlots.lastOrNull()
+                if (last != null && last.last == slot - 1) {
+                    pendingSlots[pendingSlots.lastIndex] = last.first..slot
+                } else {
+                    pendingSlots.add(slot..slot)
+                }
+            } else {
+                Log.w(WR_EVENT, "[PressIngestionBuffer] 저널 기록 실패 - 메모리에만 누적 ($delta회)")
+            }
+
+            val base = baseLocked()
+            val goal = base?.currentCount?.takeIf { it > 0 } ?: Int.MAX_VALUE
+            val total = (base?.targetCount ?: 0) + inFlight + pending
+            reason = when {
+                pending >= FLUSH_BATCH_SIZE || journal.isNearlyFull -> FlushReason.SIZE
+                total >= goal && total - delta < goal -> FlushReason.GOAL
+                else -> null
+            }
+            publishLocked()
+        }
+
+        reason?.let { flush(it) }
+    }
+
+    /**
+     * 누적값 즉시 저장 (비동기)
+     */
+    fun flush(reason: FlushReason) {
+        synchronized(lock) { takeBatchLocked() } ?: return
+        write(reason)
+    }
+
+    /**
+     * 누적값 즉시 저장 후 완료까지 대기
+     */
+    suspend fun flushNow(reason: FlushReason) {
+        synchronized(lock) { takeBatchLocked() }
+        persist(reason)
+    }
+
+    /**
+     * 저장 대기/진행 중인 배치를 모두 반영한 뒤 [block] 실행
+     * 실행 중에는 다른 배치가 저장되지 않으므로 카운터 보정이 오래된 확인값을 읽지 않는다
+     * @return [block] 결과, 저장이 계속 실패하면 null
+     */
+    suspend fun <T> withDrained(block: suspend () -> T): T? {
+        repeat(DRAIN_MAX_ATTEMPTS) {
+            flushNow(FlushReason.RECONCILE)
+            writeMutex.withLock {
+                // 저장에 실패해 대기열에 남은 배치가 있으면 보정하지 않는다
+                if (synchronized(lock) { unsaved.isEmpty() }) return block()
+            }
+            delay(DRAIN_RETRY_MS)
+        }
+        Log.w(WR_EVENT, "[PressIngestionBuffer] 저장 대기 배치를 비우지 못함 - 보정 생략")
+        return null
+    }
+
+    private fun takeBatchLocked(): Batch? {
+        timerJob?.cancel()
+        timerJob = null
+        val date = pendingDate
+        if (pending == 0 || date == null) return null
+        val batch = Batch(date, pendingHour, pending, pendingSlots, pendingAck)
+        unsaved.addLast(batch)
+        inFlight += pending
+        pending = 0
+        pendingDate = null
+        pendingSlots = mutableListOf()
+        pendingAck = null
+        return batch
+    }
+
+    private fun scheduleTimerLocked() {
+        timerJob?.cancel()
+        timerJob = scope.launch {
+            delay(FLUSH_INTERVAL_MS)
+            flush(FlushReason.TIMER)
+        }
+    }
+
+    private fun write(reason: FlushReason) {
+        scope.launch { persist(reason) }
+    }
+
+    private suspend fun persist(reason: FlushReason) {
+        writeMutex.withLock { drainLocked(reason) }
+    }
+
+    /**
+     * 대기열의 배치를 순서대로 저장 ([writeMutex]를 잡은 상태에서 호출)
+     * 실패하면 그 배치부터 남겨 두고 재시도를 예약한다 - 남은 입력은 [inFlight]로 화면에 계속 보인다
+     */
+    private suspend fun drainLocked(reason: FlushReason) {
+        while (true) {
+            val batch = synchronized(lock) { unsaved.firstOrNull() } ?: return
+            try {
+                if (batch.replay != null) {
+                    val applied = wishRepository.replayWishCount(batch.date, batch.hour, batch.replay)
+                    journal.markApplied(batch.slots)
+                    Log.i(WR_EVENT, "[PressIngestionBuffer] 저널 복구 ${applied}회 (${batch.date} ${batch.hour}시, 이미 반영된 ${batch.count - applied}회 제외)")
+                    synchronized(lock) {
+                        unsaved.removeFirst()
+                        checkpointLocked()
+                    }
+                    continue
+                }
+                val saved = wishRepository.incrementWishCount(batch.date, batch.count, batch.hour, batch.ack)
+                Log.d(WR_EVENT, "[PressIngestionBuffer] ${batch.count}회 저장 (${batch.date} ${batch.hour}시, $reason)")
+                journal.markApplied(batch.slots)
+                synchronized(lock) {
+                    unsaved.removeFirst()
+                    inFlight -= batch.count
+                    checkpointLocked()
+                    // Room Flow가 새 값을 내보내기 전까지 화면 값이 잠깐 줄어들지 않도록 증가 결과를 바로 반영
+                    (todayPersistedLocked() ?: createdToday()).takeIf { it.date == saved.date }?.let {
+                        persisted = it.copy(targetCount = saved.totalCount, isCompleted = saved.isCompleted)
+                    }
+                    publishLocked()
+                }
+            } catch (e: Exception) {
+                val queued = synchronized(lock) {
+                    scheduleRetryLocked()
+                    unsaved.size
+                }
+                Log.e(WR_EVENT, "[PressIngestionBuffer] 저장 실패 - ${RETRY_INTERVAL_MS}ms 뒤 재시도 (${batch.count}회, 대기 배치 ${queued}개)", e)
+                return
+            }
+        }
+    }
+
+    private fun scheduleRetryLocked() {
+        if (retryJob?.isActive == true) return
+        retryJob = scope.launch {
+            delay(RETRY_INTERVAL_MS)
+            // 이번 시도도 실패하면 다시 예약할 수 있도록 먼저 비운다
+            synchronized(lock) { retryJob = null }
+            persist(FlushReason.RETRY)
+        }
+    }
+
+    /**
+     * 시작 시 저널에 남은 미반영 입력을 날짜/시간대별로 묶어 Room에 반영
+     * 카운터 입력은 이미 저장된 확인값 이하면 건너뛰므로, 커밋 후 반영 표시 전에 종료됐어도 두 번 세지 않는다
+     * 묶음은 저장 대기열 맨 앞에 시간 순서대로 넣는다. 한 묶음이 실패하면 그 뒤 묶음과 새 배치는
+     * 저장되지 않고 재시도를 기다리므로, 뒤 묶음이 확인값을 먼저 올려 실패한 묶음을 건너뛰게 만들지 않는다
+     */
+    private suspend fun replayJournal() {
+        synchronized(lock) {
+            // 재생 전에 이미 이번 실행의 입력이 저널에 들어왔을 수 있다 - 그 슬롯은 버퍼가 저장한다
+            val live = pendingSlots + unsaved.flatMap { it.slots }
+            val records = journal.pendingRecords().filter { record -> live.none { record.slot in it } }
+            if (records.isEmpty()) return
+
+            val calendar = Calendar.getInstance()
+            val batches = records.groupBy { record ->
+                calendar.timeInMillis = record.timestampMillis
+                DateUtils.dateToString(calendar.time) to calendar.get(Calendar.HOUR_OF_DAY)
+            }.map { (key, group) ->
+                Batch(
+                    date = key.first,
+                    hour = key.second,
+                    count = group.sumOf { it.delta },
+                    slots = group.map { it.slot..it.slot },
+                    ack = null,
+                    replay = group.map { JournalPress(it.delta, it.ack) }
+                )
+            }
+            batches.asReversed().forEach { unsaved.addFirst(it) }
+            Log.i(WR_EVENT, "[PressIngestionBuffer] 저널 재생 - 레코드 ${records.size}개, 묶음 ${batches.size}개")
+        }
+        drainLocked(FlushReason.REPLAY)
+    }
+
+    /**
+     * 메모리에 미저장 입력이 없으면 저널 비우기
+     */
+    private fun checkpointLocked() {
+        if (pending == 0 && unsaved.isEmpty()) {
+            journal.checkpoint()
+        }
+    }
+
+    /**
+     * 같은 기기면 (epoch, value)가 더 큰 쪽, 다른 기기면 나중 값
+     */
+    private fun newerAck(current: CounterAck?, next: CounterAck?): CounterAck? {
+        if (current == null || next == null) return next ?: current
+        if (current.deviceAddress != next.deviceAddress) return next
+        return if (next.isAtOrAfter(current)) next else current
+    }
+
+    /**
+     * 오늘 값의 기준 - 오늘 행이 아직 없으면 첫 배치가 만들 기본 행
+     */
+    private fun baseLocked(): WishUiState? =
+        todayPersistedLocked() ?: if (pending + inFlight > 0) createdToday() else null
+
+    /**
+     * 저장된 값이 어제 것이면(자정 직후 Room 구독이 새 날짜로 바뀌기 전) 버린다
+     */
+    private fun todayPersistedLocked(): WishUiState? {
+        val row = persisted ?: return null
+        if (row.date == DateUtils.getTodayString()) return row
+        persisted = null
+        return null
+    }
+
+    /**
+     * 증가 트랜잭션이 오늘 행이 없을 때 넣는 행과 같은 값 ([WishEntity.createForToday])
+     */
+    private fun createdToday(): WishUiState = WishUiState.fromEntity(WishEntity.createForToday())
+
+    private fun publishLocked() {
+        val base = baseLocked()
+        val unsaved = pending + inFlight
+        _todayWish.value = if (base == null || unsaved == 0) {
+            base
+        } else {
+            val count = (base.targetCount + unsaved).coerceAtMost(Constants.MAX_DAILY_COUNT)
+            base.copy(targetCount = count, isCompleted = count >= base.currentCount)
+        }
+    }
+
+    private fun nextHour(now: Calendar): Long =
+        (now.clone() as Calendar).apply {
+            set(Calendar.MINUTE, 0)
+            set(Calendar.SECOND, 0)
+            set(Calendar.MILLISECOND, 0)
+            add(Calendar.HOUR_OF_DAY, 1)
+        }.timeInMillis
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        // 저널이 입력을 보존하므로 DB 쓰기는 길게 묶는다
+        const val FLUSH_INTERVAL_MS = 1_000L
+        const val FLUSH_BATCH_SIZE = 200
+
+        const val RETRY_INTERVAL_MS = 2_000L
+
+        private const val DRAIN_MAX_ATTEMPTS = 5
+        private const val DRAIN_RETRY_MS = 200L
+    }
+}
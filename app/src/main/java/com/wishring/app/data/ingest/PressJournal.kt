@@ -0,0 +1,237 @@
+package com.wishring.app.data.ingest
+
+import android.content.Context
+import android.util.Log
+import com.wishring.app.data.model.CounterAck
+import dagger.hilt.android.qualifiers.ApplicationContext
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * 버튼 입력 선기록(write-ahead) 저널
+ *
+ * 디코딩 스레드에서 누른 횟수를 메모리에 올리기 전에 mmap 파일에 고정 크기 레코드로 먼저 기록한다.
+ * 기록은 페이지 캐시에 바로 반영되므로 프로세스가 강제 종료돼도 남고,
+ * 다음 실행 때 [PressIngestionBuffer]가 아직 반영되지 않은 레코드를 Room에 다시 넣는다.
+ *
+ * 파일 구조 (little-endian):
+ * - 헤더 16바이트: magic, version, generation, reserved
+ * - 레코드 40바이트 × [CAPACITY]: generation, state, timestamp(ms), delta, deviceSeq, epoch, reserved, address
+ *
+ * 카운터 입력은 링 주소(MAC 48비트)와 epoch까지 함께 기록해, 재생할 때 어느 기기의 어느 epoch 확인값인지
+ * 추측하지 않고 그대로 device_counters에 반영한다.
+ *
+ * 레코드는 generation이 헤더와 같을 때만 유효하며, 앞에서부터 처음으로 다른 값이 나오는 곳이 끝이다.
+ * 체크포인트(모든 레코드 반영 완료)는 헤더의 generation만 올려서 O(1)로 파일을 비운다.
+ * state는 마지막에 써서 기록 완료 표시로 쓴다.
+ *
+ * DB 커밋과 [markApplied] 사이(수 μs)에 종료되면 해당 배치가 저널에 남는다. 카운터 입력은 재생 시
+ * device_counters의 확인값과 비교해 이미 반영된 레코드를 건너뛰므로 정확히 1회 반영되고,
+ * 카운터 없이 기록된 입력만 한 번 더 반영될 수 있다 (최소 1회).
+ */
+@Singleton
+class PressJournal @Inject constructor(
+    @ApplicationContext private val context: Context
+) {
+
+    /**
+     * 반영 대기 중인 레코드
+     * @param slot 저널 내 위치 ([markApplied]에 전달)
+     * @param ack 입력을 보낸 링 카운터 값 (키 이벤트는 null)
+     */
+    data class Record(
+        val slot: Int,
+        val timestampMillis: Long,
+        val delta: Int,
+        val ack: CounterAck?
+    )
+
+    private val buffer: MappedByteBuffer? by lazy { open() }
+
+    // this로 보호
+    private var generation = 0
+    private var position = 0
+    private var unapplied = 0
+
+    /**
+     * 레코드 추가 - 디코딩 스레드에서 호출
+     * @param ack 입력을 보낸 링 카운터 값 (키 이벤트처럼 없으면 null)
+     * @return 기록된 slot, 저널이 가득 찼거나 열지 못했으면 -1
+     */
+    @Synchronized
+    fun append(timestampMillis: Long, delta: Int, ack: CounterAck?): Int {
+        val map = buffer ?: return -1
+        if (position >= CAPACITY) return -1
+
+        val slot = position
+        writeRecord(map, slot, timestampMillis, delta, ack)
+        position++
+        unapplied++
+        return slot
+    }
+
+    /**
+     * Room 반영이 끝난 레코드 표시
+     */
+    @Synchronized
+    fun markApplied(slots: List<IntRange>) {
+        val map = buffer ?: return
+        slots.forEach { range ->
+            for (slot in range) {
+                if (slot !in 0 until position) continue
+                val offset = offsetOf(slot)
+                if (map.getInt(offset + 4) == STATE_PENDING) {
+                    map.putInt(offset + 4, STATE_APPLIED)
+                    unapplied--
+                }
+            }
+        }
+    }
+
+    /**
+     * 아직 반영되지 않은 레코드 (시작 시 재생용)
+     */
+    @Synchronized
+    fun pendingRecords(): List<Record> {
+        val map = buffer ?: return emptyList()
+        val records = ArrayList<Record>(unapplied)
+        for (slot in 0 until position) {
+            val offset = offsetOf(slot)
+            if (map.getInt(offset + 4) != STATE_PENDING) continue
+            val deviceSeq = map.getInt(offset + 20)
+            val address = decodeAddress(map.getLong(offset + 32))
+            records.add(
+                Record(
+                    slot = slot,
+                    timestampMillis = map.getLong(offset + 8),
+                    delta = map.getInt(offset + 16),
+                    ack = if (address != null && deviceSeq != NO_DEVICE_SEQ) {
+                        CounterAck(address, map.getInt(offset + 24), deviceSeq)
+                    } else {
+                        null
+                    }
+                )
+            )
+        }
+        return records
+    }
+
+    /**
+     * 모든 레코드가 반영됐으면 저널 비우기
+     * @return 비웠으면 true
+     */
+    @Synchronized
+    fun checkpoint(): Boolean {
+        val map = buffer ?: return false
+        if (unapplied > 0) return false
+        if (position == 0) return true
+
+        generation++
+        map.putInt(HEADER_GENERATION, generation)
+        position = 0
+        return true
+    }
+
+    /**
+     * 저널이 거의 찼는지 - 호출 측은 즉시 플러시해서 체크포인트를 앞당긴다
+     */
+    @get:Synchronized
+    val isNearlyFull: Boolean
+        get() = position >= CAPACITY - FLUSH_HEADROOM
+
+    private fun open(): MappedByteBuffer? {
+        return try {
+            val file = File(context.filesDir, FILE_NAME)
+            val map = RandomAccessFile(file, "rw").use { raf ->
+                raf.channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE.toLong())
+            }
+            map.order(ByteOrder.LITTLE_ENDIAN)
+
+            if (map.getInt(HEADER_MAGIC) != MAGIC || map.getInt(HEADER_VERSION) != VERSION) {
+                // 새 파일이거나 알 수 없는 형식 - 비우고 새로 시작
+                map.putInt(HEADER_MAGIC, MAGIC)
+                map.putInt(HEADER_VERSION, VERSION)
+                // 이전 내용과 겹치지 않도록 새 generation에서 시작하고, 남은 바이트가 레코드로 읽히지 않도록 끝을 표시
+                map.putInt(HEADER_GENERATION, map.getInt(HEADER_GENERATION) + 1)
+                map.putInt(offsetOf(0), 0)
+            }
+            generation = map.getInt(HEADER_GENERATION)
+
+            while (position < CAPACITY && map.getInt(offsetOf(position)) == generation) {
+                val state = map.getInt(offsetOf(position) + 4)
+                if (state != STATE_PENDING && state != STATE_APPLIED) break
+                if (state == STATE_PENDING) unapplied++
+                position++
+            }
+            Log.i(WR_EVENT, "[PressJournal] 저널 열기 - 레코드 $position, 미반영 $unapplied")
+            map
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[PressJournal] 저널 열기 실패 - 메모리 버퍼만 사용", e)
+            null
+        }
+    }
+
+    private fun writeRecord(map: MappedByteBuffer, slot: Int, timestampMillis: Long, delta: Int, ack: CounterAck?) {
+        val offset = offsetOf(slot)
+        // 이전 generation의 state가 남아 있으면 기록 도중 종료 시 완료로 오인되므로 먼저 지운다
+        map.putInt(offset + 4, 0)
+        map.putLong(offset + 8, timestampMillis)
+        map.putInt(offset + 16, delta)
+        map.putInt(offset + 20, ack?.value ?: NO_DEVICE_SEQ)
+        map.putInt(offset + 24, ack?.epoch ?: 0)
+        map.putLong(offset + 32, ack?.let { encodeAddress(it.deviceAddress) } ?: NO_ADDRESS)
+        map.putInt(offset, generation)
+        map.putInt(offset + 4, STATE_PENDING)
+    }
+
+    private fun offsetOf(slot: Int) = HEADER_SIZE + slot * RECORD_SIZE
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        private const val NO_DEVICE_SEQ = -1
+        private const val NO_ADDRESS = -1L
+
+        private const val FILE_NAME = "press_journal.bin"
+        private const val MAGIC = 0x57524A31 // "WRJ1"
+        private const val VERSION = 2
+
+        private const val HEADER_MAGIC = 0
+        private const val HEADER_VERSION = 4
+        private const val HEADER_GENERATION = 8
+        private const val HEADER_SIZE = 16
+
+        private const val RECORD_SIZE = 40
+        private const val STATE_PENDING = 1
+        private const val STATE_APPLIED = 2
+
+        const val CAPACITY = 8192
+        private const val FLUSH_HEADROOM = 256
+        private const val FILE_SIZE = HEADER_SIZE + CAPACITY * RECORD_SIZE
+
+        private val MAC_ADDRESS = Regex("^([0-9A-Fa-f]{2}:){5}[0-9A-Fa-f]{2}$")
+
+        /**
+         * MAC 주소 → 48비트 정수 (MAC 형식이 아니면 [NO_ADDRESS] - 확인값 없이 재생됨)
+         */
+        internal fun encodeAddress(address: String): Long {
+            if (!MAC_ADDRESS.matches(address)) return NO_ADDRESS
+            return address.replace(":", "").toLong(16)
+        }
+
+        /**
+         * 48비트 정수 → 대문자 MAC 주소 (BluetoothDevice.getAddress 형식)
+         */
+        internal fun decodeAddress(bits: Long): String? {
+            if (bits < 0) return null
+            return (5 downTo 0).joinToString(":") { shift ->
+                "%02X".format((bits shr (shift * 8)) and 0xFF)
+            }
+        }
+    }
+}
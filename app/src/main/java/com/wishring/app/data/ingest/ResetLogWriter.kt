@@ -0,0 +1,92 @@
+package com.wishring.app.data.ingest
+
+import android.util.Log
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.repository.WishRepository
+import com.wishring.app.di.IoDispatcher
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * 리셋 로그 배치 기록기
+ *
+ * 디코딩 파이프라인에서 리셋 프레임을 받을 때마다 쓰기 트랜잭션을 열지 않고 메모리에 모았다가
+ * [FLUSH_INTERVAL_MS]마다 또는 [FLUSH_BATCH_SIZE]개가 쌓이면 한 번의 INSERT로 reset_logs에 추가한다.
+ * 연결 해제 시에는 즉시 기록한다.
+ *
+ * 행은 (기기, 시각) 키라서 저장 실패 후 같은 배치를 다시 넣어도 중복 기록되지 않는다.
+ */
+@Singleton
+class ResetLogWriter @Inject constructor(
+    private val wishRepository: WishRepository,
+    @IoDispatcher ioDispatcher: CoroutineDispatcher
+) {
+
+    private val scope = CoroutineScope(SupervisorJob() + ioDispatcher)
+    private val lock = Any()
+
+    // lock으로 보호
+    private var pending = ArrayList<ResetLogEntity>()
+    private var timerJob: Job? = null
+
+    /**
+     * 리셋 로그 추가 - 디코딩 파이프라인 소비 코루틴에서 호출
+     */
+    fun record(log: ResetLogEntity) {
+        val full = synchronized(lock) {
+            pending.add(log)
+            if (pending.size < FLUSH_BATCH_SIZE) scheduleTimerLocked()
+            pending.size >= FLUSH_BATCH_SIZE
+        }
+        if (full) flush()
+    }
+
+    /**
+     * 모인 로그 즉시 기록 (비동기)
+     */
+    fun flush() {
+        val batch = synchronized(lock) { takeBatchLocked() } ?: return
+        scope.launch { persist(batch) }
+    }
+
+    private fun takeBatchLocked(): List<ResetLogEntity>? {
+        timerJob?.cancel()
+        timerJob = null
+        if (pending.isEmpty()) return null
+        return pending.also { pending = ArrayList() }
+    }
+
+    private fun scheduleTimerLocked() {
+        if (timerJob?.isActive == true) return
+        timerJob = scope.launch {
+            delay(FLUSH_INTERVAL_MS)
+            flush()
+        }
+    }
+
+    private suspend fun persist(batch: List<ResetLogEntity>) {
+        try {
+            val appended = wishRepository.appendResetLogs(batch)
+            Log.i(WR_EVENT, "[ResetLogWriter] 리셋 로그 ${appended}건 기록 (배치 ${batch.size}건)")
+        } catch (e: Exception) {
+            Log.e(WR_EVENT, "[ResetLogWriter] 리셋 로그 기록 실패 - 다음 배치에 재시도 (${batch.size}건)", e)
+            synchronized(lock) {
+                pending.addAll(0, batch)
+                scheduleTimerLocked()
+            }
+        }
+    }
+
+    companion object {
+        private const val WR_EVENT = "WR_EVENT"
+
+        const val FLUSH_INTERVAL_MS = 2_000L
+        const val FLUSH_BATCH_SIZE = 32
+    }
+}
@@ -4,17 +4,50 @@ import android.content.Context
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
 import com.wishring.app.core.util.Constants
+import com.wishring.app.data.local.database.dao.EcgDao
+import com.wishring.app.data.local.database.dao.HealthChunkDao
+import com.wishring.app.data.local.database.dao.HealthHistoryDao
+import com.wishring.app.data.local.database.dao.ResetLogDao
+import com.wishring.app.data.local.database.dao.StatsDao
 import com.wishring.app.data.local.database.dao.WishDao
+import com.wishring.app.data.local.database.entity.DeviceCounterEntity
+import com.wishring.app.data.local.database.entity.EcgChunkEntity
+import com.wishring.app.data.local.database.entity.EcgRecordingEntity
+import com.wishring.app.data.local.database.entity.HealthChunkEntity
+import com.wishring.app.data.local.database.entity.HealthChunkIndexEntity
+import com.wishring.app.data.local.database.entity.HealthRecordEntity
+import com.wishring.app.data.local.database.entity.HistorySyncCursorEntity
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+import com.wishring.app.data.local.database.entity.StreakEntity
 import com.wishring.app.data.local.database.entity.WishEntity
+import com.wishring.app.data.local.database.entity.WishItemEntity
+import com.wishring.app.data.local.database.migration.StatsRollupTriggers
+import com.wishring.app.data.local.database.migration.StreakTriggers
+import com.wishring.app.data.local.database.migration.WishRingMigrations
 
 /**
  * Room database for WISH RING app
  * Manages local data persistence
  */
 @Database(
-    entities = [WishEntity::class],
-    version = 1,
+    entities = [
+        WishEntity::class,
+        WishItemEntity::class,
+        StreakEntity::class,
+        StatsRollupEntity::class,
+        DeviceCounterEntity::class,
+        ResetLogEntity::class,
+        HealthRecordEntity::class,
+        HistorySyncCursorEntity::class,
+        HealthChunkEntity::class,
+        HealthChunkIndexEntity::class,
+        EcgRecordingEntity::class,
+        EcgChunkEntity::class
+    ],
+    version = Constants.DATABASE_VERSION,
     exportSchema = true
 )
 abstract class WishRingDatabase : RoomDatabase() {
@@ -24,6 +57,31 @@ abstract class WishRingDatabase : RoomDatabase() {
      */
     abstract fun wishDao(): WishDao
 
+    /**
+     * Get StatsDao instance
+     */
+    abstract fun statsDao(): StatsDao
+
+    /**
+     * Get ResetLogDao instance
+     */
+    abstract fun resetLogDao(): ResetLogDao
+
+    /**
+     * Get HealthHistoryDao instance
+     */
+    abstract fun healthHistoryDao(): HealthHistoryDao
+
+    /**
+     * Get HealthChunkDao instance
+     */
+    abstract fun healthChunkDao(): HealthChunkDao
+
+    /**
+     * Get EcgDao instance
+     */
+    abstract fun ecgDao(): EcgDao
+
     companion object {
         @Volatile
         private var INSTANCE: WishRingDatabase? = null
@@ -40,7 +98,18 @@ abstract class WishRingDatabase : RoomDatabase() {
                     WishRingDatabase::class.java,
                     Constants.DATABASE_NAME
                 )
-                    .fallbackToDestructiveMigration() // 마이그레이션 실패 시 DB 재생성
+                    .addMigrations(*WishRingMigrations.ALL) // 기록 보존 - 파괴적 마이그레이션 사용 안 함
+                    .addCallback(object : Callback() {
+                        override fun onCreate(db: SupportSQLiteDatabase) {
+                            StatsRollupTriggers.create(db)
+                            StatsRollupTriggers.createResetTriggers(db)
+                            StreakTriggers.create(db)
+                        }
+
+                        override fun onOpen(db: SupportSQLiteDatabase) {
+                            StatsRollupTriggers.enableRecursiveTriggers(db)
+                        }
+                    })
                     .build()
                 INSTANCE = instance
                 instance
@@ -0,0 +1,71 @@
+package com.wishring.app.data.local.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+import com.wishring.app.data.local.database.entity.EcgChunkEntity
+import com.wishring.app.data.local.database.entity.EcgRecordingEntity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Data Access Object for ecg_recordings and ecg_chunks tables
+ * Chunks are append-only; the recording row tracks how many samples are stored
+ */
+@Dao
+interface EcgDao {
+
+    @Insert
+    suspend fun insertRecording(recording: EcgRecordingEntity)
+
+    @Insert
+    suspend fun insertChunk(chunk: EcgChunkEntity)
+
+    @Query(
+        """
+        UPDATE ecg_recordings
+        SET sample_count = sample_count + :samples, chunk_count = chunk_count + 1
+        WHERE start_time = :startTime
+        """
+    )
+    suspend fun addProgress(startTime: Long, samples: Int)
+
+    /**
+     * Store one chunk and count its samples on the recording in one transaction
+     */
+    @Transaction
+    suspend fun appendChunk(chunk: EcgChunkEntity, samples: Int) {
+        insertChunk(chunk)
+        addProgress(chunk.startTime, samples)
+    }
+
+    @Query(
+        """
+        UPDATE ecg_recordings
+        SET heart_rate = :heartRate, missed_frames = :missedFrames, end_time = :endTime
+        WHERE start_time = :startTime
+        """
+    )
+    suspend fun finishRecording(startTime: Long, heartRate: Int, missedFrames: Int, endTime: Long)
+
+    @Query("SELECT * FROM ecg_recordings WHERE start_time = :startTime")
+    suspend fun getRecording(startTime: Long): EcgRecordingEntity?
+
+    /**
+     * Observe recordings, newest first
+     */
+    @Query("SELECT * FROM ecg_recordings ORDER BY start_time DESC")
+    fun observeRecordings(): Flow<List<EcgRecordingEntity>>
+
+    /**
+     * Get chunks of a recording in sample order (primary key range)
+     */
+    @Query("SELECT * FROM ecg_chunks WHERE start_time = :startTime ORDER BY chunk_index")
+    suspend fun getChunks(startTime: Long): List<EcgChunkEntity>
+
+    /**
+     * Delete a recording (chunks cascade)
+     */
+    @Query("DELETE FROM ecg_recordings WHERE start_time = :startTime")
+    suspend fun deleteRecording(startTime: Long)
+}
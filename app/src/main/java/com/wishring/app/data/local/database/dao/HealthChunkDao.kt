@@ -0,0 +1,84 @@
+package com.wishring.app.data.local.database.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+import com.wishring.app.data.local.database.entity.HealthChunkCodec
+import com.wishring.app.data.local.database.entity.HealthChunkEntity
+import com.wishring.app.data.local.database.entity.HealthChunkIndexEntity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Data Access Object for health_chunks and health_chunk_index tables
+ * A chunk and its index row are always written together
+ */
+@Dao
+interface HealthChunkDao {
+
+    @Upsert
+    suspend fun upsertChunk(chunk: HealthChunkEntity)
+
+    @Upsert
+    suspend fun upsertIndex(index: HealthChunkIndexEntity)
+
+    /**
+     * Merge new samples into their day chunks and refresh the index in one transaction
+     * @param days Samples grouped by local day, each sorted by time
+     * @return Number of samples added (samples replacing one at the same second are not counted)
+     */
+    @Transaction
+    suspend fun mergeDays(metric: Int, days: List<HealthChunkCodec.DaySamples>, updatedAt: Long): Int {
+        var added = 0
+        for (day in days) {
+            val existing = getChunk(metric, day.epochDay)?.data
+            val chunk = HealthChunkCodec.merge(
+                existing,
+                day.dayStart, day.times, day.values, day.count, day.channels
+            )
+            upsertChunk(HealthChunkEntity(metric, day.epochDay, chunk.data))
+            upsertIndex(HealthChunkIndexEntity.of(metric, day.epochDay, chunk, updatedAt))
+            added += chunk.count - (existing?.let { HealthChunkCodec.count(it) } ?: 0)
+        }
+        return added
+    }
+
+    @Query("SELECT * FROM health_chunks WHERE metric = :metric AND epoch_day = :epochDay")
+    suspend fun getChunk(metric: Int, epochDay: Long): HealthChunkEntity?
+
+    /**
+     * Get chunks for days in [fromDay, toDay], oldest first (primary key range)
+     */
+    @Query(
+        """
+        SELECT * FROM health_chunks
+        WHERE metric = :metric AND epoch_day BETWEEN :fromDay AND :toDay
+        ORDER BY epoch_day
+        """
+    )
+    suspend fun getChunks(metric: Int, fromDay: Long, toDay: Long): List<HealthChunkEntity>
+
+    /**
+     * Get day summaries in [fromDay, toDay] without loading chunk data
+     */
+    @Query(
+        """
+        SELECT * FROM health_chunk_index
+        WHERE metric = :metric AND epoch_day BETWEEN :fromDay AND :toDay
+        ORDER BY epoch_day
+        """
+    )
+    suspend fun getIndex(metric: Int, fromDay: Long, toDay: Long): List<HealthChunkIndexEntity>
+
+    /**
+     * Observe day summaries in [fromDay, toDay]
+     */
+    @Query(
+        """
+        SELECT * FROM health_chunk_index
+        WHERE metric = :metric AND epoch_day BETWEEN :fromDay AND :toDay
+        ORDER BY epoch_day
+        """
+    )
+    fun observeIndex(metric: Int, fromDay: Long, toDay: Long): Flow<List<HealthChunkIndexEntity>>
+}
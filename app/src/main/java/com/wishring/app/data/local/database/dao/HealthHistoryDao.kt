@@ -0,0 +1,64 @@
+package com.wishring.app.data.local.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+import com.wishring.app.data.local.database.entity.HealthRecordEntity
+import com.wishring.app.data.local.database.entity.HistorySyncCursorEntity
+
+/**
+ * Data Access Object for health_records and history_sync_cursors tables
+ * Records are insert-or-ignore only; a cursor only moves forward together with its records
+ */
+@Dao
+interface HealthHistoryDao {
+
+    /**
+     * @return Row IDs, -1 for records that were already stored
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertRecords(records: List<HealthRecordEntity>): List<Long>
+
+    @Upsert
+    suspend fun upsertCursors(cursors: List<HistorySyncCursorEntity>)
+
+    /**
+     * Store a batch of downloaded records and advance their cursors in one transaction
+     * A cursor never moves back, even if the batch only holds records older than it
+     * @param cursors Cursors of one device
+     * @return Number of newly stored records
+     */
+    @Transaction
+    suspend fun appendBatch(records: List<HealthRecordEntity>, cursors: List<HistorySyncCursorEntity>): Int {
+        val inserted = insertRecords(records).count { it != -1L }
+        val address = cursors.firstOrNull()?.deviceAddress ?: return inserted
+        val stored = getCursors(address).associate { it.type to it.lastRecordTime }
+        upsertCursors(cursors.map { cursor ->
+            val last = stored[cursor.type] ?: return@map cursor
+            cursor.copy(lastRecordTime = maxOf(last, cursor.lastRecordTime))
+        })
+        return inserted
+    }
+
+    /**
+     * Get sync cursors of a device
+     * @param address Bluetooth MAC address
+     */
+    @Query("SELECT * FROM history_sync_cursors WHERE device_address = :address")
+    suspend fun getCursors(address: String): List<HistorySyncCursorEntity>
+
+    /**
+     * Get records of one type in [from, to), oldest first (primary key range)
+     */
+    @Query(
+        """
+        SELECT * FROM health_records
+        WHERE device_address = :address AND type = :type AND record_time >= :from AND record_time < :to
+        ORDER BY record_time
+        """
+    )
+    suspend fun getRange(address: String, type: Int, from: Long, to: Long): List<HealthRecordEntity>
+}
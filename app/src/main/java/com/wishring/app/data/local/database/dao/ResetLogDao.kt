@@ -0,0 +1,36 @@
+package com.wishring.app.data.local.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+
+/**
+ * Data Access Object for reset_logs table
+ * Append-only - there is no update path, and duplicate (device, time) rows are ignored
+ */
+@Dao
+interface ResetLogDao {
+
+    /**
+     * Append a batch of reset rows in one transaction
+     * @return Row IDs, -1 for rows that were already logged
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertAll(logs: List<ResetLogEntity>): List<Long>
+
+    /**
+     * Get resets of a day, oldest first (day index)
+     * @param epochDay Days since 1970-01-01
+     */
+    @Query("SELECT * FROM reset_logs WHERE epoch_day = :epochDay ORDER BY reset_time")
+    suspend fun getByDay(epochDay: Long): List<ResetLogEntity>
+
+    /**
+     * Get the last reset of a device
+     * @param address Bluetooth MAC address
+     */
+    @Query("SELECT * FROM reset_logs WHERE device_address = :address ORDER BY reset_time DESC LIMIT 1")
+    suspend fun getLatest(address: String): ResetLogEntity?
+}
@@ -0,0 +1,79 @@
+package com.wishring.app.data.local.database.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+import com.wishring.app.data.local.database.entity.StreakSnapshot
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Data Access Object for stats_rollup and streak_index tables
+ * Read-only - rows are maintained by triggers on wishes and reset_logs
+ */
+@Dao
+interface StatsDao {
+
+    /**
+     * Get all-time statistics
+     * @return Rollup row or null if nothing has been recorded yet
+     */
+    @Query("SELECT * FROM stats_rollup WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY}")
+    suspend fun getAllTime(): StatsRollupEntity?
+
+    /**
+     * Observe all-time statistics
+     */
+    @Query("SELECT * FROM stats_rollup WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY}")
+    fun observeAllTime(): Flow<StatsRollupEntity?>
+
+    /**
+     * Get statistics for one ISO week
+     * @param weekKey Epoch day of the week's Monday ([StatsRollupEntity.weekKey])
+     */
+    @Query("SELECT * FROM stats_rollup WHERE scope = ${StatsRollupEntity.SCOPE_WEEK} AND period_key = :weekKey")
+    suspend fun getWeek(weekKey: Long): StatsRollupEntity?
+
+    /**
+     * Get statistics for one month
+     * @param monthKey yyyyMM ([StatsRollupEntity.monthKey])
+     */
+    @Query("SELECT * FROM stats_rollup WHERE scope = ${StatsRollupEntity.SCOPE_MONTH} AND period_key = :monthKey")
+    suspend fun getMonth(monthKey: Long): StatsRollupEntity?
+
+    /**
+     * Observe most recent weeks, newest first
+     * @param limit Number of weeks
+     */
+    @Query("""
+        SELECT * FROM stats_rollup
+        WHERE scope = ${StatsRollupEntity.SCOPE_WEEK} AND day_count > 0
+        ORDER BY period_key DESC
+        LIMIT :limit
+    """)
+    fun observeRecentWeeks(limit: Int = 12): Flow<List<StatsRollupEntity>>
+
+    /**
+     * Observe most recent months, newest first
+     * @param limit Number of months
+     */
+    @Query("""
+        SELECT * FROM stats_rollup
+        WHERE scope = ${StatsRollupEntity.SCOPE_MONTH} AND day_count > 0
+        ORDER BY period_key DESC
+        LIMIT :limit
+    """)
+    fun observeRecentMonths(limit: Int = 12): Flow<List<StatsRollupEntity>>
+
+    /**
+     * Observe streak lengths at today/yesterday and the longest streak
+     * Two primary key lookups plus MAX over the length index
+     * @param today Today's epoch day (passed in so callers can re-subscribe at midnight)
+     */
+    @Query("""
+        SELECT
+            (SELECT length FROM streak_index WHERE epoch_day = :today) AS today_length,
+            (SELECT length FROM streak_index WHERE epoch_day = :today - 1) AS yesterday_length,
+            (SELECT MAX(length) FROM streak_index) AS longest
+    """)
+    fun observeStreak(today: Long): Flow<StreakSnapshot>
+}
@@ -2,9 +2,23 @@ package com.wishring.app.data.local.database.dao
 
 import androidx.room.*
 import com.wishring.app.core.base.BaseDao
+import com.wishring.app.core.util.Constants
 import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.local.database.entity.CounterReconciliation
+import com.wishring.app.data.local.database.entity.DayHourlyCounts
+import com.wishring.app.data.local.database.entity.DeviceCounterEntity
+import com.wishring.app.data.local.database.entity.HourlyPressCounts
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+import com.wishring.app.data.local.database.entity.WishCountSnapshot
+import com.wishring.app.data.local.database.entity.WishData
+import com.wishring.app.data.local.database.entity.WishDayWithItems
+import com.wishring.app.data.local.database.entity.WishDayWithResets
 import com.wishring.app.data.local.database.entity.WishEntity
+import com.wishring.app.data.local.database.entity.WishItemEntity
+import com.wishring.app.data.model.CounterAck
+import com.wishring.app.data.model.JournalPress
 import kotlinx.coroutines.flow.Flow
+import java.time.LocalTime
 
 /**
  * Data Access Object for wishes table
@@ -15,47 +29,47 @@ interface WishDao : BaseDao<WishEntity> {
     
     /**
      * Get wish count by date
-     * @param date Date string in yyyy-MM-dd format
+     * @param epochDay Days since 1970-01-01
      * @return WishCountEntity or null if not found
      */
-    @Query("SELECT * FROM wishes WHERE date = :date")
-    suspend fun getByDate(date: String): WishEntity?
+    @Query("SELECT * FROM wishes WHERE epoch_day = :epochDay")
+    suspend fun getByDate(epochDay: Long): WishEntity?
     
     /**
      * Get today's wish count
      * @return Today's WishCountEntity or null
      */
-    @Query("SELECT * FROM wishes WHERE date = date('now', 'localtime')")
+    @Query("SELECT * FROM wishes WHERE epoch_day = $TODAY_EPOCH_DAY")
     suspend fun getTodayRecord(): WishEntity?
     
     /**
      * Get today's count as Flow
      * @return Flow emitting today's count
      */
-    @Query("SELECT total_count FROM wishes WHERE date = date('now', 'localtime')")
+    @Query("SELECT total_count FROM wishes WHERE epoch_day = $TODAY_EPOCH_DAY")
     fun getTodayCount(): Flow<Int?>
     
     /**
      * Observe wish count by date as Flow
-     * @param date Date string in yyyy-MM-dd format
+     * @param epochDay Days since 1970-01-01
      * @return Flow emitting WishCountEntity for the date
      */
-    @Query("SELECT * FROM wishes WHERE date = :date")
-    fun observeByDate(date: String): Flow<WishEntity?>
+    @Query("SELECT * FROM wishes WHERE epoch_day = :epochDay")
+    fun observeByDate(epochDay: Long): Flow<WishEntity?>
     
     /**
      * Get recent records
      * @param limit Number of records to fetch
      * @return Flow of recent records
      */
-    @Query("SELECT * FROM wishes ORDER BY date DESC LIMIT :limit")
+    @Query("SELECT * FROM wishes ORDER BY epoch_day DESC LIMIT :limit")
     fun getRecentRecords(limit: Int = 30): Flow<List<WishEntity>>
     
     /**
      * Get all records
      * @return Flow of all records
      */
-    @Query("SELECT * FROM wishes ORDER BY date DESC")
+    @Query("SELECT * FROM wishes ORDER BY epoch_day DESC")
     fun getAllRecords(): Flow<List<WishEntity>>
 
     
@@ -63,38 +77,259 @@ interface WishDao : BaseDao<WishEntity> {
      * Get all records synchronously (suspend function)
      * @return List of all records
      */
-    @Query("SELECT * FROM wishes ORDER BY date DESC")
+    @Query("SELECT * FROM wishes ORDER BY epoch_day DESC")
     suspend fun getAllRecordsSync(): List<WishEntity>
     
     /**
      * Get records between dates
-     * @param startDate Start date (inclusive)
-     * @param endDate End date (inclusive)
+     * @param startDay Start epoch day (inclusive)
+     * @param endDay End epoch day (inclusive)
      * @return List of records between dates
      */
-    @Query("SELECT * FROM wishes WHERE date BETWEEN :startDate AND :endDate ORDER BY date DESC")
-    suspend fun getRecordsBetween(startDate: String, endDate: String): List<WishEntity>
+    @Query("SELECT * FROM wishes WHERE epoch_day BETWEEN :startDay AND :endDay ORDER BY epoch_day DESC")
+    suspend fun getRecordsBetween(startDay: Long, endDay: Long): List<WishEntity>
     
     /**
      * Update count for specific date
-     * @param date Date to update
+     * @param epochDay Date to update
      * @param count New count value
      * @param updatedAt Update timestamp
      */
-    @Query("UPDATE wishes SET total_count = :count, updated_at = :updatedAt WHERE date = :date")
-    suspend fun updateCount(date: String, count: Int, updatedAt: Long = DateUtils.getCurrentTimestamp())
+    @Query("UPDATE wishes SET total_count = :count, updated_at = :updatedAt WHERE epoch_day = :epochDay")
+    suspend fun updateCount(epochDay: Long, count: Int, updatedAt: Long = DateUtils.getCurrentTimestamp())
     
+    /**
+     * Insert an empty row for a date if none exists
+     * Unlike BaseDao.insert (REPLACE), an existing row is left untouched
+     * @param entity Default row to insert
+     * @return Row ID, or -1 if the row already existed
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertIfAbsent(entity: WishEntity): Long
+
+    /**
+     * Add to a day's count in place
+     * Caps at MAX_DAILY_COUNT and recomputes is_completed in the same statement
+     * (all right-hand side columns refer to the row before the update)
+     * @return Number of updated rows (0 if the row does not exist)
+     */
+    @Query("""
+        UPDATE wishes
+        SET total_count = MIN(total_count + :increment, :maxCount),
+            is_completed = MIN(total_count + :increment, :maxCount) >= target_count,
+            updated_at = :updatedAt
+        WHERE epoch_day = :epochDay
+    """)
+    suspend fun addToCount(
+        epochDay: Long,
+        increment: Int,
+        maxCount: Int = Constants.MAX_DAILY_COUNT,
+        updatedAt: Long = DateUtils.getCurrentTimestamp()
+    ): Int
+
+    /**
+     * Set wish text and target in place, recomputing is_completed
+     * @return Number of updated rows
+     */
+    @Query("""
+        UPDATE wishes
+        SET wish_text = :wishText,
+            target_count = :targetCount,
+            is_completed = total_count >= :targetCount,
+            updated_at = :updatedAt
+        WHERE epoch_day = :epochDay
+    """)
+    suspend fun setWishAndTarget(
+        epochDay: Long,
+        wishText: String,
+        targetCount: Int,
+        updatedAt: Long = DateUtils.getCurrentTimestamp()
+    ): Int
+
+    /**
+     * Get count columns for a date
+     * Served entirely from the covering index
+     * @param epochDay Days since 1970-01-01
+     */
+    @Query("SELECT epoch_day, total_count, target_count, is_completed FROM wishes WHERE epoch_day = :epochDay")
+    suspend fun getCountSnapshot(epochDay: Long): WishCountSnapshot?
+
     /**
      * Increment today's count
      * @param increment Amount to increment (default 1)
+     * @return Count columns after the increment
      */
     @Transaction
-    suspend fun incrementTodayCount(increment: Int = 1) {
-        val today = DateUtils.getTodayString()
-        val entity = getByDate(today) ?: WishEntity.createForToday()
-        insert(entity.incrementCount(increment))
+    suspend fun incrementTodayCount(increment: Int = 1): WishCountSnapshot {
+        return incrementCount(DateUtils.getTodayEpochDay(), increment, LocalTime.now().hour)
     }
-    
+
+    /**
+     * Increment count for specific date
+     * Used by the press ingestion buffer, which may flush a batch after midnight
+     * @param epochDay Date the presses belong to
+     * @param increment Amount to increment
+     * @param hour Local hour (0-23) the presses were recorded in
+     * @return Count columns after the increment
+     */
+    @Transaction
+    suspend fun incrementCount(epochDay: Long, increment: Int, hour: Int): WishCountSnapshot {
+        insertIfAbsent(WishEntity.createForToday().copy(epochDay = epochDay))
+        val before = checkNotNull(getCountSnapshot(epochDay)).totalCount
+        addToCount(epochDay, increment)
+        val snapshot = checkNotNull(getCountSnapshot(epochDay))
+        // total_count is capped at MAX_DAILY_COUNT, so the item and hourly counts only get what was applied
+        val applied = snapshot.totalCount - before
+        if (applied > 0) {
+            addToActiveItemCount(epochDay, applied)
+            setHourlyCounts(epochDay, HourlyPressCounts.increment(getHourlyCounts(epochDay), hour, applied))
+        }
+        return snapshot
+    }
+
+    /**
+     * Increment count and acknowledge the ring counter value it covers in one transaction
+     * @param ack Counter value covered by the presses, or null for presses without a counter
+     */
+    @Transaction
+    suspend fun incrementCountWithAck(epochDay: Long, increment: Int, hour: Int, ack: CounterAck?): WishCountSnapshot {
+        val snapshot = incrementCount(epochDay, increment, hour)
+        ack?.let { advanceDeviceAck(it.deviceAddress, it.epoch, it.value) }
+        return snapshot
+    }
+
+    /**
+     * Increment count from replayed journal records in one transaction
+     * A counter record whose ack is at or before the stored ack of the same device and epoch
+     * was already committed (the process died before the journal was marked), so it is skipped.
+     * Records from an older epoch are still applied: a reset advances the epoch without
+     * waiting for the presses before it to be stored.
+     * @param presses Replayed records in journal order
+     * @return Number of presses added
+     */
+    @Transaction
+    suspend fun incrementCountFromJournal(epochDay: Long, hour: Int, presses: List<JournalPress>): Int {
+        val stored = presses.mapNotNull { it.ack?.deviceAddress }
+            .distinct()
+            .associateWith { getDeviceCounter(it) }
+        val latest = HashMap<String, CounterAck>()
+        var increment = 0
+        for (press in presses) {
+            val ack = press.ack
+            if (ack != null) {
+                val counter = stored[ack.deviceAddress]
+                if (counter != null && counter.epoch == ack.epoch && ack.value <= counter.lastAck) continue
+                latest[ack.deviceAddress] = latest[ack.deviceAddress]?.takeIf { it.isAtOrAfter(ack) } ?: ack
+            }
+            increment += press.delta
+        }
+        if (increment > 0) incrementCount(epochDay, increment, hour)
+        latest.values.forEach { advanceDeviceAck(it.deviceAddress, it.epoch, it.value) }
+        return increment
+    }
+
+    /**
+     * Get the acknowledged counter of a device
+     * @param address Bluetooth MAC address
+     */
+    @Query("SELECT * FROM device_counters WHERE device_address = :address")
+    suspend fun getDeviceCounter(address: String): DeviceCounterEntity?
+
+    /**
+     * Insert or overwrite the acknowledged counter of a device
+     */
+    @Upsert
+    suspend fun upsertDeviceCounter(entity: DeviceCounterEntity)
+
+    /**
+     * Move a device's acknowledged counter forward
+     * Only applies when (epoch, last_ack) does not go backwards, so batches persisted
+     * out of order can never re-open presses that were already counted
+     * @return Number of updated rows (0 if stale or the device is unknown)
+     */
+    @Query("""
+        UPDATE device_counters SET epoch = :epoch, last_ack = :value, updated_at = :updatedAt
+        WHERE device_address = :address
+          AND (epoch < :epoch OR (epoch = :epoch AND last_ack <= :value))
+    """)
+    suspend fun advanceDeviceAck(
+        address: String,
+        epoch: Int,
+        value: Int,
+        updatedAt: Long = DateUtils.getCurrentTimestamp()
+    ): Int
+
+    /**
+     * Start a new counter epoch after a reset notification
+     * @param epoch Epoch that begins at counter 0
+     * @return Number of updated rows (0 if stale or the device is unknown)
+     */
+    @Query("""
+        UPDATE device_counters SET epoch = :epoch, last_ack = 0, last_reset_at = :resetAt, updated_at = :resetAt
+        WHERE device_address = :address AND epoch < :epoch
+    """)
+    suspend fun startDeviceEpoch(
+        address: String,
+        epoch: Int,
+        resetAt: Long = DateUtils.getCurrentTimestamp()
+    ): Int
+
+    /**
+     * Reconcile the ring counter read on connect
+     * The catch-up increment and the new acknowledged value are committed together,
+     * so running this twice for the same counter applies the presses exactly once
+     * @param address Bluetooth MAC address
+     * @param deviceCounter Cumulative counter read from the ring
+     * @param epochDay Day the catch-up presses are credited to
+     * @param hour Local hour the catch-up presses are credited to
+     */
+    @Transaction
+    suspend fun reconcileDeviceCounter(
+        address: String,
+        deviceCounter: Int,
+        epochDay: Long,
+        hour: Int
+    ): CounterReconciliation {
+        val stored = getDeviceCounter(address)
+        val result = stored?.reconcile(deviceCounter) ?: DeviceCounterEntity.firstContact(deviceCounter)
+        if (result.catchUp > 0) {
+            incrementCount(epochDay, result.catchUp, hour)
+        }
+        val now = DateUtils.getCurrentTimestamp()
+        upsertDeviceCounter(
+            DeviceCounterEntity(
+                deviceAddress = address,
+                epoch = result.epoch,
+                lastAck = result.deviceCounter,
+                lastResetAt = if (result.isNewEpoch) now else stored?.lastResetAt,
+                updatedAt = now
+            )
+        )
+        return result
+    }
+
+    /**
+     * Get the hourly press blob of a day
+     * @param epochDay Days since 1970-01-01
+     * @return Blob decoded by [HourlyPressCounts], or null
+     */
+    @Query("SELECT hourly_counts FROM wishes WHERE epoch_day = :epochDay")
+    suspend fun getHourlyCounts(epochDay: Long): ByteArray?
+
+    /**
+     * Overwrite the hourly press blob of a day
+     */
+    @Query("UPDATE wishes SET hourly_counts = :blob WHERE epoch_day = :epochDay")
+    suspend fun setHourlyCounts(epochDay: Long, blob: ByteArray?): Int
+
+    /**
+     * Get hourly press blobs for a date range, oldest first
+     * @param startDay Start epoch day (inclusive)
+     * @param endDay End epoch day (inclusive)
+     */
+    @Query("SELECT epoch_day, hourly_counts FROM wishes WHERE epoch_day BETWEEN :startDay AND :endDay ORDER BY epoch_day")
+    suspend fun getHourlyCountsBetween(startDay: Long, endDay: Long): List<DayHourlyCounts>
+
     /**
      * Update wish and target for today
      * @param wishText New wish text
@@ -102,70 +337,234 @@ interface WishDao : BaseDao<WishEntity> {
      */
     @Transaction
     suspend fun updateTodayWish(wishText: String, targetCount: Int) {
-        val today = DateUtils.getTodayString()
-        val entity = getByDate(today) ?: WishEntity.createForToday()
-        insert(entity.updateWishAndTarget(wishText, targetCount))
+        val today = DateUtils.getTodayEpochDay()
+        insertIfAbsent(WishEntity.createForToday().copy(epochDay = today))
+        setWishAndTarget(today, wishText, targetCount)
     }
     
+    /**
+     * Insert or update a full day row
+     * Updates in place when the row exists, so wish_items rows are not cascaded away
+     * the way a REPLACE (delete + insert) would
+     */
+    @Upsert
+    suspend fun upsert(entity: WishEntity)
+
+    /**
+     * Save a day edited from the UI model
+     * Keeps columns the UI model does not carry (active slot, hourly counters)
+     * instead of resetting them to entity defaults
+     */
+    @Transaction
+    suspend fun saveDay(entity: WishEntity) {
+        val existing = getByDate(entity.epochDay)
+        upsert(
+            if (existing == null) entity
+            else entity.copy(activeWishIndex = existing.activeWishIndex, hourlyCounts = existing.hourlyCounts)
+        )
+    }
+
+    /**
+     * Insert wish slots for a day
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertItems(items: List<WishItemEntity>)
+
+    /**
+     * Delete all wish slots of a day
+     * @return Number of deleted slots
+     */
+    @Query("DELETE FROM wish_items WHERE epoch_day = :epochDay")
+    suspend fun deleteItems(epochDay: Long): Int
+
+    /**
+     * Get wish slots of a day in slot order
+     * @param epochDay Days since 1970-01-01
+     */
+    @Query("SELECT * FROM wish_items WHERE epoch_day = :epochDay ORDER BY slot_index")
+    suspend fun getItems(epochDay: Long): List<WishItemEntity>
+
+    /**
+     * Get number of wish slots of a day
+     */
+    @Query("SELECT COUNT(*) FROM wish_items WHERE epoch_day = :epochDay")
+    suspend fun getItemCount(epochDay: Long): Int
+
+    /**
+     * Get the active wish of a day
+     * Single primary key lookup on (epoch_day, slot_index)
+     * @param epochDay Days since 1970-01-01
+     * @return Active slot or null if the day or slot does not exist
+     */
+    @Query("""
+        SELECT wish_items.* FROM wishes
+        INNER JOIN wish_items
+            ON wish_items.epoch_day = wishes.epoch_day
+            AND wish_items.slot_index = wishes.active_wish_index
+        WHERE wishes.epoch_day = :epochDay
+    """)
+    suspend fun getActiveItem(epochDay: Long): WishItemEntity?
+
+    /**
+     * Get a day row with its wish slots
+     * @param epochDay Days since 1970-01-01
+     */
+    @Transaction
+    @Query("SELECT * FROM wishes WHERE epoch_day = :epochDay")
+    suspend fun getWithItems(epochDay: Long): WishDayWithItems?
+
+    /**
+     * Select the active slot and mirror its text into wish_text
+     * wish_text keeps the value shown in history rows without a join
+     * @return Number of updated rows
+     */
+    @Query("""
+        UPDATE wishes
+        SET active_wish_index = :slotIndex,
+            wish_text = COALESCE(
+                (SELECT text FROM wish_items WHERE epoch_day = :epochDay AND slot_index = :slotIndex),
+                wish_text
+            ),
+            updated_at = :updatedAt
+        WHERE epoch_day = :epochDay
+    """)
+    suspend fun setActiveSlot(
+        epochDay: Long,
+        slotIndex: Int,
+        updatedAt: Long = DateUtils.getCurrentTimestamp()
+    ): Int
+
+    /**
+     * Add presses to the active slot's count
+     * @return Number of updated slots (0 if the day has no wishes)
+     */
+    @Query("""
+        UPDATE wish_items
+        SET count = MIN(count + :increment, :maxCount)
+        WHERE epoch_day = :epochDay
+            AND slot_index = (SELECT active_wish_index FROM wishes WHERE epoch_day = :epochDay)
+    """)
+    suspend fun addToActiveItemCount(
+        epochDay: Long,
+        increment: Int,
+        maxCount: Int = Constants.MAX_DAILY_COUNT
+    ): Int
+
+    /**
+     * Replace a day's wish list, target and active slot
+     * Slots whose text is unchanged keep their count
+     * @param epochDay Date to update
+     * @param wishes New wish list in slot order
+     * @param targetCount New daily target
+     * @param activeIndex Active slot (clamped to the list)
+     * @return Updated day row
+     */
+    @Transaction
+    suspend fun replaceWishes(
+        epochDay: Long,
+        wishes: List<WishData>,
+        targetCount: Int,
+        activeIndex: Int
+    ): WishEntity {
+        insertIfAbsent(WishEntity.createForToday().copy(epochDay = epochDay))
+        val previous = getItems(epochDay).associateBy { it.slotIndex }
+        val items = WishItemEntity.fromWishes(epochDay, wishes).map { item ->
+            previous[item.slotIndex]
+                ?.takeIf { it.text == item.text }
+                ?.let { item.copy(count = it.count) }
+                ?: item
+        }
+        val slot = activeIndex.coerceIn(0, (items.size - 1).coerceAtLeast(0))
+
+        setWishAndTarget(epochDay, items.getOrNull(slot)?.text ?: "", targetCount)
+        deleteItems(epochDay)
+        insertItems(items)
+        setActiveSlot(epochDay, slot)
+        return checkNotNull(getByDate(epochDay))
+    }
+
     /**
      * Update completion status
-     * @param date Date to update
+     * @param epochDay Date to update
      * @param completed Completion status
      */
-    @Query("UPDATE wishes SET is_completed = :completed WHERE date = :date")
-    suspend fun updateCompletionStatus(date: String, completed: Boolean)
+    @Query("UPDATE wishes SET is_completed = :completed WHERE epoch_day = :epochDay")
+    suspend fun updateCompletionStatus(epochDay: Long, completed: Boolean)
     
     /**
      * Delete records older than specified date
-     * @param date Cutoff date
+     * @param epochDay Cutoff epoch day (exclusive)
      * @return Number of deleted records
      */
-    @Query("DELETE FROM wishes WHERE date < :date")
-    suspend fun deleteOlderThan(date: String): Int
+    @Query("DELETE FROM wishes WHERE epoch_day < :epochDay")
+    suspend fun deleteOlderThan(epochDay: Long): Int
     
     /**
      * Get total count across all days
+     * Reads the trigger-maintained rollup instead of scanning wishes
      * @return Total count sum
      */
-    @Query("SELECT SUM(total_count) FROM wishes")
+    @Query("SELECT total_count FROM stats_rollup WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY}")
     suspend fun getTotalCountAllTime(): Int?
     
     /**
      * Get average daily count
      * @return Average count per day
      */
-    @Query("SELECT AVG(total_count) FROM wishes")
+    @Query("""
+        SELECT CAST(total_count AS REAL) / day_count FROM stats_rollup
+        WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY} AND day_count > 0
+    """)
     suspend fun getAverageDailyCount(): Float?
     
     /**
      * Get days with completed goals
      * @return Number of days with completed goals
      */
-    @Query("SELECT COUNT(*) FROM wishes WHERE is_completed = 1")
+    @Query("""
+        SELECT COALESCE(
+            (SELECT completed_days FROM stats_rollup
+             WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY}),
+            0
+        )
+    """)
     suspend fun getCompletedDaysCount(): Int
     
     /**
-     * Get current streak (consecutive days with records)
-     * This is a simplified version - for complex streak calculation,
-     * implement in repository layer
+     * Get number of recorded days
+     * Reads the trigger-maintained rollup instead of counting wishes rows
+     * @return Number of days with a wishes row
+     */
+    @Query("""
+        SELECT COALESCE(
+            (SELECT day_count FROM stats_rollup
+             WHERE scope = ${StatsRollupEntity.SCOPE_ALL} AND period_key = ${StatsRollupEntity.ALL_TIME_KEY}),
+            0
+        )
+    """)
+    suspend fun getDayCountAllTime(): Int
+    
+    /**
+     * Get current streak (consecutive completed days ending today, or yesterday if today is not done yet)
+     * Reads the trigger-maintained streak_index
      */
     @Query("""
-        SELECT COUNT(*) FROM wishes
-        WHERE date >= date('now', '-' || (
-            SELECT COUNT(*) FROM wishes
-            WHERE date <= date('now', 'localtime')
-            AND date >= date('now', '-30 days')
-        ) || ' days')
+        SELECT COALESCE(
+            (SELECT length FROM streak_index
+             WHERE epoch_day IN ($TODAY_EPOCH_DAY, $TODAY_EPOCH_DAY - 1)
+             ORDER BY epoch_day DESC LIMIT 1),
+            0
+        )
     """)
     suspend fun getCurrentStreak(): Int
     
     /**
      * Delete a specific wish count record by date
-     * @param date Date of the record to delete
+     * @param epochDay Date of the record to delete
      * @return Number of deleted records (0 or 1)
      */
-    @Query("DELETE FROM wishes WHERE date = :date")
-    suspend fun deleteWishCount(date: String): Int
+    @Query("DELETE FROM wishes WHERE epoch_day = :epochDay")
+    suspend fun deleteWishCount(epochDay: Long): Int
     
     /**
      * Get total number of records
@@ -175,11 +574,66 @@ interface WishDao : BaseDao<WishEntity> {
     suspend fun getTotalCount(): Int
     
     /**
-     * Get paginated records
-     * @param limit Number of records to fetch
-     * @param offset Number of records to skip
-     * @return List of WishEntity in date descending order
+     * Page of past days older than a cursor (keyset paging on the epoch_day primary key)
+     * The reset summary subqueries run only for the rows on the page
+     * @param before Exclusive upper bound - today for the first page, else the last loaded epoch day
+     * @param limit Number of days to fetch
+     * @return Days in date descending order
+     */
+    @Query("""
+        SELECT wishes.*, $HISTORY_RESET_COLUMNS
+        FROM wishes
+        WHERE epoch_day < :before
+        ORDER BY epoch_day DESC
+        LIMIT :limit
+    """)
+    suspend fun getHistoryBefore(before: Long, limit: Int): List<WishDayWithResets>
+
+    /**
+     * Page of past days newer than a cursor (used to prepend after pages were dropped)
+     * @param after Exclusive lower bound - the first loaded epoch day
+     * @param today Today's epoch day (exclusive upper bound)
+     * @param limit Number of days to fetch
+     * @return Days in date ascending order (closest to the cursor first)
      */
-    @Query("SELECT * FROM wishes ORDER BY date DESC LIMIT :limit OFFSET :offset")
-    suspend fun getAllPaginated(limit: Int, offset: Int): List<WishEntity>
-}
\ No newline at end of file
+    @Query("""
+        SELECT wishes.*, $HISTORY_RESET_COLUMNS
+        FROM wishes
+        WHERE epoch_day > :after AND epoch_day < :today
+        ORDER BY epoch_day ASC
+        LIMIT :limit
+    """)
+    suspend fun getHistoryAfter(after: Long, today: Long, limit: Int): List<WishDayWithResets>
+
+    /**
+     * Count days strictly between two epoch days (primary key range)
+     * Keep the range short - the cost grows with the number of rows in it
+     */
+    @Query("SELECT COUNT(*) FROM wishes WHERE epoch_day > :afterDay AND epoch_day < :beforeDay")
+    suspend fun countDaysBetween(afterDay: Long, beforeDay: Long): Int
+
+    companion object {
+        /**
+         * Today's epoch day evaluated in SQLite (local time)
+         * Evaluated each time the query runs; Room re-runs an observed query only when its tables change,
+         * so long-lived Flows/PagingSources should take the day as a parameter and re-subscribe at midnight
+         */
+        const val TODAY_EPOCH_DAY = "CAST(julianday('now', 'localtime', 'start of day') - 2440587.5 AS INTEGER)"
+
+        /**
+         * Reset summary columns for a history row
+         * Both are key lookups: stats_rollup primary key and the reset_logs day index
+         */
+        const val HISTORY_RESET_COLUMNS = """
+            COALESCE((
+                SELECT reset_count FROM stats_rollup
+                WHERE scope = ${StatsRollupEntity.SCOPE_DAY} AND period_key = wishes.epoch_day
+            ), 0) AS reset_count,
+            (
+                SELECT count_before_reset FROM reset_logs
+                WHERE reset_logs.epoch_day = wishes.epoch_day
+                ORDER BY reset_time DESC LIMIT 1
+            ) AS count_before_reset
+        """
+    }
+}
@@ -0,0 +1,109 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+import com.wishring.app.core.util.Constants
+import com.wishring.app.core.util.DateUtils
+
+/**
+ * Last acknowledged ring counter per device (device_counters)
+ *
+ * The ring keeps a cumulative press counter that survives disconnects.
+ * [lastAck] is the counter value whose presses are already in `wishes`, and it is always
+ * written in the same transaction as those presses, so re-running a reconciliation
+ * (e.g. after a status-133 retry) finds nothing left to apply.
+ *
+ * A counter reset (RESET_CHAR_UUID) starts a new [epoch]; values are only compared
+ * within the same epoch.
+ */
+@Entity(tableName = Constants.TABLE_DEVICE_COUNTERS)
+data class DeviceCounterEntity(
+    /**
+     * Bluetooth MAC address
+     */
+    @PrimaryKey
+    @ColumnInfo(name = "device_address")
+    val deviceAddress: String,
+
+    /**
+     * Number of counter resets seen for this device
+     */
+    @ColumnInfo(name = "epoch")
+    val epoch: Int = 0,
+
+    /**
+     * Counter value already applied to the press counts
+     */
+    @ColumnInfo(name = "last_ack")
+    val lastAck: Int = 0,
+
+    /**
+     * When the current epoch started by a reset, null if never reset
+     */
+    @ColumnInfo(name = "last_reset_at")
+    val lastResetAt: Long? = null,
+
+    @ColumnInfo(name = "updated_at")
+    val updatedAt: Long = DateUtils.getCurrentTimestamp()
+) {
+    /**
+     * Diff the counter read on connect against the acknowledged value
+     *
+     * - 처음 보는 기기: 기존 누적값은 이 앱에서 센 것이 아니므로 기준값으로만 사용
+     * - 카운터 >= lastAck: 끊겨 있던 동안 눌린 횟수만큼 따라잡기
+     * - 카운터 < lastAck: 오프라인 중 리셋된 것으로 보고 새 epoch에서 카운터 값 전체를 따라잡기
+     *
+     * 리셋 후 이전 값보다 많이 누른 경우는 카운터만으로 구분할 수 없어 같은 epoch로 처리된다.
+     *
+     * @param deviceCounter Cumulative counter read from the ring
+     */
+    fun reconcile(deviceCounter: Int): CounterReconciliation {
+        val counter = deviceCounter.coerceAtLeast(0)
+        return if (counter >= lastAck) {
+            CounterReconciliation(
+                catchUp = (counter - lastAck).coerceAtMost(Constants.MAX_DAILY_COUNT),
+                epoch = epoch,
+                deviceCounter = counter,
+                isNewEpoch = false,
+                previousCounter = lastAck
+            )
+        } else {
+            CounterReconciliation(
+                catchUp = counter.coerceAtMost(Constants.MAX_DAILY_COUNT),
+                epoch = epoch + 1,
+                deviceCounter = counter,
+                isNewEpoch = true,
+                previousCounter = lastAck
+            )
+        }
+    }
+
+    companion object {
+        /**
+         * Reconciliation for a device seen for the first time
+         */
+        fun firstContact(deviceCounter: Int) = CounterReconciliation(
+            catchUp = 0,
+            epoch = 0,
+            deviceCounter = deviceCounter.coerceAtLeast(0),
+            isNewEpoch = false
+        )
+    }
+}
+
+/**
+ * Result of reconciling a device counter
+ * @param catchUp Presses made while disconnected (applied once)
+ * @param epoch Counter epoch after reconciliation
+ * @param deviceCounter Counter value now acknowledged
+ * @param isNewEpoch True if a reset was detected while disconnected
+ * @param previousCounter Acknowledged value before this reconciliation, null for a new device
+ */
+data class CounterReconciliation(
+    val catchUp: Int,
+    val epoch: Int,
+    val deviceCounter: Int,
+    val isNewEpoch: Boolean,
+    val previousCounter: Int? = null
+)
@@ -0,0 +1,44 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import com.wishring.app.core.util.Constants
+
+/**
+ * A fixed-size run of ECG samples, encoded by [EcgWaveformCodec] (ecg_chunks)
+ *
+ * Keyed by (start_time, chunk_index) so a recording reads back in order from the primary key.
+ * Rows are removed together with their recording via ON DELETE CASCADE.
+ */
+@Entity(
+    tableName = Constants.TABLE_ECG_CHUNKS,
+    primaryKeys = ["start_time", "chunk_index"],
+    foreignKeys = [
+        ForeignKey(
+            entity = EcgRecordingEntity::class,
+            parentColumns = ["start_time"],
+            childColumns = ["start_time"],
+            onDelete = ForeignKey.CASCADE
+        )
+    ]
+)
+data class EcgChunkEntity(
+    /**
+     * Recording this chunk belongs to (ecg_recordings.start_time)
+     */
+    @ColumnInfo(name = "start_time")
+    val startTime: Long,
+
+    @ColumnInfo(name = "chunk_index")
+    val chunkIndex: Int,
+
+    /**
+     * Index of the first sample within the recording
+     */
+    @ColumnInfo(name = "first_sample")
+    val firstSample: Long,
+
+    @ColumnInfo(name = "data", typeAffinity = ColumnInfo.BLOB)
+    val data: ByteArray
+)
@@ -0,0 +1,60 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+import com.wishring.app.core.util.Constants
+
+/**
+ * One ECG capture (ecg_recordings)
+ *
+ * Inserted when capture starts; the waveform itself lives in [EcgChunkEntity] rows that are
+ * written while capturing, so a recording cut short by a disconnect keeps what was received.
+ * [endTime] is set once the last chunk is stored.
+ */
+@Entity(tableName = Constants.TABLE_ECG_RECORDINGS)
+data class EcgRecordingEntity(
+    /**
+     * When capture started (epoch millis)
+     */
+    @PrimaryKey
+    @ColumnInfo(name = "start_time")
+    val startTime: Long,
+
+    @ColumnInfo(name = "device_address")
+    val deviceAddress: String,
+
+    /**
+     * Samples per second
+     */
+    @ColumnInfo(name = "sample_rate")
+    val sampleRate: Int,
+
+    @ColumnInfo(name = "sample_count")
+    val sampleCount: Long = 0,
+
+    @ColumnInfo(name = "chunk_count")
+    val chunkCount: Int = 0,
+
+    /**
+     * Heart rate reported by the ring during capture (0 = none)
+     */
+    @ColumnInfo(name = "heart_rate")
+    val heartRate: Int = 0,
+
+    /**
+     * Notifications missing from the ring's frame sequence
+     * Their samples are stored as [EcgWaveformCodec.GAP_SAMPLE] so the time axis is kept
+     */
+    @ColumnInfo(name = "missed_frames")
+    val missedFrames: Int = 0,
+
+    /**
+     * When capture ended (epoch millis, null while capturing)
+     */
+    @ColumnInfo(name = "end_time")
+    val endTime: Long? = null
+) {
+    val durationSeconds: Int
+        get() = if (sampleRate > 0) (sampleCount / sampleRate).toInt() else 0
+}
@@ -0,0 +1,65 @@
+package com.wishring.app.data.local.database.entity
+
+import java.io.ByteArrayOutputStream
+
+/**
+ * Codec for one chunk of an ECG recording (ecg_chunks.data)
+ *
+ * Samples are unsigned 16-bit values at the ring's native rate, kept in a ShortArray.
+ * Layout, all varints (LEB128): sample count, first sample, then zigzag deltas between
+ * consecutive samples. Outside the QRS complex neighbouring samples differ by a few units,
+ * so most deltas take one byte - roughly half the size of raw 16-bit samples.
+ *
+ * Samples of frames the ring sent but the app never received are stored as [GAP_SAMPLE],
+ * so a recording keeps its time axis (sample index / sample rate) across gaps.
+ */
+object EcgWaveformCodec {
+
+    /**
+     * Placeholder for a sample that never arrived (ADC full scale, not a usable reading)
+     */
+    const val GAP_SAMPLE = 0xFFFF
+
+    /**
+     * Encode [count] samples starting at absolute sample index [start]
+     * [buffer] is read as a ring (index modulo its size), so a capture ring buffer
+     * can be encoded in place without copying the samples out first.
+     */
+    fun encode(buffer: ShortArray, start: Long, count: Int): ByteArray {
+        require(count in 0..buffer.size) { "count out of range: $count" }
+        val out = ByteArrayOutputStream(4 + count * 2)
+        Varint.write(out, count.toLong())
+
+        var position = (start % buffer.size).toInt()
+        var previous = 0L
+        for (i in 0 until count) {
+            val sample = (buffer[position].toInt() and 0xFFFF).toLong()
+            Varint.write(out, if (i == 0) sample else Varint.zigzag(sample - previous))
+            previous = sample
+            if (++position == buffer.size) position = 0
+        }
+        return out.toByteArray()
+    }
+
+    /**
+     * Number of samples without decoding them
+     */
+    fun count(data: ByteArray): Int = Varint.Reader(data).read().toInt()
+
+    /**
+     * Decode into a caller-supplied array starting at [offset]
+     * @return Number of decoded samples
+     */
+    fun decodeInto(data: ByteArray, out: ShortArray, offset: Int = 0): Int {
+        val reader = Varint.Reader(data)
+        val count = reader.read().toInt()
+        require(offset + count <= out.size) { "output too small for $count samples at $offset" }
+
+        var sample = 0L
+        for (i in 0 until count) {
+            sample = if (i == 0) reader.read() else sample + Varint.unzigzag(reader.read())
+            out[offset + i] = sample.toInt().toShort()
+        }
+        return count
+    }
+}
@@ -0,0 +1,178 @@
+package com.wishring.app.data.local.database.entity
+
+import java.io.ByteArrayOutputStream
+
+/**
+ * Codec for one day of one health metric (health_chunks.data)
+ *
+ * Samples are kept at second resolution, sorted by time, with one or more Int channels
+ * (e.g. steps = steps/distance/calories). Layout, all varints (LEB128):
+ * - header: sample count, channel count
+ * - times: seconds since the day start, delta-encoded (unsigned)
+ * - values: channel by channel, delta-encoded then zigzag (signed)
+ *
+ * Per-minute heart rate costs ~2 bytes per sample (1-byte time delta, 1-byte value delta),
+ * so a full day is ~3 KB instead of 1440 rows.
+ *
+ * In memory, values are interleaved per sample: `values[i * channels + c]`.
+ */
+object HealthChunkCodec {
+
+    /**
+     * Encoded chunk with the summary kept in health_chunk_index (channel 0)
+     */
+    class Chunk(
+        val data: ByteArray,
+        val count: Int,
+        val channels: Int,
+        val firstTime: Long,
+        val lastTime: Long,
+        val minValue: Int,
+        val maxValue: Int,
+        val sumValue: Long
+    )
+
+    /**
+     * New samples of one day, sorted by time (input of [merge])
+     */
+    class DaySamples(
+        val epochDay: Long,
+        val dayStart: Long,
+        val times: LongArray,
+        val values: IntArray,
+        val count: Int,
+        val channels: Int
+    )
+
+    /**
+     * Encode sorted samples
+     * @param dayStart Local midnight of the chunk's day (epoch millis)
+     * @param times Sample times (epoch millis), ascending, not before [dayStart]
+     * @param values Interleaved values, [count] x [channels]
+     */
+    fun encode(dayStart: Long, times: LongArray, values: IntArray, count: Int, channels: Int): Chunk {
+        require(channels >= 1) { "channels must be positive: $channels" }
+        require(count <= times.size && count * channels <= values.size) { "arrays too small for $count samples" }
+
+        val out = ByteArrayOutputStream(8 + count * (channels + 1) * 2)
+        Varint.write(out, count.toLong())
+        Varint.write(out, channels.toLong())
+
+        var previousSecond = 0L
+        for (i in 0 until count) {
+            val second = (times[i] - dayStart) / 1000
+            require(second >= previousSecond) { "times must be sorted and after day start" }
+            Varint.write(out, second - previousSecond)
+            previousSecond = second
+        }
+
+        var min = Int.MAX_VALUE
+        var max = Int.MIN_VALUE
+        var sum = 0L
+        for (c in 0 until channels) {
+            var previous = 0L
+            for (i in 0 until count) {
+                val value = values[i * channels + c]
+                Varint.write(out, Varint.zigzag(value - previous))
+                previous = value.toLong()
+                if (c == 0) {
+                    if (value < min) min = value
+                    if (value > max) max = value
+                    sum += value
+                }
+            }
+        }
+
+        return Chunk(
+            data = out.toByteArray(),
+            count = count,
+            channels = channels,
+            firstTime = if (count > 0) dayStart + (times[0] - dayStart) / 1000 * 1000 else dayStart,
+            lastTime = if (count > 0) dayStart + previousSecond * 1000 else dayStart,
+            minValue = if (count > 0) min else 0,
+            maxValue = if (count > 0) max else 0,
+            sumValue = sum
+        )
+    }
+
+    /**
+     * Number of samples without decoding them
+     */
+    fun count(data: ByteArray): Int = Varint.Reader(data).read().toInt()
+
+    fun channels(data: ByteArray): Int = Varint.Reader(data).also { it.read() }.read().toInt()
+
+    /**
+     * Decode into caller-supplied arrays starting at sample [offset]
+     * @param values Interleaved output, must hold (offset + count) x channels
+     * @return Number of decoded samples
+     */
+    fun decodeInto(data: ByteArray, dayStart: Long, times: LongArray, values: IntArray, offset: Int = 0): Int {
+        val reader = Varint.Reader(data)
+        val count = reader.read().toInt()
+        val channels = reader.read().toInt()
+        require(offset + count <= times.size && (offset + count) * channels <= values.size) {
+            "output too small for $count samples at $offset"
+        }
+
+        var second = 0L
+        for (i in 0 until count) {
+            second += reader.read()
+            times[offset + i] = dayStart + second * 1000
+        }
+        for (c in 0 until channels) {
+            var value = 0L
+            for (i in 0 until count) {
+                value += Varint.unzigzag(reader.read())
+                values[(offset + i) * channels + c] = value.toInt()
+            }
+        }
+        return count
+    }
+
+    /**
+     * Merge new samples into an existing chunk; a new sample replaces an old one in the same second
+     * @param existing Current chunk data (null for a new day)
+     * @param times New sample times, ascending
+     */
+    fun merge(
+        existing: ByteArray?,
+        dayStart: Long,
+        times: LongArray,
+        values: IntArray,
+        count: Int,
+        channels: Int
+    ): Chunk {
+        if (existing == null || count(existing) == 0) return encode(dayStart, times, values, count, channels)
+        require(channels(existing) == channels) { "channel count mismatch" }
+
+        val oldCount = count(existing)
+        val oldTimes = LongArray(oldCount)
+        val oldValues = IntArray(oldCount * channels)
+        decodeInto(existing, dayStart, oldTimes, oldValues)
+
+        val mergedTimes = LongArray(oldCount + count)
+        val mergedValues = IntArray((oldCount + count) * channels)
+        var i = 0
+        var j = 0
+        var n = 0
+        while (i < oldCount || j < count) {
+            val oldSecond = if (i < oldCount) (oldTimes[i] - dayStart) / 1000 else Long.MAX_VALUE
+            val newSecond = if (j < count) (times[j] - dayStart) / 1000 else Long.MAX_VALUE
+            if (newSecond <= oldSecond) {
+                if (newSecond == oldSecond) i++
+                // Several new samples in the same second: keep the last one
+                if (n > 0 && (mergedTimes[n - 1] - dayStart) / 1000 == newSecond) n--
+                mergedTimes[n] = times[j]
+                values.copyInto(mergedValues, n * channels, j * channels, (j + 1) * channels)
+                j++
+            } else {
+                mergedTimes[n] = oldTimes[i]
+                oldValues.copyInto(mergedValues, n * channels, i * channels, (i + 1) * channels)
+                i++
+            }
+            n++
+        }
+        return encode(dayStart, mergedTimes, mergedValues, n, channels)
+    }
+}
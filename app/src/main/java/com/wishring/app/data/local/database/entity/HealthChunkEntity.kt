@@ -0,0 +1,32 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * One day of one health metric, encoded by [HealthChunkCodec] (health_chunks)
+ *
+ * Kept apart from [HealthChunkIndexEntity] so summaries and range planning never load blobs.
+ */
+@Entity(
+    tableName = Constants.TABLE_HEALTH_CHUNKS,
+    primaryKeys = ["metric", "epoch_day"]
+)
+data class HealthChunkEntity(
+    /**
+     * [HealthRecordType.code]
+     */
+    @ColumnInfo(name = "metric")
+    val metric: Int,
+
+    /**
+     * Local date of the samples (days since 1970-01-01)
+     */
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    @ColumnInfo(name = "data", typeAffinity = ColumnInfo.BLOB)
+    val data: ByteArray
+)
@@ -0,0 +1,82 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * Summary of one [HealthChunkEntity] (health_chunk_index)
+ *
+ * Written in the same transaction as its chunk. Daily charts and averages read this table only;
+ * min/max/sum cover the first value channel.
+ */
+@Entity(
+    tableName = Constants.TABLE_HEALTH_CHUNK_INDEX,
+    primaryKeys = ["metric", "epoch_day"]
+)
+data class HealthChunkIndexEntity(
+    /**
+     * [HealthRecordType.code]
+     */
+    @ColumnInfo(name = "metric")
+    val metric: Int,
+
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    @ColumnInfo(name = "sample_count")
+    val sampleCount: Int,
+
+    /**
+     * Value channels per sample
+     */
+    @ColumnInfo(name = "channels")
+    val channels: Int,
+
+    /**
+     * Time of the first/last sample (epoch millis, second resolution)
+     */
+    @ColumnInfo(name = "first_time")
+    val firstTime: Long,
+
+    @ColumnInfo(name = "last_time")
+    val lastTime: Long,
+
+    @ColumnInfo(name = "min_value")
+    val minValue: Int,
+
+    @ColumnInfo(name = "max_value")
+    val maxValue: Int,
+
+    @ColumnInfo(name = "sum_value")
+    val sumValue: Long,
+
+    /**
+     * Encoded chunk size in bytes
+     */
+    @ColumnInfo(name = "byte_size")
+    val byteSize: Int,
+
+    @ColumnInfo(name = "updated_at")
+    val updatedAt: Long
+) {
+    val average: Double
+        get() = if (sampleCount > 0) sumValue.toDouble() / sampleCount else 0.0
+
+    companion object {
+        fun of(metric: Int, epochDay: Long, chunk: HealthChunkCodec.Chunk, updatedAt: Long) = HealthChunkIndexEntity(
+            metric = metric,
+            epochDay = epochDay,
+            sampleCount = chunk.count,
+            channels = chunk.channels,
+            firstTime = chunk.firstTime,
+            lastTime = chunk.lastTime,
+            minValue = chunk.minValue,
+            maxValue = chunk.maxValue,
+            sumValue = chunk.sumValue,
+            byteSize = chunk.data.size,
+            updatedAt = updatedAt
+        )
+    }
+}
@@ -0,0 +1,46 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * Health record downloaded from the ring's offline history (health_records)
+ *
+ * Keyed by (device, type, time) so a history re-sent by the ring is ignored instead of duplicated.
+ * Meaning of [value]/[value2]/[value3] depends on [type] (see [HealthRecordType]).
+ */
+@Entity(
+    tableName = Constants.TABLE_HEALTH_RECORDS,
+    primaryKeys = ["device_address", "type", "record_time"]
+)
+data class HealthRecordEntity(
+    /**
+     * Bluetooth MAC address
+     */
+    @ColumnInfo(name = "device_address")
+    val deviceAddress: String,
+
+    /**
+     * [HealthRecordType.code]
+     */
+    @ColumnInfo(name = "type")
+    val type: Int,
+
+    /**
+     * When the ring measured the value (epoch millis)
+     */
+    @ColumnInfo(name = "record_time")
+    val recordTime: Long,
+
+    @ColumnInfo(name = "value")
+    val value: Int,
+
+    @ColumnInfo(name = "value2")
+    val value2: Int = 0,
+
+    @ColumnInfo(name = "value3")
+    val value3: Int = 0
+)
+
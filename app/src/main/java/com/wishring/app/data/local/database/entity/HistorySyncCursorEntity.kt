@@ -0,0 +1,36 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * Resume point of the history download per device and type (history_sync_cursors)
+ *
+ * Written in the same transaction as the records it covers, so an interrupted sync
+ * resumes after the last stored record instead of downloading everything again.
+ */
+@Entity(
+    tableName = Constants.TABLE_HISTORY_SYNC_CURSORS,
+    primaryKeys = ["device_address", "type"]
+)
+data class HistorySyncCursorEntity(
+    @ColumnInfo(name = "device_address")
+    val deviceAddress: String,
+
+    /**
+     * [HealthRecordType.code]
+     */
+    @ColumnInfo(name = "type")
+    val type: Int,
+
+    /**
+     * Time of the newest stored record (epoch millis)
+     */
+    @ColumnInfo(name = "last_record_time")
+    val lastRecordTime: Long,
+
+    @ColumnInfo(name = "updated_at")
+    val updatedAt: Long
+)
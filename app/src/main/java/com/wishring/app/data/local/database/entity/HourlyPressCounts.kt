@@ -0,0 +1,109 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import com.wishring.app.core.util.Constants
+
+/**
+ * Codec for the per-day hourly press counters (wishes.hourly_counts)
+ *
+ * 24 slots (local hour 0-23), each a little-endian Int = 96 bytes per day.
+ * All reads work directly on the byte array or decode into a caller-supplied IntArray,
+ * so charts can fill one flat buffer for many days without boxed lists.
+ * A null blob means the day was recorded before hourly counters existed (all zero).
+ */
+object HourlyPressCounts {
+
+    const val SLOTS = 24
+    const val BYTES_PER_SLOT = 4
+    const val BLOB_SIZE = SLOTS * BYTES_PER_SLOT
+
+    /**
+     * Add presses to one hour
+     * Updates [blob] in place when it has the expected size, otherwise starts from zero
+     * @param blob Current blob (may be null)
+     * @param hour Local hour 0-23
+     * @param delta Presses to add
+     * @return Updated blob
+     */
+    fun increment(blob: ByteArray?, hour: Int, delta: Int): ByteArray {
+        require(hour in 0 until SLOTS) { "hour out of range: $hour" }
+        val target = if (blob != null && blob.size == BLOB_SIZE) blob else ByteArray(BLOB_SIZE)
+        val updated = (readSlot(target, hour).toLong() + delta)
+            .coerceIn(0L, Constants.MAX_DAILY_COUNT.toLong())
+            .toInt()
+        writeSlot(target, hour, updated)
+        return target
+    }
+
+    /**
+     * Read one hour's count
+     * @return Count, or 0 if the blob is missing or malformed
+     */
+    fun get(blob: ByteArray?, hour: Int): Int {
+        if (blob == null || blob.size != BLOB_SIZE || hour !in 0 until SLOTS) return 0
+        return readSlot(blob, hour)
+    }
+
+    /**
+     * Decode all 24 hours into [out] starting at [offset]
+     * @return Sum of the decoded hours
+     */
+    fun decodeInto(blob: ByteArray?, out: IntArray, offset: Int = 0): Int {
+        require(offset >= 0 && offset + SLOTS <= out.size) { "out too small for offset $offset" }
+        if (blob == null || blob.size != BLOB_SIZE) {
+            out.fill(0, offset, offset + SLOTS)
+            return 0
+        }
+        var sum = 0
+        for (hour in 0 until SLOTS) {
+            val value = readSlot(blob, hour)
+            out[offset + hour] = value
+            sum += value
+        }
+        return sum
+    }
+
+    /**
+     * Hour with the most presses, or -1 if the day has none
+     */
+    fun peakHour(blob: ByteArray?): Int {
+        if (blob == null || blob.size != BLOB_SIZE) return -1
+        var peak = -1
+        var peakValue = 0
+        for (hour in 0 until SLOTS) {
+            val value = readSlot(blob, hour)
+            if (value > peakValue) {
+                peak = hour
+                peakValue = value
+            }
+        }
+        return peak
+    }
+
+    private fun readSlot(blob: ByteArray, hour: Int): Int {
+        val i = hour * BYTES_PER_SLOT
+        return (blob[i].toInt() and 0xFF) or
+            ((blob[i + 1].toInt() and 0xFF) shl 8) or
+            ((blob[i + 2].toInt() and 0xFF) shl 16) or
+            ((blob[i + 3].toInt() and 0xFF) shl 24)
+    }
+
+    private fun writeSlot(blob: ByteArray, hour: Int, value: Int) {
+        val i = hour * BYTES_PER_SLOT
+        blob[i] = value.toByte()
+        blob[i + 1] = (value ushr 8).toByte()
+        blob[i + 2] = (value ushr 16).toByte()
+        blob[i + 3] = (value ushr 24).toByte()
+    }
+}
+
+/**
+ * Hourly press blob of one day (range query projection)
+ */
+data class DayHourlyCounts(
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    @ColumnInfo(name = "hourly_counts", typeAffinity = ColumnInfo.BLOB)
+    val hourlyCounts: ByteArray?
+)
@@ -0,0 +1,113 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Embedded
+import androidx.room.Entity
+import androidx.room.Index
+import com.wishring.app.core.util.Constants
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.model.ResetEvent
+import java.time.Instant
+import java.time.ZoneId
+
+/**
+ * Ring counter reset log (reset_logs)
+ *
+ * Append-only: rows are only inserted (duplicates ignored), never updated.
+ * Keyed by (device, time) so a replayed batch cannot log the same reset twice.
+ * Per-day/week/month reset counts are kept in stats_rollup by triggers
+ * (see [com.wishring.app.data.local.database.migration.StatsRollupTriggers]).
+ */
+@Entity(
+    tableName = Constants.TABLE_RESET_LOGS,
+    primaryKeys = ["device_address", "reset_time"],
+    indices = [Index(value = ["epoch_day", "reset_time"], name = ResetLogEntity.INDEX_DAY)]
+)
+data class ResetLogEntity(
+    /**
+     * Bluetooth MAC address
+     */
+    @ColumnInfo(name = "device_address")
+    val deviceAddress: String,
+
+    /**
+     * When the reset was seen (epoch millis)
+     */
+    @ColumnInfo(name = "reset_time")
+    val resetTime: Long,
+
+    /**
+     * Local day of [resetTime] (days since 1970-01-01)
+     */
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    /**
+     * Ring counter value right before the reset
+     */
+    @ColumnInfo(name = "count_before_reset")
+    val countBeforeReset: Int,
+
+    /**
+     * How the reset was detected: [SOURCE_DEVICE], [SOURCE_INFERRED] or [SOURCE_LEGACY]
+     */
+    @ColumnInfo(name = "source")
+    val source: Int = SOURCE_DEVICE
+) {
+    /**
+     * Convert to domain event
+     */
+    fun toResetEvent(): ResetEvent = ResetEvent(
+        timestamp = resetTime,
+        previousCount = countBeforeReset,
+        deviceInfo = deviceAddress
+    )
+
+    companion object {
+        const val INDEX_DAY = "index_reset_logs_epoch_day_reset_time"
+
+        /** 링이 RESET 알림을 보냄 */
+        const val SOURCE_DEVICE = 0
+
+        /** 카운터 감소 또는 재연결 보정으로 추정 (실제 리셋 시각은 알 수 없어 감지 시각으로 기록) */
+        const val SOURCE_INFERRED = 1
+
+        /** v3 reset_logs에서 옮긴 기록 (기기 주소 없음) */
+        const val SOURCE_LEGACY = 2
+
+        /**
+         * Create a log row for a reset seen at [resetTime]
+         */
+        fun create(
+            deviceAddress: String,
+            countBeforeReset: Int,
+            source: Int,
+            resetTime: Long = DateUtils.getCurrentTimestamp()
+        ) = ResetLogEntity(
+            deviceAddress = deviceAddress,
+            resetTime = resetTime,
+            epochDay = Instant.ofEpochMilli(resetTime).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay(),
+            countBeforeReset = countBeforeReset,
+            source = source
+        )
+    }
+}
+
+/**
+ * A day row with its reset summary
+ * Both values come from key lookups (stats_rollup primary key, reset_logs day index),
+ * so paging through history never scans the log
+ */
+data class WishDayWithResets(
+    @Embedded
+    val day: WishEntity,
+
+    @ColumnInfo(name = "reset_count")
+    val resetCount: Int,
+
+    /**
+     * Counter value before the day's last reset, null if the day had none
+     */
+    @ColumnInfo(name = "count_before_reset")
+    val countBeforeReset: Int?
+)
@@ -0,0 +1,88 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import com.wishring.app.core.util.Constants
+import java.time.DayOfWeek
+import java.time.LocalDate
+
+/**
+ * Pre-aggregated statistics over the wishes table (stats_rollup)
+ *
+ * One row per period: all time, ISO week and calendar month.
+ * Maintained by SQLite triggers on wishes and reset_logs
+ * (see [com.wishring.app.data.local.database.migration.StatsRollupTriggers]),
+ * so reads are a single primary key lookup regardless of history length.
+ *
+ * [SCOPE_DAY] rows only carry [resetCount]; the day's own counts live in its wishes row.
+ */
+@Entity(
+    tableName = Constants.TABLE_STATS_ROLLUP,
+    primaryKeys = ["scope", "period_key"]
+)
+data class StatsRollupEntity(
+    /**
+     * Period type: [SCOPE_ALL], [SCOPE_WEEK], [SCOPE_MONTH] or [SCOPE_DAY]
+     */
+    @ColumnInfo(name = "scope")
+    val scope: Int,
+
+    /**
+     * Period key
+     * - all time: 0
+     * - week: epoch day of the ISO week's Monday
+     * - month: yyyyMM
+     * - day: epoch day
+     */
+    @ColumnInfo(name = "period_key")
+    val periodKey: Long,
+
+    /**
+     * Sum of total_count over the period
+     */
+    @ColumnInfo(name = "total_count")
+    val totalCount: Long = 0,
+
+    /**
+     * Number of recorded days in the period
+     */
+    @ColumnInfo(name = "day_count")
+    val dayCount: Int = 0,
+
+    /**
+     * Number of days whose goal was completed
+     */
+    @ColumnInfo(name = "completed_days")
+    val completedDays: Int = 0,
+
+    /**
+     * Number of ring counter resets logged in the period
+     */
+    @ColumnInfo(name = "reset_count", defaultValue = "0")
+    val resetCount: Int = 0
+) {
+    /**
+     * Average count per recorded day
+     */
+    val averageDailyCount: Float
+        get() = if (dayCount > 0) totalCount.toFloat() / dayCount else 0f
+
+    companion object {
+        const val SCOPE_ALL = 0
+        const val SCOPE_WEEK = 1
+        const val SCOPE_MONTH = 2
+        const val SCOPE_DAY = 3
+
+        const val ALL_TIME_KEY = 0L
+
+        /**
+         * Week key for a date (epoch day of its ISO week's Monday)
+         */
+        fun weekKey(date: LocalDate): Long = date.with(DayOfWeek.MONDAY).toEpochDay()
+
+        /**
+         * Month key for a date (yyyyMM)
+         */
+        fun monthKey(date: LocalDate): Long = date.year * 100L + date.monthValue
+    }
+}
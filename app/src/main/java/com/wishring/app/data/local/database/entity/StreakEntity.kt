@@ -0,0 +1,66 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+import com.wishring.app.core.util.Constants
+
+/**
+ * Completed-streak length ending at each completed day (streak_index)
+ *
+ * Only completed days have a row; a missing row means length 0.
+ * Maintained by SQLite triggers on wishes
+ * (see [com.wishring.app.data.local.database.migration.StreakTriggers]).
+ */
+@Entity(
+    tableName = Constants.TABLE_STREAK_INDEX,
+    indices = [Index(value = ["length"], name = StreakEntity.INDEX_LENGTH)]
+)
+data class StreakEntity(
+    /**
+     * Completed day (days since 1970-01-01)
+     */
+    @PrimaryKey
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    /**
+     * Number of consecutive completed days ending at [epochDay] (>= 1)
+     */
+    @ColumnInfo(name = "length")
+    val length: Int
+) {
+    companion object {
+        const val INDEX_LENGTH = "index_streak_index_length"
+
+        /**
+         * Build the index from scratch
+         * @param completedDays Completed epoch days in ascending order
+         * @return One row per completed day
+         */
+        fun fromCompletedDays(completedDays: List<Long>): List<StreakEntity> {
+            var previousDay = Long.MIN_VALUE
+            var length = 0
+            return completedDays.map { day ->
+                length = if (previousDay != Long.MIN_VALUE && day == previousDay + 1) length + 1 else 1
+                previousDay = day
+                StreakEntity(epochDay = day, length = length)
+            }
+        }
+    }
+}
+
+/**
+ * Streak lengths around today, read in one query
+ */
+data class StreakSnapshot(
+    @ColumnInfo(name = "today_length")
+    val todayLength: Int?,
+
+    @ColumnInfo(name = "yesterday_length")
+    val yesterdayLength: Int?,
+
+    @ColumnInfo(name = "longest")
+    val longest: Int?
+)
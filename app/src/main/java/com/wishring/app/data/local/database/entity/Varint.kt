@@ -0,0 +1,42 @@
+package com.wishring.app.data.local.database.entity
+
+import java.io.ByteArrayOutputStream
+
+/**
+ * LEB128 varint and zigzag helpers shared by the blob codecs
+ * ([HealthChunkCodec], [EcgWaveformCodec])
+ */
+internal object Varint {
+
+    fun write(out: ByteArrayOutputStream, value: Long) {
+        var v = value
+        while (v and 0x7FL.inv() != 0L) {
+            out.write(((v and 0x7F) or 0x80).toInt())
+            v = v ushr 7
+        }
+        out.write(v.toInt())
+    }
+
+    /**
+     * Map signed deltas to unsigned so small negative values stay one byte
+     */
+    fun zigzag(value: Long): Long = (value shl 1) xor (value shr 63)
+
+    fun unzigzag(value: Long): Long = (value ushr 1) xor -(value and 1)
+
+    class Reader(private val data: ByteArray) {
+        private var position = 0
+
+        fun read(): Long {
+            var result = 0L
+            var shift = 0
+            while (true) {
+                require(position < data.size) { "truncated blob" }
+                val b = data[position++].toInt() and 0xFF
+                result = result or ((b and 0x7F).toLong() shl shift)
+                if (b and 0x80 == 0) return result
+                shift += 7
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import com.wishring.app.core.util.DateUtils
+
+/**
+ * Count columns of a wishes row, returned by atomic count updates
+ * Narrow projection so callers never reload the wish text just to read the new count
+ */
+data class WishCountSnapshot(
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    @ColumnInfo(name = "total_count")
+    val totalCount: Int,
+
+    @ColumnInfo(name = "target_count")
+    val targetCount: Int,
+
+    @ColumnInfo(name = "is_completed")
+    val isCompleted: Boolean
+) {
+    /**
+     * Date in yyyy-MM-dd format
+     */
+    val date: String
+        get() = DateUtils.fromEpochDay(epochDay)
+}
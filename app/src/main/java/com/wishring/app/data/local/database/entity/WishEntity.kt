@@ -3,35 +3,50 @@ package com.wishring.app.data.local.database.entity
 import android.annotation.SuppressLint
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import com.wishring.app.core.util.Constants
 import com.wishring.app.core.util.DateUtils
 import kotlinx.serialization.Serializable
-import kotlinx.serialization.encodeToString
-import kotlinx.serialization.json.Json
+import java.time.LocalDate
 
 /**
- * Serializable wish data for JSON storage
+ * Wish list item passed between repository and UI
+ * Serializable so legacy wishes_json values can be decoded during migration
+ * @param targetCount Per-wish target (0 = use the day's target)
  */
 @SuppressLint("UnsafeOptInUsageError")
 @OptIn(kotlinx.serialization.InternalSerializationApi::class)
 @Serializable
 data class WishData(
-    val text: String
+    val text: String,
+    val targetCount: Int = 0
 )
 
 /**
  * Entity representing daily wish count records
  * Stores user's daily progress and wish information
+ *
+ * Keyed by epoch day (INTEGER, rowid alias) so lookups and range scans compare integers.
+ * The covering index lets count-only queries skip the wish text column.
+ * Individual wishes live in [WishItemEntity] (wish_items), keyed by the same epoch day.
  */
-@Entity(tableName = Constants.TABLE_WISHES)
+@Entity(
+    tableName = Constants.TABLE_WISHES,
+    indices = [
+        Index(
+            value = ["epoch_day", "total_count", "target_count", "is_completed"],
+            name = WishEntity.INDEX_COUNTS
+        )
+    ]
+)
 data class WishEntity(
     /**
-     * Date in yyyy-MM-dd format (primary key)
+     * Days since 1970-01-01 in local time (primary key)
      */
     @PrimaryKey
-    @ColumnInfo(name = "date")
-    val date: String = DateUtils.getTodayString(),
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long = DateUtils.getTodayEpochDay(),
     
     /**
      * Total count for the day
@@ -70,18 +85,30 @@ data class WishEntity(
     val updatedAt: Long = DateUtils.getCurrentTimestamp(),
     
     /**
-     * Multiple wishes stored as JSON string
-     * Format: [{"text": "wish1", "targetCount": 1000}, {"text": "wish2", "targetCount": 2000}]
+     * Slot index of currently active wish in wish_items (0, 1, or 2)
      */
-    @ColumnInfo(name = "wishes_json")
-    val wishesJson: String = "[]",
-    
+    @ColumnInfo(name = "active_wish_index")
+    val activeWishIndex: Int = 0,
+
     /**
-     * Index of currently active wish (0, 1, or 2)
+     * Presses per local hour, encoded by [HourlyPressCounts] (null = no hourly data)
+     * Written only by the press ingestion path
      */
-    @ColumnInfo(name = "active_wish_index")
-    val activeWishIndex: Int = 0
+    @ColumnInfo(name = "hourly_counts", typeAffinity = ColumnInfo.BLOB)
+    val hourlyCounts: ByteArray? = null
 ) {
+    /**
+     * Date in yyyy-MM-dd format
+     */
+    val date: String
+        get() = DateUtils.fromEpochDay(epochDay)
+
+    /**
+     * Date as LocalDate (no string parsing)
+     */
+    val localDate: LocalDate
+        get() = LocalDate.ofEpochDay(epochDay)
+
     /**
      * Calculate progress percentage
      * @return Progress as percentage (0-100)
@@ -154,63 +181,6 @@ data class WishEntity(
         )
     }
     
-    /**
-     * Parse wishes from JSON
-     * @return List of WishData objects
-     */
-    fun parseWishes(): List<WishData> {
-        return try {
-            if (wishesJson.isBlank() || wishesJson == "[]") {
-                emptyList()
-            } else {
-                Json.decodeFromString<List<WishData>>(wishesJson)
-            }
-        } catch (e: Exception) {
-            emptyList()
-        }
-    }
-    
-    /**
-     * Get active wish data
-     * @return Active WishData or null
-     */
-    fun getActiveWish(): WishData? {
-        val wishes = parseWishes()
-        return wishes.getOrNull(activeWishIndex)
-    }
-    
-    /**
-     * Update wishes JSON and active index
-     * totalCount remains independent of wishes
-     * @param wishes List of WishData
-     * @param newActiveIndex New active wish index
-     * @return Updated entity
-     */
-    fun updateWishes(
-        wishes: List<WishData>,
-        newTargetCount: Int = targetCount,
-        newActiveIndex: Int = activeWishIndex
-    ): WishEntity {
-        val wishesJsonString = try {
-            Json.encodeToString(wishes)
-        } catch (e: Exception) {
-            "[]"
-        }
-        
-        // Get display text from active wish
-        val activeWish = wishes.getOrNull(newActiveIndex)
-        val newWishText = activeWish?.text ?: ""
-        
-        return copy(
-            wishesJson = wishesJsonString,
-            activeWishIndex = newActiveIndex.coerceIn(0, maxOf(0, wishes.size - 1)),
-            targetCount = newTargetCount,
-            wishText = newWishText,
-            isCompleted = totalCount >= newTargetCount,
-            updatedAt = DateUtils.getCurrentTimestamp()
-        )
-    }
-    
     /**
      * Increment daily count (shared across all wishes)
      * @param by Amount to increment
@@ -225,6 +195,8 @@ data class WishEntity(
     }
     
     companion object {
+        const val INDEX_COUNTS = "index_wishes_epoch_day_counts"
+
         /**
          * Create a new entity for today
          * @param wishText Optional wish text
@@ -236,36 +208,10 @@ data class WishEntity(
             targetCount: Int = Constants.DEFAULT_TARGET_COUNT
         ): WishEntity {
             return WishEntity(
-                date = DateUtils.getTodayString(),
+                epochDay = DateUtils.getTodayEpochDay(),
                 wishText = wishText,
                 targetCount = targetCount
             )
         }
-        
-        fun createWithWishes(
-            wishes: List<WishData>,
-            targetCount: Int,
-            activeIndex: Int = 0,
-            date: String = DateUtils.getTodayString()
-        ): WishEntity {
-            val wishesJsonString = try {
-                Json.encodeToString(wishes)
-            } catch (e: Exception) {
-                "[]"
-            }
-            
-            val activeWish = wishes.getOrNull(activeIndex)
-            val wishText = activeWish?.text ?: Constants.DEFAULT_WISH_TEXT
-            
-            return WishEntity(
-                date = date,
-                totalCount = 0, // totalCount starts at 0, will be incremented by BLE
-                wishText = wishText,
-                targetCount = targetCount,
-                isCompleted = false,
-                wishesJson = wishesJsonString,
-                activeWishIndex = activeIndex.coerceIn(0, maxOf(0, wishes.size - 1))
-            )
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.wishring.app.data.local.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Embedded
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Relation
+import com.wishring.app.core.util.Constants
+
+/**
+ * One wish slot of a day (wish_items)
+ *
+ * Keyed by (epoch_day, slot_index); the primary key index doubles as the lookup path
+ * for the active wish, so reading it never decodes a list.
+ * Rows are removed together with their day via ON DELETE CASCADE.
+ */
+@Entity(
+    tableName = Constants.TABLE_WISH_ITEMS,
+    primaryKeys = ["epoch_day", "slot_index"],
+    foreignKeys = [
+        ForeignKey(
+            entity = WishEntity::class,
+            parentColumns = ["epoch_day"],
+            childColumns = ["epoch_day"],
+            onDelete = ForeignKey.CASCADE
+        )
+    ]
+)
+data class WishItemEntity(
+    /**
+     * Day this wish belongs to (wishes.epoch_day)
+     */
+    @ColumnInfo(name = "epoch_day")
+    val epochDay: Long,
+
+    /**
+     * Position in the day's wish list (0, 1, or 2)
+     */
+    @ColumnInfo(name = "slot_index")
+    val slotIndex: Int,
+
+    /**
+     * Wish text
+     */
+    @ColumnInfo(name = "text")
+    val text: String,
+
+    /**
+     * Per-wish target count (0 = use the day's target)
+     */
+    @ColumnInfo(name = "target_count")
+    val targetCount: Int = 0,
+
+    /**
+     * Presses counted while this wish was active
+     */
+    @ColumnInfo(name = "count")
+    val count: Int = 0
+) {
+    fun toWishData(): WishData = WishData(text = text, targetCount = targetCount)
+
+    companion object {
+        /**
+         * Build slot rows for a day from an ordered wish list
+         */
+        fun fromWishes(epochDay: Long, wishes: List<WishData>): List<WishItemEntity> =
+            wishes.mapIndexed { index, wish ->
+                WishItemEntity(
+                    epochDay = epochDay,
+                    slotIndex = index,
+                    text = wish.text,
+                    targetCount = wish.targetCount
+                )
+            }
+    }
+}
+
+/**
+ * A day row together with its wish slots
+ */
+data class WishDayWithItems(
+    @Embedded
+    val day: WishEntity,
+
+    @Relation(parentColumn = "epoch_day", entityColumn = "epoch_day")
+    val items: List<WishItemEntity>
+) {
+    /**
+     * Wishes in slot order
+     */
+    val wishes: List<WishData>
+        get() = items.sortedBy { it.slotIndex }.map { it.toWishData() }
+
+    /**
+     * Currently active slot, if it exists
+     */
+    val activeItem: WishItemEntity?
+        get() = items.firstOrNull { it.slotIndex == day.activeWishIndex }
+}
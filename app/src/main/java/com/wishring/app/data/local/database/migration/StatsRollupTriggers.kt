@@ -0,0 +1,206 @@
+package com.wishring.app.data.local.database.migration
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+
+/**
+ * SQLite triggers that keep `stats_rollup` in sync with `wishes` and `reset_logs`
+ *
+ * 모든 INSERT/UPDATE/DELETE가 같은 트랜잭션 안에서 전체/주/월 집계 행을 증감하므로
+ * 통계 조회는 히스토리 길이와 관계없이 기본키 조회 한 번이다.
+ * 리셋 횟수는 전체/주/월에 더해 일 단위 행([StatsRollupEntity.SCOPE_DAY])에도 집계된다.
+ *
+ * 주의:
+ * - SQLite는 REPLACE로 지워진 행에 대해 recursive_triggers가 켜져 있을 때만 DELETE 트리거를 실행한다.
+ *   BaseDao.insert(REPLACE)도 정확히 집계되도록 연결마다 [enableRecursiveTriggers]를 호출한다.
+ * - `wishes` 테이블을 재생성하는 마이그레이션은 트리거도 함께 사라지므로 [create]를 다시 호출해야 한다.
+ * - minSdk 26의 SQLite(3.18)는 UPSERT를 지원하지 않아 INSERT ... WHERE NOT EXISTS + UPDATE로 증감한다.
+ *   트리거 안에서 INSERT OR IGNORE를 쓰면 바깥 문장의 OR REPLACE 정책이 덮어써서 집계 행이 0으로 초기화된다.
+ */
+object StatsRollupTriggers {
+
+    private const val WISHES = Constants.TABLE_WISHES
+    private const val ROLLUP = Constants.TABLE_STATS_ROLLUP
+
+    private const val TRIGGER_INSERT = "trg_wishes_stats_insert"
+    private const val TRIGGER_UPDATE = "trg_wishes_stats_update"
+    private const val TRIGGER_DELETE = "trg_wishes_stats_delete"
+
+    private const val RESET_LOGS = Constants.TABLE_RESET_LOGS
+    private const val TRIGGER_RESET_INSERT = "trg_reset_logs_stats_insert"
+    private const val TRIGGER_RESET_DELETE = "trg_reset_logs_stats_delete"
+
+    /**
+     * v6 table shape used by MIGRATION_5_6 - `reset_count` is added later by MIGRATION_9_10
+     */
+    const val CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS `$ROLLUP` (
+            `scope` INTEGER NOT NULL,
+            `period_key` INTEGER NOT NULL,
+            `total_count` INTEGER NOT NULL,
+            `day_count` INTEGER NOT NULL,
+            `completed_days` INTEGER NOT NULL,
+            PRIMARY KEY(`scope`, `period_key`)
+        )
+    """
+
+    /**
+     * ISO week key - epoch day of that week's Monday (1970-01-01 was a Thursday)
+     * Matches [StatsRollupEntity.weekKey]
+     */
+    private fun weekKey(row: String) = "($row`epoch_day` - (($row`epoch_day` + 3) % 7))"
+
+    /**
+     * Month key - yyyyMM, matches [StatsRollupEntity.monthKey]
+     */
+    private fun monthKey(row: String) =
+        "CAST(strftime('%Y%m', $row`epoch_day` * 86400, 'unixepoch') AS INTEGER)"
+
+    private fun periods(row: String) = listOf(
+        StatsRollupEntity.SCOPE_ALL to StatsRollupEntity.ALL_TIME_KEY.toString(),
+        StatsRollupEntity.SCOPE_WEEK to weekKey(row),
+        StatsRollupEntity.SCOPE_MONTH to monthKey(row)
+    )
+
+    /**
+     * Trigger body statements adding (+) or removing (-) one wishes row from its periods
+     */
+    private fun apply(row: String, sign: Char): String = periods(row).joinToString("\n") { (scope, key) ->
+        """
+        INSERT INTO `$ROLLUP` (`scope`, `period_key`, `total_count`, `day_count`, `completed_days`)
+        SELECT $scope, $key, 0, 0, 0
+        WHERE NOT EXISTS (SELECT 1 FROM `$ROLLUP` WHERE `scope` = $scope AND `period_key` = $key);
+        UPDATE `$ROLLUP`
+        SET `total_count` = `total_count` $sign $row`total_count`,
+            `day_count` = `day_count` $sign 1,
+            `completed_days` = `completed_days` $sign $row`is_completed`
+        WHERE `scope` = $scope AND `period_key` = $key;
+        """.trimIndent()
+    }
+
+    private fun resetPeriods(row: String) =
+        periods(row) + (StatsRollupEntity.SCOPE_DAY to "$row`epoch_day`")
+
+    /**
+     * Trigger body statements adding (+) or removing (-) one reset_logs row from its periods
+     */
+    private fun applyReset(row: String, sign: Char): String = resetPeriods(row).joinToString("\n") { (scope, key) ->
+        """
+        INSERT INTO `$ROLLUP` (`scope`, `period_key`, `total_count`, `day_count`, `completed_days`, `reset_count`)
+        SELECT $scope, $key, 0, 0, 0, 0
+        WHERE NOT EXISTS (SELECT 1 FROM `$ROLLUP` WHERE `scope` = $scope AND `period_key` = $key);
+        UPDATE `$ROLLUP`
+        SET `reset_count` = `reset_count` $sign 1
+        WHERE `scope` = $scope AND `period_key` = $key;
+        """.trimIndent()
+    }
+
+    /**
+     * Create rollup triggers on `wishes`
+     */
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            """
+            CREATE TRIGGER IF NOT EXISTS `$TRIGGER_INSERT` AFTER INSERT ON `$WISHES`
+            BEGIN
+            ${apply("NEW.", '+')}
+            END
+            """.trimIndent()
+        )
+        db.execSQL(
+            """
+            CREATE TRIGGER IF NOT EXISTS `$TRIGGER_UPDATE`
+            AFTER UPDATE OF `epoch_day`, `total_count`, `is_completed` ON `$WISHES`
+            BEGIN
+            ${apply("OLD.", '-')}
+            ${apply("NEW.", '+')}
+            END
+            """.trimIndent()
+        )
+        db.execSQL(
+            """
+            CREATE TRIGGER IF NOT EXISTS `$TRIGGER_DELETE` AFTER DELETE ON `$WISHES`
+            BEGIN
+            ${apply("OLD.", '-')}
+            END
+            """.trimIndent()
+        )
+    }
+
+    /**
+     * Create reset count triggers on `reset_logs`
+     * reset_logs는 추가 전용이지만 정리(삭제) 시에도 집계가 맞도록 DELETE 트리거를 함께 둔다
+     */
+    fun createResetTriggers(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            """
+            CREATE TRIGGER IF NOT EXISTS `$TRIGGER_RESET_INSERT` AFTER INSERT ON `$RESET_LOGS`
+            BEGIN
+            ${applyReset("NEW.", '+')}
+            END
+            """.trimIndent()
+        )
+        db.execSQL(
+            """
+            CREATE TRIGGER IF NOT EXISTS `$TRIGGER_RESET_DELETE` AFTER DELETE ON `$RESET_LOGS`
+            BEGIN
+            ${applyReset("OLD.", '-')}
+            END
+            """.trimIndent()
+        )
+    }
+
+    /**
+     * Recompute every rollup row from `wishes`
+     * Used when the table is first created and as a repair path
+     * Reset counts are cleared too - run [rebuildResetCounts] afterwards once reset_logs exists
+     */
+    fun rebuild(db: SupportSQLiteDatabase) {
+        db.execSQL("DELETE FROM `$ROLLUP`")
+        periods(row = "").forEach { (scope, key) ->
+            db.execSQL(
+                """
+                INSERT INTO `$ROLLUP` (`scope`, `period_key`, `total_count`, `day_count`, `completed_days`)
+                SELECT $scope, $key, SUM(`total_count`), COUNT(*), SUM(`is_completed`)
+                FROM `$WISHES`
+                GROUP BY 2
+                """.trimIndent()
+            )
+        }
+    }
+
+    /**
+     * Replay `reset_logs` into the reset counts of every rollup row
+     */
+    fun rebuildResetCounts(db: SupportSQLiteDatabase) {
+        db.execSQL("UPDATE `$ROLLUP` SET `reset_count` = 0")
+        db.execSQL("DELETE FROM `$ROLLUP` WHERE `scope` = ${StatsRollupEntity.SCOPE_DAY}")
+        resetPeriods(row = "").forEach { (scope, key) ->
+            db.execSQL(
+                """
+                INSERT INTO `$ROLLUP` (`scope`, `period_key`, `total_count`, `day_count`, `completed_days`, `reset_count`)
+                SELECT $scope, $key, 0, 0, 0, 0 FROM `$RESET_LOGS`
+                WHERE NOT EXISTS (SELECT 1 FROM `$ROLLUP` WHERE `scope` = $scope AND `period_key` = $key)
+                GROUP BY 2
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                UPDATE `$ROLLUP`
+                SET `reset_count` = (
+                    SELECT COUNT(*) FROM `$RESET_LOGS` WHERE $key = `$ROLLUP`.`period_key`
+                )
+                WHERE `scope` = $scope
+                """.trimIndent()
+            )
+        }
+    }
+
+    /**
+     * Make REPLACE conflicts fire the DELETE trigger (per connection)
+     */
+    fun enableRecursiveTriggers(db: SupportSQLiteDatabase) {
+        db.execSQL("PRAGMA recursive_triggers = ON")
+    }
+}
@@ -0,0 +1,101 @@
+package com.wishring.app.data.local.database.migration
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.local.database.entity.StreakEntity
+
+/**
+ * SQLite triggers that keep `streak_index` in sync with `wishes.is_completed`
+ *
+ * 하루가 완료되면(link) 전날 길이 + 1로 행을 만들고, 바로 뒤에 이어지는 완료 구간을 그만큼 늘린다.
+ * 완료가 취소되거나 행이 삭제되면(unlink) 뒤 구간에서 그 길이를 빼고 행을 지운다.
+ *
+ * 뒤 구간 판별: 인덱스가 일관된 상태라면 d 다음 연속 완료 구간의 날짜 e만 length >= e - d 를 만족한다.
+ * 오늘 값이 바뀌는 일반적인 경우 뒤 구간이 없으므로 O(1), 과거 날짜 백필은 그 뒤 구간 길이만큼만 갱신한다.
+ *
+ * [StatsRollupTriggers]와 마찬가지로 REPLACE 시 DELETE 트리거가 실행되려면 recursive_triggers가 켜져 있어야 한다.
+ */
+object StreakTriggers {
+
+    private const val WISHES = Constants.TABLE_WISHES
+    private const val STREAKS = Constants.TABLE_STREAK_INDEX
+
+    private const val TRIGGER_INSERT = "trg_wishes_streak_insert"
+    private const val TRIGGER_DELETE = "trg_wishes_streak_delete"
+    private const val TRIGGER_COMPLETE = "trg_wishes_streak_complete"
+    private const val TRIGGER_UNCOMPLETE = "trg_wishes_streak_uncomplete"
+
+    const val CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS `$STREAKS` (
+            `epoch_day` INTEGER NOT NULL,
+            `length` INTEGER NOT NULL,
+            PRIMARY KEY(`epoch_day`)
+        )
+    """
+
+    const val CREATE_INDEX =
+        "CREATE INDEX IF NOT EXISTS `${StreakEntity.INDEX_LENGTH}` ON `$STREAKS` (`length`)"
+
+    private fun shiftFollowingRun(row: String, sign: Char) = """
+        UPDATE `$STREAKS`
+        SET `length` = `length` $sign (SELECT `length` FROM `$STREAKS` WHERE `epoch_day` = $row.`epoch_day`)
+        WHERE `epoch_day` > $row.`epoch_day` AND `length` >= `epoch_day` - $row.`epoch_day`;
+    """.trimIndent()
+
+    private fun link(row: String) = """
+        INSERT OR REPLACE INTO `$STREAKS` (`epoch_day`, `length`)
+        VALUES (
+            $row.`epoch_day`,
+            COALESCE((SELECT `length` FROM `$STREAKS` WHERE `epoch_day` = $row.`epoch_day` - 1), 0) + 1
+        );
+        ${shiftFollowingRun(row, '+')}
+    """.trimIndent()
+
+    private fun unlink(row: String) = """
+        ${shiftFollowingRun(row, '-')}
+        DELETE FROM `$STREAKS` WHERE `epoch_day` = $row.`epoch_day`;
+    """.trimIndent()
+
+    /**
+     * Create streak triggers on `wishes`
+     */
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS `$TRIGGER_INSERT` AFTER INSERT ON `$WISHES` " +
+                "WHEN NEW.`is_completed` != 0 BEGIN ${link("NEW")} END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS `$TRIGGER_DELETE` AFTER DELETE ON `$WISHES` " +
+                "WHEN OLD.`is_completed` != 0 BEGIN ${unlink("OLD")} END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS `$TRIGGER_COMPLETE` AFTER UPDATE OF `is_completed` ON `$WISHES` " +
+                "WHEN OLD.`is_completed` = 0 AND NEW.`is_completed` != 0 BEGIN ${link("NEW")} END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS `$TRIGGER_UNCOMPLETE` AFTER UPDATE OF `is_completed` ON `$WISHES` " +
+                "WHEN OLD.`is_completed` != 0 AND NEW.`is_completed` = 0 BEGIN ${unlink("OLD")} END"
+        )
+    }
+
+    /**
+     * Recompute the whole index from `wishes`
+     * minSdk 26의 SQLite에는 윈도 함수가 없어 구간 길이는 Kotlin에서 계산한다
+     */
+    fun rebuild(db: SupportSQLiteDatabase) {
+        val completedDays = mutableListOf<Long>()
+        db.query("SELECT `epoch_day` FROM `$WISHES` WHERE `is_completed` != 0 ORDER BY `epoch_day`").use { cursor ->
+            while (cursor.moveToNext()) {
+                completedDays.add(cursor.getLong(0))
+            }
+        }
+
+        db.execSQL("DELETE FROM `$STREAKS`")
+        StreakEntity.fromCompletedDays(completedDays).forEach { streak ->
+            db.execSQL(
+                "INSERT INTO `$STREAKS` (`epoch_day`, `length`) VALUES (?, ?)",
+                arrayOf<Any>(streak.epochDay, streak.length)
+            )
+        }
+    }
+}
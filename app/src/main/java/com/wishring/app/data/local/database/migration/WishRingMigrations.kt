@@ -0,0 +1,445 @@
+package com.wishring.app.data.local.database.migration
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.local.database.entity.WishData
+import com.wishring.app.data.local.database.entity.WishEntity
+import kotlinx.serialization.builtins.ListSerializer
+import kotlinx.serialization.json.Json
+
+/**
+ * Hand-written Room migrations
+ *
+ * 버전 이력:
+ * - 1: `wishes` (date TEXT 기본키)
+ * - 2: `wish_counts` (date TEXT 기본키, wishes_json/active_wish_index 없음)
+ * - 3: `wish_counts` + `reset_logs` + `ble_event_logs`
+ * - 4: `wishes` (epoch_day INTEGER 기본키 + 카운트 커버링 인덱스), v3 `reset_logs`는 `reset_logs_v3`로 보관
+ * - 5: `wishes_json` 컬럼 제거, 위시 목록은 `wish_items` 자식 테이블로 정규화
+ * - 6: `stats_rollup` (전체/주/월 집계) + `wishes` 트리거
+ * - 7: `streak_index` (완료일별 연속 달성 길이) + `wishes` 트리거
+ * - 8: `wishes.hourly_counts` (시간대별 누른 횟수 BLOB)
+ * - 9: `device_counters` (기기별 마지막 확인 카운터 + 리셋 구간)
+ * - 10: `reset_logs` (기기, 시각 키) + `stats_rollup.reset_count` + `reset_logs` 트리거, `reset_logs_v3` 행 이전
+ * - 11: `health_records` (링 기록 다운로드) + `history_sync_cursors` (기기/종류별 이어받기 위치)
+ * - 12: `health_chunks` (지표/날짜별 압축 시계열 BLOB) + `health_chunk_index` (날짜별 요약)
+ * - 13: `ecg_recordings` (ECG 측정) + `ecg_chunks` (파형 압축 BLOB)
+ *
+ * 모든 경로는 기존 행을 새 테이블로 복사하며 사용자 기록을 지우지 않는다.
+ * (v3 `ble_event_logs`는 연결 진단용 로그라 옮기지 않는다)
+ */
+object WishRingMigrations {
+
+    private const val TABLE = Constants.TABLE_WISHES
+    private const val TABLE_NEW = "${Constants.TABLE_WISHES}_new"
+    private const val LEGACY_TABLE = "wish_counts"
+    private const val ITEMS_TABLE = Constants.TABLE_WISH_ITEMS
+    private const val LEGACY_RESET_LOGS = "${Constants.TABLE_RESET_LOGS}_v3"
+
+    private val json = Json { ignoreUnknownKeys = true }
+
+    /**
+     * yyyy-MM-dd TEXT → epoch day (julianday of 1970-01-01 is 2440587.5)
+     * 형식이 잘못된 날짜는 NULL이 되어 복사 대상에서 제외된다
+     */
+    private const val EPOCH_DAY_OF_DATE = "CAST(ROUND(julianday(`date`) - 2440587.5) AS INTEGER)"
+
+    val MIGRATION_1_4 = object : Migration(1, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            rebuildWishes(db, source = TABLE, wishesJson = "`wishes_json`", activeWishIndex = "`active_wish_index`")
+        }
+    }
+
+    val MIGRATION_2_4 = object : Migration(2, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            // v2에는 다중 위시 컬럼이 없으므로 wish_text와 target_count로 한 개짜리 목록을 만든다
+            val wishesJson = """
+                CASE WHEN `wish_text` = '' THEN '[]'
+                ELSE '[{"text":"' || ${jsonEscaped("`wish_text`")} || '","targetCount":' || `target_count` || '}]'
+                END
+            """.trimIndent()
+            rebuildWishes(db, source = LEGACY_TABLE, wishesJson = wishesJson, activeWishIndex = "0")
+        }
+    }
+
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            rebuildWishes(db, source = LEGACY_TABLE, wishesJson = "`wishes_json`", activeWishIndex = "`active_wish_index`")
+            // 리셋 기록은 v10의 reset_logs가 생길 때까지 보관 (MIGRATION_9_10에서 옮김)
+            db.execSQL("DROP TABLE IF EXISTS `$LEGACY_RESET_LOGS`")
+            db.execSQL("ALTER TABLE `${Constants.TABLE_RESET_LOGS}` RENAME TO `$LEGACY_RESET_LOGS`")
+            db.execSQL("DROP TABLE IF EXISTS `ble_event_logs`")
+        }
+    }
+
+    /**
+     * wishes_json → wish_items
+     * minSdk 26의 SQLite는 JSON1 확장을 보장하지 않으므로 JSON은 Kotlin에서 디코딩한다.
+     * 활성 슬롯은 그날의 total_count를 그대로 이어받는다.
+     */
+    val MIGRATION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            val items = mutableListOf<Array<Any>>()
+            db.query(
+                "SELECT `epoch_day`, `wishes_json`, `total_count`, `active_wish_index` FROM `$TABLE`"
+            ).use { cursor ->
+                while (cursor.moveToNext()) {
+                    val epochDay = cursor.getLong(0)
+                    val totalCount = cursor.getInt(2)
+                    val activeIndex = cursor.getInt(3)
+                    decodeWishes(cursor.getString(1)).forEachIndexed { slot, wish ->
+                        items.add(
+                            arrayOf(
+                                epochDay,
+                                slot,
+                                wish.text,
+                                wish.targetCount,
+                                if (slot == activeIndex) totalCount else 0
+                            )
+                        )
+                    }
+                }
+            }
+
+            // wishes_json 컬럼 제거 - minSdk 26은 DROP COLUMN 미지원이므로 테이블 재생성
+            db.execSQL("DROP TABLE IF EXISTS `$TABLE_NEW`")
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `$TABLE_NEW` (
+                    `epoch_day` INTEGER NOT NULL,
+                    `total_count` INTEGER NOT NULL,
+                    `wish_text` TEXT NOT NULL,
+                    `target_count` INTEGER NOT NULL,
+                    `is_completed` INTEGER NOT NULL,
+                    `created_at` INTEGER NOT NULL,
+                    `updated_at` INTEGER NOT NULL,
+                    `active_wish_index` INTEGER NOT NULL,
+                    PRIMARY KEY(`epoch_day`)
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                INSERT INTO `$TABLE_NEW` (
+                    `epoch_day`, `total_count`, `wish_text`, `target_count`, `is_completed`,
+                    `created_at`, `updated_at`, `active_wish_index`
+                )
+                SELECT `epoch_day`, `total_count`, `wish_text`, `target_count`, `is_completed`,
+                    `created_at`, `updated_at`, `active_wish_index`
+                FROM `$TABLE`
+                """.trimIndent()
+            )
+            db.execSQL("DROP TABLE `$TABLE`")
+            db.execSQL("ALTER TABLE `$TABLE_NEW` RENAME TO `$TABLE`")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `${WishEntity.INDEX_COUNTS}` ON `$TABLE` " +
+                    "(`epoch_day`, `total_count`, `target_count`, `is_completed`)"
+            )
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `$ITEMS_TABLE` (
+                    `epoch_day` INTEGER NOT NULL,
+                    `slot_index` INTEGER NOT NULL,
+                    `text` TEXT NOT NULL,
+                    `target_count` INTEGER NOT NULL,
+                    `count` INTEGER NOT NULL,
+                    PRIMARY KEY(`epoch_day`, `slot_index`),
+                    FOREIGN KEY(`epoch_day`) REFERENCES `$TABLE`(`epoch_day`) ON UPDATE NO ACTION ON DELETE CASCADE
+                )
+                """.trimIndent()
+            )
+            items.forEach { row ->
+                db.execSQL(
+                    "INSERT OR REPLACE INTO `$ITEMS_TABLE` " +
+                        "(`epoch_day`, `slot_index`, `text`, `target_count`, `count`) VALUES (?, ?, ?, ?, ?)",
+                    row
+                )
+            }
+        }
+    }
+
+    /**
+     * 집계 테이블 생성 후 기존 기록으로 한 번 채우고, 이후는 트리거가 증분 유지
+     */
+    val MIGRATION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(StatsRollupTriggers.CREATE_TABLE)
+            StatsRollupTriggers.rebuild(db)
+            StatsRollupTriggers.create(db)
+        }
+    }
+
+    val MIGRATION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(StreakTriggers.CREATE_TABLE)
+            db.execSQL(StreakTriggers.CREATE_INDEX)
+            StreakTriggers.rebuild(db)
+            StreakTriggers.create(db)
+        }
+    }
+
+    /**
+     * 기존 날짜는 시간대 정보가 없으므로 NULL로 둔다
+     */
+    val MIGRATION_7_8 = object : Migration(7, 8) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `$TABLE` ADD COLUMN `hourly_counts` BLOB")
+        }
+    }
+
+    /**
+     * 기기별 확인 카운터 - 기존 기기는 다음 연결 때 현재 카운터를 기준값으로 잡는다
+     */
+    val MIGRATION_8_9 = object : Migration(8, 9) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_DEVICE_COUNTERS}` (
+                    `device_address` TEXT NOT NULL,
+                    `epoch` INTEGER NOT NULL,
+                    `last_ack` INTEGER NOT NULL,
+                    `last_reset_at` INTEGER,
+                    `updated_at` INTEGER NOT NULL,
+                    PRIMARY KEY(`device_address`)
+                )
+                """.trimIndent()
+            )
+        }
+    }
+
+    /**
+     * 리셋 로그 테이블과 일/주/월 리셋 횟수 집계
+     * v3에서 올라온 DB는 보관해 둔 리셋 기록을 옮긴다 - 기기 주소가 없으므로 빈 문자열, [ResetLogEntity.SOURCE_LEGACY]
+     */
+    val MIGRATION_9_10 = object : Migration(9, 10) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_RESET_LOGS}` (
+                    `device_address` TEXT NOT NULL,
+                    `reset_time` INTEGER NOT NULL,
+                    `epoch_day` INTEGER NOT NULL,
+                    `count_before_reset` INTEGER NOT NULL,
+                    `source` INTEGER NOT NULL,
+                    PRIMARY KEY(`device_address`, `reset_time`)
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `${ResetLogEntity.INDEX_DAY}` ON `${Constants.TABLE_RESET_LOGS}` " +
+                    "(`epoch_day`, `reset_time`)"
+            )
+            db.execSQL(
+                "ALTER TABLE `${Constants.TABLE_STATS_ROLLUP}` ADD COLUMN `reset_count` INTEGER NOT NULL DEFAULT 0"
+            )
+            StatsRollupTriggers.createResetTriggers(db)
+
+            // v3가 아니었던 DB는 빈 테이블을 만들어 같은 경로로 처리
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `$LEGACY_RESET_LOGS` (
+                    `id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+                    `date` TEXT NOT NULL,
+                    `reset_time` INTEGER NOT NULL,
+                    `count_before_reset` INTEGER NOT NULL,
+                    `reset_type` TEXT NOT NULL,
+                    `notes` TEXT
+                )
+                """.trimIndent()
+            )
+            // 트리거가 만들어진 뒤에 넣으므로 리셋 횟수 집계에도 반영됨
+            db.execSQL(
+                """
+                INSERT OR IGNORE INTO `${Constants.TABLE_RESET_LOGS}` (
+                    `device_address`, `reset_time`, `epoch_day`, `count_before_reset`, `source`
+                )
+                SELECT '', `reset_time`, $EPOCH_DAY_OF_DATE, `count_before_reset`, ${ResetLogEntity.SOURCE_LEGACY}
+                FROM `$LEGACY_RESET_LOGS`
+                WHERE julianday(`date`) IS NOT NULL
+                ORDER BY `reset_time`
+                """.trimIndent()
+            )
+            db.execSQL("DROP TABLE `$LEGACY_RESET_LOGS`")
+        }
+    }
+
+    val MIGRATION_10_11 = object : Migration(10, 11) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_HEALTH_RECORDS}` (
+                    `device_address` TEXT NOT NULL,
+                    `type` INTEGER NOT NULL,
+                    `record_time` INTEGER NOT NULL,
+                    `value` INTEGER NOT NULL,
+                    `value2` INTEGER NOT NULL,
+                    `value3` INTEGER NOT NULL,
+                    PRIMARY KEY(`device_address`, `type`, `record_time`)
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_HISTORY_SYNC_CURSORS}` (
+                    `device_address` TEXT NOT NULL,
+                    `type` INTEGER NOT NULL,
+                    `last_record_time` INTEGER NOT NULL,
+                    `updated_at` INTEGER NOT NULL,
+                    PRIMARY KEY(`device_address`, `type`)
+                )
+                """.trimIndent()
+            )
+        }
+    }
+
+    /**
+     * 11 → 12: 건강 시계열 청크 + 날짜별 요약 테이블 추가 (기존 데이터 변경 없음)
+     */
+    val MIGRATION_11_12 = object : Migration(11, 12) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_HEALTH_CHUNKS}` (
+                    `metric` INTEGER NOT NULL,
+                    `epoch_day` INTEGER NOT NULL,
+                    `data` BLOB NOT NULL,
+                    PRIMARY KEY(`metric`, `epoch_day`)
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_HEALTH_CHUNK_INDEX}` (
+                    `metric` INTEGER NOT NULL,
+                    `epoch_day` INTEGER NOT NULL,
+                    `sample_count` INTEGER NOT NULL,
+                    `channels` INTEGER NOT NULL,
+                    `first_time` INTEGER NOT NULL,
+                    `last_time` INTEGER NOT NULL,
+                    `min_value` INTEGER NOT NULL,
+                    `max_value` INTEGER NOT NULL,
+                    `sum_value` INTEGER NOT NULL,
+                    `byte_size` INTEGER NOT NULL,
+                    `updated_at` INTEGER NOT NULL,
+                    PRIMARY KEY(`metric`, `epoch_day`)
+                )
+                """.trimIndent()
+            )
+        }
+    }
+
+    /**
+     * 12 → 13: ECG 측정 + 파형 청크 테이블 추가 (기존 데이터 변경 없음)
+     */
+    val MIGRATION_12_13 = object : Migration(12, 13) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_ECG_RECORDINGS}` (
+                    `start_time` INTEGER NOT NULL,
+                    `device_address` TEXT NOT NULL,
+                    `sample_rate` INTEGER NOT NULL,
+                    `sample_count` INTEGER NOT NULL,
+                    `chunk_count` INTEGER NOT NULL,
+                    `heart_rate` INTEGER NOT NULL,
+                    `missed_frames` INTEGER NOT NULL,
+                    `end_time` INTEGER,
+                    PRIMARY KEY(`start_time`)
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `${Constants.TABLE_ECG_CHUNKS}` (
+                    `start_time` INTEGER NOT NULL,
+                    `chunk_index` INTEGER NOT NULL,
+                    `first_sample` INTEGER NOT NULL,
+                    `data` BLOB NOT NULL,
+                    PRIMARY KEY(`start_time`, `chunk_index`),
+                    FOREIGN KEY(`start_time`) REFERENCES `${Constants.TABLE_ECG_RECORDINGS}`(`start_time`) ON UPDATE NO ACTION ON DELETE CASCADE
+                )
+                """.trimIndent()
+            )
+        }
+    }
+
+    val ALL: Array<Migration> = arrayOf(
+        MIGRATION_1_4, MIGRATION_2_4, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8,
+        MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12,
+        MIGRATION_12_13
+    )
+
+    /**
+     * v4 wishes_json 값 디코딩 - 깨진 값은 빈 목록으로 취급
+     */
+    private fun decodeWishes(value: String?): List<WishData> {
+        if (value.isNullOrBlank()) return emptyList()
+        return try {
+            json.decodeFromString(ListSerializer(WishData.serializer()), value)
+        } catch (e: Exception) {
+            emptyList()
+        }
+    }
+
+    /**
+     * TEXT 식 [expression]을 JSON 문자열 본문으로 이스케이프하는 SQL 식
+     * 역슬래시와 큰따옴표, 제어 문자(U+0001~U+001F, 줄바꿈/탭 포함)를 모두 바꾼다
+     */
+    private fun jsonEscaped(expression: String): String {
+        var escaped = """replace(replace($expression, '\', '\\'), '"', '\"')"""
+        for (code in 0x01 until 0x20) {
+            escaped = "replace($escaped, char($code), '${"\\u%04x".format(code)}')"
+        }
+        return escaped
+    }
+
+    /**
+     * v4 `wishes` 테이블을 만들고 [source]의 행을 epoch day 키로 복사
+     */
+    private fun rebuildWishes(
+        db: SupportSQLiteDatabase,
+        source: String,
+        wishesJson: String,
+        activeWishIndex: String
+    ) {
+        db.execSQL("DROP TABLE IF EXISTS `$TABLE_NEW`")
+        db.execSQL(
+            """
+            CREATE TABLE IF NOT EXISTS `$TABLE_NEW` (
+                `epoch_day` INTEGER NOT NULL,
+                `total_count` INTEGER NOT NULL,
+                `wish_text` TEXT NOT NULL,
+                `target_count` INTEGER NOT NULL,
+                `is_completed` INTEGER NOT NULL,
+                `created_at` INTEGER NOT NULL,
+                `updated_at` INTEGER NOT NULL,
+                `wishes_json` TEXT NOT NULL,
+                `active_wish_index` INTEGER NOT NULL,
+                PRIMARY KEY(`epoch_day`)
+            )
+            """.trimIndent()
+        )
+        db.execSQL(
+            """
+            INSERT OR REPLACE INTO `$TABLE_NEW` (
+                `epoch_day`, `total_count`, `wish_text`, `target_count`, `is_completed`,
+                `created_at`, `updated_at`, `wishes_json`, `active_wish_index`
+            )
+            SELECT $EPOCH_DAY_OF_DATE, `total_count`, `wish_text`, `target_count`, `is_completed`,
+                `created_at`, `updated_at`, $wishesJson, $activeWishIndex
+            FROM `$source`
+            WHERE julianday(`date`) IS NOT NULL
+            ORDER BY `updated_at`
+            """.trimIndent()
+        )
+        db.execSQL("DROP TABLE IF EXISTS `$source`")
+        db.execSQL("ALTER TABLE `$TABLE_NEW` RENAME TO `$TABLE`")
+        db.execSQL(
+            "CREATE INDEX IF NOT EXISTS `${WishEntity.INDEX_COUNTS}` ON `$TABLE` " +
+                "(`epoch_day`, `total_count`, `target_count`, `is_completed`)"
+        )
+    }
+}
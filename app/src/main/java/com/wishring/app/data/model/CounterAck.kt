@@ -0,0 +1,23 @@
+package com.wishring.app.data.model
+
+/**
+ * Ring counter value covered by a batch of presses
+ *
+ * 배치와 같은 트랜잭션으로 device_counters에 기록되어, 재연결 시 이미 반영된 누른 횟수를
+ * 다시 따라잡지 않게 한다. (epoch, value) 순으로 단조 증가할 때만 기록된다.
+ *
+ * @param deviceAddress Bluetooth MAC address
+ * @param epoch Counter epoch (incremented on every reset)
+ * @param value Cumulative counter value
+ */
+data class CounterAck(
+    val deviceAddress: String,
+    val epoch: Int,
+    val value: Int
+) {
+    /**
+     * True if this ack is at or after [other] in (epoch, value) order
+     */
+    fun isAtOrAfter(other: CounterAck): Boolean =
+        epoch > other.epoch || (epoch == other.epoch && value >= other.value)
+}
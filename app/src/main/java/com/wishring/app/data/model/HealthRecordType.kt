@@ -0,0 +1,28 @@
+package com.wishring.app.data.model
+
+/**
+ * Kind of a health record downloaded from the ring's history (health_records.type)
+ *
+ * 값 컬럼 의미:
+ * - HEART_RATE: value = bpm
+ * - BLOOD_OXYGEN: value = SpO2 %
+ * - TEMPERATURE: value = 체온 (0.01 ℃)
+ * - STEPS, SPORT: value = 걸음수, value2 = 거리 (m), value3 = 칼로리
+ * - HRV: value = HRV/스트레스 값
+ * - SLEEP: value = 수면 시간 (분), value2 = 수면 종류 (1 깊은 잠, 2 얕은 잠, 3 깨어 있음, 4 전체)
+ *
+ * [code]는 DB에 저장되므로 바꾸지 않는다.
+ */
+enum class HealthRecordType(val code: Int) {
+    HEART_RATE(1),
+    BLOOD_OXYGEN(2),
+    TEMPERATURE(3),
+    STEPS(4),
+    SPORT(5),
+    HRV(6),
+    SLEEP(7);
+
+    companion object {
+        fun fromCode(code: Int): HealthRecordType? = entries.firstOrNull { it.code == code }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wishring.app.data.model
+
+import com.wishring.app.data.local.database.entity.HealthChunkCodec
+
+/**
+ * Samples of one health metric in [from, to), ready for charting
+ *
+ * Holds the encoded day chunks and decodes them into primitive arrays on first access,
+ * so a caller that only needs [isEmpty] or the summaries never pays for decoding.
+ * Long ranges should be first read off the main thread.
+ */
+class HealthSeries(
+    val metric: HealthRecordType,
+    val from: Long,
+    val to: Long,
+    /**
+     * Values per sample (see [com.wishring.app.data.repository.HealthTimeSeriesRepository])
+     */
+    val channels: Int,
+    private val chunks: List<DayChunk>
+) {
+
+    /**
+     * Encoded chunk with its local day start (epoch millis)
+     */
+    class DayChunk(val dayStart: Long, val data: ByteArray)
+
+    private class Decoded(val times: LongArray, val values: IntArray)
+
+    private val decoded: Decoded by lazy { decode() }
+
+    fun isEmpty(): Boolean = chunks.all { HealthChunkCodec.count(it.data) == 0 }
+
+    val size: Int
+        get() = decoded.times.size
+
+    /**
+     * Sample times (epoch millis), ascending
+     */
+    val times: LongArray
+        get() = decoded.times
+
+    /**
+     * Values of [channel] in sample order
+     */
+    fun values(channel: Int = 0): IntArray {
+        require(channel in 0 until channels) { "channel $channel out of $channels" }
+        val interleaved = decoded.values
+        if (channels == 1) return interleaved
+        return IntArray(size) { interleaved[it * channels + channel] }
+    }
+
+    private fun decode(): Decoded {
+        val total = chunks.sumOf { HealthChunkCodec.count(it.data) }
+        val times = LongArray(total)
+        val values = IntArray(total * channels)
+        var offset = 0
+        for (chunk in chunks) {
+            offset += HealthChunkCodec.decodeInto(chunk.data, chunk.dayStart, times, values, offset)
+        }
+
+        // 첫/마지막 날은 범위 밖 샘플이 있을 수 있음
+        val start = lowerBound(times, from)
+        val end = lowerBound(times, to)
+        if (start == 0 && end == total) return Decoded(times, values)
+        return Decoded(times.copyOfRange(start, end), values.copyOfRange(start * channels, end * channels))
+    }
+
+    private fun lowerBound(times: LongArray, time: Long): Int {
+        var low = 0
+        var high = times.size
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (times[mid] < time) low = mid + 1 else high = mid
+        }
+        return low
+    }
+}
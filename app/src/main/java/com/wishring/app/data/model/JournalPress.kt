@@ -0,0 +1,12 @@
+package com.wishring.app.data.model
+
+/**
+ * One press record replayed from the press journal
+ *
+ * @param delta Presses in the record
+ * @param ack Ring counter value the record was produced from, or null without a counter
+ */
+data class JournalPress(
+    val delta: Int,
+    val ack: CounterAck?
+)
@@ -0,0 +1,45 @@
+package com.wishring.app.data.model
+
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+
+/**
+ * UI model for the totals at the top of the wish report card
+ * Built from the all-time stats_rollup row and the streak index,
+ * so it costs a key lookup each regardless of history length
+ *
+ * @param totalCount Sum of presses over all recorded days
+ * @param recordedDays Number of days with a record
+ * @param completedDays Number of days whose goal was completed
+ * @param currentStreak Consecutive completed days ending today (or yesterday)
+ * @param longestStreak Longest streak ever recorded
+ */
+data class ReportSummary(
+    val totalCount: Long,
+    val recordedDays: Int,
+    val completedDays: Int,
+    val currentStreak: Int,
+    val longestStreak: Int
+) {
+    companion object {
+        val EMPTY = ReportSummary(
+            totalCount = 0L,
+            recordedDays = 0,
+            completedDays = 0,
+            currentStreak = 0,
+            longestStreak = 0
+        )
+
+        /**
+         * @param allTime All-time rollup row, null if nothing has been recorded yet
+         */
+        fun from(allTime: StatsRollupEntity?, streak: StreakSummary): ReportSummary {
+            return ReportSummary(
+                totalCount = allTime?.totalCount ?: 0L,
+                recordedDays = allTime?.dayCount ?: 0,
+                completedDays = allTime?.completedDays ?: 0,
+                currentStreak = streak.currentStreak,
+                longestStreak = streak.longestStreak
+            )
+        }
+    }
+}
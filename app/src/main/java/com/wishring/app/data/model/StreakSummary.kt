@@ -0,0 +1,43 @@
+package com.wishring.app.data.model
+
+import com.wishring.app.data.local.database.entity.StreakSnapshot
+import java.time.LocalDate
+
+/**
+ * UI model for goal-completion streaks
+ *
+ * 오늘 목표를 아직 달성하지 않았더라도 어제까지 이어진 연속 기록은 오늘 하루 동안 유지된다.
+ *
+ * @param currentStreak Consecutive completed days ending today (or yesterday)
+ * @param currentStart First day of the current streak, null if there is none
+ * @param longestStreak Longest streak ever recorded
+ */
+data class StreakSummary(
+    val currentStreak: Int,
+    val currentStart: LocalDate?,
+    val longestStreak: Int
+) {
+    companion object {
+        val EMPTY = StreakSummary(currentStreak = 0, currentStart = null, longestStreak = 0)
+
+        /**
+         * Resolve the current streak relative to [today]
+         * @param today Today's epoch day
+         * @param snapshot Streak lengths at today and yesterday plus the longest one
+         */
+        fun from(today: Long, snapshot: StreakSnapshot): StreakSummary {
+            val todayLength = snapshot.todayLength ?: 0
+            val yesterdayLength = snapshot.yesterdayLength ?: 0
+            val (current, endDay) = when {
+                todayLength > 0 -> todayLength to today
+                yesterdayLength > 0 -> yesterdayLength to today - 1
+                else -> return EMPTY.copy(longestStreak = snapshot.longest ?: 0)
+            }
+            return StreakSummary(
+                currentStreak = current,
+                currentStart = LocalDate.ofEpochDay(endDay - current + 1),
+                longestStreak = maxOf(snapshot.longest ?: 0, current)
+            )
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.wishring.app.data.model
 
+import com.wishring.app.data.local.database.entity.WishDayWithResets
+import com.wishring.app.data.local.database.entity.WishEntity
 import java.time.LocalDate
 import java.time.format.DateTimeFormatter
 
@@ -16,8 +18,16 @@ data class WishDayUiState(
     val isCompleted: Boolean,
     val targetCount: Int,
     val completedCount: Int,
+    val resetCount: Int = 0,
+    val countBeforeReset: Int? = null,
 ) {
 
+    /**
+     * Whether the ring counter was reset on this day
+     */
+    val hasReset: Boolean
+        get() = resetCount > 0
+
     /**
      * Get date string in standard format (yyyy-MM-dd)
      */
@@ -26,6 +36,30 @@ data class WishDayUiState(
 
 
     companion object {
+        /**
+         * Create from Entity
+         * Date comes from the epoch-day key directly, without string parsing
+         */
+        fun fromEntity(entity: WishEntity): WishDayUiState {
+            return WishDayUiState(
+                date = entity.localDate,
+                wishText = entity.wishText,
+                isCompleted = entity.isCompleted,
+                targetCount = entity.totalCount,
+                completedCount = entity.targetCount,
+            )
+        }
+
+        /**
+         * Create from a history row with its reset summary
+         */
+        fun fromDayWithResets(row: WishDayWithResets): WishDayUiState {
+            return fromEntity(row.day).copy(
+                resetCount = row.resetCount,
+                countBeforeReset = row.countBeforeReset
+            )
+        }
+
         /**
          * Create from WishUiState model
          */
@@ -120,7 +120,7 @@ data class WishUiState(
  */
 fun WishUiState.toEntity(): WishEntity {
     return WishEntity(
-        date = date,
+        epochDay = DateUtils.toEpochDay(date),
         totalCount = targetCount,
         wishText = wishText,
         targetCount = currentCount,
@@ -0,0 +1,43 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.data.local.database.entity.EcgRecordingEntity
+import com.wishring.app.data.model.EcgData
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Repository for ECG recordings captured from the ring
+ */
+interface EcgRepository {
+
+    /**
+     * Create the recording row before any chunk is stored
+     * @param startTime Capture start (epoch millis), identifies the recording
+     */
+    suspend fun startRecording(deviceAddress: String, startTime: Long, sampleRate: Int)
+
+    /**
+     * Store one encoded chunk and count its samples on the recording
+     * @param data Chunk encoded by [com.wishring.app.data.local.database.entity.EcgWaveformCodec]
+     */
+    suspend fun appendChunk(startTime: Long, chunkIndex: Int, firstSample: Long, data: ByteArray)
+
+    suspend fun finishRecording(startTime: Long, heartRate: Int, missedFrames: Int, endTime: Long)
+
+    /**
+     * Observe recordings, newest first (summary rows only, no samples)
+     */
+    fun observeRecordings(): Flow<List<EcgRecordingEntity>>
+
+    /**
+     * Decode all samples of a recording into one array
+     * @return null if the recording does not exist
+     */
+    suspend fun loadSamples(startTime: Long): ShortArray?
+
+    /**
+     * Load a recording as [EcgData] (samples as 16-bit Big Endian bytes)
+     */
+    suspend fun loadEcgData(startTime: Long): EcgData?
+
+    suspend fun deleteRecording(startTime: Long)
+}
@@ -0,0 +1,72 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.data.local.database.dao.EcgDao
+import com.wishring.app.data.local.database.entity.EcgChunkEntity
+import com.wishring.app.data.local.database.entity.EcgRecordingEntity
+import com.wishring.app.data.local.database.entity.EcgWaveformCodec
+import com.wishring.app.data.model.EcgData
+import kotlinx.coroutines.flow.Flow
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Implementation of EcgRepository
+ */
+@Singleton
+class EcgRepositoryImpl @Inject constructor(
+    private val ecgDao: EcgDao
+) : EcgRepository {
+
+    override suspend fun startRecording(deviceAddress: String, startTime: Long, sampleRate: Int) {
+        ecgDao.insertRecording(
+            EcgRecordingEntity(startTime = startTime, deviceAddress = deviceAddress, sampleRate = sampleRate)
+        )
+    }
+
+    override suspend fun appendChunk(startTime: Long, chunkIndex: Int, firstSample: Long, data: ByteArray) {
+        ecgDao.appendChunk(
+            EcgChunkEntity(startTime = startTime, chunkIndex = chunkIndex, firstSample = firstSample, data = data),
+            samples = EcgWaveformCodec.count(data)
+        )
+    }
+
+    override suspend fun finishRecording(startTime: Long, heartRate: Int, missedFrames: Int, endTime: Long) {
+        ecgDao.finishRecording(startTime, heartRate, missedFrames, endTime)
+    }
+
+    override fun observeRecordings(): Flow<List<EcgRecordingEntity>> {
+        return ecgDao.observeRecordings()
+    }
+
+    override suspend fun loadSamples(startTime: Long): ShortArray? {
+        ecgDao.getRecording(startTime) ?: return null
+        val chunks = ecgDao.getChunks(startTime)
+        val samples = ShortArray(chunks.sumOf { EcgWaveformCodec.count(it.data) })
+        var offset = 0
+        for (chunk in chunks) {
+            offset += EcgWaveformCodec.decodeInto(chunk.data, samples, offset)
+        }
+        return samples
+    }
+
+    override suspend fun loadEcgData(startTime: Long): EcgData? {
+        val recording = ecgDao.getRecording(startTime) ?: return null
+        val samples = loadSamples(startTime) ?: return null
+        val bytes = ByteArray(samples.size * 2)
+        for (i in samples.indices) {
+            val sample = samples[i].toInt()
+            bytes[i * 2] = (sample shr 8).toByte()
+            bytes[i * 2 + 1] = sample.toByte()
+        }
+        return EcgData(
+            data = bytes,
+            heartRate = recording.heartRate,
+            timestamp = recording.startTime,
+            duration = recording.durationSeconds
+        )
+    }
+
+    override suspend fun deleteRecording(startTime: Long) {
+        ecgDao.deleteRecording(startTime)
+    }
+}
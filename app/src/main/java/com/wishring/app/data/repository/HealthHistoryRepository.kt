@@ -0,0 +1,36 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.data.local.database.entity.HealthRecordEntity
+import com.wishring.app.data.model.HealthRecordType
+
+/**
+ * Repository for health history downloaded from the ring
+ */
+interface HealthHistoryRepository {
+
+    /**
+     * Store downloaded records and advance the per-type sync cursors
+     * Sample series go to [HealthTimeSeriesRepository]; step and sleep segments are kept as records,
+     * skipping those already stored for the same (device, type, time)
+     * @param deviceAddress Bluetooth MAC address
+     * @return Number of records actually stored
+     */
+    suspend fun appendHistory(deviceAddress: String, records: List<HealthRecordEntity>): Int
+
+    /**
+     * Get the newest stored record time per type (sync resume points)
+     * @param deviceAddress Bluetooth MAC address
+     */
+    suspend fun getSyncCursors(deviceAddress: String): Map<HealthRecordType, Long>
+
+    /**
+     * Get step or sleep segment records of one type in [from, to), oldest first
+     * Sample series are read with [HealthTimeSeriesRepository.getSeries]
+     */
+    suspend fun getRecords(
+        deviceAddress: String,
+        type: HealthRecordType,
+        from: Long,
+        to: Long
+    ): List<HealthRecordEntity>
+}
@@ -0,0 +1,97 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.local.database.dao.HealthHistoryDao
+import com.wishring.app.data.local.database.entity.HealthRecordEntity
+import com.wishring.app.data.local.database.entity.HistorySyncCursorEntity
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.data.repository.HealthTimeSeriesRepository.Companion.channelsOf
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Implementation of HealthHistoryRepository
+ *
+ * Sample series (heart rate, SpO2, temperature, HRV, sport) are merged into the day chunks of
+ * [HealthTimeSeriesRepository]; only step and sleep segments, which do not fit the chunks' one
+ * summary per day, are kept as health_records rows. Chunks are written before the cursors, and a
+ * merge replaces samples at the same second, so an interrupted batch is simply downloaded again.
+ */
+@Singleton
+class HealthHistoryRepositoryImpl @Inject constructor(
+    private val healthHistoryDao: HealthHistoryDao,
+    private val healthTimeSeriesRepository: HealthTimeSeriesRepository
+) : HealthHistoryRepository {
+
+    override suspend fun appendHistory(deviceAddress: String, records: List<HealthRecordEntity>): Int {
+        if (records.isEmpty()) return 0
+        val now = DateUtils.getCurrentTimestamp()
+        val cursors = records.groupBy { it.type }.map { (type, rows) ->
+            HistorySyncCursorEntity(
+                deviceAddress = deviceAddress,
+                type = type,
+                lastRecordTime = rows.maxOf { it.recordTime },
+                updatedAt = now
+            )
+        }
+
+        var stored = 0
+        val segments = ArrayList<HealthRecordEntity>()
+        records.groupBy { it.type }.forEach { (code, rows) ->
+            val metric = HealthRecordType.fromCode(code)
+            if (metric == null || metric !in SERIES_TYPES) {
+                segments.addAll(rows)
+                return@forEach
+            }
+            stored += healthTimeSeriesRepository.append(
+                metric,
+                LongArray(rows.size) { rows[it].recordTime },
+                valuesOf(metric, rows)
+            )
+        }
+        return stored + healthHistoryDao.appendBatch(segments, cursors)
+    }
+
+    override suspend fun getSyncCursors(deviceAddress: String): Map<HealthRecordType, Long> {
+        return healthHistoryDao.getCursors(deviceAddress).mapNotNull { cursor ->
+            HealthRecordType.fromCode(cursor.type)?.let { it to cursor.lastRecordTime }
+        }.toMap()
+    }
+
+    override suspend fun getRecords(
+        deviceAddress: String,
+        type: HealthRecordType,
+        from: Long,
+        to: Long
+    ): List<HealthRecordEntity> {
+        return healthHistoryDao.getRange(deviceAddress, type.code, from, to)
+    }
+
+    /**
+     * Interleave record columns into [channelsOf] values per sample
+     */
+    private fun valuesOf(metric: HealthRecordType, rows: List<HealthRecordEntity>): IntArray {
+        val channels = channelsOf(metric)
+        return IntArray(rows.size * channels) { i ->
+            val row = rows[i / channels]
+            when (i % channels) {
+                0 -> row.value
+                1 -> row.value2
+                else -> row.value3
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * Types whose history samples map one-to-one onto time series samples
+         */
+        val SERIES_TYPES = setOf(
+            HealthRecordType.HEART_RATE,
+            HealthRecordType.BLOOD_OXYGEN,
+            HealthRecordType.TEMPERATURE,
+            HealthRecordType.HRV,
+            HealthRecordType.SPORT
+        )
+    }
+}
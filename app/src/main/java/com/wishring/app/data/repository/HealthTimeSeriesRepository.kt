@@ -0,0 +1,50 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.data.local.database.entity.HealthChunkIndexEntity
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.data.model.HealthSeries
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Repository for compact health time series (one encoded chunk per metric and local day)
+ *
+ * Value channels per metric:
+ * - HEART_RATE, BLOOD_OXYGEN, HRV: 1 (bpm, %, HRV)
+ * - TEMPERATURE: 1 (0.01 ℃)
+ * - STEPS: 4 (steps, distance m, calories, active minutes) - one sample per day at local midnight
+ * - SPORT: 3 (steps, distance m, calories)
+ * - SLEEP: 5 (total, deep, light, REM, awake minutes) - one sample per day at local midnight
+ *
+ * Times are stored at second resolution; a new sample replaces a stored one in the same second.
+ */
+interface HealthTimeSeriesRepository {
+
+    /**
+     * Store samples of one metric, merged into their day chunks in one transaction
+     * @param times Sample times (epoch millis), any order
+     * @param values Interleaved values, times.size x [channelsOf] (metric)
+     * @return Number of samples added (not counting ones that replaced a sample at the same second)
+     */
+    suspend fun append(metric: HealthRecordType, times: LongArray, values: IntArray): Int
+
+    /**
+     * Get samples in [from, to), decoded lazily on first access
+     */
+    suspend fun getSeries(metric: HealthRecordType, from: Long, to: Long): HealthSeries
+
+    /**
+     * Get per-day summaries in [fromDay, toDay] (epoch days) without decoding samples
+     */
+    suspend fun getDailySummaries(metric: HealthRecordType, fromDay: Long, toDay: Long): List<HealthChunkIndexEntity>
+
+    fun observeDailySummaries(metric: HealthRecordType, fromDay: Long, toDay: Long): Flow<List<HealthChunkIndexEntity>>
+
+    companion object {
+        fun channelsOf(metric: HealthRecordType): Int = when (metric) {
+            HealthRecordType.STEPS -> 4
+            HealthRecordType.SPORT -> 3
+            HealthRecordType.SLEEP -> 5
+            else -> 1
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.wishring.app.data.repository
+
+import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.local.database.dao.HealthChunkDao
+import com.wishring.app.data.local.database.entity.HealthChunkCodec
+import com.wishring.app.data.local.database.entity.HealthChunkIndexEntity
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.data.model.HealthSeries
+import com.wishring.app.data.repository.HealthTimeSeriesRepository.Companion.channelsOf
+import kotlinx.coroutines.flow.Flow
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Implementation of HealthTimeSeriesRepository
+ */
+@Singleton
+class HealthTimeSeriesRepositoryImpl @Inject constructor(
+    private val healthChunkDao: HealthChunkDao
+) : HealthTimeSeriesRepository {
+
+    override suspend fun append(metric: HealthRecordType, times: LongArray, values: IntArray): Int {
+        val channels = channelsOf(metric)
+        require(values.size == times.size * channels) { "${metric.name} needs $channels values per sample" }
+        if (times.isEmpty()) return 0
+        val days = splitByDay(times, values, channels, ZoneId.systemDefault())
+        return healthChunkDao.mergeDays(metric.code, days, DateUtils.getCurrentTimestamp())
+    }
+
+    override suspend fun getSeries(metric: HealthRecordType, from: Long, to: Long): HealthSeries {
+        val channels = channelsOf(metric)
+        if (to <= from) return HealthSeries(metric, from, to, channels, emptyList())
+        val zone = ZoneId.systemDefault()
+        val chunks = healthChunkDao.getChunks(metric.code, epochDay(from, zone), epochDay(to - 1, zone))
+        return HealthSeries(
+            metric, from, to, channels,
+            chunks.map { HealthSeries.DayChunk(dayStart(it.epochDay, zone), it.data) }
+        )
+    }
+
+    override suspend fun getDailySummaries(
+        metric: HealthRecordType,
+        fromDay: Long,
+        toDay: Long
+    ): List<HealthChunkIndexEntity> {
+        return healthChunkDao.getIndex(metric.code, fromDay, toDay)
+    }
+
+    override fun observeDailySummaries(
+        metric: HealthRecordType,
+        fromDay: Long,
+        toDay: Long
+    ): Flow<List<HealthChunkIndexEntity>> {
+        return healthChunkDao.observeIndex(metric.code, fromDay, toDay)
+    }
+
+    /**
+     * Sort samples by time and cut them at local midnights
+     */
+    private fun splitByDay(
+        times: LongArray,
+        values: IntArray,
+        channels: Int,
+        zone: ZoneId
+    ): List<HealthChunkCodec.DaySamples> {
+        val order = if (isSorted(times)) null else times.indices.sortedBy { times[it] }
+        val sortedTimes = if (order == null) times else LongArray(times.size) { times[order[it]] }
+        val sortedValues = if (order == null) values else IntArray(values.size) {
+            values[order[it / channels] * channels + it % channels]
+        }
+
+        val days = mutableListOf<HealthChunkCodec.DaySamples>()
+        var start = 0
+        while (start < sortedTimes.size) {
+            val epochDay = epochDay(sortedTimes[start], zone)
+            val dayStart = dayStart(epochDay, zone)
+            val nextDayStart = dayStart(epochDay + 1, zone)
+            var end = start
+            while (end < sortedTimes.size && sortedTimes[end] < nextDayStart) end++
+            days += HealthChunkCodec.DaySamples(
+                epochDay = epochDay,
+                dayStart = dayStart,
+                times = sortedTimes.copyOfRange(start, end),
+                values = sortedValues.copyOfRange(start * channels, end * channels),
+                count = end - start,
+                channels = channels
+            )
+            start = end
+        }
+        return days
+    }
+
+    private fun isSorted(times: LongArray): Boolean {
+        for (i in 1 until times.size) if (times[i] < times[i - 1]) return false
+        return true
+    }
+
+    private fun epochDay(time: Long, zone: ZoneId): Long =
+        Instant.ofEpochMilli(time).atZone(zone).toLocalDate().toEpochDay()
+
+    private fun dayStart(epochDay: Long, zone: ZoneId): Long =
+        LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli()
+}
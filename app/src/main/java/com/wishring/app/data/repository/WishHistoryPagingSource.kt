@@ -0,0 +1,160 @@
+package com.wishring.app.data.repository
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import androidx.room.InvalidationTracker
+import androidx.room.withTransaction
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.local.database.WishRingDatabase
+import com.wishring.app.data.local.database.dao.WishDao
+import com.wishring.app.data.local.database.entity.WishDayWithResets
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Keyset paging source for past days, newest first
+ * Keys are epoch days: append loads days older than the last loaded day,
+ * prepend loads days newer than the first loaded day, so a page costs the same at any history depth.
+ * Placeholder counts never count rows: the number of past days comes from the all-time
+ * stats_rollup day_count, and page positions are tracked from the refresh position onward.
+ * Invalidated whenever the wishes, stats_rollup or reset_logs table changes.
+ * @param today Today's epoch day (exclusive upper bound)
+ * @param anchor Refresh position handed over from the invalidated source, shared by one Pager
+ */
+internal class WishHistoryPagingSource(
+    private val database: WishRingDatabase,
+    private val wishDao: WishDao,
+    private val today: Long,
+    private val anchor: WishHistoryAnchor
+) : PagingSource<Long, WishDayWithResets>() {
+
+    private val observer = object : InvalidationTracker.Observer(
+        arrayOf(Constants.TABLE_WISHES, Constants.TABLE_STATS_ROLLUP, Constants.TABLE_RESET_LOGS)
+    ) {
+        override fun onInvalidated(tables: Set<String>) {
+            invalidate()
+        }
+    }
+
+    // Registered on the first load so the tracker is touched off the main thread
+    private val observing = AtomicBoolean(false)
+
+    // Number of past days, read once on refresh (a source never outlives a table change)
+    @Volatile
+    private var total = 0
+
+    // List position of each loaded page's first and last day (append and prepend may run concurrently)
+    private val positions = ConcurrentHashMap<Long, Int>()
+
+    init {
+        registerInvalidatedCallback {
+            database.invalidationTracker.removeObserver(observer)
+        }
+    }
+
+    override suspend fun load(params: LoadParams<Long>): LoadResult<Long, WishDayWithResets> {
+        if (observing.compareAndSet(false, true)) {
+            database.invalidationTracker.addObserver(observer)
+        }
+        return database.withTransaction {
+            when (params) {
+                is LoadParams.Refresh -> loadRefresh(params.key, params.loadSize)
+                is LoadParams.Append -> loadOlder(params.key, params.loadSize)
+                is LoadParams.Prepend -> loadNewer(params.key, params.loadSize)
+            }
+        }
+    }
+
+    /**
+     * @param key Exclusive upper bound from [getRefreshKey], null to start at the newest day
+     */
+    private suspend fun loadRefresh(key: Long?, loadSize: Int): LoadResult<Long, WishDayWithResets> {
+        val before = key ?: today
+        val rows = wishDao.getHistoryBefore(before, loadSize)
+        val first = rows.firstOrNull()?.day?.epochDay
+        val last = rows.lastOrNull()?.day?.epochDay
+        // Rollup lookup plus a key range holding at most today's row
+        total = (wishDao.getDayCountAllTime() - wishDao.countDaysBetween(today - 1, Long.MAX_VALUE))
+            .coerceAtLeast(rows.size)
+        val start = if (key == null) 0 else anchor.take(key)?.coerceIn(0, total - rows.size)
+        if (start != null) record(rows, start)
+
+        return LoadResult.Page(
+            data = rows,
+            // Days at or above the key may still exist when refreshing from the middle
+            prevKey = if (key == null) null else (first ?: (before - 1)).takeIf { it < today - 1 },
+            nextKey = last?.takeIf { rows.size == loadSize },
+            itemsBefore = start ?: LoadResult.Page.COUNT_UNDEFINED,
+            itemsAfter = start?.let { total - it - rows.size } ?: LoadResult.Page.COUNT_UNDEFINED
+        )
+    }
+
+    private suspend fun loadOlder(before: Long, loadSize: Int): LoadResult<Long, WishDayWithResets> {
+        val rows = wishDao.getHistoryBefore(before, loadSize)
+        val last = rows.lastOrNull()?.day?.epochDay
+        val start = positions[before]?.plus(1)
+        if (start != null) record(rows, start)
+        return LoadResult.Page(
+            data = rows,
+            prevKey = null,
+            nextKey = last?.takeIf { rows.size == loadSize },
+            itemsAfter = start?.let { (total - it - rows.size).coerceAtLeast(0) } ?: LoadResult.Page.COUNT_UNDEFINED
+        )
+    }
+
+    private suspend fun loadNewer(after: Long, loadSize: Int): LoadResult<Long, WishDayWithResets> {
+        val rows = wishDao.getHistoryAfter(after, today, loadSize).asReversed()
+        val first = rows.firstOrNull()?.day?.epochDay
+        val start = positions[after]?.minus(rows.size)?.coerceAtLeast(0)
+        if (start != null) record(rows, start)
+        return LoadResult.Page(
+            data = rows,
+            prevKey = first?.takeIf { rows.size == loadSize },
+            nextKey = null,
+            itemsBefore = start ?: LoadResult.Page.COUNT_UNDEFINED
+        )
+    }
+
+    private fun record(rows: List<WishDayWithResets>, start: Int) {
+        if (rows.isEmpty()) return
+        positions[rows.first().day.epochDay] = start
+        positions[rows.last().day.epochDay] = start + rows.size - 1
+    }
+
+    /**
+     * Reload starting at the row closest to the scroll anchor
+     * Keyed one day above it because [WishDao.getHistoryBefore] is exclusive.
+     * The row's list position is handed to the next source through [anchor]
+     */
+    override fun getRefreshKey(state: PagingState<Long, WishDayWithResets>): Long? {
+        val anchorPosition = state.anchorPosition ?: return null
+        val day = state.closestItemToPosition(anchorPosition)?.day?.epochDay ?: return null
+        val page = state.pages.firstOrNull { page -> page.data.any { it.day.epochDay == day } }
+        val pageStart = page?.data?.firstOrNull()?.let { positions[it.day.epochDay] }
+        if (page != null && pageStart != null) {
+            anchor.set(day + 1, pageStart + page.data.indexOfFirst { it.day.epochDay == day })
+        }
+        return day + 1
+    }
+}
+
+/**
+ * List position of the row a refresh starts at, handed from an invalidated
+ * [WishHistoryPagingSource] to its replacement so placeholders need no row count
+ */
+internal class WishHistoryAnchor {
+
+    private class Entry(val key: Long, val position: Int)
+
+    private val entry = AtomicReference<Entry?>(null)
+
+    fun set(key: Long, position: Int) {
+        entry.set(Entry(key, position))
+    }
+
+    /**
+     * @return Position stored for [key], or null if the refresh key came from elsewhere
+     */
+    fun take(key: Long): Int? = entry.getAndSet(null)?.takeIf { it.key == key }?.position
+}
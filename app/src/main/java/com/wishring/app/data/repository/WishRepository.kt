@@ -1,8 +1,17 @@
 package com.wishring.app.data.repository
 
+import com.wishring.app.data.local.database.entity.CounterReconciliation
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+import com.wishring.app.data.local.database.entity.WishCountSnapshot
 import com.wishring.app.data.local.database.entity.WishData
+import com.wishring.app.data.model.CounterAck
+import com.wishring.app.data.model.JournalPress
+import com.wishring.app.data.model.ResetEvent
+import com.wishring.app.data.model.StreakSummary
 import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.data.model.WishUiState
+import androidx.paging.PagingData
 import kotlinx.coroutines.flow.Flow
 
 /**
@@ -77,6 +86,12 @@ interface WishRepository {
      */
     suspend fun getActiveWishIndex(): Int
 
+    /**
+     * Get today's active wish
+     * @return Active WishData or null if no wishes are registered
+     */
+    suspend fun getActiveWish(): WishData?
+
     /**
      * Get today's wishes as list
      * @return List of WishData for today
@@ -103,8 +118,69 @@ interface WishRepository {
      */
     suspend fun deleteOldRecords(beforeDate: String): Int
 
+    /**
+     * Add presses to a day's count in a single transaction
+     * @param date Date the presses belong to (yyyy-MM-dd)
+     * @param increment Number of presses
+     * @param hour Local hour (0-23) the presses were recorded in
+     * @return Count columns after the increment
+     */
+    suspend fun incrementWishCount(date: String, increment: Int, hour: Int): WishCountSnapshot
+
+    /**
+     * Add presses and acknowledge the ring counter value they cover in a single transaction
+     * @param ack Counter value covered by the presses, or null for presses without a counter
+     * @return Count columns after the increment
+     */
+    suspend fun incrementWishCount(date: String, increment: Int, hour: Int, ack: CounterAck?): WishCountSnapshot
+
+    /**
+     * Add presses replayed from the press journal
+     * Counter records already covered by the stored device ack are skipped, so replay is exactly-once
+     * @param presses Replayed records in journal order
+     * @return Number of presses added
+     */
+    suspend fun replayWishCount(date: String, hour: Int, presses: List<JournalPress>): Int
+
+    /**
+     * Reconcile the ring's cumulative counter after a (re)connect
+     * Presses made while disconnected are added to [date] once; repeating the call with the same
+     * counter adds nothing
+     * @param deviceAddress Bluetooth MAC address
+     * @param deviceCounter Cumulative counter read from the ring
+     * @param date Date the catch-up presses are credited to (yyyy-MM-dd)
+     * @param hour Local hour the catch-up presses are credited to
+     */
+    suspend fun reconcileDeviceCounter(
+        deviceAddress: String,
+        deviceCounter: Int,
+        date: String,
+        hour: Int
+    ): CounterReconciliation
+
+    /**
+     * Start a new counter epoch after the ring reported a reset
+     * @param deviceAddress Bluetooth MAC address
+     * @param epoch Epoch that begins at counter 0
+     */
+    suspend fun startDeviceCounterEpoch(deviceAddress: String, epoch: Int)
+
+    /**
+     * Append reset log rows in a single transaction
+     * Rows already logged for the same (device, time) are skipped
+     * @return Number of rows actually appended
+     */
+    suspend fun appendResetLogs(logs: List<ResetLogEntity>): Int
+
+    /**
+     * Get ring counter resets of a day, oldest first
+     * @param date Date in yyyy-MM-dd format
+     */
+    suspend fun getResetEvents(date: String): List<ResetEvent>
+
     /**
      * Observe today's wish count
+     * Switches to the new day's row at local midnight (null until that row is created)
      * @return Flow of today's WishCount
      */
     fun observeTodayWishCount(): Flow<WishUiState?>
@@ -124,10 +200,43 @@ interface WishRepository {
     suspend fun getRecentWishCounts(limit: Int): List<WishUiState>
 
     /**
-     * Get wish history with pagination support
-     * @param page Page number (0-based)
+     * Get wish history (past days) as paged data
      * @param pageSize Number of items per page
-     * @return Pair of wish history and page info
+     * @return Flow of PagingData, refreshed when the wishes table changes
+     */
+    fun getWishHistoryPagingData(pageSize: Int = 50): Flow<PagingData<WishDayUiState>>
+
+    /**
+     * Observe all-time statistics (pre-aggregated, O(1) read)
+     * @return Flow of rollup row, null until the first day is recorded
+     */
+    fun observeAllTimeStats(): Flow<StatsRollupEntity?>
+
+    /**
+     * Get statistics for the ISO week containing a date
+     * @param date Date in yyyy-MM-dd format
+     */
+    suspend fun getWeekStats(date: String): StatsRollupEntity?
+
+    /**
+     * Get statistics for the month containing a date
+     * @param date Date in yyyy-MM-dd format
+     */
+    suspend fun getMonthStats(date: String): StatsRollupEntity?
+
+    /**
+     * Observe goal-completion streaks
+     * Re-evaluated when a day's completion changes and at local midnight
+     * @return Flow of current streak, its start date and the longest streak
+     */
+    fun observeStreak(): Flow<StreakSummary>
+
+    /**
+     * Get presses per hour for consecutive days as one flat array
+     * Row-major: index = dayOffset * 24 + hour, days without data are zero
+     * @param startDate First day (yyyy-MM-dd)
+     * @param days Number of days
+     * @return IntArray of size days * 24
      */
-    suspend fun getWishHistoryPaginated(page: Int, pageSize: Int = 100): Pair<List<WishDayUiState>, com.wishring.app.presentation.home.PageInfo>
-}
\ No newline at end of file
+    suspend fun getHourlyHeatmap(startDate: String, days: Int): IntArray
+}
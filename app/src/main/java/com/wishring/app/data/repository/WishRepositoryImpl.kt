@@ -1,16 +1,40 @@
 package com.wishring.app.data.repository
 
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.map
 import com.wishring.app.core.util.DateUtils
+import com.wishring.app.data.local.database.WishRingDatabase
+import com.wishring.app.data.local.database.dao.ResetLogDao
+import com.wishring.app.data.local.database.dao.StatsDao
 import com.wishring.app.data.local.database.dao.WishDao
+import com.wishring.app.data.local.database.entity.HourlyPressCounts
+import com.wishring.app.data.local.database.entity.CounterReconciliation
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
 import com.wishring.app.data.local.database.entity.WishEntity
+import com.wishring.app.data.local.database.entity.WishCountSnapshot
 import com.wishring.app.data.local.database.entity.WishData
+import com.wishring.app.data.local.database.entity.WishItemEntity
+import com.wishring.app.data.model.CounterAck
+import com.wishring.app.data.model.JournalPress
+import com.wishring.app.data.model.ResetEvent
+import com.wishring.app.data.model.StreakSummary
 import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.data.model.WishUiState
 import com.wishring.app.data.model.toEntity
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.first
+import java.time.Duration
 import java.time.LocalDate
+import java.time.LocalDateTime
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -20,13 +44,15 @@ import javax.inject.Singleton
  */
 @Singleton
 class WishRepositoryImpl @Inject constructor(
+    private val database: WishRingDatabase,
     private val wishDao: WishDao,
+    private val statsDao: StatsDao,
+    private val resetLogDao: ResetLogDao,
     private val preferencesRepository: PreferencesRepository
 ) : WishRepository {
 
     override suspend fun getTodayWish(): WishUiState? {
-        val today = DateUtils.getTodayString()
-        val existingCount = wishDao.getByDate(today)
+        val existingCount = wishDao.getByDate(DateUtils.getTodayEpochDay())
 
         // Return null if no wish exists for today (don't create default)
         return existingCount?.let {
@@ -35,7 +61,7 @@ class WishRepositoryImpl @Inject constructor(
     }
 
     override suspend fun getWishCountByDate(date: String): WishUiState? {
-        return wishDao.getByDate(date)?.let { WishUiState.fromEntity(it) }
+        return wishDao.getByDate(DateUtils.toEpochDay(date))?.let { WishUiState.fromEntity(it) }
     }
 
     override fun getAllWishCounts(): Flow<List<WishUiState>> {
@@ -48,7 +74,10 @@ class WishRepositoryImpl @Inject constructor(
         startDate: String,
         endDate: String
     ): List<WishUiState> {
-        return wishDao.getRecordsBetween(startDate, endDate).map {
+        return wishDao.getRecordsBetween(
+            DateUtils.toEpochDay(startDate),
+            DateUtils.toEpochDay(endDate)
+        ).map {
             WishUiState.fromEntity(it)
         }
     }
@@ -62,8 +91,7 @@ class WishRepositoryImpl @Inject constructor(
     override suspend fun getWishDays(limit: Int): List<WishDayUiState> {
         val wishCounts = wishDao.getRecentRecords(limit).first()
         return wishCounts.map { entity ->
-            val wishUiState = WishUiState.fromEntity(entity)
-            WishDayUiState.fromWishCount(wishUiState)
+            WishDayUiState.fromEntity(entity)
         }
     }
 
@@ -92,11 +120,10 @@ class WishRepositoryImpl @Inject constructor(
 
         // Generate 30 days of historical data
         for (daysAgo in 1..30) {
-            val date = LocalDate.now().minusDays(daysAgo.toLong())
-            val dateString = date.toString()
+            val epochDay = LocalDate.now().minusDays(daysAgo.toLong()).toEpochDay()
 
             // Skip if data already exists for this date
-            val existing = wishDao.getByDate(dateString)
+            val existing = wishDao.getByDate(epochDay)
             if (existing != null) continue
 
             // Create random wish data
@@ -106,20 +133,19 @@ class WishRepositoryImpl @Inject constructor(
             val totalCount =
                 if (isCompleted) targetCount else ((targetCount * 0.2).toInt()..(targetCount * 0.95).toInt()).random()
 
-            // Create single wish in WishData format
-            val wishData = listOf(WishData(text = wishText))
-
-            val entity = WishEntity.createWithWishes(
-                wishes = wishData,
-                targetCount = targetCount,
-                activeIndex = 0,
-                date = dateString
-            ).copy(
+            val entity = WishEntity(
+                epochDay = epochDay,
                 totalCount = totalCount,
+                wishText = wishText,
+                targetCount = targetCount,
                 isCompleted = isCompleted
             )
 
-            wishDao.insert(entity)
+            // Single wish slot holding the whole day's count
+            wishDao.insertIfAbsent(entity)
+            wishDao.insertItems(
+                listOf(WishItemEntity(epochDay = epochDay, slotIndex = 0, text = wishText, count = totalCount))
+            )
         }
     }
 
@@ -129,7 +155,7 @@ class WishRepositoryImpl @Inject constructor(
      */
     suspend fun getOrCreateTodayWishCount(): WishUiState {
         val today = DateUtils.getTodayString()
-        val existingCount = wishDao.getByDate(today)
+        val existingCount = wishDao.getByDate(DateUtils.getTodayEpochDay())
 
         return if (existingCount != null) {
             WishUiState.fromEntity(existingCount)
@@ -141,41 +167,83 @@ class WishRepositoryImpl @Inject constructor(
                 date = today,
                 wishText = defaultWishText
             )
-            wishDao.insert(newCount.toEntity())
+            wishDao.insertIfAbsent(newCount.toEntity())
             newCount
         }
     }
 
     override suspend fun getWishDay(date: String): WishDayUiState? {
-        val wishUiState = wishDao.getByDate(date)?.let { WishUiState.fromEntity(it) }
-            ?: return null
-
-        return WishDayUiState.fromWishCount(wishUiState)
+        return wishDao.getByDate(DateUtils.toEpochDay(date))?.let { WishDayUiState.fromEntity(it) }
     }
 
     override suspend fun saveWishCount(wishUiState: WishUiState): WishUiState {
-        val id = wishDao.insert(wishUiState.toEntity())
+        wishDao.saveDay(wishUiState.toEntity())
         return wishUiState
     }
 
     override suspend fun isTodayCompleted(): Boolean {
-        val today = DateUtils.getTodayString()
-        val entity = wishDao.getByDate(today)
+        val entity = wishDao.getByDate(DateUtils.getTodayEpochDay())
         return entity?.isCompleted == true
     }
 
     override suspend fun deleteWishCount(date: String): Boolean {
-        return wishDao.deleteWishCount(date) > 0
+        return wishDao.deleteWishCount(DateUtils.toEpochDay(date)) > 0
     }
 
     override suspend fun deleteOldRecords(beforeDate: String): Int {
-        return wishDao.deleteOlderThan(beforeDate)
+        return wishDao.deleteOlderThan(DateUtils.toEpochDay(beforeDate))
     }
 
+    override suspend fun incrementWishCount(date: String, increment: Int, hour: Int): WishCountSnapshot {
+        return wishDao.incrementCount(DateUtils.toEpochDay(date), increment, hour)
+    }
+
+    override suspend fun incrementWishCount(
+        date: String,
+        increment: Int,
+        hour: Int,
+        ack: CounterAck?
+    ): WishCountSnapshot {
+        return wishDao.incrementCountWithAck(DateUtils.toEpochDay(date), increment, hour, ack)
+    }
+
+    override suspend fun replayWishCount(
+        date: String,
+        hour: Int,
+        presses: List<JournalPress>
+    ): Int {
+        return wishDao.incrementCountFromJournal(DateUtils.toEpochDay(date), hour, presses)
+    }
+
+    override suspend fun reconcileDeviceCounter(
+        deviceAddress: String,
+        deviceCounter: Int,
+        date: String,
+        hour: Int
+    ): CounterReconciliation {
+        return wishDao.reconcileDeviceCounter(deviceAddress, deviceCounter, DateUtils.toEpochDay(date), hour)
+    }
+
+    override suspend fun startDeviceCounterEpoch(deviceAddress: String, epoch: Int) {
+        wishDao.startDeviceEpoch(deviceAddress, epoch)
+    }
+
+    override suspend fun appendResetLogs(logs: List<ResetLogEntity>): Int {
+        if (logs.isEmpty()) return 0
+        return resetLogDao.insertAll(logs).count { it != -1L }
+    }
+
+    override suspend fun getResetEvents(date: String): List<ResetEvent> {
+        return resetLogDao.getByDay(DateUtils.toEpochDay(date)).map { it.toResetEvent() }
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
     override fun observeTodayWishCount(): Flow<WishUiState?> {
-        val today = DateUtils.getTodayString()
-        return wishDao.observeByDate(today).map { entity ->
-            entity?.let { WishUiState.fromEntity(it) }
+        // Singleton subscribers (PressIngestionBuffer) outlive a day, so follow midnight
+        return todayEpochDays().flatMapLatest { today ->
+            wishDao.observeByDate(today).map { entity ->
+                entity?.let { WishUiState.fromEntity(it) }
+            }
         }
     }
 
@@ -190,64 +258,109 @@ class WishRepositoryImpl @Inject constructor(
         targetCount: Int,
         activeWishIndex: Int
     ): WishUiState {
-        val today = DateUtils.getTodayString()
-        val existing = wishDao.getByDate(today)
-
-        val updatedEntity = existing?.updateWishes(
-            wishesData,
-            targetCount,
-            activeWishIndex.coerceIn(0, wishesData.size - 1)
-        ) ?: WishEntity.createWithWishes(
+        val updatedEntity = wishDao.replaceWishes(
+            epochDay = DateUtils.getTodayEpochDay(),
             wishes = wishesData,
             targetCount = targetCount,
-            activeIndex = activeWishIndex.coerceIn(0, wishesData.size - 1),
-            date = today
+            activeIndex = activeWishIndex
         )
-
-        wishDao.insert(updatedEntity)
         return WishUiState.fromEntity(updatedEntity)
     }
 
     override suspend fun setActiveWishIndex(index: Int): WishUiState {
-        val today = DateUtils.getTodayString()
-        val existing = wishDao.getByDate(today)
-            ?: throw IllegalStateException("No wish count found for today")
-
-        val wishes = existing.parseWishes()
-        val validIndex = index.coerceIn(0, wishes.size - 1)
-        val updatedEntity = existing.updateWishes(wishes, validIndex)
+        val today = DateUtils.getTodayEpochDay()
+        val slotCount = wishDao.getItemCount(today)
+        val validIndex = index.coerceIn(0, (slotCount - 1).coerceAtLeast(0))
 
-        wishDao.insert(updatedEntity)
-        return WishUiState.fromEntity(updatedEntity)
+        if (wishDao.setActiveSlot(today, validIndex) == 0) {
+            throw IllegalStateException("No wish count found for today")
+        }
+        return WishUiState.fromEntity(checkNotNull(wishDao.getByDate(today)))
     }
 
     override suspend fun getActiveWishIndex(): Int {
-        val today = DateUtils.getTodayString()
-        val existing = wishDao.getByDate(today)
+        val existing = wishDao.getByDate(DateUtils.getTodayEpochDay())
         return existing?.activeWishIndex ?: 0
     }
 
+    override suspend fun getActiveWish(): WishData? {
+        return wishDao.getActiveItem(DateUtils.getTodayEpochDay())?.toWishData()
+    }
+
     override suspend fun getTodayWishes(): List<WishData> {
-        val today = DateUtils.getTodayString()
-        val existing = wishDao.getByDate(today)
-        return existing?.parseWishes() ?: emptyList()
+        return wishDao.getItems(DateUtils.getTodayEpochDay()).map { it.toWishData() }
     }
 
-    override suspend fun getWishHistoryPaginated(page: Int, pageSize: Int): Pair<List<WishDayUiState>, com.wishring.app.presentation.home.PageInfo> {
-        val offset = page * pageSize
-        val totalCount = wishDao.getTotalCount()
-        
-        val entities = wishDao.getAllPaginated(limit = pageSize, offset = offset)
-        val dailyRecords = entities.map { entity ->
-            WishDayUiState.fromWishCount(WishUiState.fromEntity(entity))
+    @OptIn(ExperimentalCoroutinesApi::class)
+    override fun getWishHistoryPagingData(pageSize: Int): Flow<PagingData<WishDayUiState>> {
+        // 자정이 지나면 어제가 기록 목록에 들어오도록 새 Pager로 다시 구독
+        return todayEpochDays().flatMapLatest { today ->
+            val anchor = WishHistoryAnchor()
+            Pager(
+                config = PagingConfig(
+                    pageSize = pageSize,
+                    prefetchDistance = HISTORY_PREFETCH_DISTANCE,
+                    enablePlaceholders = true,
+                    initialLoadSize = pageSize,
+                    // 오래 스크롤해도 메모리에는 이 개수만 유지 (화면에서 먼 페이지는 버림)
+                    maxSize = pageSize * HISTORY_MAX_PAGES
+                ),
+                pagingSourceFactory = { WishHistoryPagingSource(database, wishDao, today, anchor) }
+            ).flow
+        }.map { pagingData ->
+            pagingData.map { row -> WishDayUiState.fromDayWithResets(row) }
         }
-        
-        val pageInfo = com.wishring.app.presentation.home.PageInfo(
-            currentPage = page,
-            hasNextPage = (offset + pageSize) < totalCount,
-            totalItems = totalCount
-        )
-        
-        return Pair(dailyRecords, pageInfo)
+    }
+
+    override fun observeAllTimeStats(): Flow<StatsRollupEntity?> {
+        return statsDao.observeAllTime()
+    }
+
+    override suspend fun getWeekStats(date: String): StatsRollupEntity? {
+        return statsDao.getWeek(StatsRollupEntity.weekKey(LocalDate.parse(date)))
+    }
+
+    override suspend fun getMonthStats(date: String): StatsRollupEntity? {
+        return statsDao.getMonth(StatsRollupEntity.monthKey(LocalDate.parse(date)))
+    }
+
+    override suspend fun getHourlyHeatmap(startDate: String, days: Int): IntArray {
+        val startDay = DateUtils.toEpochDay(startDate)
+        val heatmap = IntArray(days.coerceAtLeast(0) * HourlyPressCounts.SLOTS)
+        if (days <= 0) return heatmap
+
+        wishDao.getHourlyCountsBetween(startDay, startDay + days - 1).forEach { row ->
+            HourlyPressCounts.decodeInto(
+                row.hourlyCounts,
+                heatmap,
+                offset = (row.epochDay - startDay).toInt() * HourlyPressCounts.SLOTS
+            )
+        }
+        return heatmap
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    override fun observeStreak(): Flow<StreakSummary> {
+        return todayEpochDays().flatMapLatest { today ->
+            statsDao.observeStreak(today).map { snapshot -> StreakSummary.from(today, snapshot) }
+        }
+    }
+
+    /**
+     * Emits today's epoch day now and again at every local midnight
+     */
+    private fun todayEpochDays(): Flow<Long> = flow {
+        while (true) {
+            emit(DateUtils.getTodayEpochDay())
+            val now = LocalDateTime.now()
+            val nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay()
+            delay(Duration.between(now, nextMidnight).toMillis() + MIDNIGHT_SLACK_MS)
+        }
+    }.distinctUntilChanged()
+
+    companion object {
+        private const val MIDNIGHT_SLACK_MS = 50L
+        private const val HISTORY_PREFETCH_DISTANCE = 20
+        private const val HISTORY_MAX_PAGES = 4
     }
 }
\ No newline at end of file
@@ -2,6 +2,11 @@ package com.wishring.app.di
 
 import android.content.Context
 import com.wishring.app.data.local.database.WishRingDatabase
+import com.wishring.app.data.local.database.dao.EcgDao
+import com.wishring.app.data.local.database.dao.HealthChunkDao
+import com.wishring.app.data.local.database.dao.HealthHistoryDao
+import com.wishring.app.data.local.database.dao.ResetLogDao
+import com.wishring.app.data.local.database.dao.StatsDao
 import com.wishring.app.data.local.database.dao.WishDao
 import dagger.Module
 import dagger.Provides
@@ -67,6 +72,46 @@ object AppModule {
     fun provideWishDao(database: WishRingDatabase): WishDao {
         return database.wishDao()
     }
+
+    /**
+     * Provides StatsDao
+     */
+    @Provides
+    fun provideStatsDao(database: WishRingDatabase): StatsDao {
+        return database.statsDao()
+    }
+
+    /**
+     * Provides ResetLogDao
+     */
+    @Provides
+    fun provideResetLogDao(database: WishRingDatabase): ResetLogDao {
+        return database.resetLogDao()
+    }
+
+    /**
+     * Provides HealthHistoryDao
+     */
+    @Provides
+    fun provideHealthHistoryDao(database: WishRingDatabase): HealthHistoryDao {
+        return database.healthHistoryDao()
+    }
+
+    /**
+     * Provides HealthChunkDao
+     */
+    @Provides
+    fun provideHealthChunkDao(database: WishRingDatabase): HealthChunkDao {
+        return database.healthChunkDao()
+    }
+
+    /**
+     * Provides EcgDao
+     */
+    @Provides
+    fun provideEcgDao(database: WishRingDatabase): EcgDao {
+        return database.ecgDao()
+    }
 }
 
 /**
@@ -1,5 +1,11 @@
 package com.wishring.app.di
 
+import com.wishring.app.data.repository.EcgRepository
+import com.wishring.app.data.repository.EcgRepositoryImpl
+import com.wishring.app.data.repository.HealthHistoryRepository
+import com.wishring.app.data.repository.HealthHistoryRepositoryImpl
+import com.wishring.app.data.repository.HealthTimeSeriesRepository
+import com.wishring.app.data.repository.HealthTimeSeriesRepositoryImpl
 import com.wishring.app.data.repository.PreferencesRepository
 import com.wishring.app.data.repository.PreferencesRepositoryImpl
 import com.wishring.app.data.repository.WishRepository
@@ -35,5 +41,32 @@ abstract class RepositoryModule {
     abstract fun bindPreferencesRepository(
         preferencesRepositoryImpl: PreferencesRepositoryImpl
     ): PreferencesRepository
+
+    /**
+     * Binds HealthHistoryRepository implementation
+     */
+    @Binds
+    @Singleton
+    abstract fun bindHealthHistoryRepository(
+        healthHistoryRepositoryImpl: HealthHistoryRepositoryImpl
+    ): HealthHistoryRepository
+
+    /**
+     * Binds HealthTimeSeriesRepository implementation
+     */
+    @Binds
+    @Singleton
+    abstract fun bindHealthTimeSeriesRepository(
+        healthTimeSeriesRepositoryImpl: HealthTimeSeriesRepositoryImpl
+    ): HealthTimeSeriesRepository
+
+    /**
+     * Binds EcgRepository implementation
+     */
+    @Binds
+    @Singleton
+    abstract fun bindEcgRepository(
+        ecgRepositoryImpl: EcgRepositoryImpl
+    ): EcgRepository
     
 }
\ No newline at end of file
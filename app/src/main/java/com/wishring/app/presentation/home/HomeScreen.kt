@@ -27,14 +27,20 @@ import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.unit.dp
 import androidx.hilt.navigation.compose.hiltViewModel
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
+import androidx.paging.PagingData
+import androidx.paging.compose.LazyPagingItems
+import androidx.paging.compose.collectAsLazyPagingItems
 import com.wishring.app.MainActivity
+import com.wishring.app.R
 import com.wishring.app.core.util.ShareUtils
 import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.presentation.home.component.BleDevicePickerDialog
 import com.wishring.app.presentation.home.component.BluetoothConnectionStatus
+import com.wishring.app.presentation.home.component.EcgCaptureCard
 import com.wishring.app.presentation.home.component.FloatingBottomBar
 import com.wishring.app.presentation.home.component.WishHistorySection
 import com.wishring.app.presentation.home.component.TodayCountCard
+import com.wishring.app.presentation.home.component.VitalSignsCard
 import com.wishring.app.presentation.home.component.WishButton
 import com.wishring.app.presentation.home.component.LatestWishCard
 import com.wishring.app.presentation.home.component.WishRegistrationPrompt
@@ -44,6 +50,7 @@ import com.wishring.app.presentation.main.DeviceInfo
 import com.wishring.app.presentation.main.MainViewModel
 import com.wishring.app.presentation.main.MainViewModel.Companion.WR_EVENT
 import com.wishring.app.ui.theme.Purple_Primary
+import kotlinx.coroutines.flow.Flow
 import java.time.LocalDate
 
 @OptIn(ExperimentalMaterial3Api::class)
@@ -58,9 +65,7 @@ fun HomeScreen(
     val bleCommand by mainViewModel.bleCommand.collectAsStateWithLifecycle()
     
     // MainViewModel에서 위시 데이터 가져오기
-    val wishHistory = bleCommand.wishHistory
     val todayWish = bleCommand.todayWish
-    val pageInfo = bleCommand.pageInfo
     val isWishDataLoading = bleCommand.isWishDataLoading
     val wishDataError = bleCommand.wishDataError
     val deviceBatteryLevel = bleCommand.batteryLevel
@@ -73,35 +78,27 @@ fun HomeScreen(
     // HomeViewState를 MainViewModel 데이터로 구성
     val uiState = when {
         !isConnected -> HomeViewState.BluetoothDisconnected(
-            wishHistory = wishHistory,
             todayWish = todayWish,
             isLoading = isWishDataLoading,
             error = wishDataError,
-            pageInfo = null, // 연결 해제 시에는 null
             deviceBatteryLevel = deviceBatteryLevel
         )
         todayWish == null || (todayWish.targetCount == 0) -> HomeViewState.ConnectedNoWishes(
-            wishHistory = wishHistory,
             todayWish = todayWish,
             isLoading = isWishDataLoading,
             error = wishDataError,
-            pageInfo = pageInfo,
             deviceBatteryLevel = deviceBatteryLevel
         )
         todayWish.currentCount < todayWish.targetCount && todayWish.currentCount < (todayWish.targetCount * 0.8f) -> HomeViewState.ConnectedPartialWishes(
-            wishHistory = wishHistory,
             todayWish = todayWish,
             isLoading = isWishDataLoading,
             error = wishDataError,
-            pageInfo = pageInfo,
             deviceBatteryLevel = deviceBatteryLevel
         )
         else -> HomeViewState.ConnectedFullWishes(
-            wishHistory = wishHistory,
             todayWish = todayWish,
             isLoading = isWishDataLoading,
             error = wishDataError,
-            pageInfo = pageInfo,
             deviceBatteryLevel = deviceBatteryLevel
         )
     }
@@ -212,10 +209,7 @@ fun HomeScreen(
         }
     }
 
-    // Load initial data
     LaunchedEffect(Unit) {
-        mainViewModel.loadInitialWishData()
-        
         // 연결된 상태에서 HomeScreen 진입 시 배터리 정보 적극적으로 요청
         if (isConnected) {
             Log.d("HomeScreen", "[배터리] HomeScreen 진입 - 연결된 상태에서 배터리 정보 요청")
@@ -243,6 +237,7 @@ fun HomeScreen(
 
     HomeScreenContent(
         uiState = uiState,
+        wishHistory = mainViewModel.wishHistory,
         onEvent = onEvent,
         scannedDevices = scannedDevices,
         showDevicePicker = showDevicePicker,
@@ -257,6 +252,7 @@ fun HomeScreen(
 @Composable
 fun HomeScreenContent(
     uiState: HomeViewState,
+    wishHistory: Flow<PagingData<WishDayUiState>>,
     onEvent: (HomeEvent) -> Unit,
     scannedDevices: List<DeviceInfo>,
     showDevicePicker: Boolean,
@@ -265,6 +261,9 @@ fun HomeScreenContent(
     mainViewModel: MainViewModel = hiltViewModel<MainViewModel>(),
     modifier: Modifier = Modifier
 ) {
+    // 연결 상태가 바뀌어도 로드된 페이지가 유지되도록 상위에서 수집
+    val historyItems = wishHistory.collectAsLazyPagingItems()
+
     when (uiState) {
         is HomeViewState.BluetoothDisconnected -> {
             BluetoothDisconnectedContent(
@@ -282,6 +281,7 @@ fun HomeScreenContent(
         is HomeViewState.ConnectedNoWishes -> {
             ConnectedNoWishesContent(
                 uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
                 mainViewModel = mainViewModel,
                 modifier = modifier
@@ -291,6 +291,7 @@ fun HomeScreenContent(
         is HomeViewState.ConnectedPartialWishes -> {
             ConnectedPartialWishesContent(
                 uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
                 mainViewModel = mainViewModel,
                 modifier = modifier
@@ -300,6 +301,7 @@ fun HomeScreenContent(
         is HomeViewState.ConnectedFullWishes -> {
             ConnectedFullWishesContent(
                 uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
                 mainViewModel = mainViewModel,
                 modifier = modifier
@@ -453,6 +455,7 @@ private fun BluetoothDisconnectedContent(
 @Composable
 private fun ConnectedNoWishesContent(
     uiState: HomeViewState.ConnectedNoWishes,
+    historyItems: LazyPagingItems<WishDayUiState>,
     onEvent: (HomeEvent) -> Unit,
     mainViewModel: MainViewModel,
     modifier: Modifier = Modifier
@@ -500,6 +503,11 @@ private fun ConnectedNoWishesContent(
                 Spacer(modifier = Modifier.height(20.dp))
             }
 
+            // 건강 측정 (ECG, 연속 측정)
+            HealthMonitorSection(mainViewModel = mainViewModel)
+
+            Spacer(modifier = Modifier.height(20.dp))
+
             // 완전히 비어있는 상태 - WishRegistrationPrompt
             WishRegistrationPrompt(
                 onClick = { onEvent(HomeEvent.NavigateToWishInput) },
@@ -509,10 +517,11 @@ private fun ConnectedNoWishesContent(
             Spacer(modifier = Modifier.height(20.dp))
 
             // Report Card (with infinite scroll)
+            val reportSummary by mainViewModel.reportSummary.collectAsStateWithLifecycle()
             WishHistorySection(
-                uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
-                onLoadMore = { mainViewModel.loadMoreWishes() }
+                summary = reportSummary
             )
 
             Spacer(modifier = Modifier.height(20.dp))
@@ -538,6 +547,7 @@ private fun ConnectedNoWishesContent(
 @Composable
 private fun ConnectedPartialWishesContent(
     uiState: HomeViewState.ConnectedPartialWishes,
+    historyItems: LazyPagingItems<WishDayUiState>,
     onEvent: (HomeEvent) -> Unit,
     mainViewModel: MainViewModel,
     modifier: Modifier = Modifier
@@ -585,6 +595,11 @@ private fun ConnectedPartialWishesContent(
                 Spacer(modifier = Modifier.height(20.dp))
             }
 
+            // 건강 측정 (ECG, 연속 측정)
+            HealthMonitorSection(mainViewModel = mainViewModel)
+
+            Spacer(modifier = Modifier.height(20.dp))
+
             // 부분적인 상태 - WishButton
             WishButton(
                 onClick = { onEvent(HomeEvent.NavigateToWishInput) }
@@ -593,10 +608,11 @@ private fun ConnectedPartialWishesContent(
             Spacer(modifier = Modifier.height(20.dp))
 
             // Report Card (with infinite scroll)
+            val reportSummary by mainViewModel.reportSummary.collectAsStateWithLifecycle()
             WishHistorySection(
-                uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
-                onLoadMore = { mainViewModel.loadMoreWishes() }
+                summary = reportSummary
             )
 
             Spacer(modifier = Modifier.height(20.dp))
@@ -623,6 +639,7 @@ private fun ConnectedPartialWishesContent(
 @Composable
 private fun ConnectedFullWishesContent(
     uiState: HomeViewState.ConnectedFullWishes,
+    historyItems: LazyPagingItems<WishDayUiState>,
     onEvent: (HomeEvent) -> Unit,
     mainViewModel: MainViewModel,
     modifier: Modifier = Modifier
@@ -670,13 +687,17 @@ private fun ConnectedFullWishesContent(
                 Spacer(modifier = Modifier.height(20.dp))
             }
 
+            // 건강 측정 (ECG, 연속 측정)
+            HealthMonitorSection(mainViewModel = mainViewModel)
+
             Spacer(modifier = Modifier.height(20.dp))
 
             // Report Card (with infinite scroll)
+            val reportSummary by mainViewModel.reportSummary.collectAsStateWithLifecycle()
             WishHistorySection(
-                uiState = uiState,
+                historyItems = historyItems,
                 onEvent = onEvent,
-                onLoadMore = { mainViewModel.loadMoreWishes() }
+                summary = reportSummary
             )
 
             Spacer(modifier = Modifier.height(20.dp))
@@ -700,6 +721,49 @@ private fun ConnectedFullWishesContent(
     }
 }
 
+/**
+ * 연결된 상태에서만 보이는 건강 측정 카드
+ */
+@Composable
+private fun HealthMonitorSection(mainViewModel: MainViewModel) {
+    val context = LocalContext.current
+    val ecgMetrics by mainViewModel.ecgMetrics.collectAsStateWithLifecycle()
+    val vitalSigns by mainViewModel.vitalSigns.collectAsStateWithLifecycle()
+    val bleCommand by mainViewModel.bleCommand.collectAsStateWithLifecycle()
+
+    EcgCaptureCard(
+        samples = mainViewModel.ecgSamples,
+        metrics = ecgMetrics,
+        onStartClick = {
+            if (!mainViewModel.startEcgCapture()) {
+                android.widget.Toast.makeText(
+                    context,
+                    context.getString(R.string.ecg_start_failed),
+                    android.widget.Toast.LENGTH_SHORT
+                ).show()
+            }
+        },
+        onStopClick = { mainViewModel.stopEcgCapture() }
+    )
+
+    Spacer(modifier = Modifier.height(20.dp))
+
+    VitalSignsCard(
+        snapshot = vitalSigns,
+        alert = bleCommand.vitalAlert,
+        onStartClick = {
+            if (!mainViewModel.startVitalMonitoring()) {
+                android.widget.Toast.makeText(
+                    context,
+                    context.getString(R.string.vital_start_failed),
+                    android.widget.Toast.LENGTH_SHORT
+                ).show()
+            }
+        },
+        onStopClick = { mainViewModel.stopVitalMonitoring() }
+    )
+}
+
 @Composable
 private fun ConnectedContentOverlays(
     uiState: HomeViewState,
@@ -1,40 +1,26 @@
 package com.wishring.app.presentation.home
 
 import com.wishring.app.data.model.WishUiState
-import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.presentation.main.DeviceInfo
 
-/**
- * Pagination information for wish history
- */
-data class PageInfo(
-    val currentPage: Int = 0,
-    val hasNextPage: Boolean = false,
-    val totalItems: Int = 0
-)
-
 /**
  * ViewState for Home screen using sealed class architecture
  * Represents different UI states based on bluetooth connection and wish data
  */
 sealed class HomeViewState {
     // Abstract common properties
-    abstract val wishHistory: List<WishDayUiState>
     abstract val todayWish: WishUiState?
     abstract val isLoading: Boolean
     abstract val error: String?
-    abstract val pageInfo: PageInfo?  // nullable for disconnected state
     abstract val deviceBatteryLevel: Int?
     
     /**
      * Bluetooth disconnected state - only show connection UI
      */
     data class BluetoothDisconnected(
-        override val wishHistory: List<WishDayUiState> = emptyList(),
         override val todayWish: WishUiState? = null,
         override val isLoading: Boolean = false,
         override val error: String? = null,
-        override val pageInfo: PageInfo? = null, // always null when disconnected
         override val deviceBatteryLevel: Int? = null,
         // Disconnected-specific properties
         val showBleDevicePicker: Boolean = false,
@@ -61,11 +47,9 @@ sealed class HomeViewState {
      * Connected with no wishes (0 wishes) - show registration prompt
      */
     data class ConnectedNoWishes(
-        override val wishHistory: List<WishDayUiState> = emptyList(),
         override val todayWish: WishUiState? = null,
         override val isLoading: Boolean = false,
         override val error: String? = null,
-        override val pageInfo: PageInfo? = null,
         override val deviceBatteryLevel: Int? = null,
         // Share functionality
         val isSharing: Boolean = false,
@@ -76,11 +60,9 @@ sealed class HomeViewState {
      * Connected with partial wishes (1-2 wishes) - show wish button
      */
     data class ConnectedPartialWishes(
-        override val wishHistory: List<WishDayUiState> = emptyList(),
         override val todayWish: WishUiState? = null,
         override val isLoading: Boolean = false,
         override val error: String? = null,
-        override val pageInfo: PageInfo? = null,
         override val deviceBatteryLevel: Int? = null,
         // Share functionality
         val isSharing: Boolean = false,
@@ -91,11 +73,9 @@ sealed class HomeViewState {
      * Connected with full wishes (3+ wishes) - no additional buttons
      */
     data class ConnectedFullWishes(
-        override val wishHistory: List<WishDayUiState> = emptyList(),
         override val todayWish: WishUiState? = null,
         override val isLoading: Boolean = false,
         override val error: String? = null,
-        override val pageInfo: PageInfo? = null,
         override val deviceBatteryLevel: Int? = null,
         val showCompletionAnimation: Boolean = false,
         // Share functionality
@@ -0,0 +1,173 @@
+package com.wishring.app.presentation.home.component
+
+import androidx.compose.foundation.Canvas
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.Spacer
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.height
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.shape.RoundedCornerShape
+import androidx.compose.material3.Button
+import androidx.compose.material3.ButtonDefaults
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Surface
+import androidx.compose.material3.Text
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableLongStateOf
+import androidx.compose.runtime.remember
+import androidx.compose.runtime.setValue
+import androidx.compose.runtime.withFrameNanos
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.graphics.Path
+import androidx.compose.ui.graphics.drawscope.Stroke
+import androidx.compose.ui.res.stringResource
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import com.wishring.app.R
+import com.wishring.app.ble.EcgCaptureSession
+import com.wishring.app.ble.EcgSampleRing
+import com.wishring.app.ble.model.EcgCaptureMetrics
+import com.wishring.app.ui.theme.Purple_Medium
+
+// 화면에 그리는 최근 구간 (4초)
+private const val WINDOW_SAMPLES = EcgCaptureSession.SAMPLE_RATE_HZ * 4
+
+/**
+ * ECG 측정 카드 - 시작/종료 버튼과 실시간 파형
+ */
+@Composable
+fun EcgCaptureCard(
+    samples: EcgSampleRing,
+    metrics: EcgCaptureMetrics,
+    onStartClick: () -> Unit,
+    onStopClick: () -> Unit,
+    modifier: Modifier = Modifier
+) {
+    Surface(
+        modifier = modifier.fillMaxWidth(),
+        shape = RoundedCornerShape(10.dp),
+        color = Color.White,
+        shadowElevation = 4.dp
+    ) {
+        Column(
+            modifier = Modifier.padding(20.dp)
+        ) {
+            Row(
+                modifier = Modifier.fillMaxWidth(),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                Text(
+                    text = stringResource(id = R.string.ecg_title),
+                    color = Color(0xFF333333),
+                    fontSize = 16.sp,
+                    fontWeight = FontWeight.Medium,
+                    modifier = Modifier.weight(1f)
+                )
+                if (metrics.isCapturing && metrics.heartRate > 0) {
+                    Text(
+                        text = stringResource(id = R.string.heart_rate_bpm, metrics.heartRate),
+                        color = Color(0xFF333333),
+                        fontSize = 16.sp,
+                        fontWeight = FontWeight.Bold
+                    )
+                }
+            }
+
+            Spacer(modifier = Modifier.height(12.dp))
+
+            EcgWaveform(
+                samples = samples,
+                isCapturing = metrics.isCapturing,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .height(120.dp)
+            )
+
+            Spacer(modifier = Modifier.height(12.dp))
+
+            Button(
+                onClick = if (metrics.isCapturing) onStopClick else onStartClick,
+                colors = ButtonDefaults.buttonColors(
+                    containerColor = Purple_Medium
+                ),
+                shape = RoundedCornerShape(8.dp),
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .height(44.dp)
+            ) {
+                Text(
+                    text = stringResource(
+                        id = if (metrics.isCapturing) R.string.ecg_stop else R.string.ecg_start
+                    ),
+                    style = MaterialTheme.typography.labelLarge.copy(
+                        fontSize = 15.sp,
+                        fontWeight = FontWeight.Bold
+                    ),
+                    color = Color.White
+                )
+            }
+        }
+    }
+}
+
+/**
+ * 링 버퍼의 최근 [WINDOW_SAMPLES]개를 그린다
+ * 프레임마다 [EcgSampleRing.written]만 상태로 옮기므로 그리기 단계만 다시 실행되고,
+ * 샘플은 [EcgSampleRing.sampleAt]으로 버퍼에서 바로 읽어 배열을 복사하지 않는다
+ * 받지 못한 구간([EcgSampleRing.GAP])은 선을 끊어 비워 둔다
+ */
+@Composable
+private fun EcgWaveform(
+    samples: EcgSampleRing,
+    isCapturing: Boolean,
+    modifier: Modifier = Modifier
+) {
+    var written by remember { mutableLongStateOf(samples.written) }
+    LaunchedEffect(samples, isCapturing) {
+        written = samples.written
+        while (isCapturing) {
+            withFrameNanos { written = samples.written }
+        }
+    }
+    val path = remember { Path() }
+
+    Canvas(modifier = modifier) {
+        val end = written
+        val start = maxOf(end - WINDOW_SAMPLES, end - samples.capacity, 0L)
+        val count = (end - start).toInt()
+        if (count < 2) return@Canvas
+
+        var min = Int.MAX_VALUE
+        var max = Int.MIN_VALUE
+        for (index in start until end) {
+            val value = samples.sampleAt(index)
+            if (value == EcgSampleRing.GAP) continue
+            if (value < min) min = value
+            if (value > max) max = value
+        }
+        if (min > max) return@Canvas
+        val range = (max - min).coerceAtLeast(1).toFloat()
+        val step = size.width / (WINDOW_SAMPLES - 1)
+
+        path.reset()
+        var penDown = false
+        for (i in 0 until count) {
+            val value = samples.sampleAt(start + i)
+            if (value == EcgSampleRing.GAP) {
+                penDown = false
+                continue
+            }
+            val x = i * step
+            val y = size.height - (value - min) / range * size.height
+            if (penDown) path.lineTo(x, y) else path.moveTo(x, y)
+            penDown = true
+        }
+        drawPath(path = path, color = Purple_Medium, style = Stroke(width = 2.dp.toPx()))
+    }
+}
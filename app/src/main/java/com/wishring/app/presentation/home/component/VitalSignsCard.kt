@@ -0,0 +1,143 @@
+package com.wishring.app.presentation.home.component
+
+import androidx.compose.foundation.background
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.Spacer
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.height
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.shape.RoundedCornerShape
+import androidx.compose.material3.Button
+import androidx.compose.material3.ButtonDefaults
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Surface
+import androidx.compose.material3.Text
+import androidx.compose.runtime.Composable
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.res.stringResource
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import com.wishring.app.R
+import com.wishring.app.ble.model.VitalAlert
+import com.wishring.app.ble.model.VitalAlertLevel
+import com.wishring.app.ble.model.VitalSignsSnapshot
+import com.wishring.app.ble.model.VitalStats
+import com.wishring.app.data.model.HealthRecordType
+import com.wishring.app.ui.theme.Purple_Medium
+
+/**
+ * 연속 측정 카드 - 지표별 최근 윈도우 통계, 임계값 알림, 시작/종료 버튼
+ */
+@Composable
+fun VitalSignsCard(
+    snapshot: VitalSignsSnapshot,
+    alert: VitalAlert?,
+    onStartClick: () -> Unit,
+    onStopClick: () -> Unit,
+    modifier: Modifier = Modifier
+) {
+    Surface(
+        modifier = modifier.fillMaxWidth(),
+        shape = RoundedCornerShape(10.dp),
+        color = Color.White,
+        shadowElevation = 4.dp
+    ) {
+        Column(
+            modifier = Modifier.padding(20.dp)
+        ) {
+            Text(
+                text = stringResource(id = R.string.vital_title),
+                color = Color(0xFF333333),
+                fontSize = 16.sp,
+                fontWeight = FontWeight.Medium
+            )
+
+            alert?.let {
+                Spacer(modifier = Modifier.height(12.dp))
+                Text(
+                    text = alertText(it),
+                    color = Color.White,
+                    fontSize = 14.sp,
+                    fontWeight = FontWeight.Bold,
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .background(Color(0xFFE5484D), RoundedCornerShape(8.dp))
+                        .padding(horizontal = 12.dp, vertical = 8.dp)
+                )
+            }
+
+            if (snapshot.isMonitoring) {
+                Spacer(modifier = Modifier.height(12.dp))
+                VitalRow(stringResource(id = R.string.vital_heart_rate), snapshot.heartRate, "bpm")
+                VitalRow(stringResource(id = R.string.vital_blood_oxygen), snapshot.bloodOxygen, "%")
+                VitalRow(stringResource(id = R.string.vital_cadence), snapshot.stepCadence, "/min")
+                snapshot.totalSteps?.let { steps ->
+                    VitalValueRow(stringResource(id = R.string.vital_total_steps), steps.toString())
+                }
+            }
+
+            Spacer(modifier = Modifier.height(12.dp))
+
+            Button(
+                onClick = if (snapshot.isMonitoring) onStopClick else onStartClick,
+                colors = ButtonDefaults.buttonColors(
+                    containerColor = Purple_Medium
+                ),
+                shape = RoundedCornerShape(8.dp),
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .height(44.dp)
+            ) {
+                Text(
+                    text = stringResource(
+                        id = if (snapshot.isMonitoring) R.string.vital_stop else R.string.vital_start
+                    ),
+                    style = MaterialTheme.typography.labelLarge.copy(
+                        fontSize = 15.sp,
+                        fontWeight = FontWeight.Bold
+                    ),
+                    color = Color.White
+                )
+            }
+        }
+    }
+}
+
+@Composable
+private fun VitalRow(label: String, stats: VitalStats?, unit: String) {
+    VitalValueRow(
+        label = label,
+        value = stats?.let { "${it.latest}$unit (${it.min}~${it.max})" } ?: "-"
+    )
+}
+
+@Composable
+private fun VitalValueRow(label: String, value: String) {
+    Row(
+        modifier = Modifier
+            .fillMaxWidth()
+            .padding(vertical = 4.dp),
+        horizontalArrangement = Arrangement.SpaceBetween,
+        verticalAlignment = Alignment.CenterVertically
+    ) {
+        Text(text = label, color = Color(0xFF666666), fontSize = 14.sp)
+        Text(text = value, color = Color(0xFF333333), fontSize = 14.sp, fontWeight = FontWeight.Bold)
+    }
+}
+
+@Composable
+private fun alertText(alert: VitalAlert): String {
+    val metric = when (alert.metric) {
+        HealthRecordType.BLOOD_OXYGEN -> stringResource(id = R.string.vital_blood_oxygen)
+        else -> stringResource(id = R.string.vital_heart_rate)
+    }
+    val level = stringResource(
+        id = if (alert.level == VitalAlertLevel.LOW) R.string.vital_alert_low else R.string.vital_alert_high
+    )
+    return "$metric $level (${alert.value})"
+}
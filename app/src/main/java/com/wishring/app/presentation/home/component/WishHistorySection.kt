@@ -1,8 +1,11 @@
 package com.wishring.app.presentation.home.component
 
+import androidx.compose.foundation.clickable
 import androidx.compose.foundation.layout.Arrangement
 import androidx.compose.foundation.layout.Box
 import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.Spacer
 import androidx.compose.foundation.layout.fillMaxSize
 import androidx.compose.foundation.layout.fillMaxWidth
 import androidx.compose.foundation.layout.height
@@ -16,9 +19,6 @@ import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Surface
 import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
-import androidx.compose.runtime.LaunchedEffect
-import androidx.compose.runtime.derivedStateOf
-import androidx.compose.runtime.remember
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
@@ -29,39 +29,33 @@ import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.withStyle
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import androidx.paging.LoadState
+import androidx.paging.compose.LazyPagingItems
+import androidx.paging.compose.itemKey
+import com.wishring.app.data.model.ReportSummary
+import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.presentation.home.HomeEvent
-import com.wishring.app.presentation.home.HomeViewState
 import com.wishring.app.ui.theme.Text_Primary
 import com.wishring.app.ui.theme.Text_Secondary
 
+/**
+ * 지난 위시 리포트 목록
+ *
+ * Paging 3 [LazyPagingItems]를 그대로 렌더링한다. 스크롤 끝 감지/추가 로드는 Pager가
+ * prefetchDistance 기준으로 처리하고, 화면에서 먼 페이지는 maxSize를 넘으면 버려진다.
+ * 아직 로드되지 않은 위치는 placeholder(null)로 자리만 차지한다.
+ * 제목 아래 요약([summary])은 stats_rollup 집계값이라 목록을 불러오지 않아도 전체 기간 기준이다.
+ */
 @Composable
 fun WishHistorySection(
-    uiState: HomeViewState,
+    historyItems: LazyPagingItems<WishDayUiState>,
     onEvent: (HomeEvent) -> Unit,
-    onLoadMore: () -> Unit,
-    modifier: Modifier = Modifier
+    modifier: Modifier = Modifier,
+    summary: ReportSummary? = null
 ) {
     val lazyListState = rememberLazyListState()
-
-    // Detect when to load more
-    val shouldLoadMore = remember {
-        derivedStateOf {
-            val layoutInfo = lazyListState.layoutInfo
-            val totalItemsNumber = layoutInfo.totalItemsCount
-            val lastVisibleItemIndex = (layoutInfo.visibleItemsInfo.lastOrNull()?.index ?: 0) + 1
-
-            // Load more when we're within 20 items of the end
-            lastVisibleItemIndex > (totalItemsNumber - 20) &&
-                    uiState.pageInfo?.hasNextPage == true &&
-                    !uiState.isLoading
-        }
-    }
-
-    LaunchedEffect(shouldLoadMore.value) {
-        if (shouldLoadMore.value) {
-            onLoadMore()
-        }
-    }
+    val refreshState = historyItems.loadState.refresh
+    val isAppending = historyItems.loadState.append is LoadState.Loading
 
     Surface(
         modifier = modifier.fillMaxWidth(),
@@ -90,8 +84,15 @@ fun WishHistorySection(
                 modifier = Modifier.padding(bottom = 16.dp)
             )
 
+            if (summary != null && summary.recordedDays > 0) {
+                ReportSummaryRow(
+                    summary = summary,
+                    modifier = Modifier.padding(bottom = 16.dp)
+                )
+            }
+
             // Report content with LazyColumn for wish history
-            if (uiState.wishHistory.isEmpty()) {
+            if (historyItems.itemCount == 0 && refreshState is LoadState.NotLoading) {
                 Box(
                     contentAlignment = Alignment.Center,
                     modifier = Modifier
@@ -105,6 +106,21 @@ fun WishHistorySection(
                         textAlign = TextAlign.Center
                     )
                 }
+            } else if (refreshState is LoadState.Error && historyItems.itemCount == 0) {
+                Box(
+                    contentAlignment = Alignment.Center,
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .height(200.dp)
+                ) {
+                    Text(
+                        text = "데이터를 불러오는 중 오류가 발생했습니다",
+                        style = MaterialTheme.typography.bodyMedium,
+                        color = Text_Secondary,
+                        textAlign = TextAlign.Center,
+                        modifier = Modifier.clickable { historyItems.retry() }
+                    )
+                }
             } else {
                 LazyColumn(
                     state = lazyListState,
@@ -113,18 +129,30 @@ fun WishHistorySection(
                         .height(200.dp),
                     verticalArrangement = Arrangement.spacedBy(8.dp)
                 ) {
-                    items(uiState.wishHistory.size) { index ->
-                        val record = uiState.wishHistory[index]
-                        WishHistoryItem(
-                            record = record,
-                            onClick = {
-                                onEvent(HomeEvent.NavigateToDetail(record.dateString))
-                            }
-                        )
+                    items(
+                        count = historyItems.itemCount,
+                        key = historyItems.itemKey { it.dateString }
+                    ) { index ->
+                        val record = historyItems[index]
+                        if (record != null) {
+                            WishHistoryItem(
+                                record = record,
+                                onClick = {
+                                    onEvent(HomeEvent.NavigateToDetail(record.dateString))
+                                }
+                            )
+                        } else {
+                            // Placeholder - 아직 로드되지 않은 위치
+                            Spacer(
+                                modifier = Modifier
+                                    .fillMaxWidth()
+                                    .height(PLACEHOLDER_HEIGHT)
+                            )
+                        }
                     }
 
                     // Loading indicator at the bottom
-                    if (uiState.isLoading && uiState.pageInfo?.hasNextPage == true) {
+                    if (isAppending || refreshState is LoadState.Loading) {
                         item {
                             Box(
                                 modifier = Modifier
@@ -143,4 +171,44 @@ fun WishHistorySection(
             }
         }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * 전체 기간 요약 - 누적 횟수, 기록한 날, 목표 달성한 날, 연속 달성
+ */
+@Composable
+private fun ReportSummaryRow(
+    summary: ReportSummary,
+    modifier: Modifier = Modifier
+) {
+    Row(
+        modifier = modifier.fillMaxWidth(),
+        horizontalArrangement = Arrangement.SpaceBetween
+    ) {
+        ReportSummaryItem(label = "누적", value = "${summary.totalCount}회")
+        ReportSummaryItem(label = "기록", value = "${summary.recordedDays}일")
+        ReportSummaryItem(label = "달성", value = "${summary.completedDays}일")
+        ReportSummaryItem(label = "연속", value = "${summary.currentStreak}일")
+    }
+}
+
+@Composable
+private fun ReportSummaryItem(label: String, value: String) {
+    Column(horizontalAlignment = Alignment.CenterHorizontally) {
+        Text(
+            text = value,
+            style = MaterialTheme.typography.titleSmall.copy(
+                fontSize = 15.sp,
+                fontWeight = FontWeight.Bold
+            ),
+            color = Color(0xFF6A5ACD)
+        )
+        Text(
+            text = label,
+            style = MaterialTheme.typography.bodySmall.copy(fontSize = 12.sp),
+            color = Text_Secondary
+        )
+    }
+}
+
+private val PLACEHOLDER_HEIGHT = 56.dp
@@ -2,13 +2,14 @@ package com.wishring.app.presentation.home.preview
 
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.tooling.preview.Preview
+import androidx.paging.PagingData
 import com.wishring.app.data.model.WishUiState
 import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.presentation.home.HomeScreenContent
 import com.wishring.app.presentation.home.HomeViewState
-import com.wishring.app.presentation.home.PageInfo
 import com.wishring.app.presentation.main.BlePhase
 import com.wishring.app.ui.theme.WishRingTheme
+import kotlinx.coroutines.flow.flowOf
 import java.time.LocalDate
 
 @Preview(showBackground = true, name = "Zero Wishes State")
@@ -19,10 +20,9 @@ private fun HomeScreenZeroWishesPreview() {
             uiState = HomeViewState.ConnectedNoWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = emptyList(),
-                deviceBatteryLevel = 15,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 0)
+                deviceBatteryLevel = 15
             ),
+            wishHistory = flowOf(PagingData.from(emptyList<WishDayUiState>())),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -48,10 +48,9 @@ private fun HomeScreenPreview() {
                     createdAt = System.currentTimeMillis(),
                     updatedAt = System.currentTimeMillis()
                 ),
-                wishHistory = generateDummyRecords(),
-                deviceBatteryLevel = 76,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = true, totalItems = 10)
+                deviceBatteryLevel = 76
             ),
+            wishHistory = flowOf(PagingData.from(generateDummyRecords())),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -69,10 +68,9 @@ private fun HomeScreenConnectedNoWishesPreview() {
             uiState = HomeViewState.ConnectedNoWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = emptyList(),
-                deviceBatteryLevel = 85,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 0)
+                deviceBatteryLevel = 85
             ),
+            wishHistory = flowOf(PagingData.from(emptyList<WishDayUiState>())),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -90,10 +88,9 @@ private fun HomeScreenOneWishWithButtonPreview() {
             uiState = HomeViewState.ConnectedPartialWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = generateDummyRecords().take(1),
-                deviceBatteryLevel = 80,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 1)
+                deviceBatteryLevel = 80
             ),
+            wishHistory = flowOf(PagingData.from(generateDummyRecords().take(1))),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -111,10 +108,9 @@ private fun HomeScreenTwoWishesWithButtonPreview() {
             uiState = HomeViewState.ConnectedPartialWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = generateDummyRecords().take(2),
-                deviceBatteryLevel = 60,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 2)
+                deviceBatteryLevel = 60
             ),
+            wishHistory = flowOf(PagingData.from(generateDummyRecords().take(2))),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -140,10 +136,9 @@ private fun HomeScreenOneWishCompletePreview() {
                     createdAt = System.currentTimeMillis(),
                     updatedAt = System.currentTimeMillis()
                 ),
-                wishHistory = generateDummyRecords().take(1),
-                deviceBatteryLevel = 85,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 1)
+                deviceBatteryLevel = 85
             ),
+            wishHistory = flowOf(PagingData.from(generateDummyRecords().take(1))),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -161,18 +156,17 @@ private fun HomeScreenLongWishTextPreview() {
             uiState = HomeViewState.ConnectedPartialWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = listOf(
-                    WishDayUiState(
-                        date = LocalDate.now(),
-                        completedCount = 750,
-                        wishText = "나는 매일 아침 일찍 일어나서 운동을 하고, 건강한 아침 식사를 먹고, 독서를 통해 새로운 지식을 습득하며, 가족과 소중한 시간을 보내고, 일에서도 최선을 다하여 더 나은 내가 되기 위해 끊임없이 노력하고 성장하는 사람이 되고 싶다.",
-                        targetCount = 1000,
-                        isCompleted = false
-                    )
-                ),
-                deviceBatteryLevel = 70,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 1)
+                deviceBatteryLevel = 70
             ),
+            wishHistory = flowOf(PagingData.from(listOf(
+                WishDayUiState(
+                    date = LocalDate.now(),
+                    completedCount = 750,
+                    wishText = "나는 매일 아침 일찍 일어나서 운동을 하고, 건강한 아침 식사를 먹고, 독서를 통해 새로운 지식을 습득하며, 가족과 소중한 시간을 보내고, 일에서도 최선을 다하여 더 나은 내가 되기 위해 끊임없이 노력하고 성장하는 사람이 되고 싶다.",
+                    targetCount = 1000,
+                    isCompleted = false
+                )
+            ))),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -190,10 +184,9 @@ private fun HomeScreenThreeWishesPreview() {
             uiState = HomeViewState.ConnectedFullWishes(
                 isLoading = false,
                 todayWish = null,
-                wishHistory = generateDummyRecords().take(3),
-                deviceBatteryLevel = 90,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = true, totalItems = 10)
+                deviceBatteryLevel = 90
             ),
+            wishHistory = flowOf(PagingData.from(generateDummyRecords().take(3))),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
@@ -222,6 +215,7 @@ private fun HomeScreenLoadingPreview() {
                 deviceBatteryLevel = 50,
                 isAttemptingConnection = true
             ),
+            wishHistory = flowOf(PagingData.from(emptyList<WishDayUiState>())),
             onEvent = { /* Preview - no action */ },
             scannedDevices = emptyList(),
             showDevicePicker = false,
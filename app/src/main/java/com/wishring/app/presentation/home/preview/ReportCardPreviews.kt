@@ -2,11 +2,14 @@ package com.wishring.app.presentation.home.preview
 
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.tooling.preview.Preview
+import androidx.paging.LoadState
+import androidx.paging.LoadStates
+import androidx.paging.PagingData
+import androidx.paging.compose.collectAsLazyPagingItems
 import com.wishring.app.data.model.WishDayUiState
-import com.wishring.app.presentation.home.HomeViewState
-import com.wishring.app.presentation.home.PageInfo
 import com.wishring.app.presentation.home.component.WishHistorySection
 import com.wishring.app.ui.theme.WishRingTheme
+import kotlinx.coroutines.flow.flowOf
 import java.time.LocalDate
 
 @Preview(showBackground = true, name = "ReportCard - Empty")
@@ -14,16 +17,8 @@ import java.time.LocalDate
 private fun ReportCardEmptyPreview() {
     WishRingTheme {
         WishHistorySection(
-            uiState = HomeViewState.ConnectedNoWishes(
-                wishHistory = emptyList(),
-                todayWish = null,
-                isLoading = false,
-                error = null,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 0),
-                deviceBatteryLevel = 80
-            ),
-            onEvent = { /* Preview - no action */ },
-            onLoadMore = { /* Preview - no action */ }
+            historyItems = flowOf(PagingData.from(emptyList<WishDayUiState>())).collectAsLazyPagingItems(),
+            onEvent = { /* Preview - no action */ }
         )
     }
 }
@@ -33,38 +28,30 @@ private fun ReportCardEmptyPreview() {
 private fun ReportCardThreeItemsPreview() {
     WishRingTheme {
         WishHistorySection(
-            uiState = HomeViewState.ConnectedPartialWishes(
-                wishHistory = listOf(
-                    WishDayUiState(
-                        date = LocalDate.now().minusDays(1),
-                        completedCount = 1000,
-                        wishText = "매일 아침 6시에 일어나서 운동하기",
-                        targetCount = 1000,
-                        isCompleted = true
-                    ),
-                    WishDayUiState(
-                        date = LocalDate.now().minusDays(2),
-                        completedCount = 750,
-                        wishText = "하루에 책 30페이지 읽기",
-                        targetCount = 1000,
-                        isCompleted = false
-                    ),
-                    WishDayUiState(
-                        date = LocalDate.now().minusDays(3),
-                        completedCount = 500,
-                        wishText = "가족과 저녁 식사 함께하기",
-                        targetCount = 800,
-                        isCompleted = false
-                    )
+            historyItems = flowOf(PagingData.from(listOf(
+                WishDayUiState(
+                    date = LocalDate.now().minusDays(1),
+                    completedCount = 1000,
+                    wishText = "매일 아침 6시에 일어나서 운동하기",
+                    targetCount = 1000,
+                    isCompleted = true
                 ),
-                todayWish = null,
-                isLoading = false,
-                error = null,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 3),
-                deviceBatteryLevel = 75
-            ),
-            onEvent = { /* Preview - no action */ },
-            onLoadMore = { /* Preview - no action */ }
+                WishDayUiState(
+                    date = LocalDate.now().minusDays(2),
+                    completedCount = 750,
+                    wishText = "하루에 책 30페이지 읽기",
+                    targetCount = 1000,
+                    isCompleted = false
+                ),
+                WishDayUiState(
+                    date = LocalDate.now().minusDays(3),
+                    completedCount = 500,
+                    wishText = "가족과 저녁 식사 함께하기",
+                    targetCount = 800,
+                    isCompleted = false
+                )
+            ))).collectAsLazyPagingItems(),
+            onEvent = { /* Preview - no action */ }
         )
     }
 }
@@ -90,16 +77,8 @@ private fun ReportCardTwentyItemsPreview() {
         }
         
         WishHistorySection(
-            uiState = HomeViewState.ConnectedFullWishes(
-                wishHistory = wishHistory,
-                todayWish = null,
-                isLoading = false,
-                error = null,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = true, totalItems = 50),
-                deviceBatteryLevel = 90
-            ),
-            onEvent = { /* Preview - no action */ },
-            onLoadMore = { /* Preview - no action */ }
+            historyItems = flowOf(PagingData.from(wishHistory)).collectAsLazyPagingItems(),
+            onEvent = { /* Preview - no action */ }
         )
     }
 }
@@ -118,17 +97,16 @@ private fun ReportCardLoadingPreview() {
             )
         }
         
+        // 다음 페이지를 불러오는 중 - 목록 끝에 로딩 표시
+        val appending = LoadStates(
+            refresh = LoadState.NotLoading(endOfPaginationReached = false),
+            prepend = LoadState.NotLoading(endOfPaginationReached = true),
+            append = LoadState.Loading
+        )
+
         WishHistorySection(
-            uiState = HomeViewState.ConnectedFullWishes(
-                wishHistory = wishHistory,
-                todayWish = null,
-                isLoading = true,
-                error = null,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = true, totalItems = 30),
-                deviceBatteryLevel = 85
-            ),
-            onEvent = { /* Preview - no action */ },
-            onLoadMore = { /* Preview - no action */ }
+            historyItems = flowOf(PagingData.from(wishHistory, appending)).collectAsLazyPagingItems(),
+            onEvent = { /* Preview - no action */ }
         )
     }
 }
@@ -138,31 +116,23 @@ private fun ReportCardLoadingPreview() {
 private fun ReportCardLongTextPreview() {
     WishRingTheme {
         WishHistorySection(
-            uiState = HomeViewState.ConnectedPartialWishes(
-                wishHistory = listOf(
-                    WishDayUiState(
-                        date = LocalDate.now().minusDays(1),
-                        completedCount = 850,
-                        wishText = "나는 매일 아침 일찍 일어나서 운동을 하고, 건강한 아침 식사를 먹고, 독서를 통해 새로운 지식을 습득하며, 가족과 소중한 시간을 보내고, 일에서도 최선을 다하여 더 나은 내가 되기 위해 끊임없이 노력하고 성장하는 사람이 되고 싶다.",
-                        targetCount = 1000,
-                        isCompleted = false
-                    ),
-                    WishDayUiState(
-                        date = LocalDate.now().minusDays(2),
-                        completedCount = 1000,
-                        wishText = "짧은 위시",
-                        targetCount = 1000,
-                        isCompleted = true
-                    )
+            historyItems = flowOf(PagingData.from(listOf(
+                WishDayUiState(
+                    date = LocalDate.now().minusDays(1),
+                    completedCount = 850,
+                    wishText = "나는 매일 아침 일찍 일어나서 운동을 하고, 건강한 아침 식사를 먹고, 독서를 통해 새로운 지식을 습득하며, 가족과 소중한 시간을 보내고, 일에서도 최선을 다하여 더 나은 내가 되기 위해 끊임없이 노력하고 성장하는 사람이 되고 싶다.",
+                    targetCount = 1000,
+                    isCompleted = false
                 ),
-                todayWish = null,
-                isLoading = false,
-                error = null,
-                pageInfo = PageInfo(currentPage = 0, hasNextPage = false, totalItems = 2),
-                deviceBatteryLevel = 70
-            ),
-            onEvent = { /* Preview - no action */ },
-            onLoadMore = { /* Preview - no action */ }
+                WishDayUiState(
+                    date = LocalDate.now().minusDays(2),
+                    completedCount = 1000,
+                    wishText = "짧은 위시",
+                    targetCount = 1000,
+                    isCompleted = true
+                )
+            ))).collectAsLazyPagingItems(),
+            onEvent = { /* Preview - no action */ }
         )
     }
 }
\ No newline at end of file
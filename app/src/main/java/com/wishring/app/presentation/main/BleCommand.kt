@@ -1,9 +1,8 @@
 package com.wishring.app.presentation.main
 
+import com.wishring.app.ble.model.VitalAlert
 import com.wishring.app.data.repository.BleConnectionState
-import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.data.model.WishUiState
-import com.wishring.app.presentation.home.PageInfo
 
 /**
  * BLE 연결 단계를 나타내는 enum
@@ -71,12 +70,13 @@ data class BleCommand(
     val buttonCount: Int = 0,
 
     // 위시 데이터 (HomeViewModel에서 이관)
-    val wishHistory: List<WishDayUiState> = emptyList(),
     val todayWish: WishUiState? = null,
-    val pageInfo: PageInfo? = null,
     val isWishDataLoading: Boolean = false,
     val wishDataError: String? = null,
 
+    // 연속 측정 중 범위를 벗어난 지표 (정상으로 돌아오거나 측정을 멈추면 null)
+    val vitalAlert: VitalAlert? = null,
+
     // 기타
     val errorMessage: String? = null,
     val lastScanTime: Long = 0L,
@@ -1,62 +1,193 @@
 package com.wishring.app.presentation.main
 
+import android.os.SystemClock
 import android.util.Log
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import com.wishring.app.ble.BleSessionManager
+import com.wishring.app.ble.EcgSampleRing
+import com.wishring.app.ble.model.BleSessionEvent
+import com.wishring.app.ble.model.EcgCaptureMetrics
+import com.wishring.app.ble.model.VitalAlertLevel
+import com.wishring.app.ble.model.VitalSignsSnapshot
+import com.wishring.app.data.ingest.PressIngestionBuffer
 import com.wishring.app.data.model.ConnectedDevice
+import com.wishring.app.data.model.ReportSummary
 import com.wishring.app.data.repository.BleConnectionState
 import com.wishring.app.data.repository.PreferencesRepository
 import com.wishring.app.data.repository.WishRepository
 import com.wishring.app.data.model.WishDayUiState
 import com.wishring.app.data.model.WishUiState
 import com.wishring.app.data.local.database.entity.WishData
-import com.wishring.app.presentation.home.PageInfo
-import com.wishring.app.data.ble.model.BleConstants
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.getAndUpdate
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.stateIn
 import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.isActive
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
-import java.time.LocalDate
 import javax.inject.Inject
 
 @HiltViewModel
 class MainViewModel @Inject constructor(
     private val preferencesRepository: PreferencesRepository,
-    private val wishRepository: WishRepository
+    private val wishRepository: WishRepository,
+    private val bleSessionManager: BleSessionManager,
+    private val pressBuffer: PressIngestionBuffer
 ) : ViewModel() {
 
 
     // BLE 통합 상태 관리 (위시 데이터 포함)
     private val _bleCommand = MutableStateFlow(BleCommand())
     val bleCommand = _bleCommand.asStateFlow()
+
+    // 스캔 결과 집계 (메인 스레드 전용)
+    private val scanAggregator = ScanResultAggregator()
+    private var scanEmitJob: Job? = null
     
-    // 위시 데이터 초기 로딩 플래그
-    private var isInitialDataLoaded = false
+    /**
+     * 지난 위시 기록 (Paging 3)
+     * 화면 회전/재구성 시에도 로드된 페이지를 재사용하도록 viewModelScope에 캐시
+     */
+    val wishHistory: Flow<PagingData<WishDayUiState>> =
+        wishRepository.getWishHistoryPagingData(pageSize = 50)
+            .cachedIn(viewModelScope)
+
+    /**
+     * 리포트 카드 상단 요약 (stats_rollup 전체 기간 행 + 연속 달성 인덱스)
+     * 기록이 길어져도 키 조회만 하므로 위시 기록을 훑지 않는다
+     */
+    val reportSummary: StateFlow<ReportSummary> =
+        combine(wishRepository.observeAllTimeStats(), wishRepository.observeStreak(), ReportSummary::from)
+            .stateIn(viewModelScope, SharingStarted.WhileSubscribed(SUMMARY_STOP_TIMEOUT_MS), ReportSummary.EMPTY)
     
     init {
         // seedTestData() // 주석 처리됨
-        if (!isInitialDataLoaded) {
-            loadInitialWishData()
-        }
         observeTodayWishCount()
+        observeBleSession()
     }
 
-    fun updateBatteryLevel(batteryLevel: Int) {
-        val currentState = _bleCommand.value
-        Log.d(WR_EVENT, "[배터리] MainViewModel - 배터리 레벨 업데이트 요청: $batteryLevel%")
-        Log.d(WR_EVENT, "[배터리] MainViewModel - 현재 연결 상태: ${currentState.connectionState}")
-        Log.d(WR_EVENT, "[배터리] MainViewModel - 현재 BLE Phase: ${currentState.phase}")
-        Log.d(WR_EVENT, "[배터리] MainViewModel - 기존 배터리 레벨: ${currentState.batteryLevel}%")
-        
-        _bleCommand.value = _bleCommand.value.copy(
-            batteryLevel = batteryLevel,
-        )
-        
-        Log.d(WR_EVENT, "[배터리] MainViewModel - 업데이트 완료: ${_bleCommand.value.batteryLevel}%")
-        Log.i(WR_EVENT, "[MainViewModel] 배터리 업데이트 - 레벨: ${batteryLevel}%")
+    /**
+     * BleSessionManager(포그라운드 서비스 소유) 세션 관찰
+     * ViewModel이 재생성되어도 현재 연결 상태를 그대로 다시 받는다
+     */
+    private fun observeBleSession() {
+        bleSessionManager.state
+            .map { it.isConnected }
+            .distinctUntilChanged()
+            .onEach { connected -> updateConnectionState(connected) }
+            .launchIn(viewModelScope)
+
+        bleSessionManager.batteryLevel
+            .onEach { level -> updateBatteryLevel(level) }
+            .launchIn(viewModelScope)
+
+        bleSessionManager.vitalAlerts
+            .onEach { alert ->
+                Log.i(WR_EVENT, "[MainViewModel] 연속 측정 알림 - ${alert.metric} ${alert.level} (${alert.value})")
+                _bleCommand.update { state ->
+                    when {
+                        alert.level != VitalAlertLevel.NORMAL -> state.copy(vitalAlert = alert)
+                        // 다른 지표의 알림은 그대로 유지
+                        state.vitalAlert?.metric == alert.metric -> state.copy(vitalAlert = null)
+                        else -> state
+                    }
+                }
+            }
+            .launchIn(viewModelScope)
+
+        bleSessionManager.events
+            .onEach { event ->
+                when (event) {
+                    is BleSessionEvent.DeviceConnected -> onDeviceConnected(event.address, event.name)
+                    is BleSessionEvent.DeviceDisconnected -> Unit
+                }
+            }
+            .launchIn(viewModelScope)
+    }
+
+    /**
+     * 배터리 레벨 새로고침 (화면 재진입 시)
+     */
+    fun refreshBatteryLevel() {
+        bleSessionManager.refreshBatteryLevel()
+    }
+
+    // ===== ECG 측정 =====
+
+    /**
+     * 실시간 ECG 샘플 (화면은 [EcgSampleRing.sampleAt]으로 복사 없이 읽음)
+     */
+    val ecgSamples: EcgSampleRing = bleSessionManager.ecgSamples
+
+    /**
+     * ECG 측정 상태 (측정 중 여부, 심박, 저장된 청크 수)
+     */
+    val ecgMetrics: StateFlow<EcgCaptureMetrics> = bleSessionManager.ecgMetrics
+
+    /**
+     * ECG 측정 시작
+     * @return 링이 연결되지 않았거나 이미 측정 중이면 false
+     */
+    fun startEcgCapture(): Boolean {
+        val started = bleSessionManager.startEcgCapture()
+        Log.i(WR_EVENT, "[MainViewModel] ECG 측정 시작 요청 - ${if (started) "시작" else "실패"}")
+        return started
+    }
+
+    /**
+     * ECG 측정 종료 - 받은 샘플까지 저장
+     */
+    fun stopEcgCapture() {
+        Log.i(WR_EVENT, "[MainViewModel] ECG 측정 종료 요청")
+        bleSessionManager.stopEcgCapture()
+    }
+
+    // ===== 연속 측정 =====
+
+    /**
+     * 심박/혈중 산소/걸음수 윈도우 통계
+     */
+    val vitalSigns: StateFlow<VitalSignsSnapshot> = bleSessionManager.vitalSigns
+
+    /**
+     * 연속 측정 시작 - 범위를 벗어나면 [BleCommand.vitalAlert]로 표시
+     * @return 링이 연결되지 않았거나 이미 측정 중이면 false
+     */
+    fun startVitalMonitoring(): Boolean {
+        val started = bleSessionManager.startVitalMonitoring()
+        Log.i(WR_EVENT, "[MainViewModel] 연속 측정 시작 요청 - ${if (started) "시작" else "실패"}")
+        return started
+    }
+
+    /**
+     * 연속 측정 종료 - 표시 중인 알림도 지움
+     */
+    fun stopVitalMonitoring() {
+        Log.i(WR_EVENT, "[MainViewModel] 연속 측정 종료 요청")
+        bleSessionManager.stopVitalMonitoring()
+        _bleCommand.update { it.copy(vitalAlert = null) }
+    }
+
+    /**
+     * 배터리 레벨 반영 ([BleSessionManager.batteryLevel] 구독, 세션 종료 시 null)
+     */
+    fun updateBatteryLevel(batteryLevel: Int?) {
+        _bleCommand.update { it.copy(batteryLevel = batteryLevel) }
+        Log.i(WR_EVENT, "[MainViewModel] 배터리 업데이트 - 레벨: ${batteryLevel?.let { "$it%" } ?: "없음"}")
     }
 
     fun updateConnectionState(connected: Boolean) {
@@ -66,7 +197,9 @@ class MainViewModel @Inject constructor(
             connectionState = if (connected) BleConnectionState.CONNECTED
             else BleConnectionState.DISCONNECTED,
             phase = if (connected) BlePhase.Idle else currentState.phase,
-            scannedDevices = if (connected) emptyList() else currentState.scannedDevices
+            scannedDevices = if (connected) emptyList() else currentState.scannedDevices,
+            // 연결이 끊기면 연속 측정도 끝나므로 알림을 지운다
+            vitalAlert = if (connected) currentState.vitalAlert else null
         )
 
         Log.i(WR_EVENT, "[MainViewModel] 연결 상태 변경: $connected")
@@ -76,62 +209,45 @@ class MainViewModel @Inject constructor(
         }
     }
 
-    fun addScannedDevice(
-        name: String,
-        address: String,
-        rssi: Int,
-        serviceUuids: List<String> = emptyList()
-    ) {
-
-        if (validateWishRingDevice(serviceUuids)) {
-            Log.i(WR_EVENT, "[MainViewModel] ✅ WISH RING 기기 확인됨 (Service UUID 검증)")
-
-            val currentState = _bleCommand.value
-            val devices = currentState.scannedDevices.toMutableList()
-
-            // 중복 제거
-            devices.removeAll { it.address == address }
-            devices.add(DeviceInfo(name, address, rssi))
-
-            // RSSI 강한 순으로 정렬
-            val sortedDevices = devices.sortedByDescending { it.rssi }
-
-            // BleUiState 업데이트
-            _bleCommand.value = currentState.copy(
-                scannedDevices = sortedDevices
-            )
+    /**
+     * 스캔 결과 수신 - 광고 패킷마다 호출되므로 집계만 하고 방출은 [publishScanSnapshot]에서
+     * 링 식별은 LE 스캔의 SERVICE_UUID ScanFilter가 컨트롤러에서 이미 처리함
+     */
+    fun addScannedDevice(name: String, address: String, rssi: Int) {
+        scanAggregator.offer(name, address, rssi, SystemClock.elapsedRealtime())
+    }
 
-            Log.i(WR_EVENT, "[MainViewModel] 현재 WISH RING 기기 목록 크기: ${sortedDevices.size}")
-            Log.i(
-                WR_EVENT,
-                "[MainViewModel] shouldShowDevicePicker 조건: devices=${sortedDevices.isNotEmpty()}, phase=${currentState.phase == BlePhase.Idle}"
-            )
-            Log.i(
-                WR_EVENT,
-                "[MainViewModel] → shouldShowDevicePicker = ${sortedDevices.isNotEmpty() && currentState.phase == BlePhase.Idle}"
-            )
-        } else {
-            // 무시 - 너무 많은 로그 생성
+    /**
+     * 스캔 중 [ScanResultAggregator.EMIT_INTERVAL_MS]마다 변경된 목록만 방출
+     * 피커는 패킷마다가 아니라 초당 몇 번만 다시 그려진다
+     */
+    private fun startScanEmitter() {
+        scanEmitJob?.cancel()
+        scanEmitJob = viewModelScope.launch {
+            while (isActive) {
+                delay(ScanResultAggregator.EMIT_INTERVAL_MS)
+                publishScanSnapshot()
+            }
         }
-
-        Log.i(WR_EVENT, "[MainViewModel] ================================================")
     }
 
-    private fun validateWishRingDevice(serviceUuids: List<String>): Boolean {
-        // Service UUID로 H13 기기 식별
-        val hasValidServiceUuid = serviceUuids.any { uuid ->
-            uuid.equals(BleConstants.SERVICE_UUID.toString(), ignoreCase = true)
-        }
+    private fun stopScanEmitter() {
+        scanEmitJob?.cancel()
+        scanEmitJob = null
+    }
 
-        Log.i(WR_EVENT, "[MainViewModel] Service UUID 검증:")
-        Log.i(WR_EVENT, "[MainViewModel] - 찾는 UUID: ${BleConstants.SERVICE_UUID}")
-        Log.i(WR_EVENT, "[MainViewModel] - 기기의 UUIDs: $serviceUuids")
-        Log.i(WR_EVENT, "[MainViewModel] - 검증 결과: ${if (hasValidServiceUuid) "✅ 일치" else "❌ 불일치"}")
+    private fun publishScanSnapshot() {
+        val devices = scanAggregator.snapshot(SystemClock.elapsedRealtime()) ?: return
+        _bleCommand.update { it.copy(scannedDevices = devices) }
+    }
 
-        return hasValidServiceUuid
+    private fun resetScanResults() {
+        stopScanEmitter()
+        scanAggregator.clear()
     }
 
     fun clearScannedDevices() {
+        resetScanResults()
         _bleCommand.value = _bleCommand.value.copy(
             scannedDevices = emptyList(),
             phase = BlePhase.Idle
@@ -140,6 +256,7 @@ class MainViewModel @Inject constructor(
     }
 
     fun dismissDevicePicker() {
+        resetScanResults()
         _bleCommand.value = _bleCommand.value.copy(
             scannedDevices = emptyList(),
             phase = BlePhase.Idle
@@ -151,6 +268,7 @@ class MainViewModel @Inject constructor(
      * 기기가 선택되었음을 표시 (Dialog는 닫지만 연결 준비중 상태 유지)
      */
     fun selectDevice() {
+        resetScanResults()
         _bleCommand.value = _bleCommand.value.copy(
             scannedDevices = emptyList(),
             phase = BlePhase.DeviceSelected
@@ -160,6 +278,15 @@ class MainViewModel @Inject constructor(
 
     // ===== 자동 연결 기능 =====
 
+    /**
+     * 자동 연결 시도 권한 획득 (ViewModel 수명 동안 한 번만 true)
+     * 회전으로 새 Activity가 같은 AutoConnecting 상태를 다시 받아도 연결을 반복하지 않도록 한다
+     */
+    fun claimAutoConnect(): Boolean {
+        val previous = _bleCommand.getAndUpdate { it.copy(autoConnectAttempted = true) }
+        return !previous.autoConnectAttempted
+    }
+
     /**
      * 연결 성공 시 기기 정보 저장
      */
@@ -190,23 +317,31 @@ class MainViewModel @Inject constructor(
     // ===== BLE 스캔 관련 메서드 =====
 
     fun actuallyStartBleScan() {
+        scanAggregator.clear()
         // 스캔 상태로 변경
         _bleCommand.value = _bleCommand.value.copy(
             phase = BlePhase.Scanning,
             scannedDevices = emptyList() // 새 스캔 시작 시 기존 목록 클리어
         )
 
+        startScanEmitter()
+
         Log.i(WR_EVENT, "[MainViewModel] BLE 스캔 상태로 변경됨")
     }
 
     fun stopBleScan() {
         Log.i(WR_EVENT, "[MainViewModel] BLE 스캔 중지 요청")
+        stopScanEmitter()
         // 스캔 중지 시 Idle 상태로 변경
         _bleCommand.value = _bleCommand.value.copy(phase = BlePhase.Idle)
         // MainActivity가 이 상태를 관찰하여 Discovery를 중지함
     }
 
     fun onDiscoveryFinished() {
+        // 마지막 집계 결과까지 반영 후 방출 중지
+        stopScanEmitter()
+        publishScanSnapshot()
+
         val currentState = _bleCommand.value
         val hasDevices = currentState.scannedDevices.isNotEmpty()
 
@@ -248,129 +383,9 @@ class MainViewModel @Inject constructor(
 
     // ===== 위시 데이터 관리 메서드들 =====
     
-    fun loadInitialWishData() {
-        viewModelScope.launch {
-            Log.d(WR_EVENT, "[WishHistory] === loadInitialWishData 시작 ===")
-            
-            // Start with loading state
-            _bleCommand.update { currentState ->
-                currentState.copy(isWishDataLoading = true, wishDataError = null)
-            }
-
-            try {
-                // Load first page (50 items)
-                Log.d(WR_EVENT, "[WishHistory] getWishHistoryPaginated 호출 - page: 0")
-                val (wishHistory, pageInfo) = getWishHistoryPaginated(page = 0)
-                Log.d(WR_EVENT, "[WishHistory] 로드 완료 - wishHistory 크기: ${wishHistory.size}")
-                
-                wishHistory.forEachIndexed { index, record ->
-                    Log.d(WR_EVENT, "[WishHistory] [$index] ${record.date} - ${record.wishText} (count: ${record.completedCount}/${record.targetCount})")
-                }
-                
-                val todayWish = getTodayWishFromHistory(wishHistory)
-                Log.d(WR_EVENT, "[WishHistory] todayWish: ${todayWish?.let { "${it.currentCount}/${it.targetCount}" } ?: "null"}")
-
-                updateWishData(wishHistory, todayWish, pageInfo, null)
-                isInitialDataLoaded = true
-                Log.d(WR_EVENT, "[WishHistory] === loadInitialWishData 완료 ===")
-
-            } catch (e: Exception) {
-                Log.e(WR_EVENT, "[WishHistory] loadInitialWishData 오류", e)
-                val errorMessage = e.message ?: "데이터를 불러오는 중 오류가 발생했습니다"
-                _bleCommand.update { currentState ->
-                    currentState.copy(isWishDataLoading = false, wishDataError = errorMessage)
-                }
-            }
-        }
-    }
-
-    fun loadMoreWishes() {
-        viewModelScope.launch {
-            Log.d(WR_EVENT, "[WishHistory] === loadMoreWishes 시작 ===")
-            
-            val currentPageInfo = _bleCommand.value.pageInfo
-            if (currentPageInfo == null || !currentPageInfo.hasNextPage || _bleCommand.value.isWishDataLoading) {
-                Log.d(WR_EVENT, "[WishHistory] loadMoreWishes 중단 - pageInfo: $currentPageInfo, isLoading: ${_bleCommand.value.isWishDataLoading}")
-                return@launch
-            }
-
-            // Set loading state
-            _bleCommand.update { currentState ->
-                currentState.copy(isWishDataLoading = true)
-            }
-
-            val nextPage = currentPageInfo.currentPage + 1
-            Log.d(WR_EVENT, "[WishHistory] getWishHistoryPaginated 호출 - page: $nextPage")
-
-            try {
-                val (newWishHistory, newPageInfo) = getWishHistoryPaginated(page = nextPage)
-                Log.d(WR_EVENT, "[WishHistory] 추가 로드 완료 - newWishHistory 크기: ${newWishHistory.size}")
-                
-                val combinedHistory = _bleCommand.value.wishHistory + newWishHistory
-                Log.d(WR_EVENT, "[WishHistory] 전체 크기: ${_bleCommand.value.wishHistory.size} + ${newWishHistory.size} = ${combinedHistory.size}")
-                
-                newWishHistory.forEachIndexed { index, record ->
-                    Log.d(WR_EVENT, "[WishHistory] [추가$index] ${record.date} - ${record.wishText} (count: ${record.completedCount}/${record.targetCount})")
-                }
-                
-                val todayWish = getTodayWishFromHistory(combinedHistory)
-                Log.d(WR_EVENT, "[WishHistory] 재계산된 todayWish: ${todayWish?.let { "${it.currentCount}/${it.targetCount}" } ?: "null"}")
-
-                updateWishData(combinedHistory, todayWish, newPageInfo, _bleCommand.value.batteryLevel)
-                
-                Log.d(WR_EVENT, "[WishHistory] === loadMoreWishes 완료 ===")
-
-            } catch (e: Exception) {
-                Log.e(WR_EVENT, "[WishHistory] loadMoreWishes 오류", e)
-                val errorMessage = e.message ?: "추가 데이터를 불러오는 중 오류가 발생했습니다"
-                _bleCommand.update { currentState ->
-                    currentState.copy(isWishDataLoading = false, wishDataError = errorMessage)
-                }
-            }
-        }
-    }
-
-    private suspend fun getWishHistoryPaginated(page: Int): Pair<List<WishDayUiState>, PageInfo> {
-        return wishRepository.getWishHistoryPaginated(page = page, pageSize = 50) // 100 → 50 변경
-    }
-
-    private fun getTodayWishFromHistory(wishHistory: List<WishDayUiState>): WishUiState? {
-        // 첫 번째 항목이 실제 오늘 날짜인 경우에만 todayWish로 반환
-        return wishHistory.firstOrNull()?.let { wishDay ->
-            if (wishDay.date == LocalDate.now()) {
-                WishUiState.fromWishDay(wishDay)
-            } else {
-                null
-            }
-        }
-    }
-
-    private fun updateWishData(
-        wishHistory: List<WishDayUiState>,
-        todayWish: WishUiState?,
-        pageInfo: PageInfo?,
-        batteryLevel: Int?
-    ) {
-        val displayWishHistory = if (todayWish != null) {
-            wishHistory.drop(1)
-        } else {
-            wishHistory
-        }
-        
-        _bleCommand.update { currentState ->
-            currentState.copy(
-                wishHistory = displayWishHistory,
-                todayWish = todayWish,
-                pageInfo = pageInfo,
-                isWishDataLoading = false,
-                wishDataError = null,
-                batteryLevel = batteryLevel ?: currentState.batteryLevel
-            )
-        }
-    }
-
     private fun observeTodayWishCount() {
-        wishRepository.observeTodayWishCount()
+        // 버퍼에 누적된(아직 저장 전) 입력까지 포함해 즉시 표시
+        pressBuffer.todayWish
             .onEach { wishCount ->
                 _bleCommand.update { currentState ->
                     currentState.copy(todayWish = wishCount)
@@ -465,5 +480,8 @@ class MainViewModel @Inject constructor(
 
     companion object {
         const val WR_EVENT = "WR_EVENT"
+
+        // 회전 중에는 구독을 유지해 요약을 다시 읽지 않도록
+        private const val SUMMARY_STOP_TIMEOUT_MS = 5_000L
     }
 }
\ No newline at end of file
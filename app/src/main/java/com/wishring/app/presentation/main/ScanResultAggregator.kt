@@ -0,0 +1,84 @@
+package com.wishring.app.presentation.main
+
+/**
+ * 스캔 결과 집계기
+ *
+ * 광고 패킷마다 기기 목록 전체를 복사/정렬하지 않고 주소별 항목만 갱신한 뒤,
+ * [snapshot] 호출 시(약 [EMIT_INTERVAL_MS]마다) 변경이 있을 때만 정렬된 목록을 만든다.
+ *
+ * - RSSI: 지수이동평균(EMA)으로 평활화해 목록 순서가 패킷마다 뒤바뀌지 않게 함
+ * - [ttlMs] 동안 광고가 없으면 목록에서 제거
+ *
+ * 스레드 안전하지 않음 - 스캔 콜백과 같은 (메인) 스레드에서 사용
+ */
+class ScanResultAggregator(
+    private val alpha: Double = RSSI_EMA_ALPHA,
+    private val ttlMs: Long = DEVICE_TTL_MS
+) {
+
+    private class Entry(
+        var name: String,
+        var smoothedRssi: Double,
+        var lastSeenAt: Long
+    )
+
+    private val entries = HashMap<String, Entry>()
+    private var dirty = false
+
+    /**
+     * 광고 수신 반영
+     * @param now 수신 시각 (단조 증가 시계, ms)
+     */
+    fun offer(name: String, address: String, rssi: Int, now: Long) {
+        val entry = entries[address]
+        if (entry == null) {
+            entries[address] = Entry(name, rssi.toDouble(), now)
+        } else {
+            entry.smoothedRssi += alpha * (rssi - entry.smoothedRssi)
+            entry.lastSeenAt = now
+            if (name != UNKNOWN_NAME) entry.name = name
+        }
+        dirty = true
+    }
+
+    /**
+     * 만료 항목을 제거하고 RSSI 강한 순으로 정렬된 목록 반환
+     * @param now 현재 시각 (offer와 같은 시계)
+     * @return 마지막 스냅샷 이후 변경이 없으면 null
+     */
+    fun snapshot(now: Long): List<DeviceInfo>? {
+        if (entries.values.removeAll { now - it.lastSeenAt > ttlMs }) dirty = true
+        if (!dirty) return null
+        dirty = false
+
+        return entries.entries
+            .map { (address, entry) -> DeviceInfo(entry.name, address, entry.smoothedRssi.roundToRssi()) }
+            .sortedWith(compareByDescending<DeviceInfo> { it.rssi }.thenBy { it.address })
+    }
+
+    /**
+     * 새 스캔 시작/목록 초기화 시 호출
+     */
+    fun clear() {
+        entries.clear()
+        dirty = false
+    }
+
+    val size: Int
+        get() = entries.size
+
+    private fun Double.roundToRssi(): Int = Math.round(this).toInt()
+
+    companion object {
+        /** 목록 방출 최소 간격 */
+        const val EMIT_INTERVAL_MS = 250L
+
+        /** 이 시간 동안 광고가 없으면 제거 (백그라운드 배치 스캔 지연 5초보다 길게) */
+        const val DEVICE_TTL_MS = 8_000L
+
+        /** 새 RSSI 반영 비율 */
+        const val RSSI_EMA_ALPHA = 0.3
+
+        private const val UNKNOWN_NAME = "Unknown"
+    }
+}
@@ -0,0 +1,106 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+
+/**
+ * Test suite for adaptive battery poll scheduling
+ */
+@DisplayName("BatteryPollSchedule 테스트")
+class BatteryPollScheduleTest {
+
+    private lateinit var schedule: BatteryPollSchedule
+
+    @BeforeEach
+    fun setup() {
+        schedule = BatteryPollSchedule(
+            minIntervalMs = 5 * MINUTE,
+            maxIntervalMs = 60 * MINUTE,
+            defaultIntervalMs = 15 * MINUTE,
+            maxPollsPerHour = 4
+        )
+    }
+
+    @Nested
+    @DisplayName("폴링 간격")
+    inner class IntervalTests {
+
+        @Test
+        @DisplayName("값이 없으면 바로 요청")
+        fun `first poll should be immediate`() {
+            assertThat(schedule.nextPollAt(1_000L)).isEqualTo(1_000L)
+        }
+
+        @Test
+        @DisplayName("방전 속도를 모르면 기본 간격")
+        fun `unknown slope should use default interval`() {
+            schedule.onLevel(0L, 80)
+
+            assertThat(schedule.dischargePerHour()).isNull()
+            assertThat(schedule.nextPollAt(0L)).isEqualTo(15 * MINUTE)
+        }
+
+        @Test
+        @DisplayName("빠르게 방전되면 1%가 떨어지는 시간마다 요청")
+        fun `fast discharge should shorten interval`() {
+            // 30분에 5% → 10%/h → 6분마다
+            schedule.onLevel(0L, 80)
+            schedule.onLevel(30 * MINUTE, 75)
+
+            assertThat(schedule.dischargePerHour()).isWithin(0.01).of(10.0)
+            assertThat(schedule.interval()).isEqualTo(6 * MINUTE)
+        }
+
+        @Test
+        @DisplayName("변화가 없거나 충전 중이면 최대 간격")
+        fun `flat or charging should use max interval`() {
+            schedule.onLevel(0L, 80)
+            schedule.onLevel(30 * MINUTE, 80)
+            assertThat(schedule.interval()).isEqualTo(60 * MINUTE)
+
+            schedule.onLevel(40 * MINUTE, 85)
+            schedule.onLevel(60 * MINUTE, 85)
+            assertThat(schedule.interval()).isEqualTo(60 * MINUTE)
+        }
+
+        @Test
+        @DisplayName("링이 보낸 값으로 다음 폴링이 미뤄짐")
+        fun `pushed value should postpone poll`() {
+            schedule.onPoll(0L)
+            schedule.onLevel(0L, 80)
+            schedule.onLevel(10 * MINUTE, 80)
+
+            assertThat(schedule.nextPollAt(10 * MINUTE)).isEqualTo(70 * MINUTE)
+        }
+    }
+
+    @Nested
+    @DisplayName("요청 제한")
+    inner class BudgetTests {
+
+        @Test
+        @DisplayName("1시간에 허용 횟수를 넘지 않음")
+        fun `polls should be capped per hour`() {
+            // 응답이 없어도 기본 간격으로만 요청
+            listOf(0L, 1L, 2L, 3L).forEach { schedule.onPoll(it * MINUTE) }
+
+            assertThat(schedule.nextPollAt(3 * MINUTE)).isEqualTo(60 * MINUTE)
+        }
+
+        @Test
+        @DisplayName("방금 받은 값은 새로고침하지 않음")
+        fun `fresh value should skip refresh`() {
+            schedule.onLevel(0L, 80)
+
+            assertThat(schedule.isFresh(10_000L)).isTrue()
+            assertThat(schedule.isFresh(BatteryPollSchedule.FRESH_MS)).isFalse()
+        }
+    }
+
+    companion object {
+        private const val MINUTE = 60_000L
+    }
+}
@@ -0,0 +1,41 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+
+/**
+ * Test suite for LE scan de-duplication keys
+ */
+@DisplayName("BleLeScanner 테스트")
+class BleLeScannerTest {
+
+    @Nested
+    @DisplayName("주소 키")
+    inner class AddressKeyTests {
+
+        @Test
+        @DisplayName("MAC 주소는 48비트 값으로 변환")
+        fun `mac address should map to its 48 bit value`() {
+            assertThat(BleLeScanner.addressKey("AA:BB:CC:DD:EE:FF")).isEqualTo(0xAABBCCDDEEFFL)
+            assertThat(BleLeScanner.addressKey("00:00:00:00:00:01")).isEqualTo(1L)
+        }
+
+        @Test
+        @DisplayName("대소문자가 달라도 같은 키")
+        fun `key should ignore case`() {
+            assertThat(BleLeScanner.addressKey("aa:bb:cc:dd:ee:ff"))
+                .isEqualTo(BleLeScanner.addressKey("AA:BB:CC:DD:EE:FF"))
+        }
+
+        @Test
+        @DisplayName("형식이 다른 주소는 MAC 키와 겹치지 않는 음수 키")
+        fun `malformed address should not collide with mac keys`() {
+            val key = BleLeScanner.addressKey("AA-BB-CC-DD-EE-FF")
+
+            assertThat(key).isLessThan(0L)
+            assertThat(BleLeScanner.addressKey("AA-BB-CC-DD-EE-FF")).isEqualTo(key)
+        }
+    }
+}
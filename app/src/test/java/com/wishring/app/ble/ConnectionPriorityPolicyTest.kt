@@ -0,0 +1,81 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.ble.model.LinkPriority
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+
+/**
+ * Test suite for connection priority decisions
+ */
+@DisplayName("ConnectionPriorityPolicy 테스트")
+class ConnectionPriorityPolicyTest {
+
+    private lateinit var policy: ConnectionPriorityPolicy
+
+    @BeforeEach
+    fun setup() {
+        policy = ConnectionPriorityPolicy(
+            rapidPressCount = 3,
+            rapidPressWindowMs = 2_000L,
+            highHoldMs = 5_000L,
+            balancedHoldMs = 30_000L
+        )
+        policy.reset(now = 0L)
+    }
+
+    @Nested
+    @DisplayName("입력")
+    inner class PressTests {
+
+        @Test
+        @DisplayName("연결 직후는 BALANCED, 활동이 없으면 LOW_POWER")
+        fun `idle link should drop to low power`() {
+            assertThat(policy.priorityAt(0L)).isEqualTo(LinkPriority.BALANCED)
+            assertThat(policy.nextChangeAt(0L)).isEqualTo(30_000L)
+            assertThat(policy.priorityAt(30_000L)).isEqualTo(LinkPriority.LOW_POWER)
+            assertThat(policy.nextChangeAt(30_000L)).isNull()
+        }
+
+        @Test
+        @DisplayName("가끔 누르는 것은 BALANCED 유지")
+        fun `occasional presses should stay balanced`() {
+            listOf(1_000L, 4_000L, 7_000L).forEach { policy.onPress(it) }
+
+            assertThat(policy.priorityAt(7_000L)).isEqualTo(LinkPriority.BALANCED)
+        }
+
+        @Test
+        @DisplayName("짧은 시간에 연속으로 누르면 HIGH, 유지 시간 후 BALANCED")
+        fun `rapid presses should switch to high`() {
+            listOf(1_000L, 1_500L, 2_000L, 2_500L).forEach { policy.onPress(it) }
+
+            assertThat(policy.priorityAt(2_500L)).isEqualTo(LinkPriority.HIGH)
+            assertThat(policy.nextChangeAt(2_500L)).isEqualTo(7_500L)
+            assertThat(policy.priorityAt(7_500L)).isEqualTo(LinkPriority.BALANCED)
+        }
+    }
+
+    @Nested
+    @DisplayName("대량 전송")
+    inner class BulkTransferTests {
+
+        @Test
+        @DisplayName("전송 중에는 시간이 지나도 HIGH, 중첩된 전송이 모두 끝나야 해제")
+        fun `bulk transfer should hold high until all finish`() {
+            policy.onBulkTransferStarted(0L)
+            policy.onBulkTransferStarted(100L)
+            policy.onBulkTransferFinished(60_000L)
+
+            assertThat(policy.priorityAt(120_000L)).isEqualTo(LinkPriority.HIGH)
+            assertThat(policy.nextChangeAt(120_000L)).isNull()
+
+            policy.onBulkTransferFinished(120_000L)
+
+            assertThat(policy.priorityAt(124_000L)).isEqualTo(LinkPriority.HIGH)
+            assertThat(policy.priorityAt(125_000L)).isEqualTo(LinkPriority.BALANCED)
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.data.ble.model.H13Frame
+import com.wishring.app.data.local.database.entity.EcgWaveformCodec
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * ECG 링 버퍼 테스트
+ *
+ * 절대 인덱스, 덮어쓰기 범위, 버퍼에서 바로 인코딩하는 동작을 검증합니다.
+ */
+@DisplayName("EcgSampleRing 테스트")
+class EcgSampleRingTest {
+
+    private lateinit var ring: EcgSampleRing
+
+    @BeforeEach
+    fun setup() {
+        ring = EcgSampleRing(capacity = 16)
+    }
+
+    /**
+     * 0x46 프레임 (샘플은 16비트 Big Endian)
+     */
+    private fun wave(vararg samples: Int): H13Frame.EcgWave {
+        val data = ByteArray(H13Frame.EcgWave.SAMPLE_OFFSET + samples.size * 2)
+        data[0] = 0x46
+        samples.forEachIndexed { i, sample ->
+            data[2 + i * 2] = (sample shr 8).toByte()
+            data[3 + i * 2] = sample.toByte()
+        }
+        return H13Frame.EcgWave(sequence = 0, data = data)
+    }
+
+    @Test
+    @DisplayName("프레임의 샘플을 절대 인덱스로 읽음")
+    fun `samples should be readable by absolute index`() {
+        ring.write(wave(1, 2, 0xFFFF))
+        ring.write(wave(4))
+
+        assertThat(ring.written).isEqualTo(4L)
+        assertThat(ring.sampleAt(2)).isEqualTo(0xFFFF)
+        assertThat(ring.sampleAt(3)).isEqualTo(4)
+    }
+
+    @Test
+    @DisplayName("용량을 넘으면 오래된 샘플부터 덮어씀")
+    fun `overflow should overwrite oldest samples`() {
+        repeat(5) { ring.write(wave(it * 4, it * 4 + 1, it * 4 + 2, it * 4 + 3)) }
+
+        assertThat(ring.written).isEqualTo(20L)
+        assertThat(ring.oldest).isEqualTo(4L)
+        assertThat(ring.sampleAt(4)).isEqualTo(4)
+        assertThat(ring.sampleAt(19)).isEqualTo(19)
+    }
+
+    @Test
+    @DisplayName("버퍼 끝을 넘는 구간도 그대로 인코딩")
+    fun `encode should read wrapped range`() {
+        repeat(5) { ring.write(wave(it * 4, it * 4 + 1, it * 4 + 2, it * 4 + 3)) }
+
+        val data = ring.encode(from = 10, count = 10)
+        val out = ShortArray(10)
+        EcgWaveformCodec.decodeInto(data, out)
+
+        assertThat(out.map { it.toInt() }).isEqualTo((10 until 20).toList())
+    }
+
+    @Test
+    @DisplayName("덮어쓴 구간이나 아직 안 쓴 구간은 인코딩 거부")
+    fun `encode should reject unavailable range`() {
+        repeat(5) { ring.write(wave(0, 0, 0, 0)) }
+
+        assertThrows<IllegalArgumentException> { ring.encode(from = 2, count = 4) }
+        assertThrows<IllegalArgumentException> { ring.encode(from = 18, count = 4) }
+    }
+
+    @Test
+    @DisplayName("빠진 프레임 자리는 공백 샘플로 채워 인덱스가 밀리지 않음")
+    fun `gap should keep later samples at their absolute index`() {
+        ring.write(wave(1, 2))
+        ring.writeGap(4)
+        ring.write(wave(7, 8))
+
+        assertThat(ring.written).isEqualTo(8L)
+        assertThat((2L until 6L).map { ring.sampleAt(it) }).containsExactly(
+            EcgSampleRing.GAP, EcgSampleRing.GAP, EcgSampleRing.GAP, EcgSampleRing.GAP
+        )
+        assertThat(ring.sampleAt(6)).isEqualTo(7)
+
+        val out = ShortArray(8)
+        EcgWaveformCodec.decodeInto(ring.encode(from = 0, count = 8), out)
+        assertThat(out[4].toInt() and 0xFFFF).isEqualTo(EcgWaveformCodec.GAP_SAMPLE)
+    }
+
+    @Test
+    @DisplayName("용량은 2의 거듭제곱만 허용")
+    fun `capacity should be power of two`() {
+        assertThrows<IllegalArgumentException> { EcgSampleRing(capacity = 12) }
+    }
+}
@@ -0,0 +1,153 @@
+package com.wishring.app.ble
+
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.ble.model.GattOperation
+import com.wishring.app.ble.model.GattOperationResult
+import com.wishring.app.data.ble.model.BleConstants
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * GattOperationQueue 테스트
+ *
+ * 가짜 gatt 제공자로 쓰기를 받아들이기만 하고, 콜백은 테스트가 직접 전달하거나 빠뜨린다.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(AndroidJUnit4::class)
+class GattOperationQueueTest {
+
+    private val gatt = mockk<BluetoothGatt>()
+    private val layout = mockk<GattLayoutCache>()
+    private var dispatchCount = 0
+
+    @Before
+    fun setUp() {
+        dispatchCount = 0
+        every { layout.characteristic(any(), any(), any()) } returns mockk<BluetoothGattCharacteristic>(relaxed = true)
+        every { gatt.writeCharacteristic(any(), any(), any()) } answers {
+            dispatchCount++
+            BluetoothGatt.GATT_SUCCESS
+        }
+        every { gatt.writeCharacteristic(any()) } answers {
+            dispatchCount++
+            true
+        }
+    }
+
+    @Test
+    fun lateCallback_ShouldBeDiscardedAndRetryCompletedByItsOwnCallback() = runTest {
+        val queue = newQueue(backgroundScope)
+
+        val result = async { queue.enqueue(write(maxAttempts = 2)) }
+        runCurrent()
+        advanceTimeBy(TIMEOUT_MS + 1)
+
+        // 첫 시도의 늦은 콜백 - 재시도를 완료시키면 안 된다
+        queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+        runCurrent()
+        assertThat(dispatchCount).isEqualTo(2)
+        assertThat(result.isCompleted).isFalse()
+
+        queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+        runCurrent()
+
+        assertThat(result.await().success).isTrue()
+        assertThat(result.await().attempts).isEqualTo(2)
+        assertThat(queue.metrics.value.staleCallbackCount).isEqualTo(1)
+    }
+
+    @Test
+    fun lostCallback_ShouldExpireSoRetryIsCompletedByItsOwnCallback() = runTest {
+        val queue = newQueue(backgroundScope)
+
+        val result = async { queue.enqueue(write(maxAttempts = 2)) }
+        runCurrent()
+        advanceTimeBy(TIMEOUT_MS + 1)
+
+        // 첫 시도의 콜백은 유실 - 유예 시간 동안은 재시도를 보내지 않는다
+        assertThat(dispatchCount).isEqualTo(1)
+        advanceTimeBy(BleConstants.GATT_CALLBACK_GRACE_MS)
+        runCurrent()
+        assertThat(dispatchCount).isEqualTo(2)
+
+        queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+        runCurrent()
+
+        assertThat(result.await().success).isTrue()
+        assertThat(result.await().attempts).isEqualTo(2)
+        assertThat(queue.metrics.value.staleCallbackCount).isEqualTo(0)
+    }
+
+    @Test
+    fun lostCallback_ShouldNotShiftLaterOperationsOnTheSameCharacteristic() = runTest {
+        val queue = newQueue(backgroundScope)
+
+        val lost = async { queue.enqueue(write(maxAttempts = 1)) }
+        runCurrent()
+        advanceTimeBy(TIMEOUT_MS + BleConstants.GATT_CALLBACK_GRACE_MS + 1)
+        assertThat(lost.await().status).isEqualTo(GattOperationResult.STATUS_TIMEOUT)
+
+        // 이후 작업은 모두 자기 콜백으로 바로 완료되어야 한다
+        repeat(3) {
+            val next = async { queue.enqueue(write(maxAttempts = 1)) }
+            runCurrent()
+            queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+            runCurrent()
+
+            assertThat(next.await().success).isTrue()
+        }
+        assertThat(queue.metrics.value.staleCallbackCount).isEqualTo(0)
+        assertThat(queue.metrics.value.timeoutCount).isEqualTo(1)
+    }
+
+    @Test
+    fun lateCallback_ShouldNotCompleteTheNextOperation() = runTest {
+        val queue = newQueue(backgroundScope)
+
+        val late = async { queue.enqueue(write(maxAttempts = 1)) }
+        runCurrent()
+        advanceTimeBy(TIMEOUT_MS + 1)
+        queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+        runCurrent()
+        assertThat(late.await().success).isFalse()
+
+        val next = async { queue.enqueue(write(maxAttempts = 1)) }
+        runCurrent()
+        assertThat(next.isCompleted).isFalse()
+
+        queue.onCharacteristicWrite(BleConstants.WRITE_CHAR_UUID, BluetoothGatt.GATT_SUCCESS)
+        runCurrent()
+
+        assertThat(next.await().success).isTrue()
+        assertThat(dispatchCount).isEqualTo(2)
+    }
+
+    private fun TestScope.newQueue(scope: CoroutineScope) =
+        GattOperationQueue(scope, layout, { gatt }, { testScheduler.currentTime })
+
+    private fun write(maxAttempts: Int) = GattOperation.WriteCharacteristic(
+        serviceUuid = BleConstants.SERVICE_UUID,
+        characteristicUuid = BleConstants.WRITE_CHAR_UUID,
+        value = byteArrayOf(0x01),
+        label = "테스트 쓰기",
+        timeoutMs = TIMEOUT_MS,
+        maxAttempts = maxAttempts
+    )
+
+    companion object {
+        private const val TIMEOUT_MS = 3_000L
+    }
+}
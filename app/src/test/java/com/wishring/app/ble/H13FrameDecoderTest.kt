@@ -0,0 +1,163 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.data.ble.H13FrameDecoder
+import com.wishring.app.data.ble.model.H13Frame
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.byte
+import io.kotest.property.arbitrary.byteArray
+import io.kotest.property.arbitrary.int
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+/**
+ * H13 네이티브 프레임 디코더 테스트
+ *
+ * 헤더 분기, 필드 오프셋, 잘린 프레임 처리를 검증합니다.
+ */
+@DisplayName("H13FrameDecoder 테스트")
+class H13FrameDecoderTest {
+
+    private fun frame(vararg bytes: Int, size: Int = 20): ByteArray =
+        ByteArray(size).also { out -> bytes.forEachIndexed { i, b -> out[i] = b.toByte() } }
+
+    @Nested
+    @DisplayName("배터리 프레임")
+    inner class BatteryFrameTest {
+
+        @ParameterizedTest
+        @ValueSource(ints = [0, 1, 57, 100, 255])
+        @DisplayName("0x0F 0x06 프레임의 byte[8]을 부호 없는 값으로 읽는다")
+        fun decodesBatteryLevel(level: Int) {
+            val data = frame(0x0F, 0x06, 0, 0, 0, 0, 0, 0, level)
+
+            assertThat(H13FrameDecoder.decode(data)).isEqualTo(H13Frame.Battery(level))
+        }
+
+        @Test
+        @DisplayName("배터리가 아닌 시스템 프레임은 Unknown")
+        fun otherSystemFrameIsUnknown() {
+            val data = frame(0x0F, 0x05, 0, 0, 0, 0, 0, 0, 80)
+
+            assertThat(H13FrameDecoder.decode(data)).isSameInstanceAs(H13Frame.Unknown)
+        }
+
+        @Test
+        @DisplayName("잘린 배터리 프레임은 Unknown")
+        fun truncatedBatteryFrameIsUnknown() {
+            val data = frame(0x0F, 0x06, size = 8)
+
+            assertThat(H13FrameDecoder.decode(data)).isSameInstanceAs(H13Frame.Unknown)
+        }
+    }
+
+    @Nested
+    @DisplayName("버튼/카운터/리셋 프레임")
+    inner class EventFrameTest {
+
+        @Test
+        @DisplayName("0xFC 0x3C 0x01은 위시 버튼")
+        fun decodesWishPress() {
+            val decoded = H13FrameDecoder.decode(frame(0xFC, 0x3C, 0x01))
+
+            assertThat(decoded).isEqualTo(H13Frame.Key(1))
+            assertThat((decoded as H13Frame.Key).isWishPress).isTrue()
+        }
+
+        @Test
+        @DisplayName("다른 키 코드는 위시 버튼이 아님")
+        fun otherKeyIsNotWishPress() {
+            val decoded = H13FrameDecoder.decode(frame(0xFC, 0x3C, 0x03)) as H13Frame.Key
+
+            assertThat(decoded.isWishPress).isFalse()
+        }
+
+        @Test
+        @DisplayName("4바이트 카운터는 Little Endian Int32")
+        fun decodesCounterLittleEndian() {
+            val data = byteArrayOf(0x39, 0x30, 0x00, 0x00)
+
+            assertThat(H13FrameDecoder.decode(data)).isEqualTo(H13Frame.Counter(12345))
+        }
+
+        @Test
+        @DisplayName("1바이트 리셋 신호")
+        fun decodesReset() {
+            assertThat(H13FrameDecoder.decode(byteArrayOf(0x01))).isSameInstanceAs(H13Frame.Reset)
+        }
+
+        @Test
+        @DisplayName("빈 프레임은 Unknown")
+        fun emptyFrameIsUnknown() {
+            assertThat(H13FrameDecoder.decode(ByteArray(0))).isSameInstanceAs(H13Frame.Unknown)
+        }
+    }
+
+    @Nested
+    @DisplayName("건강 데이터 프레임")
+    inner class HealthFrameTest {
+
+        @Test
+        @DisplayName("심박은 byte[1] 종류와 byte[12] bpm")
+        fun decodesHeartRate() {
+            val data = frame(0x0A, 0x03, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0xB4)
+            val decoded = H13FrameDecoder.decode(data)
+
+            assertThat(decoded).isEqualTo(H13Frame.Heart(kind = 3, bpm = 180))
+            assertThat((decoded as H13Frame.Heart).isRealTime).isTrue()
+        }
+
+        @Test
+        @DisplayName("실시간 걸음수는 3바이트 Big Endian 값 3개")
+        fun decodesRealTimeSteps() {
+            val data = frame(
+                0x03, 0x00,
+                0x01, 0x86, 0xA0,   // 100000 걸음
+                0x00, 0x03, 0xE8,   // 1000
+                0x00, 0x00, 0x2A    // 42
+            )
+
+            assertThat(H13FrameDecoder.decode(data))
+                .isEqualTo(H13Frame.Step(steps = 100_000, distance = 1_000, calories = 42))
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = [0x80, 0xC0])
+        @DisplayName("걸음수 기록 프레임은 Unknown (SDK 폴백)")
+        fun stepHistoryIsUnknown(kind: Int) {
+            assertThat(H13FrameDecoder.decode(frame(0x03, kind))).isSameInstanceAs(H13Frame.Unknown)
+        }
+
+        @Test
+        @DisplayName("ECG 파형은 byte[1] 상위 4비트 순번과 16비트 Big Endian 샘플")
+        fun decodesEcgWave() {
+            val data = frame(0x46, 0x71, 0x08, 0x00, 0xFF, 0xFF, 0x00, 0x2A)
+
+            val decoded = H13FrameDecoder.decode(data) as H13Frame.EcgWave
+
+            assertThat(decoded.sequence).isEqualTo(7)
+            assertThat(decoded.sampleCount).isEqualTo(9)
+            assertThat(decoded.sampleAt(0)).isEqualTo(0x0800)
+            assertThat(decoded.sampleAt(1)).isEqualTo(0xFFFF)
+            assertThat(decoded.sampleAt(2)).isEqualTo(42)
+        }
+    }
+
+    @Nested
+    @DisplayName("견고성")
+    inner class RobustnessTest {
+
+        @Test
+        @DisplayName("임의의 바이트 배열에서도 예외 없이 디코딩")
+        fun neverThrowsOnArbitraryInput() = runTest {
+            checkAll(200, Arb.byteArray(Arb.int(0..24), Arb.byte())) { data ->
+                H13FrameDecoder.decode(data)
+            }
+        }
+    }
+}
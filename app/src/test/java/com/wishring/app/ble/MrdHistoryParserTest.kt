@@ -0,0 +1,125 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.data.ble.MrdHistoryParser
+import com.wishring.app.data.ble.model.HistorySample
+import com.wishring.app.data.model.HealthRecordType
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+
+/**
+ * MRD SDK 기록 응답 파서 테스트
+ *
+ * SDK 빈 필드 이름 기준 JSON에서 기록/진행 정보를 읽는지 검증합니다.
+ */
+@DisplayName("MrdHistoryParser 테스트")
+class MrdHistoryParserTest {
+
+    private val zone = ZoneOffset.UTC
+
+    private fun millis(text: String): Long = LocalDateTime.parse(text).toInstant(zone).toEpochMilli()
+
+    @Nested
+    @DisplayName("스트림 응답")
+    inner class StreamTests {
+
+        @Test
+        @DisplayName("걸음 기록 - 기록 번호와 전체 수")
+        fun `step history should carry index and total`() {
+            val json = """{"stepDateLong":1715328000000,"hisLength":12,"hisCount":3,"stepNum":820,"stepMileage":540,"stepCalorie":31}"""
+
+            val frame = MrdHistoryParser.parse("Step_history", json, zone = zone)!!
+
+            assertThat(frame.type).isEqualTo(HealthRecordType.STEPS)
+            assertThat(frame.total).isEqualTo(12)
+            assertThat(frame.index).isEqualTo(3)
+            assertThat(frame.samples).containsExactly(HistorySample(1715328000000L, 820, 540, 31))
+        }
+
+        @Test
+        @DisplayName("초 단위 타임스탬프는 밀리초로 변환")
+        fun `seconds timestamp should be converted`() {
+            val json = """{"stepDateLong":1715328000,"stepNum":1}"""
+
+            val frame = MrdHistoryParser.parse("Sport_history", json, zone = zone)!!
+
+            assertThat(frame.samples.single().time).isEqualTo(1715328000000L)
+        }
+
+        @Test
+        @DisplayName("수면 기록 - 시작 시각과 분 단위 길이")
+        fun `sleep history should parse start and duration`() {
+            val json = """{"sleepLength":4,"sleepNum":1,"sleepStartTime":"2024-05-10 23:10","sleepEndTime":"2024-05-11 01:40","sleepDataType":1}"""
+
+            val frame = MrdHistoryParser.parse("SleepHistory", json, zone = zone)!!
+
+            assertThat(frame.samples).containsExactly(HistorySample(millis("2024-05-10T23:10"), 150, 1))
+            assertThat(frame.total).isEqualTo(4)
+        }
+
+        @Test
+        @DisplayName("HRV 기록 - 두 자리 연도")
+        fun `hrv history should accept two digit year`() {
+            val json = """{"dataNum":2,"index":0,"year":24,"month":5,"day":10,"hour":8,"minute":30,"second":15,"hrv":42}"""
+
+            val frame = MrdHistoryParser.parse("Hrv_History_Data", json, zone = zone)!!
+
+            assertThat(frame.samples).containsExactly(HistorySample(millis("2024-05-10T08:30:15"), 42))
+        }
+
+        @Test
+        @DisplayName("기록 수 응답은 기록 없이 전체 수만")
+        fun `count response should be count only`() {
+            val frame = MrdHistoryParser.parse("SleepNum", """{"sleepLength":7}""", zone = zone)!!
+
+            assertThat(frame.isCountOnly).isTrue()
+            assertThat(frame.total).isEqualTo(7)
+            assertThat(frame.samples).isEmpty()
+        }
+    }
+
+    @Nested
+    @DisplayName("일별 목록 응답")
+    inner class DayListTests {
+
+        @Test
+        @DisplayName("하루를 같은 간격으로 나누고 0은 건너뜀")
+        fun `day list should spread samples over the day`() {
+            val day = LocalDate.of(2024, 5, 10)
+            val json = """{"hrList":[60,0,72,80]}"""
+
+            val frame = MrdHistoryParser.parse("Hr_History_Data", json, day, zone)!!
+
+            assertThat(frame.type).isEqualTo(HealthRecordType.HEART_RATE)
+            assertThat(frame.samples.map { it.time }).containsExactly(
+                millis("2024-05-10T00:00"), millis("2024-05-10T12:00"), millis("2024-05-10T18:00")
+            ).inOrder()
+            assertThat(frame.samples.map { it.value }).containsExactly(60, 72, 80).inOrder()
+        }
+
+        @Test
+        @DisplayName("체온은 0.01도 단위 정수")
+        fun `temperature should be stored in hundredths`() {
+            val frame = MrdHistoryParser.parse("Temp_History_Data", """{"tempList":[36.57]}""", LocalDate.of(2024, 5, 10), zone)!!
+
+            assertThat(frame.samples.single().value).isEqualTo(3657)
+        }
+
+        @Test
+        @DisplayName("요청 날짜가 없으면 해석하지 않음")
+        fun `day list without day should be ignored`() {
+            assertThat(MrdHistoryParser.parse("Hr_History_Data", """{"hrList":[60]}""", zone = zone)).isNull()
+        }
+    }
+
+    @Test
+    @DisplayName("기록이 아닌 응답과 깨진 JSON은 null")
+    fun `non history frames should be ignored`() {
+        assertThat(MrdHistoryParser.parse("battery", """{"battery":80}""", zone = zone)).isNull()
+        assertThat(MrdHistoryParser.parse("SleepHistory", "{not json", zone = zone)).isNull()
+    }
+}
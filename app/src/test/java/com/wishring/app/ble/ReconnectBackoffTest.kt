@@ -0,0 +1,64 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.long
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+
+/**
+ * Test suite for reconnect backoff
+ */
+@DisplayName("ReconnectBackoff 테스트")
+class ReconnectBackoffTest {
+
+    private val backoff = ReconnectBackoff(initialDelayMs = 100L, maxDelayMs = 30_000L, jitterRatio = 0.2)
+
+    /** 지터 없이 기준값을 돌려주는 Random */
+    private val noJitter = object : Random() {
+        override fun nextBits(bitCount: Int): Int = 0
+    }
+
+    @Nested
+    @DisplayName("대기 시간")
+    inner class DelayTests {
+
+        @Test
+        @DisplayName("시도마다 두 배씩 증가")
+        fun `delay should double per attempt`() {
+            val delays = (1..5).map { backoff.delayFor(it, noJitter) }
+
+            assertThat(delays).containsExactly(100L, 200L, 400L, 800L, 1_600L).inOrder()
+        }
+
+        @Test
+        @DisplayName("상한을 넘지 않음 - 시도 횟수가 매우 커도 오버플로 없음")
+        fun `delay should be capped`() {
+            assertThat(backoff.delayFor(10, noJitter)).isEqualTo(30_000L)
+            assertThat(backoff.delayFor(Int.MAX_VALUE, noJitter)).isEqualTo(30_000L)
+        }
+
+        @Test
+        @DisplayName("지터는 기준값에서 최대 20%까지만 줄임")
+        fun `jitter should stay within ratio`() = runTest {
+            checkAll(Arb.int(1..40), Arb.long()) { attempt, seed ->
+                val base = backoff.delayFor(attempt, noJitter)
+                val delay = backoff.delayFor(attempt, Random(seed))
+
+                assertThat(delay).isAtMost(base)
+                assertThat(delay).isAtLeast((base * 0.8).toLong())
+            }
+        }
+
+        @Test
+        @DisplayName("잠깐 끊긴 경우 첫 재시도는 즉시에 가까움")
+        fun `first retry should be fast`() {
+            assertThat(ReconnectBackoff().delayFor(1, noJitter)).isAtMost(100L)
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import kotlin.math.ceil
+
+/**
+ * 슬라이딩 윈도우 통계 / 다운샘플링 테스트
+ *
+ * 윈도우 만료, 용량 상한, 단조 덱 최소/최대를 전체 재계산 결과와 비교합니다.
+ */
+@DisplayName("SlidingWindowStats 테스트")
+class SlidingWindowStatsTest {
+
+    @Nested
+    @DisplayName("윈도우 통계")
+    inner class WindowTest {
+
+        @Test
+        @DisplayName("빈 윈도우는 모두 null")
+        fun emptyWindowIsNull() {
+            val stats = SlidingWindowStats(windowMs = 1_000, capacity = 8, minValue = 0, maxValue = 100)
+
+            assertThat(stats.count).isEqualTo(0)
+            assertThat(stats.min()).isNull()
+            assertThat(stats.max()).isNull()
+            assertThat(stats.mean()).isNull()
+            assertThat(stats.percentile(0.5)).isNull()
+        }
+
+        @Test
+        @DisplayName("윈도우를 지난 샘플은 빠짐")
+        fun expiredSamplesAreEvicted() {
+            val stats = SlidingWindowStats(windowMs = 1_000, capacity = 8, minValue = 0, maxValue = 200)
+            stats.add(0, 150)
+            stats.add(500, 60)
+            stats.add(900, 80)
+
+            stats.evict(1_000)
+
+            assertThat(stats.count).isEqualTo(2)
+            assertThat(stats.max()).isEqualTo(80)
+            assertThat(stats.min()).isEqualTo(60)
+            assertThat(stats.mean()).isEqualTo(70.0)
+            assertThat(stats.latest()).isEqualTo(80)
+        }
+
+        @Test
+        @DisplayName("용량을 넘으면 가장 오래된 샘플부터 빠짐")
+        fun capacityDropsOldest() {
+            val stats = SlidingWindowStats(windowMs = 60_000, capacity = 3, minValue = 0, maxValue = 10)
+            listOf(1, 9, 5, 4).forEachIndexed { i, value -> stats.add(i.toLong(), value) }
+
+            assertThat(stats.count).isEqualTo(3)
+            assertThat(stats.min()).isEqualTo(4)
+            assertThat(stats.max()).isEqualTo(9)
+        }
+
+        @Test
+        @DisplayName("백분위는 nearest-rank, 범위 밖 값은 양 끝 구간")
+        fun percentileIsNearestRank() {
+            val stats = SlidingWindowStats(windowMs = 60_000, capacity = 16, minValue = 0, maxValue = 100)
+            (1..10).forEach { stats.add(it.toLong(), it * 10) }
+
+            assertThat(stats.percentile(0.5)).isEqualTo(50)
+            assertThat(stats.percentile(0.9)).isEqualTo(90)
+            assertThat(stats.percentile(0.0)).isEqualTo(10)
+
+            stats.add(11, 150)
+            assertThat(stats.percentile(1.0)).isEqualTo(100)
+            assertThat(stats.max()).isEqualTo(150)
+        }
+
+        @Test
+        @DisplayName("clear 후 다시 채워도 통계가 맞음")
+        fun clearResets() {
+            val stats = SlidingWindowStats(windowMs = 1_000, capacity = 4, minValue = 0, maxValue = 10)
+            listOf(3, 7, 1).forEachIndexed { i, value -> stats.add(i.toLong(), value) }
+
+            stats.clear()
+            stats.add(10, 5)
+            stats.add(11, 2)
+
+            assertThat(stats.min()).isEqualTo(2)
+            assertThat(stats.max()).isEqualTo(5)
+            assertThat(stats.mean()).isEqualTo(3.5)
+        }
+
+        @Test
+        @DisplayName("임의 스트림에서 전체 재계산과 같은 결과")
+        fun matchesBruteForce() = runTest {
+            checkAll(200, Arb.list(Arb.int(0..250), 1..200), Arb.int(1..40)) { values, step ->
+                val windowMs = 1_000L
+                val capacity = 32
+                val stats = SlidingWindowStats(windowMs, capacity, minValue = 0, maxValue = 250)
+                val window = ArrayDeque<Pair<Long, Int>>()
+
+                values.forEachIndexed { i, value ->
+                    val now = i.toLong() * step
+                    stats.add(now, value)
+                    window.addLast(now to value)
+                    while (window.first().first <= now - windowMs) window.removeFirst()
+                    while (window.size > capacity) window.removeFirst()
+
+                    val current = window.map { it.second }
+                    val sorted = current.sorted()
+                    assertThat(stats.count).isEqualTo(current.size)
+                    assertThat(stats.min()).isEqualTo(sorted.first())
+                    assertThat(stats.max()).isEqualTo(sorted.last())
+                    assertThat(stats.mean()).isWithin(1e-9).of(current.average())
+                    assertThat(stats.percentile(0.9))
+                        .isEqualTo(sorted[maxOf(1, ceil(0.9 * sorted.size).toInt()) - 1])
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("다운샘플링")
+    inner class DownsampleTest {
+
+        @Test
+        @DisplayName("구간이 바뀌면 이전 구간 평균을 구간 시작 시각으로 남김")
+        fun closesBucketOnNextBucket() {
+            val buffer = DownsampleBuffer(bucketMs = 60_000)
+            buffer.add(60_000, 70)
+            buffer.add(90_000, 81)
+            buffer.add(125_000, 90)
+
+            assertThat(buffer.pending).isEqualTo(1)
+            val (times, values) = buffer.drain()!!
+            assertThat(times.toList()).containsExactly(60_000L)
+            assertThat(values.toList()).containsExactly(76)
+            assertThat(buffer.drain()).isNull()
+        }
+
+        @Test
+        @DisplayName("flush는 진행 중인 구간도 닫음")
+        fun flushClosesCurrentBucket() {
+            val buffer = DownsampleBuffer(bucketMs = 60_000, initialCapacity = 1)
+            buffer.add(0, 60)
+            buffer.add(60_000, 62)
+            buffer.flush()
+
+            val (times, values) = buffer.drain()!!
+            assertThat(times.toList()).containsExactly(0L, 60_000L).inOrder()
+            assertThat(values.toList()).containsExactly(60, 62).inOrder()
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.wishring.app.ble
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.ble.model.VitalAlertLevel
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+
+/**
+ * 임계값 알림 판정 테스트
+ *
+ * 지속 시간, 히스테리시스, 중복 알림 방지를 검증합니다.
+ */
+@DisplayName("ThresholdAlarm 테스트")
+class ThresholdAlarmTest {
+
+    @Test
+    @DisplayName("기준을 벗어난 상태가 지속 시간만큼 이어져야 알림")
+    fun alertsAfterSustain() {
+        val alarm = ThresholdAlarm(high = 120, sustainMs = 30_000)
+
+        assertThat(alarm.update(0, 130)).isNull()
+        assertThat(alarm.update(20_000, 125)).isNull()
+        assertThat(alarm.update(30_000, 128)).isEqualTo(VitalAlertLevel.HIGH)
+        assertThat(alarm.level).isEqualTo(VitalAlertLevel.HIGH)
+    }
+
+    @Test
+    @DisplayName("지속 시간 전에 정상으로 돌아오면 다시 잼")
+    fun shortBreachIsIgnored() {
+        val alarm = ThresholdAlarm(high = 120, sustainMs = 30_000)
+
+        alarm.update(0, 130)
+        alarm.update(10_000, 100)
+
+        assertThat(alarm.update(35_000, 130)).isNull()
+        assertThat(alarm.update(64_000, 130)).isNull()
+        assertThat(alarm.update(65_000, 130)).isEqualTo(VitalAlertLevel.HIGH)
+    }
+
+    @Test
+    @DisplayName("알림은 한 번만, 히스테리시스만큼 돌아와야 해제")
+    fun clearsWithHysteresis() {
+        val alarm = ThresholdAlarm(low = 90, hysteresis = 2)
+
+        assertThat(alarm.update(0, 88)).isEqualTo(VitalAlertLevel.LOW)
+        assertThat(alarm.update(1_000, 87)).isNull()
+        assertThat(alarm.update(2_000, 91)).isNull()
+        assertThat(alarm.update(3_000, 92)).isEqualTo(VitalAlertLevel.NORMAL)
+        assertThat(alarm.update(4_000, 89)).isEqualTo(VitalAlertLevel.LOW)
+    }
+
+    @Test
+    @DisplayName("기준이 없는 쪽은 판정하지 않음")
+    fun missingLimitIsIgnored() {
+        val alarm = ThresholdAlarm(low = 90)
+
+        assertThat(alarm.update(0, 250)).isNull()
+        assertThat(alarm.level).isEqualTo(VitalAlertLevel.NORMAL)
+    }
+}
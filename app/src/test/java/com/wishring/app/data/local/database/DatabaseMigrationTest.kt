@@ -1,21 +1,27 @@
 package com.wishring.app.data.local.database
 
-import androidx.room.Room
 import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
 import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
-import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.common.truth.Truth.assertThat
 import com.wishring.app.core.util.Constants
-import kotlinx.serialization.decodeFromString
-import kotlinx.serialization.json.Json
+import com.wishring.app.data.local.database.entity.ResetLogEntity
+import com.wishring.app.data.local.database.entity.StatsRollupEntity
+import com.wishring.app.data.local.database.entity.WishEntity
+import com.wishring.app.data.local.database.migration.StatsRollupTriggers
+import com.wishring.app.data.local.database.migration.WishRingMigrations
 import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
-import kotlin.test.assertEquals
-import kotlin.test.assertTrue
+import java.time.LocalDate
 
 /**
  * Test database migrations to ensure data integrity
+ *
+ * 내보낸 스키마(app/schemas)로 이전 버전 DB를 만든 뒤, 손으로 작성한 마이그레이션을 실행하고
+ * 현재 엔티티 스키마와 일치하는지 검증합니다.
  */
 @RunWith(AndroidJUnit4::class)
 class DatabaseMigrationTest {
@@ -24,151 +30,399 @@ class DatabaseMigrationTest {
 
     @get:Rule
     val helper: MigrationTestHelper = MigrationTestHelper(
-        ApplicationProvider.getApplicationContext(),
-        WishRingDatabase::class.java.canonicalName,
+        InstrumentationRegistry.getInstrumentation(),
+        WishRingDatabase::class.java,
+        emptyList(),
         FrameworkSQLiteOpenHelperFactory()
     )
 
+    private fun epochDay(date: String): Long = LocalDate.parse(date).toEpochDay()
+
     @Test
-    fun migrate2To3_WithExistingWishData_ShouldPreserveDataAndConvertToMultiWish() {
-        // Create database with version 2
-        var db = helper.createDatabase(TEST_DB, 2).apply {
-            // Insert test data in version 2 format
+    fun migrate1ToLatest_ShouldConvertDateKeyToEpochDayAndKeepRows() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-01-15', 150, 'My first wish', 1000, 0, 1705276800000, 1705276800000, '[{"text":"My first wish"}]', 0)
+            """)
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-02-29', 1000, 'Leap day', 1000, 1, 1709164800000, 1709164800000, '[]', 0)
+            """)
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        val cursor = db.query(
+            "SELECT epoch_day, total_count, wish_text, target_count, is_completed FROM wishes ORDER BY epoch_day"
+        )
+        assertThat(cursor.count).isEqualTo(2)
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getLong(0)).isEqualTo(epochDay("2024-01-15"))
+        assertThat(cursor.getInt(1)).isEqualTo(150)
+        assertThat(cursor.getString(2)).isEqualTo("My first wish")
+        assertThat(cursor.getInt(3)).isEqualTo(1000)
+        assertThat(cursor.getInt(4)).isEqualTo(0)
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getLong(0)).isEqualTo(epochDay("2024-02-29"))
+        assertThat(cursor.getInt(4)).isEqualTo(1)
+
+        cursor.close()
+        db.close()
+    }
+
+    @Test
+    fun migrate1ToLatest_ShouldCreateCoveringIndex() {
+        helper.createDatabase(TEST_DB, 1).close()
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        val cursor = db.query("PRAGMA index_info(`${WishEntity.INDEX_COUNTS}`)")
+        val columns = mutableListOf<String>()
+        while (cursor.moveToNext()) {
+            columns.add(cursor.getString(2))
+        }
+        assertThat(columns).containsExactly("epoch_day", "total_count", "target_count", "is_completed").inOrder()
+
+        cursor.close()
+        db.close()
+    }
+
+    @Test
+    fun migrate1ToLatest_WithMalformedDate_ShouldSkipOnlyThatRow() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('not-a-date', 10, 'broken', 1000, 0, 0, 0, '[]', 0)
+            """)
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-01-15', 20, 'valid', 1000, 0, 0, 0, '[]', 0)
+            """)
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        val cursor = db.query("SELECT epoch_day, wish_text FROM wishes")
+        assertThat(cursor.count).isEqualTo(1)
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getLong(0)).isEqualTo(epochDay("2024-01-15"))
+        assertThat(cursor.getString(1)).isEqualTo("valid")
+
+        cursor.close()
+        db.close()
+    }
+
+    @Test
+    fun migrate2ToLatest_ShouldKeepWishTextWithSpecialCharacters() {
+        helper.createDatabase(TEST_DB, 2).apply {
             execSQL("""
                 INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at)
-                VALUES ('2024-01-15', 150, 'My first wish', 1000, 0, 1642204800000, 1642204800000)
+                VALUES ('2024-01-15', 150, 'My first wish', 1000, 0, 1705276800000, 1705276800000)
             """)
-            
             execSQL("""
                 INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at)
-                VALUES ('2024-01-16', 500, 'Wish with "quotes" and \backslash', 2000, 0, 1642291200000, 1642291200000)
+                VALUES ('2024-01-16', 500, 'Wish with "quotes" and \backslash', 2000, 0, 1705363200000, 1705363200000)
             """)
-            
             execSQL("""
                 INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at)
-                VALUES ('2024-01-17', 0, '', 1000, 0, 1642377600000, 1642377600000)
+                VALUES ('2024-01-17', 30, 'first line' || char(10) || 'second' || char(9) || 'tabbed' || char(13), 1000, 0, 1705449600000, 1705449600000)
+            """)
+            execSQL("""
+                INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at)
+                VALUES ('2024-01-18', 0, '', 1000, 0, 1705536000000, 1705536000000)
             """)
-            
             close()
         }
 
-        // Run the migration to version 3
-        db = helper.runMigrationsAndValidate(TEST_DB, 3, true)
-
-        // Verify migration results
-        val cursor = db.query("SELECT date, total_count, wish_text, target_count, wishes_json, active_wish_index FROM wish_counts ORDER BY date")
-        
-        // Test first record - normal wish text
-        assertTrue(cursor.moveToNext())
-        val date1 = cursor.getString(0)
-        val totalCount1 = cursor.getInt(1)
-        val wishText1 = cursor.getString(2)
-        val targetCount1 = cursor.getInt(3)
-        val wishesJson1 = cursor.getString(4)
-        val activeWishIndex1 = cursor.getInt(5)
-        
-        assertEquals("2024-01-15", date1)
-        assertEquals(150, totalCount1) // Preserved original count
-        assertEquals("My first wish", wishText1)
-        assertEquals(1000, targetCount1)
-        assertEquals(0, activeWishIndex1)
-        
-        // Parse and verify wishes JSON
-        val wishes1 = Json.decodeFromString<List<Map<String, Any>>>(wishesJson1)
-        assertEquals(1, wishes1.size)
-        assertEquals("My first wish", wishes1[0]["text"])
-        assertEquals(1000.0, wishes1[0]["targetCount"]) // JSON numbers are doubles
-        
-        // Test second record - wish with special characters
-        assertTrue(cursor.moveToNext())
-        val date2 = cursor.getString(0)
-        val totalCount2 = cursor.getInt(1)
-        val wishesJson2 = cursor.getString(4)
-        
-        assertEquals("2024-01-16", date2)
-        assertEquals(500, totalCount2) // Preserved original count
-        
-        val wishes2 = Json.decodeFromString<List<Map<String, Any>>>(wishesJson2)
-        assertEquals(1, wishes2.size)
-        assertEquals("Wish with \"quotes\" and \\backslash", wishes2[0]["text"])
-        assertEquals(2000.0, wishes2[0]["targetCount"])
-        
-        // Test third record - empty wish text
-        assertTrue(cursor.moveToNext())
-        val date3 = cursor.getString(0)
-        val totalCount3 = cursor.getInt(1)
-        val wishesJson3 = cursor.getString(4)
-        
-        assertEquals("2024-01-17", date3)
-        assertEquals(0, totalCount3)
-        assertEquals("[]", wishesJson3) // Empty wish should result in empty array
-        
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        val dayCursor = db.query("SELECT COUNT(*) FROM wishes")
+        assertThat(dayCursor.moveToNext()).isTrue()
+        assertThat(dayCursor.getInt(0)).isEqualTo(4)
+        dayCursor.close()
+
+        val cursor = db.query("SELECT epoch_day, text, target_count, count FROM wish_items ORDER BY epoch_day")
+        assertThat(cursor.count).isEqualTo(3)
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getLong(0)).isEqualTo(epochDay("2024-01-15"))
+        assertThat(cursor.getString(1)).isEqualTo("My first wish")
+        assertThat(cursor.getInt(2)).isEqualTo(1000)
+        assertThat(cursor.getInt(3)).isEqualTo(150) // Only slot carries the day's count
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getString(1)).isEqualTo("Wish with \"quotes\" and \\backslash")
+        assertThat(cursor.getInt(2)).isEqualTo(2000)
+        assertThat(cursor.getInt(3)).isEqualTo(500)
+
+        // 줄바꿈/탭이 든 위시도 JSON으로 옮겨졌다가 그대로 복원된다
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getLong(0)).isEqualTo(epochDay("2024-01-17"))
+        assertThat(cursor.getString(1)).isEqualTo("first line\nsecond\ttabbed\r")
+        assertThat(cursor.getInt(3)).isEqualTo(30)
+
+        // 빈 위시는 항목 없이 하루 기록만 남는다
+        assertThat(cursor.moveToNext()).isFalse()
         cursor.close()
         db.close()
     }
 
     @Test
-    fun migrate2To3_WithEmptyDatabase_ShouldAddColumnsWithDefaults() {
-        // Create database with version 2
-        var db = helper.createDatabase(TEST_DB, 2).apply {
-            close()
-        }
+    fun migrate2ToLatest_WithEmptyDatabase_ShouldValidate() {
+        helper.createDatabase(TEST_DB, 2).close()
 
-        // Run the migration to version 3
-        db = helper.runMigrationsAndValidate(TEST_DB, 3, true)
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
 
-        // Verify new columns exist with correct defaults
-        val cursor = db.query("PRAGMA table_info(wish_counts)")
-        val columnNames = mutableListOf<String>()
-        
-        while (cursor.moveToNext()) {
-            columnNames.add(cursor.getString(1)) // Column name is at index 1
-        }
-        
-        assertTrue(columnNames.contains("wishes_json"))
-        assertTrue(columnNames.contains("active_wish_index"))
-        
+        val cursor = db.query("SELECT name FROM sqlite_master WHERE type='table' AND name = 'wish_counts'")
+        assertThat(cursor.count).isEqualTo(0)
         cursor.close()
         db.close()
     }
 
     @Test
-    fun fullMigrationPath_Version1To3_ShouldWorkCorrectly() {
-        // Test the full migration path from version 1 to 3
-        var db = helper.createDatabase(TEST_DB, 1).apply {
-            // Insert test data in version 1 format
+    fun migrate3ToLatest_ShouldMoveLegacyWishCountsAndResetLogs() {
+        helper.createDatabase(TEST_DB, 3).apply {
             execSQL("""
-                INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at)
-                VALUES ('2024-01-15', 100, 'Test wish', 1000, 0, 1642204800000, 1642204800000)
+                INSERT INTO wish_counts (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-01-16', 500, 'Wish with "quotes"', 2000, 0, 1705363200000, 1705363200000, '[{"text":"Wish with \"quotes\""}]', 0)
+            """)
+            execSQL("""
+                INSERT INTO reset_logs (date, reset_time, count_before_reset, reset_type, notes)
+                VALUES ('2024-01-16', 1705400000000, 420, 'MANUAL', NULL)
             """)
             close()
         }
 
-        // Run all migrations
-        db = helper.runMigrationsAndValidate(TEST_DB, 3, true)
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
 
-        // Verify the final state includes both BLE event logs table and wishes JSON
         val tablesCursor = db.query("SELECT name FROM sqlite_master WHERE type='table'")
         val tableNames = mutableListOf<String>()
-        
         while (tablesCursor.moveToNext()) {
             tableNames.add(tablesCursor.getString(0))
         }
-        
-        assertTrue(tableNames.contains("wish_counts"))
-        assertTrue(tableNames.contains("ble_event_logs"))
-        
-        // Verify wish data was migrated correctly
-        val wishCursor = db.query("SELECT wishes_json FROM wish_counts WHERE date = '2024-01-15'")
-        assertTrue(wishCursor.moveToNext())
-        val wishesJson = wishCursor.getString(0)
-        
-        val wishes = Json.decodeFromString<List<Map<String, Any>>>(wishesJson)
-        assertEquals(1, wishes.size)
-        assertEquals("Test wish", wishes[0]["text"])
-        
+        assertThat(tableNames).containsAtLeast(Constants.TABLE_WISHES, Constants.TABLE_WISH_ITEMS, Constants.TABLE_RESET_LOGS)
+        assertThat(tableNames).containsNoneOf("wish_counts", "reset_logs_v3", "ble_event_logs")
+
+        val wishCursor = db.query("SELECT total_count, target_count FROM wishes WHERE epoch_day = ${epochDay("2024-01-16")}")
+        assertThat(wishCursor.moveToNext()).isTrue()
+        assertThat(wishCursor.getInt(0)).isEqualTo(500) // Preserved original count
+        assertThat(wishCursor.getInt(1)).isEqualTo(2000)
+
+        val itemCursor = db.query("SELECT text, count FROM wish_items WHERE epoch_day = ${epochDay("2024-01-16")}")
+        assertThat(itemCursor.count).isEqualTo(1)
+        assertThat(itemCursor.moveToNext()).isTrue()
+        assertThat(itemCursor.getString(0)).isEqualTo("Wish with \"quotes\"")
+        assertThat(itemCursor.getInt(1)).isEqualTo(500)
+        itemCursor.close()
+
+        // v3 리셋 기록은 v10 reset_logs로 옮겨지고 일별 리셋 횟수에도 반영된다
+        val resetCursor = db.query("SELECT device_address, reset_time, epoch_day, count_before_reset, source FROM reset_logs")
+        assertThat(resetCursor.count).isEqualTo(1)
+        assertThat(resetCursor.moveToNext()).isTrue()
+        assertThat(resetCursor.getString(0)).isEmpty()
+        assertThat(resetCursor.getLong(1)).isEqualTo(1705400000000L)
+        assertThat(resetCursor.getLong(2)).isEqualTo(epochDay("2024-01-16"))
+        assertThat(resetCursor.getInt(3)).isEqualTo(420)
+        assertThat(resetCursor.getInt(4)).isEqualTo(ResetLogEntity.SOURCE_LEGACY)
+        resetCursor.close()
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_DAY, epochDay("2024-01-16"))).isEqualTo(1)
+
         tablesCursor.close()
         wishCursor.close()
         db.close()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun migrate1ToLatest_ShouldSplitWishesJsonIntoItems() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-03-01', 300, 'second', 1000, 0, 0, 0, '[{"text":"first","targetCount":500},{"text":"second"},{"text":"third"}]', 1)
+            """)
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-03-02', 10, 'broken json', 1000, 0, 0, 0, '[{"text":', 0)
+            """)
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        val cursor = db.query(
+            "SELECT slot_index, text, target_count, count FROM wish_items WHERE epoch_day = ${epochDay("2024-03-01")} ORDER BY slot_index"
+        )
+        assertThat(cursor.count).isEqualTo(3)
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getString(1)).isEqualTo("first")
+        assertThat(cursor.getInt(2)).isEqualTo(500)
+        assertThat(cursor.getInt(3)).isEqualTo(0)
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getString(1)).isEqualTo("second")
+        assertThat(cursor.getInt(3)).isEqualTo(300) // Active slot carries the day's count
+
+        assertThat(cursor.moveToNext()).isTrue()
+        assertThat(cursor.getString(1)).isEqualTo("third")
+        cursor.close()
+
+        // 깨진 JSON은 위시 없이 하루 기록만 남는다
+        val brokenDay = db.query("SELECT total_count FROM wishes WHERE epoch_day = ${epochDay("2024-03-02")}")
+        assertThat(brokenDay.moveToNext()).isTrue()
+        assertThat(brokenDay.getInt(0)).isEqualTo(10)
+        brokenDay.close()
+
+        val brokenItems = db.query("SELECT COUNT(*) FROM wish_items WHERE epoch_day = ${epochDay("2024-03-02")}")
+        assertThat(brokenItems.moveToNext()).isTrue()
+        assertThat(brokenItems.getInt(0)).isEqualTo(0)
+        brokenItems.close()
+
+        db.close()
+    }
+
+    @Test
+    fun migrate1ToLatest_ShouldBuildStatsRollupFromExistingRows() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            // 2024-03-03(일)과 2024-03-04(월)는 서로 다른 ISO 주, 같은 달
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-03-03', 1000, 'a', 1000, 1, 0, 0, '[]', 0)
+            """)
+            execSQL("""
+                INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                VALUES ('2024-03-04', 200, 'b', 1000, 0, 0, 0, '[]', 0)
+            """)
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(Triple(1200L, 2, 1))
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_WEEK, StatsRollupEntity.weekKey(LocalDate.parse("2024-03-03"))))
+            .isEqualTo(Triple(1000L, 1, 1))
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_WEEK, StatsRollupEntity.weekKey(LocalDate.parse("2024-03-04"))))
+            .isEqualTo(Triple(200L, 1, 0))
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_MONTH, 202403L)).isEqualTo(Triple(1200L, 2, 1))
+
+        db.close()
+    }
+
+    @Test
+    fun statsRollupTriggers_ShouldTrackInsertUpdateAndDelete() {
+        helper.createDatabase(TEST_DB, 1).close()
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+        StatsRollupTriggers.enableRecursiveTriggers(db)
+        val day = epochDay("2024-05-10")
+
+        db.execSQL("""
+            INSERT INTO wishes (epoch_day, total_count, wish_text, target_count, is_completed, created_at, updated_at, active_wish_index)
+            VALUES ($day, 10, 'w', 100, 0, 0, 0, 0)
+        """)
+        db.execSQL("UPDATE wishes SET total_count = 100, is_completed = 1 WHERE epoch_day = $day")
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(Triple(100L, 1, 1))
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_MONTH, 202405L)).isEqualTo(Triple(100L, 1, 1))
+
+        // REPLACE는 기존 행 삭제 후 삽입 - 이중 집계되지 않아야 한다
+        db.execSQL("""
+            INSERT OR REPLACE INTO wishes (epoch_day, total_count, wish_text, target_count, is_completed, created_at, updated_at, active_wish_index)
+            VALUES ($day, 40, 'w', 100, 0, 0, 0, 0)
+        """)
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(Triple(40L, 1, 0))
+
+        db.execSQL("DELETE FROM wishes WHERE epoch_day = $day")
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(Triple(0L, 0, 0))
+        assertThat(rollup(db, StatsRollupEntity.SCOPE_WEEK, StatsRollupEntity.weekKey(LocalDate.parse("2024-05-10"))))
+            .isEqualTo(Triple(0L, 0, 0))
+
+        db.close()
+    }
+
+    @Test
+    fun streakTriggers_ShouldRelinkFollowingRunOnBackfill() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            // 3/1, 3/2 완료 / 3/3 미기록 / 3/4, 3/5 완료
+            listOf("2024-03-01", "2024-03-02", "2024-03-04", "2024-03-05").forEach { date ->
+                execSQL("""
+                    INSERT INTO wishes (date, total_count, wish_text, target_count, is_completed, created_at, updated_at, wishes_json, active_wish_index)
+                    VALUES ('$date', 100, 'w', 100, 1, 0, 0, '[]', 0)
+                """)
+            }
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+        StatsRollupTriggers.enableRecursiveTriggers(db)
+        assertThat(streakLength(db, "2024-03-05")).isEqualTo(2)
+
+        // 빠진 날을 백필하면 뒤 구간이 앞 구간에 이어진다
+        val gap = epochDay("2024-03-03")
+        db.execSQL("""
+            INSERT INTO wishes (epoch_day, total_count, wish_text, target_count, is_completed, created_at, updated_at, active_wish_index)
+            VALUES ($gap, 100, 'w', 100, 1, 0, 0, 0)
+        """)
+        assertThat(streakLength(db, "2024-03-05")).isEqualTo(5)
+
+        // 완료 취소 시 다시 끊어진다
+        db.execSQL("UPDATE wishes SET is_completed = 0 WHERE epoch_day = ${epochDay("2024-03-02")}")
+        assertThat(streakLength(db, "2024-03-02")).isNull()
+        assertThat(streakLength(db, "2024-03-05")).isEqualTo(3)
+
+        db.close()
+    }
+
+    @Test
+    fun resetLogTriggers_ShouldCountResetsPerDayAndIgnoreDuplicates() {
+        helper.createDatabase(TEST_DB, 1).close()
+        val db = helper.runMigrationsAndValidate(TEST_DB, Constants.DATABASE_VERSION, true, *WishRingMigrations.ALL)
+        val day = epochDay("2024-05-10")
+
+        listOf("'A', 1000" to day, "'A', 2000" to day, "'B', 1000" to day + 1, "'A', 1000" to day).forEach { (key, epochDay) ->
+            db.execSQL("""
+                INSERT OR IGNORE INTO reset_logs (device_address, reset_time, epoch_day, count_before_reset, source)
+                VALUES ($key, $epochDay, 50, ${ResetLogEntity.SOURCE_DEVICE})
+            """)
+        }
+
+        // (A, 1000) 중복은 무시되어 총 3건
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(3)
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_DAY, day)).isEqualTo(2)
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_DAY, day + 1)).isEqualTo(1)
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_MONTH, 202405L)).isEqualTo(3)
+
+        // 재생으로 다시 계산해도 같은 값
+        StatsRollupTriggers.rebuildResetCounts(db)
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_DAY, day)).isEqualTo(2)
+        assertThat(resetCount(db, StatsRollupEntity.SCOPE_ALL, StatsRollupEntity.ALL_TIME_KEY)).isEqualTo(3)
+
+        db.close()
+    }
+
+    private fun resetCount(db: SupportSQLiteDatabase, scope: Int, key: Long): Int? {
+        db.query("SELECT reset_count FROM stats_rollup WHERE scope = $scope AND period_key = $key").use { cursor ->
+            return if (cursor.moveToNext()) cursor.getInt(0) else null
+        }
+    }
+
+    private fun streakLength(db: SupportSQLiteDatabase, date: String): Int? {
+        db.query("SELECT length FROM streak_index WHERE epoch_day = ${epochDay(date)}").use { cursor ->
+            return if (cursor.moveToNext()) cursor.getInt(0) else null
+        }
+    }
+
+    /**
+     * (total_count, day_count, completed_days) of one rollup row
+     */
+    private fun rollup(db: SupportSQLiteDatabase, scope: Int, key: Long): Triple<Long, Int, Int>? {
+        db.query(
+            "SELECT total_count, day_count, completed_days FROM stats_rollup WHERE scope = $scope AND period_key = $key"
+        ).use { cursor ->
+            if (!cursor.moveToNext()) return null
+            return Triple(cursor.getLong(0), cursor.getInt(1), cursor.getInt(2))
+        }
+    }
+}
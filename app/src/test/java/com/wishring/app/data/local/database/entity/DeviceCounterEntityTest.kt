@@ -0,0 +1,92 @@
+package com.wishring.app.data.local.database.entity
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.core.util.Constants
+import com.wishring.app.data.model.CounterAck
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+
+/**
+ * Test suite for device counter reconciliation
+ */
+@DisplayName("DeviceCounterEntity 테스트")
+class DeviceCounterEntityTest {
+
+    private fun stored(lastAck: Int, epoch: Int = 2) =
+        DeviceCounterEntity(deviceAddress = "AA:BB:CC:DD:EE:FF", epoch = epoch, lastAck = lastAck, updatedAt = 0L)
+
+    @Nested
+    @DisplayName("보정")
+    inner class ReconcileTests {
+
+        @Test
+        @DisplayName("끊겨 있던 동안 늘어난 만큼만 따라잡기")
+        fun `should catch up the difference`() {
+            val result = stored(lastAck = 120).reconcile(135)
+
+            assertThat(result).isEqualTo(
+                CounterReconciliation(catchUp = 15, epoch = 2, deviceCounter = 135, isNewEpoch = false, previousCounter = 120)
+            )
+        }
+
+        @Test
+        @DisplayName("확인값을 갱신한 뒤 같은 값으로 다시 보정하면 반영할 것이 없음")
+        fun `reconciling twice should apply once`() = runTest {
+            checkAll(Arb.int(0..100_000), Arb.int(0..100_000)) { ack, counter ->
+                val first = stored(lastAck = ack).reconcile(counter)
+                val second = stored(lastAck = first.deviceCounter, epoch = first.epoch).reconcile(counter)
+
+                assertThat(second.catchUp).isEqualTo(0)
+                assertThat(second.isNewEpoch).isFalse()
+            }
+        }
+
+        @Test
+        @DisplayName("카운터가 확인값보다 작으면 오프라인 리셋 - 새 구간에서 카운터 전체를 반영")
+        fun `lower counter should start a new epoch`() {
+            val result = stored(lastAck = 500).reconcile(40)
+
+            assertThat(result).isEqualTo(
+                CounterReconciliation(catchUp = 40, epoch = 3, deviceCounter = 40, isNewEpoch = true, previousCounter = 500)
+            )
+        }
+
+        @Test
+        @DisplayName("비정상적으로 큰 차이는 MAX_DAILY_COUNT로 제한")
+        fun `catch up should be capped`() {
+            val result = stored(lastAck = 0).reconcile(Int.MAX_VALUE)
+
+            assertThat(result.catchUp).isEqualTo(Constants.MAX_DAILY_COUNT)
+            assertThat(result.deviceCounter).isEqualTo(Int.MAX_VALUE)
+        }
+
+        @Test
+        @DisplayName("처음 보는 기기는 기준값으로만 사용")
+        fun `first contact should not catch up`() {
+            val result = DeviceCounterEntity.firstContact(900)
+
+            assertThat(result.catchUp).isEqualTo(0)
+            assertThat(result.deviceCounter).isEqualTo(900)
+        }
+    }
+
+    @Nested
+    @DisplayName("확인값 순서")
+    inner class AckOrderTests {
+
+        @Test
+        @DisplayName("새 구간은 이전 구간의 더 큰 값보다 뒤")
+        fun `later epoch should win over larger value`() {
+            val before = CounterAck("A", epoch = 1, value = 900)
+            val after = CounterAck("A", epoch = 2, value = 3)
+
+            assertThat(after.isAtOrAfter(before)).isTrue()
+            assertThat(before.isAtOrAfter(after)).isFalse()
+        }
+    }
+}
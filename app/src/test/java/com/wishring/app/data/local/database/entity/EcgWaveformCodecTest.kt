@@ -0,0 +1,64 @@
+package com.wishring.app.data.local.database.entity
+
+import com.google.common.truth.Truth.assertThat
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.*
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.math.sin
+
+/**
+ * Test suite for EcgWaveformCodec (delta + varint ECG chunks)
+ */
+@DisplayName("EcgWaveformCodec 테스트")
+class EcgWaveformCodecTest {
+
+    @Test
+    @DisplayName("링 버퍼 끝을 넘어가는 구간도 순서대로 인코딩")
+    fun `encode should wrap around ring`() {
+        val ring = ShortArray(8) { (100 + it).toShort() }
+
+        val data = EcgWaveformCodec.encode(ring, start = 14, count = 4)
+        val out = ShortArray(4)
+        EcgWaveformCodec.decodeInto(data, out)
+
+        assertThat(out.toList()).containsExactly(106.toShort(), 107.toShort(), 100.toShort(), 101.toShort()).inOrder()
+    }
+
+    @Test
+    @DisplayName("완만한 파형은 원본 16비트보다 작음")
+    fun `smooth waveform should be smaller than raw`() {
+        val samples = ShortArray(2500) { (2048 + 40 * sin(it / 20.0)).toInt().toShort() }
+
+        val data = EcgWaveformCodec.encode(samples, 0, samples.size)
+
+        assertThat(EcgWaveformCodec.count(data)).isEqualTo(2500)
+        assertThat(data.size).isLessThan(samples.size * 2 * 6 / 10)
+    }
+
+    @Test
+    @DisplayName("출력 배열이 작으면 거부")
+    fun `small output should throw`() {
+        val data = EcgWaveformCodec.encode(ShortArray(4), 0, 4)
+
+        assertThrows<IllegalArgumentException> { EcgWaveformCodec.decodeInto(data, ShortArray(4), offset = 1) }
+    }
+
+    @Test
+    @DisplayName("임의의 16비트 샘플은 그대로 복원")
+    fun `random samples should round trip`() = runTest {
+        checkAll(Arb.list(Arb.int(0..0xFFFF), 1..500)) { values ->
+            val samples = ShortArray(values.size) { values[it].toShort() }
+
+            val data = EcgWaveformCodec.encode(samples, 0, samples.size)
+            val out = ShortArray(samples.size + 2)
+            val count = EcgWaveformCodec.decodeInto(data, out, offset = 2)
+
+            assertThat(count).isEqualTo(samples.size)
+            assertThat(out.drop(2).map { it.toInt() and 0xFFFF }).isEqualTo(values)
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.wishring.app.data.local.database.entity
+
+import com.google.common.truth.Truth.assertThat
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.*
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * Test suite for HealthChunkCodec (delta + varint day chunks)
+ */
+@DisplayName("HealthChunkCodec 테스트")
+class HealthChunkCodecTest {
+
+    private val dayStart = 1_715_299_200_000L // 2024-05-10T00:00Z
+
+    /**
+     * 하루치 분당 심박 (60~100 사이 완만한 변화)
+     */
+    private fun minuteHeartRates(): Pair<LongArray, IntArray> {
+        val times = LongArray(MINUTES_PER_DAY) { dayStart + it * 60_000L }
+        val values = IntArray(MINUTES_PER_DAY) { 70 + (it / 7) % 30 - (it / 11) % 9 }
+        return times to values
+    }
+
+    @Nested
+    @DisplayName("인코딩")
+    inner class EncodeTests {
+
+        @Test
+        @DisplayName("요약은 첫 번째 채널 기준")
+        fun `summary should cover first channel`() {
+            val times = longArrayOf(dayStart + 1_000, dayStart + 61_000, dayStart + 121_000)
+            val values = intArrayOf(72, 500, 65, 800, 90, 100)
+
+            val chunk = HealthChunkCodec.encode(dayStart, times, values, count = 3, channels = 2)
+
+            assertThat(chunk.count).isEqualTo(3)
+            assertThat(chunk.firstTime).isEqualTo(dayStart + 1_000)
+            assertThat(chunk.lastTime).isEqualTo(dayStart + 121_000)
+            assertThat(chunk.minValue).isEqualTo(65)
+            assertThat(chunk.maxValue).isEqualTo(90)
+            assertThat(chunk.sumValue).isEqualTo(227L)
+            assertThat(HealthChunkCodec.count(chunk.data)).isEqualTo(3)
+            assertThat(HealthChunkCodec.channels(chunk.data)).isEqualTo(2)
+        }
+
+        @Test
+        @DisplayName("분당 심박 한 달은 수백 KB 이내")
+        fun `month of minute heart rate should stay small`() {
+            val (times, values) = minuteHeartRates()
+
+            val chunk = HealthChunkCodec.encode(dayStart, times, values, MINUTES_PER_DAY, channels = 1)
+
+            // 시간 간격 1바이트 + 값 변화 1바이트
+            assertThat(chunk.data.size).isAtMost(MINUTES_PER_DAY * 2 + 8)
+            assertThat(chunk.data.size * 31).isLessThan(200 * 1024)
+        }
+
+        @Test
+        @DisplayName("정렬되지 않았거나 하루 시작 전 시각은 거부")
+        fun `unsorted times should throw`() {
+            assertThrows<IllegalArgumentException> {
+                HealthChunkCodec.encode(dayStart, longArrayOf(dayStart + 5_000, dayStart), intArrayOf(1, 2), 2, 1)
+            }
+            assertThrows<IllegalArgumentException> {
+                HealthChunkCodec.encode(dayStart, longArrayOf(dayStart - 1_000), intArrayOf(1), 1, 1)
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("디코딩")
+    inner class DecodeTests {
+
+        @Test
+        @DisplayName("decodeInto는 오프셋 위치부터 채움")
+        fun `decodeInto should fill at offset`() {
+            val chunk = HealthChunkCodec.encode(dayStart, longArrayOf(dayStart, dayStart + 2_000), intArrayOf(60, 61), 2, 1)
+            val times = LongArray(3) { -1 }
+            val values = IntArray(3) { -1 }
+
+            val count = HealthChunkCodec.decodeInto(chunk.data, dayStart, times, values, offset = 1)
+
+            assertThat(count).isEqualTo(2)
+            assertThat(times.toList()).containsExactly(-1L, dayStart, dayStart + 2_000).inOrder()
+            assertThat(values.toList()).containsExactly(-1, 60, 61).inOrder()
+        }
+
+        @Test
+        @DisplayName("잘린 데이터는 거부")
+        fun `truncated data should throw`() {
+            val (times, values) = minuteHeartRates()
+            val data = HealthChunkCodec.encode(dayStart, times, values, MINUTES_PER_DAY, 1).data
+
+            assertThrows<IllegalArgumentException> {
+                HealthChunkCodec.decodeInto(
+                    data.copyOf(data.size / 2), dayStart, LongArray(MINUTES_PER_DAY), IntArray(MINUTES_PER_DAY)
+                )
+            }
+        }
+
+        @Test
+        @DisplayName("임의 샘플은 초 단위로 그대로 복원")
+        fun `random samples should round trip`() = runTest {
+            val sample = Arb.pair(Arb.int(0 until 86_400), Arb.int(Int.MIN_VALUE..Int.MAX_VALUE))
+            checkAll(Arb.list(sample, 0..300)) { samples ->
+                val sorted = samples.distinctBy { it.first }.sortedBy { it.first }
+                val times = LongArray(sorted.size) { dayStart + sorted[it].first * 1000L }
+                val values = IntArray(sorted.size) { sorted[it].second }
+
+                val data = HealthChunkCodec.encode(dayStart, times, values, sorted.size, 1).data
+                val outTimes = LongArray(sorted.size)
+                val outValues = IntArray(sorted.size)
+                HealthChunkCodec.decodeInto(data, dayStart, outTimes, outValues)
+
+                assertThat(outTimes.toList()).isEqualTo(times.toList())
+                assertThat(outValues.toList()).isEqualTo(values.toList())
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("병합")
+    inner class MergeTests {
+
+        @Test
+        @DisplayName("기존 청크와 시간순으로 합치고 같은 초는 새 값 사용")
+        fun `merge should interleave and replace same second`() {
+            val old = HealthChunkCodec.encode(
+                dayStart, longArrayOf(dayStart, dayStart + 60_000, dayStart + 120_000), intArrayOf(60, 61, 62), 3, 1
+            ).data
+
+            val merged = HealthChunkCodec.merge(
+                old, dayStart, longArrayOf(dayStart + 30_000, dayStart + 60_500), intArrayOf(70, 71), 2, 1
+            )
+
+            val times = LongArray(merged.count)
+            val values = IntArray(merged.count)
+            HealthChunkCodec.decodeInto(merged.data, dayStart, times, values)
+            assertThat(times.toList()).containsExactly(
+                dayStart, dayStart + 30_000, dayStart + 60_000, dayStart + 120_000
+            ).inOrder()
+            assertThat(values.toList()).containsExactly(60, 70, 71, 62).inOrder()
+        }
+
+        @Test
+        @DisplayName("채널 수가 다르면 거부")
+        fun `channel mismatch should throw`() {
+            val old = HealthChunkCodec.encode(dayStart, longArrayOf(dayStart), intArrayOf(1), 1, 1).data
+
+            assertThrows<IllegalArgumentException> {
+                HealthChunkCodec.merge(old, dayStart, longArrayOf(dayStart), intArrayOf(1, 2), 1, 2)
+            }
+        }
+
+        @Test
+        @DisplayName("임의로 나눠 병합해도 한 번에 인코딩한 결과와 같음")
+        fun `split merges should equal single encode`() = runTest {
+            checkAll(Arb.set(Arb.int(0 until 86_400), 1..200), Arb.int(0..200)) { seconds, split ->
+                val sorted = seconds.sorted()
+                val times = LongArray(sorted.size) { dayStart + sorted[it] * 1000L }
+                val values = IntArray(sorted.size * 2) { it * 3 - 100 }
+                val cut = split.coerceAtMost(sorted.size)
+                val odd = (0 until sorted.size).filter { it % 2 == 1 || it >= cut }
+                val even = (0 until sorted.size).filter { it !in odd }
+
+                var data: ByteArray? = null
+                for (part in listOf(odd, even)) {
+                    data = HealthChunkCodec.merge(
+                        data, dayStart,
+                        LongArray(part.size) { times[part[it]] },
+                        IntArray(part.size * 2) { values[part[it / 2] * 2 + it % 2] },
+                        part.size, 2
+                    ).data
+                }
+
+                val expected = HealthChunkCodec.encode(dayStart, times, values, sorted.size, 2).data
+                assertThat(data!!.toList()).isEqualTo(expected.toList())
+            }
+        }
+    }
+
+    companion object {
+        private const val MINUTES_PER_DAY = 1440
+    }
+}
@@ -0,0 +1,106 @@
+package com.wishring.app.data.local.database.entity
+
+import com.google.common.truth.Truth.assertThat
+import com.wishring.app.core.util.Constants
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.*
+import io.kotest.property.checkAll
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * Test suite for HourlyPressCounts blob codec
+ */
+@DisplayName("HourlyPressCounts 테스트")
+class HourlyPressCountsTest {
+
+    @Nested
+    @DisplayName("증가")
+    inner class IncrementTests {
+
+        @Test
+        @DisplayName("null blob은 96바이트 0 배열에서 시작")
+        fun `null blob should start from zero`() {
+            val blob = HourlyPressCounts.increment(null, hour = 7, delta = 3)
+
+            assertThat(blob.size).isEqualTo(HourlyPressCounts.BLOB_SIZE)
+            assertThat(HourlyPressCounts.get(blob, 7)).isEqualTo(3)
+            assertThat(HourlyPressCounts.get(blob, 6)).isEqualTo(0)
+        }
+
+        @Test
+        @DisplayName("올바른 크기의 blob은 제자리에서 갱신")
+        fun `valid blob should be updated in place`() {
+            val blob = HourlyPressCounts.increment(null, hour = 0, delta = 1)
+            val updated = HourlyPressCounts.increment(blob, hour = 0, delta = 1)
+
+            assertThat(updated).isSameInstanceAs(blob)
+            assertThat(HourlyPressCounts.get(updated, 0)).isEqualTo(2)
+        }
+
+        @Test
+        @DisplayName("한 칸은 MAX_DAILY_COUNT를 넘지 않음")
+        fun `slot should be capped at max daily count`() {
+            val blob = HourlyPressCounts.increment(null, hour = 23, delta = Constants.MAX_DAILY_COUNT)
+            HourlyPressCounts.increment(blob, hour = 23, delta = 10)
+
+            assertThat(HourlyPressCounts.get(blob, 23)).isEqualTo(Constants.MAX_DAILY_COUNT)
+        }
+
+        @Test
+        @DisplayName("범위를 벗어난 시간은 거부")
+        fun `out of range hour should throw`() {
+            assertThrows<IllegalArgumentException> { HourlyPressCounts.increment(null, hour = 24, delta = 1) }
+        }
+    }
+
+    @Nested
+    @DisplayName("디코딩")
+    inner class DecodeTests {
+
+        @Test
+        @DisplayName("decodeInto는 오프셋 위치에 24칸을 채우고 합계를 반환")
+        fun `decodeInto should fill slots at offset and return sum`() {
+            var blob = HourlyPressCounts.increment(null, hour = 9, delta = 5)
+            blob = HourlyPressCounts.increment(blob, hour = 21, delta = 2)
+            val out = IntArray(HourlyPressCounts.SLOTS * 2) { -1 }
+
+            val sum = HourlyPressCounts.decodeInto(blob, out, offset = HourlyPressCounts.SLOTS)
+
+            assertThat(sum).isEqualTo(7)
+            assertThat(out[HourlyPressCounts.SLOTS + 9]).isEqualTo(5)
+            assertThat(out[HourlyPressCounts.SLOTS + 21]).isEqualTo(2)
+            assertThat(out[0]).isEqualTo(-1) // 오프셋 앞은 건드리지 않음
+        }
+
+        @Test
+        @DisplayName("null 또는 잘못된 크기의 blob은 0으로 채움")
+        fun `missing or malformed blob should decode as zeros`() {
+            val out = IntArray(HourlyPressCounts.SLOTS) { 9 }
+
+            assertThat(HourlyPressCounts.decodeInto(ByteArray(10), out)).isEqualTo(0)
+            assertThat(out.all { it == 0 }).isTrue()
+            assertThat(HourlyPressCounts.peakHour(null)).isEqualTo(-1)
+        }
+
+        @Test
+        @DisplayName("임의 증가열의 디코딩 결과는 시간별 합계와 같음")
+        fun `decoded counts should equal per-hour sums`() = runTest {
+            checkAll(Arb.list(Arb.pair(Arb.int(0..23), Arb.int(1..500)), 0..100)) { presses ->
+                var blob: ByteArray? = null
+                presses.forEach { (hour, delta) -> blob = HourlyPressCounts.increment(blob, hour, delta) }
+
+                val out = IntArray(HourlyPressCounts.SLOTS)
+                val sum = HourlyPressCounts.decodeInto(blob, out)
+
+                val expected = IntArray(HourlyPressCounts.SLOTS)
+                presses.forEach { (hour, delta) -> expected[hour] += delta }
+                assertThat(out.toList()).isEqualTo(expected.toList())
+                assertThat(sum).isEqualTo(expected.sum())
+            }
+        }
+    }
+}
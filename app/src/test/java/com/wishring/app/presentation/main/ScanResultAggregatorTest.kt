@@ -0,0 +1,80 @@
+package com.wishring.app.presentation.main
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+
+/**
+ * Test suite for scan result aggregation
+ */
+@DisplayName("ScanResultAggregator 테스트")
+class ScanResultAggregatorTest {
+
+    private val aggregator = ScanResultAggregator(alpha = 0.5, ttlMs = 1_000L)
+
+    @Nested
+    @DisplayName("스냅샷")
+    inner class SnapshotTests {
+
+        @Test
+        @DisplayName("같은 주소는 한 항목으로 합치고 RSSI 강한 순으로 정렬")
+        fun `should merge by address and sort by rssi`() {
+            aggregator.offer("A", "00:00:00:00:00:01", -80, now = 0L)
+            aggregator.offer("B", "00:00:00:00:00:02", -60, now = 0L)
+            aggregator.offer("A", "00:00:00:00:00:01", -80, now = 10L)
+
+            val devices = aggregator.snapshot(now = 20L)
+
+            assertThat(devices).containsExactly(
+                DeviceInfo("B", "00:00:00:00:00:02", -60),
+                DeviceInfo("A", "00:00:00:00:00:01", -80)
+            ).inOrder()
+        }
+
+        @Test
+        @DisplayName("변경이 없으면 null")
+        fun `unchanged snapshot should be null`() {
+            aggregator.offer("A", "00:00:00:00:00:01", -70, now = 0L)
+
+            assertThat(aggregator.snapshot(now = 10L)).isNotNull()
+            assertThat(aggregator.snapshot(now = 20L)).isNull()
+        }
+
+        @Test
+        @DisplayName("RSSI는 지수이동평균으로 평활화")
+        fun `rssi should be smoothed`() {
+            aggregator.offer("A", "00:00:00:00:00:01", -80, now = 0L)
+            aggregator.offer("A", "00:00:00:00:00:01", -40, now = 10L)
+
+            assertThat(aggregator.snapshot(now = 20L)!!.single().rssi).isEqualTo(-60)
+        }
+
+        @Test
+        @DisplayName("이름을 모르는 광고는 기존 이름을 덮어쓰지 않음")
+        fun `unknown name should not replace known name`() {
+            aggregator.offer("WISH RING", "00:00:00:00:00:01", -70, now = 0L)
+            aggregator.offer("Unknown", "00:00:00:00:00:01", -70, now = 10L)
+
+            assertThat(aggregator.snapshot(now = 20L)!!.single().name).isEqualTo("WISH RING")
+        }
+    }
+
+    @Nested
+    @DisplayName("만료")
+    inner class EvictionTests {
+
+        @Test
+        @DisplayName("TTL 동안 광고가 없으면 제거하고 변경으로 처리")
+        fun `stale device should be evicted`() {
+            aggregator.offer("A", "00:00:00:00:00:01", -70, now = 0L)
+            aggregator.offer("B", "00:00:00:00:00:02", -70, now = 900L)
+            aggregator.snapshot(now = 900L)
+
+            val devices = aggregator.snapshot(now = 1_500L)
+
+            assertThat(devices!!.map { it.address }).containsExactly("00:00:00:00:00:02")
+            assertThat(aggregator.size).isEqualTo(1)
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.wishring.app.property
+
+import com.wishring.app.data.local.database.entity.StreakEntity
+import com.wishring.app.data.local.database.entity.StreakSnapshot
+import com.wishring.app.data.model.StreakSummary
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.*
+import io.kotest.property.checkAll
+import org.junit.jupiter.api.DisplayName
+import java.time.LocalDate
+import java.util.TreeMap
+
+/**
+ * Streak index Property-based Testing
+ *
+ * streak_index 트리거의 증분 규칙과 StreakSummary 해석을 전체 재계산 결과와 비교합니다.
+ *
+ * 테스트 속성:
+ * 1. Rebuild - fromCompletedDays는 각 완료일에서 끊김 없이 거슬러 올라간 일수와 같다
+ * 2. Incremental - 임의 순서(백필 포함)의 완료/취소/삭제 후에도 전체 재계산과 같다
+ * 3. Rollover - 오늘 미완료면 어제까지의 연속 기록이 유지되고, 이틀 비면 0이 된다
+ */
+@DisplayName("Streak Property-based 테스트")
+class StreakPropertyTest : FunSpec({
+
+    val dayArb = Arb.long(0L..60L)
+
+    test("재구성한 길이는 완료 구간 시작까지의 거리") {
+        checkAll(Arb.set(dayArb, 0..40)) { days ->
+            val rows = StreakEntity.fromCompletedDays(days.sorted())
+
+            rows.forEach { row ->
+                row.length shouldBe bruteForceLength(days, row.epochDay)
+            }
+            rows.map { it.epochDay } shouldBe days.sorted()
+        }
+    }
+
+    test("임의 순서의 증분 갱신은 전체 재계산과 같다") {
+        checkAll(Arb.list(Arb.pair(dayArb, Arb.boolean()), 1..200)) { operations ->
+            val index = IncrementalStreakIndex()
+            val completed = mutableSetOf<Long>()
+
+            operations.forEach { (day, complete) ->
+                if (complete) {
+                    index.link(day)
+                    completed.add(day)
+                } else {
+                    index.unlink(day)
+                    completed.remove(day)
+                }
+                index.lengths() shouldBe expectedLengths(completed)
+            }
+        }
+    }
+
+    test("현재 스트릭은 오늘 또는 어제에서 끝나는 완료 구간") {
+        checkAll(Arb.set(dayArb, 0..40), dayArb) { days, today ->
+            val lengths = expectedLengths(days)
+            val summary = StreakSummary.from(
+                today,
+                StreakSnapshot(
+                    todayLength = lengths[today],
+                    yesterdayLength = lengths[today - 1],
+                    longest = lengths.values.maxOrNull()
+                )
+            )
+
+            val endDay = when {
+                today in days -> today
+                today - 1 in days -> today - 1
+                else -> null
+            }
+            val expected = endDay?.let { bruteForceLength(days, it) } ?: 0
+
+            summary.currentStreak shouldBe expected
+            summary.currentStart shouldBe endDay?.let { LocalDate.ofEpochDay(it - expected + 1) }
+            summary.longestStreak shouldBe (lengths.values.maxOrNull() ?: 0)
+        }
+    }
+
+    test("자정이 지나 하루를 건너뛰면 현재 스트릭은 0") {
+        checkAll(Arb.set(dayArb, 1..40)) { days ->
+            val lengths = expectedLengths(days)
+            val dayAfterGap = days.max() + 2
+
+            val summary = StreakSummary.from(
+                dayAfterGap,
+                StreakSnapshot(
+                    todayLength = lengths[dayAfterGap],
+                    yesterdayLength = lengths[dayAfterGap - 1],
+                    longest = lengths.values.maxOrNull()
+                )
+            )
+
+            summary.currentStreak shouldBe 0
+            summary.currentStart shouldBe null
+            summary.longestStreak shouldBe lengths.values.max()
+        }
+    }
+})
+
+/**
+ * In-memory mirror of StreakTriggers (link/unlink with the following-run shift)
+ */
+private class IncrementalStreakIndex {
+    private val rows = TreeMap<Long, Int>()
+
+    fun link(day: Long) {
+        if (day in rows) return
+        rows[day] = (rows[day - 1] ?: 0) + 1
+        shiftFollowingRun(day, rows.getValue(day))
+    }
+
+    fun unlink(day: Long) {
+        val length = rows[day] ?: return
+        shiftFollowingRun(day, -length)
+        rows.remove(day)
+    }
+
+    private fun shiftFollowingRun(day: Long, delta: Int) {
+        rows.tailMap(day, false).entries.forEach { entry ->
+            if (entry.value >= entry.key - day) {
+                entry.setValue(entry.value + delta)
+            }
+        }
+    }
+
+    fun lengths(): Map<Long, Int> = rows.toMap()
+}
+
+private fun bruteForceLength(days: Set<Long>, day: Long): Int {
+    var length = 0
+    while (day - length in days) length++
+    return length
+}
+
+private fun expectedLengths(days: Set<Long>): Map<Long, Int> =
+    StreakEntity.fromCompletedDays(days.sorted()).associate { it.epochDay to it.length }